@@ -0,0 +1,12 @@
+#!/bin/sh
+# image สร้างด้วย mvn -Pstartup: มี Spring AOT + CDS archive (app.jsa) จาก training run ตอน docker build
+#
+# AOT ตัดสิน @Conditional ตอน build (profile prod, ไม่มี replica, scheduling/sql stats เปิด)
+# → เปิด AOT เฉพาะตอนรันตรงกับที่ build; ถ้าไม่ตรง (เพิ่ม vthreads, ตั้ง replica) รันแบบปกติ ยังได้ CDS
+# ปิด AOT เอง: SPRING_AOT=false
+AOT=""
+if [ "${SPRING_AOT:-true}" = "true" ] && [ "$SPRING_PROFILES_ACTIVE" = "prod" ] && [ -z "$SPRING_DATASOURCE_REPLICA_URL" ]; then
+  AOT="-Dspring.aot.enabled=true"
+fi
+
+exec java $JAVA_OPTS $AOT -XX:SharedArchiveFile=/app/application/app.jsa -jar /app/application/app.jar "$@"
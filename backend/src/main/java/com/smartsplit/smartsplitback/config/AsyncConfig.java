@@ -0,0 +1,15 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * เปิด @Async โดยใช้ applicationTaskExecutor ที่ Spring Boot สร้างให้
+ * - ปกติ: ThreadPoolTaskExecutor (spring.task.execution.pool.*)
+ * - profile vthreads (Java 21): SimpleAsyncTaskExecutor บน virtual threads
+ *   จำกัดจำนวนพร้อมกันด้วย spring.task.execution.simple.concurrency-limit
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,69 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ตั้งค่า id_generators ให้เกิน MAX(id) ของตารางจริง เมื่อไม่ได้ใช้ Flyway (dev: ddl-auto=update)
+ * Hibernate สร้าง id_generators เองโดยเริ่มจากค่าเริ่มต้น → insert แรกบน DB dev เดิมชน primary key
+ * ทำแบบเดียวกับ V3 / V14 (MAX + allocation + 1) และไม่ลดค่าที่สูงกว่าอยู่แล้ว
+ * รันหลัง EntityManagerFactory (@DependsOn: schema update เสร็จ) และก่อน web server รับ request
+ */
+@Component
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "false")
+@DependsOn("entityManagerFactory")
+public class IdGeneratorSeeder implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // allocationSize ของ @TableGenerator ทุกตัว
+    static final int ALLOCATION = 50;
+
+    record Target(String genName, String table, String idColumn) {}
+
+    // ตรงกับ pkColumnValue ของ Expense / ExpenseItem / ExpenseItemShare / ExpenseJournalEntry
+    static final List<Target> TARGETS = List.of(
+            new Target("expenses", "expenses", "expense_id"),
+            new Target("expense_items", "expense_items", "expense_item_id"),
+            new Target("expense_item_shares", "expense_item_shares", "share_id"),
+            new Target("expense_journal", "expense_journal", "journal_id")
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public IdGeneratorSeeder(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    void seed() {
+        for (Target t : TARGETS) {
+            Long max = jdbc.queryForObject(
+                    "SELECT COALESCE(MAX(" + t.idColumn() + "), 0) FROM " + t.table(), Long.class);
+            long floor = max + ALLOCATION + 1;
+            int updated = jdbc.update(
+                    "UPDATE id_generators SET next_val = ? WHERE gen_name = ? AND next_val < ?",
+                    floor, t.genName(), floor);
+            if (updated == 0) {
+                Integer exists = jdbc.queryForObject(
+                        "SELECT COUNT(*) FROM id_generators WHERE gen_name = ?", Integer.class, t.genName());
+                if (exists == null || exists == 0) {
+                    jdbc.update("INSERT INTO id_generators (gen_name, next_val) VALUES (?, ?)", t.genName(), floor);
+                    updated = 1;
+                }
+            }
+            if (updated > 0) log.info("id_generators[{}] -> {} (MAX({}.{}) = {})", t.genName(), floor, t.table(), t.idColumn(), max);
+        }
+    }
+}
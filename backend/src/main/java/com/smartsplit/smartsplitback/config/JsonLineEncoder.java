@@ -0,0 +1,85 @@
+package com.smartsplit.smartsplitback.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * log 1 event = JSON 1 บรรทัด ใช้ชื่อ field แบบ logstash (เหมือน StructuredLogEncoder format=logstash ของ Spring Boot)
+ * {"@timestamp","level","logger_name","thread_name","message", MDC ทุกตัว (traceId/spanId), "stack_trace"}
+ *
+ * เขียนเองแทน StructuredLogEncoder: ตัวของ Boot จอง ~14KB และ ~12µs ต่อ event ตัวนี้เหลือ StringBuilder เดียวต่อ event
+ * (ดู LoggingBenchmark) — thread-safe: ไม่มี state ร่วม (OutputStreamAppender เรียก encode นอก lock)
+ */
+public class JsonLineEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    @Override
+    public byte[] headerBytes() {
+        return EMPTY;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"@timestamp\":\"").append(event.getInstant()).append('"');
+        field(sb, "level", event.getLevel().toString());
+        field(sb, "logger_name", event.getLoggerName());
+        field(sb, "thread_name", event.getThreadName());
+        field(sb, "message", event.getFormattedMessage());
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> e : mdc.entrySet()) {
+                field(sb, e.getKey(), e.getValue());
+            }
+        }
+
+        IThrowableProxy tp = event.getThrowableProxy();
+        if (tp != null) field(sb, "stack_trace", ThrowableProxyUtil.asString(tp));
+
+        sb.append("}\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return EMPTY;
+    }
+
+    private static void field(StringBuilder sb, String name, String value) {
+        if (value == null) return;
+        sb.append(',');
+        string(sb, name);
+        sb.append(':');
+        string(sb, value);
+    }
+
+    static void string(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00");
+                        sb.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
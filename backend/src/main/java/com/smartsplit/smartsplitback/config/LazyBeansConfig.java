@@ -0,0 +1,44 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * bean ของ library ที่ใช้น้อยให้สร้างตอนถูกใช้ครั้งแรก แทนตอน startup (springdoc: ใช้ตอนเปิด /v3/api-docs, swagger-ui)
+ * bean ที่ถูก inject จาก bean อื่นที่สร้างตอน startup (เช่น WebMvcConfigurer) ยังถูกสร้างตามปกติ
+ * ของในโปรเจกต์ใช้ @Lazy ที่ตัว class แทน (เช่น ExpenseExportService)
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyBeansConfig {
+
+    private static final List<String> LAZY_PACKAGES = List.of("org.springdoc.");
+
+    @Bean
+    static BeanFactoryPostProcessor lazyRarelyUsedBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition bd = beanFactory.getBeanDefinition(name);
+                if (inLazyPackage(bd)) bd.setLazyInit(true);
+            }
+        };
+    }
+
+    private static boolean inLazyPackage(BeanDefinition bd) {
+        String type = bd.getBeanClassName();
+        if (type == null && bd instanceof AnnotatedBeanDefinition abd) {
+            MethodMetadata factory = abd.getFactoryMethodMetadata();
+            if (factory != null) type = factory.getDeclaringClassName();
+        }
+        if (type == null) return false;
+        for (String p : LAZY_PACKAGES) {
+            if (type.startsWith(p)) return true;
+        }
+        return false;
+    }
+}
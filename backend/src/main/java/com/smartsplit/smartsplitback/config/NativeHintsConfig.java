@@ -0,0 +1,67 @@
+package com.smartsplit.smartsplitback.config;
+
+import com.smartsplit.smartsplitback.model.dto.ExpenseArchiveDocument;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.MembershipChanged;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
+import com.smartsplit.smartsplitback.service.ExpenseJournalService;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * hint สำหรับ native image (mvn -Pnative, ดู docs/NATIVE_IMAGE.md): ของที่ AOT มองไม่เห็นจาก bean definition
+ * - reflection: IterationStatusVar ของ Thymeleaf (โค้ดเราเองไม่มี reflection แล้ว: currencyOrDefault / UserIdPrincipal / Role.code เรียกตรง)
+ * - JSON ที่ไม่ได้ผ่าน controller: domain event ใน outbox, state/delta ของ journal, archive document
+ * - JDK proxy ของ SqlCountingDataSource
+ * - resource: font / template PDF, config ของ L2 cache, resource ภายในของ openhtmltopdf / PDFBox
+ * ไม่มีผลกับการรันบน JVM
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({
+        ExpenseChanged.class, PaymentStatusChanged.class, MembershipChanged.class,
+        ExpenseJournalService.State.class, ExpenseJournalService.Delta.class,
+        ExpenseArchiveDocument.class
+})
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection()
+                    // ${idx.index} ใน th:each ของ template PDF (OGNL อ่านผ่าน getter)
+                    .registerType(TypeReference.of("org.thymeleaf.engine.IterationStatusVar"),
+                            MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.proxies()
+                    .registerJdkProxy(Connection.class)
+                    .registerJdkProxy(Statement.class)
+                    .registerJdkProxy(PreparedStatement.class)
+                    .registerJdkProxy(CallableStatement.class)
+                    .registerJdkProxy(ResultSet.class);
+
+            hints.resources()
+                    .registerPattern("fonts/*.ttf")
+                    .registerPattern("templates/pdf/*.html")
+                    .registerPattern("hibernate-cache.conf")
+                    .registerPattern("db/migration/*.sql")
+                    .registerPattern("resources/conf/*")
+                    .registerPattern("resources/css/*")
+                    .registerPattern("resources/schema/**")
+                    .registerPattern("org/apache/pdfbox/resources/**")
+                    .registerPattern("org/apache/fontbox/cmap/*");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartsplit.smartsplitback.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * แยก read-only transaction ไป MySQL replica (เปิดเมื่อกำหนด app.datasource.replica.url)
+ *
+ * - pool แยกกัน: primary ใช้ spring.datasource.* / spring.datasource.hikari.*,
+ *   replica ใช้ app.datasource.replica.* / app.datasource.replica.hikari.*
+ * - LazyConnectionDataSourceProxy ยืม connection จริงตอน statement แรก ซึ่งตอนนั้น
+ *   transaction ถูกตั้ง read-only แล้ว → @Transactional(readOnly = true) ไป replica, ที่เหลือไป primary
+ * - ReadYourWrites ดึงกลับไป primary ระหว่าง/หลัง request ที่เขียน และทุกอย่างที่ไม่ได้มาจาก HTTP request
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadReplicaConfig(@Value("${app.datasource.read-your-writes-ms:5000}") long windowMs) {
+        this.readYourWrites = new ReadYourWrites(Duration.ofMillis(windowMs));
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites() {
+        return readYourWrites;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWrites).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties props) {
+        HikariDataSource ds = props.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties props,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(props.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        ds.setPoolName("replica");
+        // กันเขียนผิดที่: connection ของ replica เป็น read-only เสมอ
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRouting(primary, replica, readYourWrites));
+        return proxy;
+    }
+
+    // ปลายทางของ read-only connection: replica เฉพาะ request ที่ ReadYourWrites อนุญาต
+    static final class ReplicaRouting extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final DataSource replica;
+        private final ReadYourWrites readYourWrites;
+
+        ReplicaRouting(DataSource primary, DataSource replica, ReadYourWrites readYourWrites) {
+            this.primary = primary;
+            this.replica = replica;
+            this.readYourWrites = readYourWrites;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return target().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return target().getConnection(username, password);
+        }
+
+        private DataSource target() {
+            return readYourWrites.replicaAllowed() ? replica : primary;
+        }
+    }
+}
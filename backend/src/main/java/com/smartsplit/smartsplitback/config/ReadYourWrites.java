@@ -0,0 +1,121 @@
+package com.smartsplit.smartsplitback.config;
+
+import io.micrometer.context.ThreadLocalAccessor;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * ตัดสินว่า read-only transaction ตอนนี้ไปอ่าน replica ได้ไหม
+ * - ระหว่าง request ที่เขียน (POST/PUT/PATCH/DELETE) → primary ทั้ง request (อ่านสิ่งที่เพิ่งเขียนในคำขอเดียวกัน)
+ * - request ที่เขียนได้ cookie {@value #COOKIE} = เวลาที่ window หมด (epoch ms) ติดกลับไปกับ client
+ *   request ถัดไปที่ยังไม่ถึงเวลานั้นอ่านจาก primary ไม่ว่าจะไปตก pod ไหน (เผื่อ replication lag)
+ * - นอก request ที่ผ่าน interceptor นี้ (scheduled job, outbox relay, thread อื่น) → primary เสมอ
+ *   งานเบื้องหลังมักอ่านแล้วเขียนต่อ อ่านค่าที่ยังไม่ replicate มาจะตัดสินใจผิด
+ *   ยกเว้น executor ที่ใช้ ContextPropagatingTaskDecorator (เช่น dashboard) ซึ่งได้ค่าของ request ไปด้วยผ่าน {@link Accessor}
+ * - request แบบ async (SseEmitter ของ /api/me/events ฯลฯ) ไม่มี afterCompletion บน thread เดิม
+ *   จึงล้างค่าตอน afterConcurrentHandlingStarted ด้วย ไม่ให้ค้างไปถึง request ถัดไปของ worker เดียวกัน
+ */
+public class ReadYourWrites implements AsyncHandlerInterceptor {
+
+    static final String COOKIE = "rw_until";
+
+    private enum Route { REPLICA, PRIMARY }
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWrites(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWrites(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public boolean replicaAllowed() {
+        return ROUTE.get() == Route.REPLICA;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = clock.millis();
+        if (isWrite(request)) {
+            ROUTE.set(Route.PRIMARY);
+            // ต้องใส่ก่อน handler เขียน body (หลังจากนั้น header ถูก commit แล้ว) จึงนับ window จากต้น request
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(now + window.toMillis()))
+                    .path("/api")
+                    .maxAge(Duration.ofSeconds((window.toMillis() + 999) / 1000))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build().toString());
+        } else {
+            ROUTE.set(now < writtenUntil(request) ? Route.PRIMARY : Route.REPLICA);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ROUTE.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ROUTE.remove();
+    }
+
+    private static long writtenUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return 0;
+        for (Cookie c : cookies) {
+            if (!COOKIE.equals(c.getName())) continue;
+            try {
+                return Long.parseLong(c.getValue());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /** ให้ context-propagation พาเส้นทางของ request ไปยัง thread ของ executor (ลงทะเบียนใน META-INF/services) */
+    public static final class Accessor implements ThreadLocalAccessor<Object> {
+
+        @Override
+        public Object key() {
+            return ReadYourWrites.class.getName();
+        }
+
+        @Override
+        public Object getValue() {
+            return ROUTE.get();
+        }
+
+        @Override
+        public void setValue(Object value) {
+            ROUTE.set((Route) value);
+        }
+
+        @Override
+        public void setValue() {
+            ROUTE.remove();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return switch (request.getMethod()) {
+            case "POST", "PUT", "PATCH", "DELETE" -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * เปิด @Scheduled (OutboxRelay, poll user_events ไปส่ง SSE, heartbeat, ลบ event เก่า, poll cache_invalidations)
+ * ปิดได้ด้วย app.scheduling.enabled=false
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,71 @@
+package com.smartsplit.smartsplitback.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * นับ SQL ต่อ request แล้วส่งเป็น metric แยกตาม endpoint (tag method/uri แบบเดียวกับ http.server.requests)
+ * - http.server.requests.sql.statements / .rows (distribution summary), http.server.requests.sql.time (timer)
+ * - เกิน budget (statement หรือแถว) → WARN พร้อม SQL ที่ซ้ำบ่อยสุด และนับ http.server.requests.sql.over.budget
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final MeterRegistry meters;
+    private final int maxStatements;
+    private final long maxRows;
+
+    public SqlBudgetFilter(MeterRegistry meters, int maxStatements, long maxRows) {
+        this.meters = meters;
+        this.maxStatements = maxStatements;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStats stats = SqlStats.begin(req.getMethod() + " " + req.getRequestURI());
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            stats.end();
+            record(req, stats);
+        }
+    }
+
+    private void record(HttpServletRequest req, SqlStats stats) {
+        // pattern ของ handler (เช่น /api/expenses/{id}) รู้หลัง dispatch แล้วเท่านั้น; ไม่เจอ handler → UNKNOWN
+        Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", req.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .baseUnit("statements").tags(tags).register(meters)
+                .record(stats.statements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .baseUnit("rows").tags(tags).register(meters)
+                .record(stats.rows());
+        Timer.builder("http.server.requests.sql.time")
+                .tags(tags).register(meters)
+                .record(stats.dbTime().toNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.statements() > maxStatements || stats.rows() > maxRows) {
+            Counter.builder("http.server.requests.sql.over.budget").tags(tags).register(meters).increment();
+            log.warn("SQL budget exceeded ({} statements / {} rows) {}", maxStatements, maxRows, stats.describe());
+        }
+    }
+}
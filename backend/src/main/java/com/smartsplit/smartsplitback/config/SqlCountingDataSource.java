@@ -0,0 +1,103 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ห่อ DataSource ให้ส่งยอด statement / แถว / เวลาเข้า SqlStats ของ thread ปัจจุบัน
+ * นับที่ขอบ JDBC จึงได้ทั้ง Hibernate และ JdbcTemplate (StatementInspector ของ Hibernate เห็นแค่ข้อความ SQL
+ * ส่วน Statistics เป็นยอดรวมทั้ง JVM แยกต่อ request ไม่ได้)
+ *
+ * ไม่มี scope เปิดอยู่ → ไม่บันทึกอะไร เหลือแค่ต้นทุน proxy ต่อการเรียก JDBC
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+
+    public SqlCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    private static <S extends Statement> S statement(Class<S> type, Statement target, String preparedSql) {
+        return proxy(type, target, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                // executeBatch นับเป็น 1 statement (ไป DB รอบเดียวด้วย rewriteBatchedStatements)
+                String sql = (preparedSql != null) ? preparedSql
+                        : (args != null && args.length > 0 && args[0] instanceof String s) ? s : "batch";
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } finally {
+                    SqlStats.statement(sql, System.nanoTime() - start);
+                }
+                return (result instanceof ResultSet rs) ? resultSet(rs) : result;
+            }
+            Object result = method.invoke(target, args);
+            return ("getResultSet".equals(name) && result instanceof ResultSet rs) ? resultSet(rs) : result;
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet target) {
+        return proxy(ResultSet.class, target, (method, args) -> {
+            if (!"next".equals(method.getName())) return method.invoke(target, args);
+            long start = System.nanoTime();
+            boolean row = (boolean) method.invoke(target, args);
+            SqlStats.fetch(row, System.nanoTime() - start);
+            return row;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return (T) Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    // identity ของ proxy เอง (Hibernate ใช้ statement/result set เป็น key ใน map)
+                    if (method.getDeclaringClass() == Object.class) {
+                        if ("equals".equals(method.getName())) return proxy == args[0];
+                        if ("hashCode".equals(method.getName())) return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return handler.handle(method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartsplit.smartsplitback.config;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * ตัวนับ SQL ต่อ scope บน thread ปัจจุบัน (scope = หนึ่ง request ใน SqlBudgetFilter หรือหนึ่ง test ใน @SqlBudget)
+ * - นับ statement ที่ execute, แถวที่อ่าน (ResultSet.next ที่ได้แถว) และเวลาที่อยู่ใน JDBC (execute + next)
+ * - scope ซ้อนกันได้: ทุก scope ที่เปิดอยู่บน thread ได้ยอดเดียวกัน, scope ลูกที่จบแล้วอยู่ใน completed() ของแม่
+ * - executor ที่ใช้ ContextPropagatingTaskDecorator (เช่น dashboard) พา scope ไปด้วยผ่าน {@link Accessor}
+ *   → query ที่แตกไปทำขนานกันนับเข้า request เดียวกัน (ตัวนับจึง synchronized ต่อ scope)
+ * - งานเบื้องหลังที่ไม่ได้มาจาก request (@Scheduled, outbox) ไม่ถูกนับ
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+    // จำ SQL แยกตามข้อความได้ไม่เกินเท่านี้ต่อ scope (พอจับ N+1; กันหน่วยความจำโตกับ request ที่ SQL ไม่ซ้ำเลย)
+    private static final int MAX_DISTINCT_SQL = 200;
+
+    private final String name;
+    private final SqlStats parent;
+    private int statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> bySql = new HashMap<>();
+    private final List<SqlStats> completed = new ArrayList<>();
+
+    private SqlStats(String name, SqlStats parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    /** เปิด scope ใหม่บน thread นี้ (ต้องเรียก end() ใน finally) */
+    public static SqlStats begin(String name) {
+        SqlStats s = new SqlStats(name, CURRENT.get());
+        CURRENT.set(s);
+        return s;
+    }
+
+    /** scope ในสุดที่เปิดอยู่ (ไม่มี → null) */
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public void end() {
+        if (CURRENT.get() != this) return;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+            synchronized (parent) {
+                parent.completed.add(this);
+            }
+        }
+    }
+
+    static void statement(String sql, long elapsedNanos) {
+        for (SqlStats s = CURRENT.get(); s != null; s = s.parent) {
+            synchronized (s) {
+                s.statements++;
+                s.nanos += elapsedNanos;
+                if (s.bySql.size() < MAX_DISTINCT_SQL || s.bySql.containsKey(sql)) {
+                    s.bySql.merge(sql, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    static void fetch(boolean row, long elapsedNanos) {
+        for (SqlStats s = CURRENT.get(); s != null; s = s.parent) {
+            synchronized (s) {
+                if (row) s.rows++;
+                s.nanos += elapsedNanos;
+            }
+        }
+    }
+
+    public String name() { return name; }
+    public synchronized int statements() { return statements; }
+    public synchronized long rows() { return rows; }
+    public synchronized Duration dbTime() { return Duration.ofNanos(nanos); }
+
+    /** scope ลูกที่จบแล้ว เรียงตามลำดับที่จบ (เช่น ทุก request ที่ยิงระหว่าง test) */
+    public synchronized List<SqlStats> completed() { return List.copyOf(completed); }
+
+    /** SQL ที่ถูก execute มากกว่า 1 ครั้ง เรียงจากบ่อยสุด — ตัวเดียวกันซ้ำหลายรอบมักเป็น N+1 */
+    public synchronized List<Map.Entry<String, Integer>> repeated(int limit) {
+        return bySql.entrySet().stream()
+                .filter(e -> e.getValue() > 1)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(e -> Map.entry(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /** สรุปบรรทัดเดียวสำหรับ log / ข้อความ assert */
+    public synchronized String describe() {
+        String summary = "%s: %d statements, %d rows, %d ms".formatted(name, statements, rows, dbTime().toMillis());
+        var top = repeated(3);
+        if (top.isEmpty()) return summary;
+        return summary + "; repeated: " + top.stream()
+                .map(e -> e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining(" | "));
+    }
+
+    /** ให้ context-propagation พา scope ของ request ไปยัง thread ของ executor (ลงทะเบียนใน META-INF/services) */
+    public static final class Accessor implements ThreadLocalAccessor<SqlStats> {
+
+        @Override
+        public Object key() {
+            return SqlStats.class.getName();
+        }
+
+        @Override
+        public SqlStats getValue() {
+            return CURRENT.get();
+        }
+
+        @Override
+        public void setValue(SqlStats value) {
+            CURRENT.set(value);
+        }
+
+        @Override
+        public void setValue() {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.smartsplit.smartsplitback.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL ต่อ request: ห่อ DataSource หลัก (bean ชื่อ dataSource — ตัว routing ของ replica ถ้าเปิด) ด้วย SqlCountingDataSource
+ * และลง SqlBudgetFilter ที่ /api/* ก่อน security (SQL ตอนตรวจสิทธิ์ก็นับด้วย)
+ *
+ * budget: app.sql.budget.statements (ค่าเริ่มต้น 30), app.sql.budget.rows (5000)
+ * เปิดเฉพาะที่ตั้ง app.sql.stats.enabled=true (profile dev/test) — proxy ทุก Connection/Statement/ResultSet
+ * และนับทีละแถว ไม่คุ้มใน prod; ปิดอยู่ SqlStats.current() เป็น null (PermissionCheckEvent.queries = -1)
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.stats.enabled", havingValue = "true")
+public class SqlStatsConfig {
+
+    @Bean
+    static BeanPostProcessor sqlCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource ds && !(bean instanceof SqlCountingDataSource)) {
+                    return new SqlCountingDataSource(ds);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(MeterRegistry meters,
+                                                                   @Value("${app.sql.budget.statements:30}") int maxStatements,
+                                                                   @Value("${app.sql.budget.rows:5000}") long maxRows) {
+        var reg = new FilterRegistrationBean<>(new SqlBudgetFilter(meters, maxStatements, maxRows));
+        reg.addUrlPatterns("/api/*");
+        reg.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return reg;
+    }
+}
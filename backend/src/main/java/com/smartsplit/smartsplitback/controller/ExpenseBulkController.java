@@ -0,0 +1,56 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseFullDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseFullRequest;
+import com.smartsplit.smartsplitback.model.dto.ExpenseItemDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseItemShareDto;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.ExchangeRateService;
+import com.smartsplit.smartsplitback.service.ExpenseBulkService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/expenses")
+public class ExpenseBulkController {
+
+    private final ExpenseBulkService bulk;
+    private final ExchangeRateService fx;
+    private final Perms perm;
+
+    public ExpenseBulkController(ExpenseBulkService bulk, ExchangeRateService fx, Perms perm) {
+        this.bulk = bulk;
+        this.fx = fx;
+        this.perm = perm;
+    }
+
+    // สร้าง expense + items + shares ในคำขอเดียว (แทนการยิง POST ทีละ item/share)
+    @PreAuthorize("@perm.canCreateExpenseInGroup(#in.groupId())")
+    @PostMapping("/full")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ExpenseFullDto createFull(@RequestBody ExpenseFullRequest in) {
+        Expense e = bulk.createFull(in);
+        Map<String, BigDecimal> rates = fx.getRatesToThb(e);
+
+        List<ExpenseItemDto> items = e.getItems().stream()
+                .map(it -> ExpenseItemDto.fromEntity(it,
+                        fx.toThb(it.getCurrency(), it.getAmount(), rates).setScale(2, RoundingMode.HALF_UP)))
+                .toList();
+        List<ExpenseItemShareDto> shares = e.getItems().stream()
+                .map(ExpenseItem::getShares)
+                .flatMap(List::stream)
+                .map(ExpenseItemShareDto::fromEntity)
+                .toList();
+
+        return new ExpenseFullDto(ExpenseDto.fromEntity(e), items, shares);
+    }
+}
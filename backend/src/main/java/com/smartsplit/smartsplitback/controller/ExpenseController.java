@@ -4,9 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartsplit.smartsplitback.model.Expense;
 import com.smartsplit.smartsplitback.model.Group;
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseArchiveDocument;
 import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
 import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseView;
 import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.ExpenseArchiveService;
 import com.smartsplit.smartsplitback.service.ExpenseExportService;
 import com.smartsplit.smartsplitback.service.ExpenseItemService;
 import com.smartsplit.smartsplitback.service.ExpensePaymentService;
@@ -14,15 +17,21 @@ import com.smartsplit.smartsplitback.service.ExpenseService;
 import com.smartsplit.smartsplitback.service.ExpenseSettlementService;
 import com.smartsplit.smartsplitback.service.ExchangeRateService;
 import com.smartsplit.smartsplitback.service.GroupService;
+import com.smartsplit.smartsplitback.service.IdempotencyService;
 import com.smartsplit.smartsplitback.service.UserService;
+import com.smartsplit.smartsplitback.service.Versions;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.HashMap;
@@ -46,6 +55,8 @@ public class ExpenseController {
     private final ExpenseExportService exportService;
     private final ExchangeRateService fx;
     private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotency;
+    private final ExpenseArchiveService archive;
 
     public ExpenseController(ExpenseService expenses,
                              GroupService groups,
@@ -54,9 +65,11 @@ public class ExpenseController {
                              ExpensePaymentService paymentService,
                              ExpenseSettlementService settlementService,
                              Perms perm,
-                             ExpenseExportService exportService,
+                             @Lazy ExpenseExportService exportService, // สร้างตอน export PDF ครั้งแรก
                              ExchangeRateService fx,
-                             ObjectMapper objectMapper) {
+                             ObjectMapper objectMapper,
+                             IdempotencyService idempotency,
+                             ExpenseArchiveService archive) {
         this.expenses = expenses;
         this.groups = groups;
         this.users = users;
@@ -67,6 +80,8 @@ public class ExpenseController {
         this.exportService = exportService;
         this.fx = fx;
         this.objectMapper = objectMapper;
+        this.idempotency = idempotency;
+        this.archive = archive;
     }
 
     @PreAuthorize("@perm.isAdmin()")
@@ -81,41 +96,41 @@ public class ExpenseController {
 
     @PreAuthorize("@perm.canViewExpense(#id)")
     @GetMapping("/{id}")
-    public ResponseEntity<?> get(@PathVariable Long id){
+    public ResponseEntity<ExpenseView> get(@PathVariable Long id, WebRequest request){
+        if (ExpenseEtags.notModified(request, id, expenses.revision(id))) return null;
+
         var e = expenses.get(id);
-        if (e == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense not found");
+        if (e == null) return getArchived(id);
 
-        var dto = toDto(e);
-        com.fasterxml.jackson.databind.node.ObjectNode json = objectMapper.valueToTree(dto);
+        return ResponseEntity.ok(ExpenseView.of(toDto(e), () -> isExpenseFullyPaid(e)));
+    }
 
-        var statusNode = json.get("status");
-        if (statusNode != null && "SETTLED".equalsIgnoreCase(statusNode.asText())) {
-            if (isExpenseFullyPaid(e)) {
-                json.put("status", "COMPLETE");
-            }
-        }
+    // read-through: expense ที่ย้ายเข้า archive แล้ว (ปิดและจ่ายครบแล้วเสมอ)
+    private ResponseEntity<ExpenseView> getArchived(Long id) {
+        var dto = archive.get(id);
+        if (dto == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense not found");
+        return ResponseEntity.ok(ExpenseView.archived(dto));
+    }
 
-        return ResponseEntity.ok(json);
+    @PreAuthorize("@perm.canViewExpense(#id)")
+    @GetMapping("/{id}/archive")
+    public ExpenseArchiveDocument archived(@PathVariable Long id) {
+        var doc = archive.document(id);
+        if (doc == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived expense not found");
+        return doc;
     }
 
     @PreAuthorize("@perm.isGroupMember(#groupId)")
-    @GetMapping("/group/{groupId}")
-    public List<com.fasterxml.jackson.databind.node.ObjectNode> listByGroupForMember(@PathVariable Long groupId) {
-        return expenses.listByGroup(groupId).stream()
-                .map(e -> {
-
-                    var dto = toDto(e);
-                    com.fasterxml.jackson.databind.node.ObjectNode json = objectMapper.valueToTree(dto);
-                    var statusNode = json.get("status");
-                    if (statusNode != null && "SETTLED".equalsIgnoreCase(statusNode.asText())) {
-                        if (isExpenseFullyPaid(e)) {
-                            json.put("status", "COMPLETE");
-                        }
-                    }
+    @GetMapping("/group/{groupId}/archived")
+    public List<ExpenseDto> listArchivedByGroup(@PathVariable Long groupId) {
+        return archive.listByGroup(groupId);
+    }
 
-                    return json;
-                })
-                .toList();
+    @PreAuthorize("@perm.isGroupMember(#groupId)")
+    @GetMapping("/group/{groupId}")
+    public void listByGroupForMember(@PathVariable Long groupId, HttpServletResponse response) throws IOException {
+        // group ใหญ่: อ่านทีละหน้าและเขียนออกทีละตัว (ไม่ถือ list ทั้ง group ไว้ใน memory)
+        JsonArrayWriter.write(objectMapper, ExpenseView.class, expenses.streamByGroup(groupId), response);
     }
 
 
@@ -125,8 +140,19 @@ public class ExpenseController {
     public ExpenseDto create(
             @RequestBody ExpenseDto in,
             @RequestParam(name = "currency", defaultValue = "THB") String currency,
-            @RequestParam(name = "ratesJson", required = false) String ratesJson
+            @RequestParam(name = "ratesJson", required = false) String ratesJson,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletResponse response
     ) {
+        // client ส่งซ้ำด้วย key เดิม → ได้ expense เดิม ไม่สร้างใหม่
+        var out = idempotency.execute(idempotencyKey, perm.currentUserId(), "POST /api/expenses",
+                IdempotencyService.fingerprint(in, currency, ratesJson),
+                ExpenseDto.class, () -> createExpense(in, currency, ratesJson));
+        if (out.replayed()) response.setHeader(IdempotencyService.REPLAYED_HEADER, "true");
+        return out.body();
+    }
+
+    private ExpenseDto createExpense(ExpenseDto in, String currency, String ratesJson) {
         if (in.groupId() == null || in.payerUserId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupId and payerUserId are required");
         }
@@ -226,9 +252,12 @@ public class ExpenseController {
 
     @PreAuthorize("@perm.canManageExpense(#id)")
     @PutMapping("/{id}")
-    public ExpenseDto update(@PathVariable Long id, @RequestBody ExpenseDto in){
+    public ExpenseDto update(@PathVariable Long id, @RequestBody ExpenseDto in,
+                             @RequestHeader(name = IfMatch.HEADER, required = false) String ifMatch){
         Expense e = expenses.get(id);
         if(e==null) throw new ResponseStatusException(HttpStatus.NOT_FOUND,"Expense not found");
+        // ตรวจกับค่าที่อ่านได้ตอนนี้ ส่วนกรณีมีคนแก้ระหว่างนี้ @Version จะจับตอน flush (→ 409)
+        Versions.check(IfMatch.version(ifMatch, id, () -> expenses.revision(id)), e.getVersion());
 
         if(in.groupId()!=null){
             Group g = groups.get(in.groupId());
@@ -311,23 +340,14 @@ public class ExpenseController {
 
     @PreAuthorize("@perm.canViewExpense(#id)")
     @GetMapping("/{id}/settlement")
-    public ResponseEntity<?> settlementAll(@PathVariable Long id) {
+    public List<ExpenseSettlementDto> settlementAll(@PathVariable Long id) {
         var e = expenses.get(id);
         if (e == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense not found");
 
         Long payerId = e.getPayer().getId();
-        var list = settlementService.allSettlements(id);
-        var array = objectMapper.valueToTree(list);
-        if (array.isArray()) {
-            for (var node : array) {
-                var userIdNode = node.get("userId");
-                if (userIdNode != null && userIdNode.isNumber() && userIdNode.asLong() == payerId) {
-                    ((com.fasterxml.jackson.databind.node.ObjectNode) node).put("settled", true);
-                    // ((ObjectNode) node).put("remaining", 0);
-                }
-            }
-        }
-        return ResponseEntity.ok(array);
+        return settlementService.allSettlements(id).stream()
+                .map(s -> s.forPayer(payerId))
+                .toList();
     }
 
     @PreAuthorize("isAuthenticated()")
@@ -362,7 +382,6 @@ public class ExpenseController {
     private boolean isExpenseFullyPaid(Expense e) {
         Long expenseId = e.getId();
         Long payerId = e.getPayer().getId();
-
         BigDecimal verifiedTotal = paymentService.sumVerified(expenseId);
         if (verifiedTotal == null) {
             verifiedTotal = BigDecimal.ZERO;
@@ -397,15 +416,6 @@ public class ExpenseController {
     }
 
     private static ExpenseDto toDto(Expense e){
-        return new ExpenseDto(
-                e.getId(),
-                e.getGroup().getId(),
-                e.getPayer().getId(),
-                e.getAmount(),
-                e.getType(),
-                e.getTitle(),
-                e.getStatus(),
-                e.getCreatedAt()
-        );
+        return ExpenseDto.fromEntity(e);
     }
 }
@@ -0,0 +1,27 @@
+package com.smartsplit.smartsplitback.controller;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * ETag ของ GET ที่อ่านข้อมูลภายใต้ expense เดียว (expense / items / shares / payments)
+ * อิงจาก expenses.revision ซึ่ง service เพิ่มค่าทุกครั้งที่ expense หรือตารางลูกเปลี่ยน
+ * จึงตรวจ If-None-Match ได้ด้วย query คอลัมน์เดียว ก่อนแตะตารางลูก
+ */
+final class ExpenseEtags {
+
+    private ExpenseEtags() {}
+
+    static String of(Long expenseId, long revision) {
+        // weak: body อาจต่างกันเล็กน้อยตามข้อมูล user ที่ join มา แต่ความหมายเท่าเดิม
+        return "W/\"expense-" + expenseId + "-r" + revision + "\"";
+    }
+
+    /**
+     * true → ตอบ 304 แล้ว ให้ handler return null ได้เลย
+     * false → ใส่ header ETag ให้แล้ว ทำงานต่อตามปกติ (revision == null คือไม่พบ expense ให้ handler ตอบ 404 เอง)
+     */
+    static boolean notModified(WebRequest request, Long expenseId, Long revision) {
+        if (revision == null) return false;
+        return request.checkNotModified(of(expenseId, revision));
+    }
+}
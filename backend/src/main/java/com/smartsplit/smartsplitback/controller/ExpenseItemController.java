@@ -9,6 +9,7 @@ import com.smartsplit.smartsplitback.service.ExpenseItemService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -44,7 +45,9 @@ public class ExpenseItemController {
 
     @PreAuthorize("@perm.canViewExpense(#expenseId)")
     @GetMapping
-    public List<ExpenseItemDto> list(@PathVariable Long expenseId) {
+    public List<ExpenseItemDto> list(@PathVariable Long expenseId, WebRequest request) {
+        if (ExpenseEtags.notModified(request, expenseId, expenses.findRevisionById(expenseId))) return null;
+
         Expense e = mustExpense(expenseId);
         Map<String, BigDecimal> rates = fx.getRatesToThb(e);
         var list = items.listByExpense(expenseId);
@@ -108,7 +111,8 @@ public class ExpenseItemController {
                                  @PathVariable Long itemId,
                                  @RequestParam(required = false) String name,
                                  @RequestParam(required = false) BigDecimal amount,
-                                 @RequestParam(required = false) String currency) {
+                                 @RequestParam(required = false) String currency,
+                                 @RequestHeader(name = IfMatch.HEADER, required = false) String ifMatch) {
 
         if (name == null || name.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "name is required");
@@ -120,7 +124,8 @@ public class ExpenseItemController {
         BigDecimal normalizedAmount = amount.setScale(2, RoundingMode.HALF_UP);
         String ccy = currency == null ? null : upper(currency);
 
-        var updated = items.updateInExpense(expenseId, itemId, name, normalizedAmount, ccy);
+        var updated = items.updateInExpense(expenseId, itemId, name, normalizedAmount, ccy,
+                IfMatch.version(ifMatch, expenseId, () -> expenses.findRevisionById(expenseId)));
         if (updated == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense item not found in this expense");
         }
@@ -4,6 +4,7 @@ package com.smartsplit.smartsplitback.controller;
 import com.smartsplit.smartsplitback.model.dto.ExpenseItemShareDto;
 import com.smartsplit.smartsplitback.security.Perms;
 import com.smartsplit.smartsplitback.service.ExpenseItemShareService;
+import com.smartsplit.smartsplitback.service.ExpenseService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -17,10 +18,12 @@ import java.util.List;
 public class ExpenseItemShareController {
 
     private final ExpenseItemShareService shares;
+    private final ExpenseService expenses;
     private final Perms perm;
 
-    public ExpenseItemShareController(ExpenseItemShareService shares, Perms perm) {
+    public ExpenseItemShareController(ExpenseItemShareService shares, ExpenseService expenses, Perms perm) {
         this.shares = shares;
+        this.expenses = expenses;
         this.perm = perm;
     }
 
@@ -62,7 +65,8 @@ public class ExpenseItemShareController {
                                       @PathVariable Long itemId,
                                       @PathVariable Long shareId,
                                       @RequestParam(required = false) BigDecimal shareValue,
-                                      @RequestParam(required = false) BigDecimal sharePercent) {
+                                      @RequestParam(required = false) BigDecimal sharePercent,
+                                      @RequestHeader(name = IfMatch.HEADER, required = false) String ifMatch) {
         if (shareValue == null && sharePercent == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Either shareValue or sharePercent is required");
@@ -74,7 +78,8 @@ public class ExpenseItemShareController {
                     "sharePercent must be between 0 and 100");
         }
 
-        var s = shares.updateShareInExpense(expenseId, itemId, shareId, shareValue, sharePercent);
+        var s = shares.updateShareInExpense(expenseId, itemId, shareId, shareValue, sharePercent,
+                IfMatch.version(ifMatch, expenseId, () -> expenses.revision(expenseId)));
         return ExpenseItemShareDto.fromEntity(s);
     }
 
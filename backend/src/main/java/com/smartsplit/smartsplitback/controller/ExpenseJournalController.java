@@ -0,0 +1,28 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.service.ExpenseJournalService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/expenses/{expenseId}/journal")
+public class ExpenseJournalController {
+
+    private final ExpenseJournalService journal;
+
+    public ExpenseJournalController(ExpenseJournalService journal) {
+        this.journal = journal;
+    }
+
+    // replay settlement จาก journal ณ เวลา at (ISO-8601, ไม่ใส่ = ตอนนี้) ใช้ได้กับ expense ที่ archive ไปแล้วด้วย
+    @PreAuthorize("@perm.canViewExpense(#expenseId)")
+    @GetMapping("/settlement")
+    public List<ExpenseSettlementDto> settlementAt(@PathVariable Long expenseId,
+                                                   @RequestParam(required = false) Instant at) {
+        return journal.settlementsAt(expenseId, at != null ? at : Instant.now());
+    }
+}
@@ -3,13 +3,20 @@ package com.smartsplit.smartsplitback.controller;
 import com.smartsplit.smartsplitback.model.ExpensePayment;
 import com.smartsplit.smartsplitback.model.PaymentStatus;
 import com.smartsplit.smartsplitback.model.dto.ExpensePaymentDto;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkRequest;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkResult;
+import com.smartsplit.smartsplitback.security.Perms;
 import com.smartsplit.smartsplitback.service.ExpensePaymentService;
+import com.smartsplit.smartsplitback.service.ExpenseService;
 import com.smartsplit.smartsplitback.service.FileStorageService;
+import com.smartsplit.smartsplitback.service.IdempotencyService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -22,16 +29,25 @@ public class ExpensePaymentController {
 
     private final ExpensePaymentService payments;
     private final FileStorageService storage;
+    private final ExpenseService expenses;
+    private final IdempotencyService idempotency;
+    private final Perms perm;
 
-    public ExpensePaymentController(ExpensePaymentService payments, FileStorageService storage) {
+    public ExpensePaymentController(ExpensePaymentService payments, FileStorageService storage, ExpenseService expenses,
+                                    IdempotencyService idempotency, Perms perm) {
         this.payments = payments;
         this.storage = storage;
+        this.expenses = expenses;
+        this.idempotency = idempotency;
+        this.perm = perm;
     }
 
     /** ลิสต์ payments ของ expense (สมาชิกกลุ่ม/แอดมิน) */
     @PreAuthorize("@perm.canViewExpense(#expenseId)")
     @GetMapping
-    public List<ExpensePaymentDto> list(@PathVariable Long expenseId) {
+    public List<ExpensePaymentDto> list(@PathVariable Long expenseId, WebRequest request) {
+        if (ExpenseEtags.notModified(request, expenseId, expenses.revision(expenseId))) return null;
+
         return payments.listByExpense(expenseId).stream()
                 .map(ExpensePaymentDto::fromEntity)
                 .toList();
@@ -54,9 +70,19 @@ public class ExpensePaymentController {
                                     @RequestParam Long fromUserId,
                                     @RequestParam BigDecimal amount,
                                     @RequestPart(name = "receipt", required = false) MultipartFile receipt,
-                                    HttpServletRequest req) {
-
+                                    @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                    HttpServletRequest req,
+                                    HttpServletResponse res) {
+        // ส่งซ้ำด้วย key เดิม → ได้ payment เดิม ไม่สร้าง PENDING ซ้ำและไม่อัปโหลดสลิปซ้ำ
+        var out = idempotency.execute(idempotencyKey, perm.currentUserId(), "POST /api/expenses/{id}/payments",
+                IdempotencyService.fingerprint(expenseId, fromUserId, amount, receipt),
+                ExpensePaymentDto.class, () -> createPayment(expenseId, fromUserId, amount, receipt, req));
+        if (out.replayed()) res.setHeader(IdempotencyService.REPLAYED_HEADER, "true");
+        return out.body();
+    }
 
+    private ExpensePaymentDto createPayment(Long expenseId, Long fromUserId, BigDecimal amount,
+                                            MultipartFile receipt, HttpServletRequest req) {
         ExpensePayment p = payments.create(expenseId, fromUserId, amount);
 
 
@@ -76,8 +102,20 @@ public class ExpensePaymentController {
     @PutMapping("/{paymentId}/status")
     public ExpensePaymentDto setStatus(@PathVariable Long expenseId,
                                        @PathVariable Long paymentId,
-                                       @RequestParam PaymentStatus status) {
-        return ExpensePaymentDto.fromEntity(payments.setStatusInExpense(expenseId, paymentId, status));
+                                       @RequestParam PaymentStatus status,
+                                       @RequestHeader(name = IfMatch.HEADER, required = false) String ifMatch) {
+        return ExpensePaymentDto.fromEntity(
+                payments.setStatusInExpense(expenseId, paymentId, status,
+                        IfMatch.version(ifMatch, expenseId, () -> expenses.revision(expenseId))));
+    }
+
+    // ตรวจ/ปฏิเสธหลาย payment ในครั้งเดียว: แต่ละแถวต้องส่ง version ที่อ่านไป แถวที่ถูกแก้ไปแล้วจะอยู่ใน conflicts
+    @PreAuthorize("@perm.canManageExpense(#expenseId)")
+    @PutMapping("/status")
+    public PaymentStatusBulkResult setStatuses(@PathVariable Long expenseId,
+                                               @RequestBody PaymentStatusBulkRequest req) {
+        if (req == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Body is required");
+        return payments.setStatusesInExpense(expenseId, req.status(), req.payments());
     }
 
 
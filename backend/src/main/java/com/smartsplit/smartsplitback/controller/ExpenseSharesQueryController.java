@@ -3,9 +3,11 @@ package com.smartsplit.smartsplitback.controller;
 import com.smartsplit.smartsplitback.model.dto.ExpenseItemShareDto;
 import com.smartsplit.smartsplitback.security.Perms;
 import com.smartsplit.smartsplitback.service.ExpenseItemShareService;
+import com.smartsplit.smartsplitback.service.ExpenseService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -16,15 +18,19 @@ public class ExpenseSharesQueryController {
 
     private final ExpenseItemShareService shares;
     private final Perms perm;
+    private final ExpenseService expenses;
 
-    public ExpenseSharesQueryController(ExpenseItemShareService shares, Perms perm) {
+    public ExpenseSharesQueryController(ExpenseItemShareService shares, Perms perm, ExpenseService expenses) {
         this.shares = shares;
         this.perm = perm;
+        this.expenses = expenses;
     }
 
     @PreAuthorize("@perm.canViewExpense(#expenseId)")
     @GetMapping
-    public List<ExpenseItemShareDto> listByExpense(@PathVariable Long expenseId) {
+    public List<ExpenseItemShareDto> listByExpense(@PathVariable Long expenseId, WebRequest request) {
+        if (ExpenseEtags.notModified(request, expenseId, expenses.revision(expenseId))) return null;
+
         return shares.listByExpense(expenseId).stream()
                 .map(ExpenseItemShareDto::fromEntity)
                 .toList();
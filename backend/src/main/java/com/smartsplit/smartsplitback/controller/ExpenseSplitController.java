@@ -0,0 +1,37 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.ExpenseType;
+import com.smartsplit.smartsplitback.model.dto.ExpenseItemShareDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSplitRequest;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.ExpenseSplitService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/expenses/{expenseId}/split")
+public class ExpenseSplitController {
+
+    private final ExpenseSplitService splits;
+    private final Perms perm;
+
+    public ExpenseSplitController(ExpenseSplitService splits, Perms perm) {
+        this.splits = splits;
+        this.perm = perm;
+    }
+
+    // generate shares ใหม่ทั้งหมดของ item (หรือทุก item ถ้าไม่ระบุ itemId) แทนของเดิม
+    @PreAuthorize("@perm.canManageExpense(#expenseId)")
+    @PostMapping
+    public List<ExpenseItemShareDto> split(@PathVariable Long expenseId,
+                                           @RequestParam ExpenseType mode,
+                                           @RequestParam(required = false) Long itemId,
+                                           @RequestBody(required = false) ExpenseSplitRequest body) {
+        var participantIds = body != null ? body.participantIds() : null;
+        var percents = body != null ? body.percents() : null;
+        return splits.split(expenseId, mode, itemId, participantIds, percents)
+                .stream().map(ExpenseItemShareDto::fromEntity).toList();
+    }
+}
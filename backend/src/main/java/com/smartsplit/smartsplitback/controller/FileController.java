@@ -2,6 +2,7 @@ package com.smartsplit.smartsplitback.controller;
 
 import com.smartsplit.smartsplitback.model.StoredFile;
 import com.smartsplit.smartsplitback.repository.StoredFileRepository;
+import com.smartsplit.smartsplitback.security.SecurityFacade;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,10 +11,15 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/files")
 public class FileController {
 
+    // ไฟล์ในโฟลเดอร์นี้เป็นข้อมูลภายใน (เช่น JFR recording) ดูได้เฉพาะ ADMIN
+    private static final String ADMIN_ONLY_FOLDER = "jfr";
+
     private final StoredFileRepository repo;
+    private final SecurityFacade sec;
 
-    public FileController(StoredFileRepository repo) {
+    public FileController(StoredFileRepository repo, SecurityFacade sec) {
         this.repo = repo;
+        this.sec = sec;
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.TEXT_PLAIN_VALUE)
@@ -21,6 +27,10 @@ public class FileController {
         StoredFile f = repo.findById(id)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "File not found"));
+        if (ADMIN_ONLY_FOLDER.equals(f.getFolder()) && !sec.isAdmin()) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                    org.springframework.http.HttpStatus.NOT_FOUND, "File not found");
+        }
 
         return ResponseEntity.ok(f.getDataUrl());
     }
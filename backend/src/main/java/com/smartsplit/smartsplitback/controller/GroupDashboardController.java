@@ -0,0 +1,49 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.dto.GroupDashboardDto;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.GroupDashboardService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/groups/{groupId}/dashboard")
+public class GroupDashboardController {
+
+    private final GroupDashboardService dashboards;
+    private final Perms perm;
+
+    public GroupDashboardController(GroupDashboardService dashboards, Perms perm) {
+        this.dashboards = dashboards;
+        this.perm = perm;
+    }
+
+    // ตรวจสิทธิ์ครั้งเดียวที่ระดับ group แล้วดึงทุกอย่างในคำขอเดียว
+    // ETag = revision ของ group/expenses + ผู้เรียก (มี position/mySettlement) → If-None-Match ตรงกันได้ 304 โดยไม่ query ชุดใหญ่
+    @PreAuthorize("@perm.isGroupMember(#groupId)")
+    @GetMapping
+    public ResponseEntity<GroupDashboardDto> dashboard(@PathVariable Long groupId, WebRequest request) {
+        Long me = perm.currentUserId();
+        if (me == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+
+        String revision = dashboards.revision(groupId);
+        if (revision == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found");
+
+        // อ่าน revision ก่อนข้อมูล: มีการเขียนแทรกระหว่างนี้ → ETag เก่ากว่า body ครั้งถัดไปได้ 200 ใหม่ (ไม่ได้ 304 ผิด)
+        String etag = "W/\"dashboard-" + groupId + "-r" + revision + "-u" + me + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        GroupDashboardDto body = dashboards.dashboard(groupId, me);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartsplit.smartsplitback.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * อ่าน If-Match ของ PUT แบบมีเงื่อนไข รับได้ 2 แบบ
+ * - version ของ entity (ฟิลด์ version ใน DTO): "3", 3 หรือ W/"3" → คืนค่าให้ service ตรวจกับ @Version
+ * - ETag ที่ GET ส่งไป (ExpenseEtags: W/"expense-{id}-r{rev}") → เทียบกับ revision ปัจจุบันที่นี่เลย แล้วคืน null
+ * ไม่ส่ง / "*" = ไม่มีเงื่อนไข
+ */
+final class IfMatch {
+
+    static final String HEADER = "If-Match";
+
+    private static final Pattern REVISION_TAG = Pattern.compile("(?:W/)?\"expense-(\\d+)-r(\\d+)\"");
+
+    private IfMatch() {}
+
+    /**
+     * @param expenseId expense ที่ PUT นี้แก้ (ตัวที่อยู่ใน path)
+     * @param currentRevision อ่าน expenses.revision เฉพาะตอน client ส่ง ETag แบบ revision มา
+     */
+    static Long version(String header, Long expenseId, Supplier<Long> currentRevision) {
+        if (header == null || header.isBlank()) return null;
+        String v = header.trim();
+        if (v.equals("*")) return null;
+
+        Matcher m = REVISION_TAG.matcher(v);
+        if (m.matches()) {
+            // revision เปลี่ยนทุกครั้งที่ expense หรือตารางลูกเปลี่ยน จึงเข้มกว่า @Version ของแถวเดียว
+            // ช่วงระหว่างตรวจกับ flush ยังมี @Version ของแถวที่แก้กันไว้ (→ 409)
+            Long current = currentRevision.get();
+            if (!m.group(1).equals(String.valueOf(expenseId))
+                    || current == null || !m.group(2).equals(String.valueOf(current))) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                        "ETag mismatch: expected " + v + " but was "
+                                + (current == null ? "none" : ExpenseEtags.of(expenseId, current)));
+            }
+            return null;
+        }
+
+        if (v.startsWith("W/")) v = v.substring(2);
+        if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) v = v.substring(1, v.length() - 1);
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "If-Match must be an entity version or an ETag from GET");
+        }
+    }
+}
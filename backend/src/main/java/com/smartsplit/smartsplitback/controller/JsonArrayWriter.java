@@ -0,0 +1,45 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * เขียน JSON array ลง response ทีละ element ผ่าน JsonGenerator ของ ObjectMapper ตัวเดียวกับ Spring MVC
+ * ไม่สร้าง List / JsonNode ทั้งก้อน: memory คงที่ตามขนาด buffer ของ response ไม่ใช่จำนวน element
+ * ใช้กับ endpoint ที่ list ยาวได้ไม่จำกัด (เช่น expense ทั้ง group)
+ */
+final class JsonArrayWriter {
+
+    private JsonArrayWriter() {}
+
+    static <T> void write(ObjectMapper mapper, Class<T> type, Stream<? extends T> items,
+                          HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        // flush เมื่อ buffer ของ response เต็มเท่านั้น (ไม่ใช่ทุก element)
+        ObjectWriter writer = mapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (items;
+             JsonGenerator gen = writer.createGenerator(
+                     StreamUtils.nonClosing(response.getOutputStream()), JsonEncoding.UTF8)) {
+            // error กลางทาง: ไม่ปิด ] ให้เอง → client เห็นเป็น JSON ไม่ครบ แทน list ที่ดูเหมือนครบ
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            gen.writeStartArray();
+            for (Iterator<? extends T> it = items.iterator(); it.hasNext(); ) {
+                writer.writeValue(gen, it.next());
+            }
+            gen.writeEndArray();
+        }
+    }
+}
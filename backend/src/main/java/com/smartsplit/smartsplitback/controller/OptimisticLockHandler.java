@@ -0,0 +1,22 @@
+package com.smartsplit.smartsplitback.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+/**
+ * @Version ชนกันตอน flush (มีคนแก้แถวเดียวกันไปก่อน) → 409 แทน 500
+ * ใช้ sendError ให้ body เป็นรูปแบบ error ปกติของ Boot เหมือน ResponseStatusException
+ */
+@RestControllerAdvice
+public class OptimisticLockHandler {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public void conflict(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.CONFLICT.value(), "Resource was modified concurrently; reload and retry");
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.UserEventStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/me/events")
+public class UserEventController {
+
+    private final UserEventStream stream;
+    private final Perms perm;
+
+    public UserEventController(UserEventStream stream, Perms perm) {
+        this.stream = stream;
+        this.perm = perm;
+    }
+
+    // SSE: event "expense" ทุกครั้งที่ payment/share/item ของ expense ที่เราเกี่ยวข้องเปลี่ยน
+    // ต้องส่ง Authorization header (ใช้ fetch-based EventSource ฝั่ง frontend)
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events() {
+        Long me = perm.currentUserId();
+        if (me == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no") // กัน nginx ingress buffer stream
+                .body(stream.subscribe(me));
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** เก็บไฟล์ลง stored_files (base64 + insert) */
+@Name("smartsplit.FileStore")
+@Label("File Store")
+@Category({"SmartSplit", "Files"})
+@Description("Uploaded file encoded and stored")
+public class FileStoreEvent extends jdk.jfr.Event {
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Content Type")
+    String contentType;
+
+    @Label("Folder")
+    String folder;
+
+    public void commit(long bytes, String contentType, String folder) {
+        end();
+        if (!shouldCommit()) return;
+        this.bytes = bytes;
+        this.contentType = contentType;
+        this.folder = folder;
+        commit();
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * หาอัตราแลกเปลี่ยนเป็น THB
+ * cacheHit = ใช้เรทที่เก็บไว้กับ expense (exchangeRatesJson), miss = ไปดึง FX API สด
+ */
+@Name("smartsplit.FxFetch")
+@Label("FX Fetch")
+@Category({"SmartSplit", "FX"})
+@Description("Exchange rate lookup (stored rates or live FX API)")
+public class FxFetchEvent extends jdk.jfr.Event {
+
+    @Label("Cache Hit")
+    boolean cacheHit;
+
+    @Label("Fallback")
+    @Description("FX API unavailable, only THB returned")
+    boolean fallback;
+
+    @Label("Currencies")
+    int currencies;
+
+    public void commit(boolean cacheHit, boolean fallback, int currencies) {
+        end();
+        if (!shouldCommit()) return;
+        this.cacheHit = cacheHit;
+        this.fallback = fallback;
+        this.currencies = currencies;
+        commit();
+    }
+}
@@ -0,0 +1,211 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import com.smartsplit.smartsplitback.model.StoredFile;
+import com.smartsplit.smartsplitback.repository.StoredFileRepository;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * /actuator/jfr — อัด JFR บน replica ที่ช้าอยู่ แล้วเก็บไฟล์ .jfr ลง stored_files (folder "jfr", อ่านได้เฉพาะ ADMIN)
+ * - POST {"seconds":60,"settings":"profile"} เริ่มอัด (ครั้งละ 1 recording) ครบเวลาแล้ว dump ลง file store เอง
+ *   settings: default (overhead ต่ำ) หรือ profile (allocation + latency ละเอียดกว่า)
+ * - DELETE หยุดก่อนเวลาแล้ว dump ทันที
+ * - GET สถานะ + ไฟล์ล่าสุด (/api/files/{id})
+ *
+ * จำกัด: app.jfr.max-seconds (300), app.jfr.max-size-mb (32 — ขนาดที่ JFR เก็บไว้ ของเก่าถูกทิ้งก่อน)
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final int DEFAULT_SECONDS = 60;
+    private static final int STATUS_CONFLICT = 409;
+    private static final DateTimeFormatter NAME_TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final StoredFileRepository files;
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final ScheduledExecutorService stopper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "jfr-recording-stop");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ReentrantLock แทน synchronized: ไม่ pin virtual thread ระหว่าง dump/บันทึกลง DB (ดู docs/VIRTUAL_THREADS.md)
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock
+    private Recording active;
+    private ScheduledFuture<?> scheduledStop;
+    private Instant stopsAt;
+    private Long lastFileId;
+
+    public JfrRecordingEndpoint(StoredFileRepository files,
+                                @Value("${app.jfr.max-seconds:300}") long maxSeconds,
+                                @Value("${app.jfr.max-size-mb:32}") long maxSizeMb) {
+        this.files = files;
+        this.maxDuration = Duration.ofSeconds(maxSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("recording", active != null);
+            if (active != null) {
+                body.put("name", active.getName());
+                body.put("startedAt", active.getStartTime());
+                body.put("stopsAt", stopsAt);
+            }
+            if (lastFileId != null) body.put("lastFile", fileUrl(lastFileId));
+            return body;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Integer seconds, @Nullable String settings) {
+        lock.lock();
+        try {
+            if (active != null) {
+                return new WebEndpointResponse<>(Map.of("error", "Recording already running", "name", active.getName()),
+                        STATUS_CONFLICT);
+            }
+            String config = (settings == null || settings.isBlank()) ? "profile" : settings;
+            long secs = (seconds == null) ? DEFAULT_SECONDS : seconds;
+            if (!SETTINGS.contains(config) || secs <= 0 || secs > maxDuration.toSeconds()) {
+                return new WebEndpointResponse<>(Map.of("error",
+                        "settings must be one of " + SETTINGS + ", seconds in 1.." + maxDuration.toSeconds()),
+                        WebEndpointResponse.STATUS_BAD_REQUEST);
+            }
+
+            Recording r;
+            try {
+                r = new Recording(Configuration.getConfiguration(config));
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot load JFR settings " + config, e);
+            }
+            r.setName("smartsplit-" + NAME_TS.format(Instant.now()));
+            r.setToDisk(true);
+            r.setMaxSize(maxSizeBytes);
+            // ไม่ใช้ setDuration: หยุดเองใน stopper จะได้ dump ต่อทันที
+            r.start();
+
+            active = r;
+            stopsAt = Instant.now().plusSeconds(secs);
+            scheduledStop = stopper.schedule(this::stopAndStore, secs, TimeUnit.SECONDS);
+            log.info("JFR recording {} started ({}, {} s)", r.getName(), config, secs);
+            return new WebEndpointResponse<>(Map.of("name", r.getName(), "settings", config, "seconds", secs));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> stop() {
+        lock.lock();
+        try {
+            if (active == null) {
+                return new WebEndpointResponse<>(Map.of("error", "No recording running"), WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            scheduledStop.cancel(false);
+            Long id = stopAndStore();
+            return new WebEndpointResponse<>(id == null
+                    ? Map.of("error", "Recording could not be stored")
+                    : Map.of("file", fileUrl(id)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Long stopAndStore() {
+        lock.lock();
+        try {
+            Recording r = active;
+            if (r == null) return null;
+            active = null;
+            scheduledStop = null;
+            stopsAt = null;
+
+            Path tmp = null;
+            try {
+                r.stop();
+                tmp = Files.createTempFile(r.getName(), ".jfr");
+                r.dump(tmp);
+                byte[] bytes = Files.readAllBytes(tmp);
+
+                StoredFile sf = new StoredFile();
+                sf.setFolder("jfr");
+                sf.setOriginalName(r.getName() + ".jfr");
+                sf.setContentType("application/octet-stream");
+                sf.setExt("jfr");
+                sf.setSizeBytes((long) bytes.length);
+                sf.setDataUrl("data:application/octet-stream;base64," + Base64.getEncoder().encodeToString(bytes));
+                Long id = files.save(sf).getId();
+
+                lastFileId = id;
+                log.info("JFR recording {} stored as file {} ({} bytes)", r.getName(), id, bytes.length);
+                return id;
+            } catch (Exception e) {
+                log.error("JFR recording {} could not be stored", r.getName(), e);
+                return null;
+            } finally {
+                r.close();
+                if (tmp != null) {
+                    try { Files.deleteIfExists(tmp); } catch (Exception ignore) {}
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lock.lock();
+        try {
+            stopper.shutdownNow();
+            if (active != null) {
+                active.close();
+                active = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String fileUrl(Long id) {
+        return "/api/files/" + id;
+    }
+}
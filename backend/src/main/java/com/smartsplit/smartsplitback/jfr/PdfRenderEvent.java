@@ -0,0 +1,37 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.ToIntFunction;
+
+/** render PDF ของ expense (template + HTML → PDF) */
+@Name("smartsplit.PdfRender")
+@Label("PDF Render")
+@Category({"SmartSplit", "Export"})
+@Description("Expense PDF rendering")
+public class PdfRenderEvent extends jdk.jfr.Event {
+
+    @Label("Expense Id")
+    long expenseId;
+
+    @Label("Pages")
+    int pages;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    /** นับหน้าจาก PDF ที่ได้ (ต้อง parse ใหม่) เฉพาะตอนมี recording ที่เก็บ event นี้อยู่ */
+    public void commit(long expenseId, byte[] pdf, ToIntFunction<byte[]> pageCounter) {
+        end();
+        if (!shouldCommit()) return;
+        this.expenseId = expenseId;
+        this.bytes = pdf.length;
+        this.pages = pageCounter.applyAsInt(pdf);
+        commit();
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ประเมินสิทธิ์ผ่าน Perms (เรียกจาก @PreAuthorize / controller)
+ * queries = จำนวน SQL ระหว่างประเมิน จาก SqlStats ของ request; -1 ถ้าไม่มี scope (นอก request หรือปิด app.sql.stats)
+ */
+@Name("smartsplit.PermissionCheck")
+@Label("Permission Check")
+@Category({"SmartSplit", "Security"})
+@Description("Perms evaluation")
+@StackTrace(false)
+public class PermissionCheckEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Queries")
+    int queries;
+
+    @Label("Granted")
+    boolean granted;
+
+    public void commit(String method, int queries, boolean granted) {
+        end();
+        if (!shouldCommit()) return;
+        this.method = method;
+        this.queries = queries;
+        this.granted = granted;
+        commit();
+    }
+}
@@ -0,0 +1,31 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import com.smartsplit.smartsplitback.config.SqlStats;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * PermissionCheckEvent รอบเมธอด boolean ของ Perms ที่ถูกเรียกจากภายนอก (SpEL ของ @PreAuthorize, controller)
+ * การเรียกกันเองภายใน Perms (isAdmin, isGroupMember ...) ไม่ผ่าน proxy → นับรวมอยู่ในเมธอดที่ถูกเรียก
+ */
+@Aspect
+@Component
+public class PermsJfrAspect {
+
+    @Around("execution(public boolean com.smartsplit.smartsplitback.security.Perms.*(..))")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        PermissionCheckEvent event = new PermissionCheckEvent();
+        if (!event.isEnabled()) return call.proceed();
+
+        SqlStats sql = SqlStats.current();
+        int before = (sql == null) ? 0 : sql.statements();
+        event.begin();
+        Object result = call.proceed();
+        event.commit(call.getSignature().getName(),
+                (sql == null) ? -1 : sql.statements() - before,
+                Boolean.TRUE.equals(result));
+        return result;
+    }
+}
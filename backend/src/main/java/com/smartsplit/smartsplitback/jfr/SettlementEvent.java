@@ -0,0 +1,28 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** คำนวณ settlement ของ expense (userSettlement = 1 คน, allSettlements = ทุก participant) */
+@Name("smartsplit.Settlement")
+@Label("Settlement")
+@Category({"SmartSplit", "Expense"})
+@Description("Settlement computation for an expense")
+public class SettlementEvent extends jdk.jfr.Event {
+
+    @Label("Expense Id")
+    long expenseId;
+
+    @Label("Participants")
+    int participants;
+
+    public void commit(long expenseId, int participants) {
+        end();
+        if (!shouldCommit()) return;
+        this.expenseId = expenseId;
+        this.participants = participants;
+        commit();
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * log การเปลี่ยนแปลงของข้อมูลที่อยู่ใน L2 cache ให้ทุก replica poll ไป evict
+ * entity_key == null คือทั้ง region
+ */
+@Entity
+@Table(name = "cache_invalidations",
+        indexes = {
+                @Index(name = "idx_cache_invalidations_created", columnList = "created_at")
+        })
+public class CacheInvalidation {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "invalidation_id")
+    private Long id;
+
+    @Column(length = 64, nullable = false)
+    private String region;
+
+    @Column(name = "entity_key", length = 64)
+    private String entityKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public CacheInvalidation() {}
+
+    public CacheInvalidation(String region, String entityKey) {
+        this.region = region;
+        this.entityKey = entityKey;
+    }
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public String getRegion() { return region; } public void setRegion(String region) { this.region = region; }
+    public String getEntityKey() { return entityKey; } public void setEntityKey(String entityKey) { this.entityKey = entityKey; }
+    public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    @Override public boolean equals(Object o){ return o instanceof CacheInvalidation c && Objects.equals(id, c.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
@@ -0,0 +1,21 @@
+package com.smartsplit.smartsplitback.model;
+
+/**
+ * ชื่อ region ของ Hibernate second-level cache
+ * ต้องตรงกับ resources/hibernate-cache.conf (missing_cache_strategy=fail → ชื่อผิดจะ start ไม่ขึ้น)
+ */
+public final class CacheRegions {
+
+    public static final String USER = "user";
+    public static final String GROUP = "group";
+    public static final String GROUP_MEMBER = "group-member";
+
+    // query cache ของ Perms: owner ของ group / group ของ expense
+    public static final String GROUP_OWNER_QUERY = "group-owner-query";
+    public static final String EXPENSE_GROUP_QUERY = "expense-group-query";
+
+    // ใช้ใน cache_invalidations เท่านั้น: ล้างทุก region
+    public static final String ALL = "*";
+
+    private CacheRegions() {}
+}
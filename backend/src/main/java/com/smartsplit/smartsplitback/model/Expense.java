@@ -1,6 +1,7 @@
 package com.smartsplit.smartsplitback.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -14,11 +15,17 @@ import java.util.Objects;
 @Table(name = "expenses",
         indexes = {
                 @Index(name="idx_expenses_group", columnList="group_id"),
-                @Index(name="idx_expenses_payer", columnList="payer_user_id")
+                @Index(name="idx_expenses_payer_group", columnList="payer_user_id, group_id"),
+                @Index(name="idx_expenses_status_closed", columnList="status, closed_at")
         })
 public class Expense {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled table generator (ไม่ใช้ IDENTITY) เพื่อให้ Hibernate ทำ JDBC batch insert ได้
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "expense_id_gen")
+    @TableGenerator(name = "expense_id_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "expenses", allocationSize = 50)
     @Column(name = "expense_id")
     private Long id;
 
@@ -48,12 +55,38 @@ public class Expense {
 
     @Column(name="created_at", nullable=false)
     private LocalDateTime createdAt;
+
+    // เวลาที่ปิด (SETTLED/CANCELED) ล่าสุด ใช้นับอายุก่อนย้ายเข้า archive (ExpenseArchiveService)
+    @Column(name="closed_at")
+    private LocalDateTime closedAt;
     
     @Lob
     @Column(name="exchange_rates_json", columnDefinition = "TEXT")
     private String exchangeRatesJson;
 
-    @PrePersist void onCreate(){ if(createdAt==null) createdAt=LocalDateTime.now(); }
+    // ตัวนับการเปลี่ยนแปลงของ expense + ตารางลูก ใช้ทำ ETag (ExpenseRepository.bumpRevision)
+    // Hibernate ไม่เขียนคอลัมน์นี้เอง เพื่อไม่ให้ entity ที่ค้างใน session เขียนค่าเก่าทับ
+    @ColumnDefault("0")
+    @Column(name = "revision", nullable = false, insertable = false, updatable = false)
+    private long revision;
+
+    // optimistic lock ของแถว expenses เอง (ต่างจาก revision ที่นับรวมตารางลูก)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist void onCreate(){
+        if(createdAt==null) createdAt=LocalDateTime.now();
+        trackClosedAt();
+    }
+
+    @PreUpdate void onUpdate(){ trackClosedAt(); }
+
+    private void trackClosedAt(){
+        if (status == ExpenseStatus.OPEN) closedAt = null;
+        else if (closedAt == null) closedAt = LocalDateTime.now();
+    }
 
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ExpenseItem> items = new ArrayList<>();
@@ -114,6 +147,12 @@ public class Expense {
     public String getTitle(){ return title; } public void setTitle(String title){ this.title=title; }
     public ExpenseStatus getStatus(){ return status; } public void setStatus(ExpenseStatus status){ this.status=status; }
     public LocalDateTime getCreatedAt(){ return createdAt; } public void setCreatedAt(LocalDateTime createdAt){ this.createdAt=createdAt; }
+    public LocalDateTime getClosedAt(){ return closedAt; } public void setClosedAt(LocalDateTime closedAt){ this.closedAt=closedAt; }
+
+    public long getRevision(){ return revision; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 
     public String getExchangeRatesJson() { return exchangeRatesJson; }
     public void setExchangeRatesJson(String exchangeRatesJson) { this.exchangeRatesJson = exchangeRatesJson; }
@@ -0,0 +1,84 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * expense ที่ปิดแล้วและย้ายออกจากตาราง hot (expenses / items / shares / payments)
+ * รายละเอียดทั้งหมดอยู่ใน document (JSON ของ ExpenseArchiveDocument บีบด้วย gzip)
+ * คอลัมน์อื่นเป็นสรุปไว้ list ตาม group และตรวจสิทธิ์โดยไม่ต้องแตกเอกสาร
+ */
+@Entity
+@Table(name = "expense_archive",
+        indexes = {
+                @Index(name = "idx_expense_archive_group", columnList = "group_id, expense_id")
+        })
+public class ExpenseArchive {
+
+    // id เดิมของ expense (ลิงก์/URL เก่ายังใช้ได้)
+    @Id
+    @Column(name = "expense_id")
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "payer_user_id", nullable = false)
+    private Long payerUserId;
+
+    @Column(length = 200, nullable = false)
+    private String title;
+
+    @Column(precision = 18, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private ExpenseType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private ExpenseStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt = Instant.now();
+
+    @Lob
+    @Column(name = "document", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] document;
+
+    @ElementCollection
+    @CollectionTable(name = "expense_archive_participants",
+            joinColumns = @JoinColumn(name = "expense_id",
+                    foreignKey = @ForeignKey(name = "fk_expense_archive_participants_expense")))
+    @Column(name = "user_id", nullable = false)
+    private Set<Long> participantIds = new HashSet<>();
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public Long getGroupId() { return groupId; } public void setGroupId(Long groupId) { this.groupId = groupId; }
+    public Long getPayerUserId() { return payerUserId; } public void setPayerUserId(Long payerUserId) { this.payerUserId = payerUserId; }
+    public String getTitle() { return title; } public void setTitle(String title) { this.title = title; }
+    public BigDecimal getAmount() { return amount; } public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public ExpenseType getType() { return type; } public void setType(ExpenseType type) { this.type = type; }
+    public ExpenseStatus getStatus() { return status; } public void setStatus(ExpenseStatus status) { this.status = status; }
+    public LocalDateTime getCreatedAt() { return createdAt; } public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getClosedAt() { return closedAt; } public void setClosedAt(LocalDateTime closedAt) { this.closedAt = closedAt; }
+    public Instant getArchivedAt() { return archivedAt; } public void setArchivedAt(Instant archivedAt) { this.archivedAt = archivedAt; }
+    public byte[] getDocument() { return document; } public void setDocument(byte[] document) { this.document = document; }
+    public Set<Long> getParticipantIds() { return participantIds; } public void setParticipantIds(Set<Long> participantIds) { this.participantIds = participantIds; }
+
+    @Override public boolean equals(Object o){ return o instanceof ExpenseArchive a && Objects.equals(id, a.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
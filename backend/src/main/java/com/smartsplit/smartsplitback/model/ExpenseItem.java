@@ -1,6 +1,7 @@
 package com.smartsplit.smartsplitback.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,10 +9,14 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "expense_items",
-        indexes = { @Index(name = "idx_expense_items_expense", columnList = "expense_id") })
+        indexes = { @Index(name = "idx_expense_items_expense_amount", columnList = "expense_id, amount") })
 public class ExpenseItem {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "expense_item_id_gen")
+    @TableGenerator(name = "expense_item_id_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "expense_items", allocationSize = 50)
     @Column(name = "expense_item_id")
     private Long id;
 
@@ -27,7 +32,12 @@ public class ExpenseItem {
     private BigDecimal amount;
 
     @Column(length = 3, nullable = false)
-    private String currency = "THB";
+    private String currency = Money.THB;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 
     @OneToMany(mappedBy = "expenseItem", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ExpenseItemShare> shares = new ArrayList<>();
@@ -35,6 +45,9 @@ public class ExpenseItem {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public Expense getExpense() { return expense; }
     public void setExpense(Expense expense) { this.expense = expense; }
 
@@ -47,6 +60,11 @@ public class ExpenseItem {
     public String getCurrency() { return currency; }
     public void setCurrency(String currency) { this.currency = currency; }
 
+    /** สกุลเงินที่ใช้คำนวณ: null / ว่าง (ข้อมูลเก่าก่อนมี column currency) → THB; ไม่แปลงตัวพิมพ์ */
+    public String currencyOrDefault() {
+        return (currency == null || currency.isBlank()) ? Money.THB : currency;
+    }
+
     public List<ExpenseItemShare> getShares() { return shares; }
     public void setShares(List<ExpenseItemShare> shares) { this.shares = shares; }
 
@@ -1,6 +1,7 @@
 package com.smartsplit.smartsplitback.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Objects;
@@ -8,13 +9,17 @@ import java.util.Objects;
 @Entity
 @Table(name = "expense_item_shares",
         indexes = {
-                @Index(name = "idx_item_shares_item", columnList = "expense_item_id"),
-                @Index(name = "idx_item_shares_participant", columnList = "participant_user_id")
+                @Index(name = "idx_item_shares_item_participant", columnList = "expense_item_id, participant_user_id"),
+                @Index(name = "idx_item_shares_participant_item",
+                        columnList = "participant_user_id, expense_item_id, share_value, share_percent")
         })
 public class ExpenseItemShare {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "expense_item_share_id_gen")
+    @TableGenerator(name = "expense_item_share_id_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "expense_item_shares", allocationSize = 50)
     @Column(name = "share_id")
     private Long id;
 
@@ -37,9 +42,17 @@ public class ExpenseItemShare {
     @Column(name = "share_percent", precision = 9, scale = 6)
     private BigDecimal sharePercent;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public ExpenseItem getExpenseItem() { return expenseItem; }
     public void setExpenseItem(ExpenseItem expenseItem) { this.expenseItem = expenseItem; }
 
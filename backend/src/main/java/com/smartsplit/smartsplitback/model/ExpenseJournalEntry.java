@@ -0,0 +1,60 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * แถวใน journal ของ expense (append-only, ไม่แก้ไขหลังเขียน)
+ * seq เรียงต่อกันภายใน expense เดียว, delta = JSON ของ ExpenseJournalService.Delta
+ * changes = ชนิดการแก้ไขใน transaction นั้นคั่นด้วย comma (เช่น "ITEMS,SHARES", "PAYMENT_VERIFIED")
+ */
+@Entity
+@Table(name = "expense_journal",
+        uniqueConstraints = @UniqueConstraint(name = "uk_expense_journal_seq", columnNames = {"expense_id", "seq"}),
+        indexes = @Index(name = "idx_expense_journal_created", columnList = "expense_id, created_at"))
+public class ExpenseJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "expense_journal_id_gen")
+    @TableGenerator(name = "expense_journal_id_gen", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "expense_journal", allocationSize = 50)
+    @Column(name = "journal_id")
+    private Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private int seq;
+
+    @Column(length = 200, nullable = false)
+    private String changes;
+
+    @Column(columnDefinition = "json", nullable = false)
+    private String delta;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public ExpenseJournalEntry() {}
+
+    public ExpenseJournalEntry(Long expenseId, int seq, String changes, String delta) {
+        this.expenseId = expenseId;
+        this.seq = seq;
+        this.changes = changes;
+        this.delta = delta;
+    }
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public Long getExpenseId() { return expenseId; } public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    public int getSeq() { return seq; } public void setSeq(int seq) { this.seq = seq; }
+    public String getChanges() { return changes; } public void setChanges(String changes) { this.changes = changes; }
+    public String getDelta() { return delta; } public void setDelta(String delta) { this.delta = delta; }
+    public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    @Override public boolean equals(Object o){ return o instanceof ExpenseJournalEntry e && Objects.equals(id, e.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
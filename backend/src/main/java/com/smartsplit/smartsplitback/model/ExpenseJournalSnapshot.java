@@ -0,0 +1,46 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/** สถานะ settlement ของ expense หลัง journal แถว seq (JSON ของ ExpenseJournalService.State) */
+@Entity
+@Table(name = "expense_journal_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_expense_journal_snapshots_seq", columnNames = {"expense_id", "seq"}))
+public class ExpenseJournalSnapshot {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private int seq;
+
+    @Column(columnDefinition = "json", nullable = false)
+    private String state;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public ExpenseJournalSnapshot() {}
+
+    public ExpenseJournalSnapshot(Long expenseId, int seq, String state) {
+        this.expenseId = expenseId;
+        this.seq = seq;
+        this.state = state;
+    }
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public Long getExpenseId() { return expenseId; } public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    public int getSeq() { return seq; } public void setSeq(int seq) { this.seq = seq; }
+    public String getState() { return state; } public void setState(String state) { this.state = state; }
+    public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    @Override public boolean equals(Object o){ return o instanceof ExpenseJournalSnapshot s && Objects.equals(id, s.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
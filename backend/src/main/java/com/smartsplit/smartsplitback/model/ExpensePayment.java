@@ -1,6 +1,7 @@
 package com.smartsplit.smartsplitback.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Objects;
@@ -8,7 +9,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "expense_payments",
         indexes = {
-                @Index(name = "idx_payments_expense", columnList = "expense_id"),
+                @Index(name = "idx_payments_expense_user_status", columnList = "expense_id, from_user_id, status, amount"),
                 @Index(name = "idx_payments_from_user", columnList = "from_user_id"),
                 @Index(name = "idx_payments_status", columnList = "status")
         })
@@ -41,6 +42,11 @@ public class ExpensePayment {
     @Column(name = "verified_at")
     private Instant verifiedAt;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // one-to-one ไปยังใบเสร็จ (ลบ payment → ลบ receipt)
     @OneToOne(mappedBy = "payment", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private PaymentReceipt receipt;
@@ -49,6 +55,9 @@ public class ExpensePayment {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public Expense getExpense() { return expense; }
     public void setExpense(Expense expense) { this.expense = expense; }
 
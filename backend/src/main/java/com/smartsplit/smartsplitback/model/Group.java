@@ -1,12 +1,17 @@
 package com.smartsplit.smartsplitback.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.GROUP)
 @Table(name = "groups_tbl")
 public class Group {
 
@@ -27,11 +32,18 @@ public class Group {
     @Column(name = "cover_image_url", length = 500)
     private String coverImageUrl;
 
+    // ตัวนับการเปลี่ยนแปลงของ group + สมาชิก ใช้ทำ ETag ของ dashboard (GroupRepository.bumpRevision)
+    // Hibernate ไม่เขียนคอลัมน์นี้เอง เหมือน Expense.revision
+    @ColumnDefault("0")
+    @Column(name = "revision", nullable = false, insertable = false, updatable = false)
+    private long revision;
+
     // getters/setters/equals/hashCode
     public Long getId() { return id; } public void setId(Long id) { this.id = id; }
     public User getOwner() { return owner; } public void setOwner(User owner) { this.owner = owner; }
     public String getName() { return name; } public void setName(String name) { this.name = name; }
     public String getCoverImageUrl() { return coverImageUrl; } public void setCoverImageUrl(String coverImageUrl) { this.coverImageUrl = coverImageUrl; }
+    public long getRevision() { return revision; }
 
     @Override public boolean equals(Object o){ return o instanceof Group g && Objects.equals(id,g.id); }
     @Override public int hashCode(){ return Objects.hashCode(id); }
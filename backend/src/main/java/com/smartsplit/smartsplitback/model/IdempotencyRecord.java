@@ -0,0 +1,77 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * ผลของคำขอที่ส่งมาพร้อม Idempotency-Key (ต่อ user)
+ * IN_PROGRESS = มีคนกำลังทำอยู่ (คำขอซ้ำจะรอ), COMPLETED = เก็บ response ไว้ตอบซ้ำได้จนถึง expires_at
+ * lockedUntil = lease ของผู้ทำ IN_PROGRESS (ต่ออายุเรื่อย ๆ ระหว่างทำ)
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idem_key"}),
+        indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    public enum Status { IN_PROGRESS, COMPLETED }
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idempotency_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idem_key", length = 100, nullable = false)
+    private String idemKey;
+
+    @Column(length = 100, nullable = false)
+    private String endpoint;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 12, nullable = false)
+    private Status status = Status.IN_PROGRESS;
+
+    @Lob
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(Long userId, String idemKey, String endpoint, String requestHash, Instant expiresAt) {
+        this.userId = userId;
+        this.idemKey = idemKey;
+        this.endpoint = endpoint;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; } public void setUserId(Long userId) { this.userId = userId; }
+    public String getIdemKey() { return idemKey; } public void setIdemKey(String idemKey) { this.idemKey = idemKey; }
+    public String getEndpoint() { return endpoint; } public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+    public String getRequestHash() { return requestHash; } public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    public Status getStatus() { return status; } public void setStatus(Status status) { this.status = status; }
+    public String getResponseBody() { return responseBody; } public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getLockedUntil() { return lockedUntil; } public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+    public Instant getExpiresAt() { return expiresAt; } public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    @Override public boolean equals(Object o){ return o instanceof IdempotencyRecord r && Objects.equals(id, r.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
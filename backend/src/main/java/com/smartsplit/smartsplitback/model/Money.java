@@ -0,0 +1,149 @@
+package com.smartsplit.smartsplitback.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * จำนวนเงินแบบ immutable เก็บเป็น long หน่วย micro (1e-6) + รหัสสกุลเงิน
+ * ใช้ในการรวมยอด in-memory (settlement/balance/export) แทน BigDecimal.add ในลูป
+ * แปลงกลับเป็น BigDecimal เฉพาะตอนออก DTO เท่านั้น
+ *
+ * - scale 6 ตรงกับ share_value ใน DB, ค่าที่ละเอียดกว่านี้จะโยน ArithmeticException (ไม่ปัดเงียบ ๆ)
+ * - บวก/ลบ overflow จะโยน ArithmeticException (Math.addExact)
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 6;
+    public static final String THB = "THB";
+
+    private static final long MICROS_PER_CENT = 10_000L;
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private static final Money ZERO_THB = new Money(0L, THB);
+
+    private final long micros;
+    private final String currency;
+
+    private Money(long micros, String currency) {
+        this.micros = micros;
+        this.currency = currency;
+    }
+
+    public static Money zero(String currency) {
+        String ccy = normalize(currency);
+        return THB.equals(ccy) ? ZERO_THB : new Money(0L, ccy);
+    }
+
+    public static Money thb(BigDecimal amount) {
+        return of(amount, THB);
+    }
+
+    /** null → 0 */
+    public static Money of(BigDecimal amount, String currency) {
+        String ccy = normalize(currency);
+        if (amount == null || amount.signum() == 0) return zero(ccy);
+        return new Money(toMicros(amount), ccy);
+    }
+
+    public static Money ofMicros(long micros, String currency) {
+        return new Money(micros, normalize(currency));
+    }
+
+    public long micros() { return micros; }
+    public String currency() { return currency; }
+    public int signum() { return Long.signum(micros); }
+    public boolean isZero() { return micros == 0L; }
+
+    public Money plus(Money other) {
+        sameCurrency(other);
+        if (other.micros == 0L) return this;
+        return new Money(Math.addExact(micros, other.micros), currency);
+    }
+
+    /** บวก BigDecimal (สกุลเดียวกัน) โดยไม่ต้องสร้าง Money ชั่วคราว; null → ไม่เปลี่ยน */
+    public Money plus(BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) return this;
+        return new Money(Math.addExact(micros, toMicros(amount)), currency);
+    }
+
+    /** รวม BigDecimal หลายค่าด้วย long ตัวเดียว สร้าง Money แค่ตอนจบ; null ถูกข้าม */
+    public static <T> Money sum(String currency, Iterable<T> rows, Function<? super T, BigDecimal> amount) {
+        long acc = 0L;
+        for (T row : rows) {
+            BigDecimal v = amount.apply(row);
+            if (v != null && v.signum() != 0) acc = Math.addExact(acc, toMicros(v));
+        }
+        return acc == 0L ? zero(currency) : new Money(acc, normalize(currency));
+    }
+
+    public Money minus(Money other) {
+        sameCurrency(other);
+        if (other.micros == 0L) return this;
+        return new Money(Math.subtractExact(micros, other.micros), currency);
+    }
+
+    /** ค่าติดลบ → 0 */
+    public Money clampAtZero() {
+        return micros < 0 ? zero(currency) : this;
+    }
+
+    /** ปัดเป็นหน่วยสตางค์แบบ HALF_UP (ห่างจากศูนย์) ให้ผลเท่ากับ BigDecimal.setScale(2, HALF_UP) */
+    public Money roundToCents() {
+        long q = micros / MICROS_PER_CENT;
+        long r = micros % MICROS_PER_CENT;
+        if (Math.abs(r) >= MICROS_PER_CENT / 2) q += Long.signum(r);
+        long rounded = Math.multiplyExact(q, MICROS_PER_CENT);
+        return rounded == micros ? this : new Money(rounded, currency);
+    }
+
+    /** ค่าเต็ม scale 6 */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(micros, SCALE);
+    }
+
+    /** แปลงออกที่ scale ที่ต้องการ (HALF_UP) — ใช้ที่ขอบ DTO */
+    public BigDecimal toBigDecimal(int scale) {
+        if (scale == 2) {
+            return BigDecimal.valueOf(roundToCents().micros / MICROS_PER_CENT, 2);
+        }
+        return BigDecimal.valueOf(micros, SCALE).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    private void sameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    // scale 0..6 อ่านเป็น long แล้วคูณ 10^n ตรง ๆ (ไม่ผ่าน setScale/BigInteger), นอกนั้นให้ BigDecimal ตัดสิน
+    private static long toMicros(BigDecimal amount) {
+        int scale = amount.scale();
+        if (scale == SCALE) {
+            // share_value จาก DB เป็น scale 6 อยู่แล้ว → เลื่อนจุดแล้วอ่านเป็น long ได้เลย
+            return amount.scaleByPowerOfTen(SCALE).longValueExact();
+        }
+        if (scale >= 0 && scale < SCALE) {
+            return Math.multiplyExact(amount.scaleByPowerOfTen(scale).longValueExact(), POW10[SCALE - scale]);
+        }
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    private static String normalize(String currency) {
+        return (currency == null || currency.isBlank()) ? THB : currency.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public int compareTo(Money o) {
+        sameCurrency(o);
+        return Long.compare(micros, o.micros);
+    }
+
+    @Override public boolean equals(Object o) {
+        return o instanceof Money m && micros == m.micros && currency.equals(m.currency);
+    }
+    @Override public int hashCode() { return Objects.hash(micros, currency); }
+    @Override public String toString() { return toBigDecimal().toPlainString() + " " + currency; }
+}
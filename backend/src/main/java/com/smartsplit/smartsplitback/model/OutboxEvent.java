@@ -0,0 +1,91 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * แถวใน transactional outbox: DomainEvent ที่ serialize เป็น JSON
+ * เขียนใน transaction เดียวกับการแก้ไข แล้ว OutboxRelay claim ไปส่งให้ listener
+ * locked_by / locked_until = lease ของ relay ที่ claim ไป (หมดอายุ → replica อื่นหยิบต่อได้)
+ */
+@Entity
+@Table(name = "outbox",
+        indexes = {
+                @Index(name = "idx_outbox_status_id", columnList = "status, event_id"),
+                @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type, aggregate_id, status, event_id"),
+                @Index(name = "idx_outbox_processed", columnList = "processed_at")
+        })
+public class OutboxEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long id;
+
+    @Column(name = "aggregate_type", length = 40, nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", length = 60, nullable = false)
+    private String eventType;
+
+    @Lob
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public String getAggregateType() { return aggregateType; } public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
+    public Long getAggregateId() { return aggregateId; } public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+    public String getEventType() { return eventType; } public void setEventType(String eventType) { this.eventType = eventType; }
+    public String getPayload() { return payload; } public void setPayload(String payload) { this.payload = payload; }
+    public OutboxStatus getStatus() { return status; } public void setStatus(OutboxStatus status) { this.status = status; }
+    public int getAttempts() { return attempts; } public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; } public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public String getLockedBy() { return lockedBy; } public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+    public Instant getLockedUntil() { return lockedUntil; } public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+    public String getLastError() { return lastError; } public void setLastError(String lastError) { this.lastError = lastError; }
+    public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getProcessedAt() { return processedAt; } public void setProcessedAt(Instant processedAt) { this.processedAt = processedAt; }
+
+    @Override public boolean equals(Object o){ return o instanceof OutboxEvent e && Objects.equals(id, e.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
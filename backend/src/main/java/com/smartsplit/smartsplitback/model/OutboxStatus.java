@@ -0,0 +1,7 @@
+package com.smartsplit.smartsplitback.model;
+
+public enum OutboxStatus {
+    PENDING,     // รอส่ง (หรือรอ retry)
+    DONE,        // listener ทำงานสำเร็จแล้ว
+    DEAD         // ล้มเหลวครบจำนวนครั้ง ต้องตรวจสอบเอง
+}
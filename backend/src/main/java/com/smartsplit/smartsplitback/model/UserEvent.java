@@ -0,0 +1,52 @@
+package com.smartsplit.smartsplitback.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * แจ้งเตือนผู้ใช้ว่ายอดของ expense หนึ่งเปลี่ยน (ใช้ส่งผ่าน SSE)
+ * user_id / expense_id เป็นค่าเปล่า ไม่ใช่ FK เพื่อให้ event อยู่ต่อหลังลบ expense
+ */
+@Entity
+@Table(name = "user_events",
+        indexes = {
+                @Index(name = "idx_user_events_created", columnList = "created_at")
+        })
+public class UserEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 40, nullable = false)
+    private UserEventType type;
+
+    @Column(name = "expense_id")
+    private Long expenseId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public UserEvent() {}
+
+    public UserEvent(Long userId, UserEventType type, Long expenseId) {
+        this.userId = userId;
+        this.type = type;
+        this.expenseId = expenseId;
+    }
+
+    public Long getId() { return id; } public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; } public void setUserId(Long userId) { this.userId = userId; }
+    public UserEventType getType() { return type; } public void setType(UserEventType type) { this.type = type; }
+    public Long getExpenseId() { return expenseId; } public void setExpenseId(Long expenseId) { this.expenseId = expenseId; }
+    public Instant getCreatedAt() { return createdAt; } public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    @Override public boolean equals(Object o){ return o instanceof UserEvent e && Objects.equals(id, e.id); }
+    @Override public int hashCode(){ return Objects.hashCode(id); }
+}
@@ -0,0 +1,12 @@
+package com.smartsplit.smartsplitback.model;
+
+public enum UserEventType {
+    PAYMENT_CREATED,
+    PAYMENT_STATUS_CHANGED,
+    PAYMENT_DELETED,
+    SHARES_CHANGED,
+    ITEMS_CHANGED,
+    EXPENSE_CREATED,
+    EXPENSE_UPDATED,
+    EXPENSE_DELETED
+}
@@ -0,0 +1,19 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * เนื้อหาของ expense ที่ archive แล้ว (expense_archive.document)
+ * ใช้ DTO เดิมของแต่ละส่วน เพื่อให้ client อ่านได้แบบเดียวกับตอนยังอยู่ในตาราง hot
+ */
+public record ExpenseArchiveDocument(
+        ExpenseDto expense,
+        String exchangeRatesJson,
+        LocalDateTime closedAt,
+        Instant archivedAt,
+        List<ExpenseItemDto> items,
+        List<ExpenseItemShareDto> shares,
+        List<ExpensePaymentDto> payments
+) {}
@@ -1,5 +1,6 @@
 package com.smartsplit.smartsplitback.model.dto;
 
+import com.smartsplit.smartsplitback.model.Expense;
 import com.smartsplit.smartsplitback.model.ExpenseStatus;
 import com.smartsplit.smartsplitback.model.ExpenseType;
 
@@ -14,5 +15,26 @@ public record ExpenseDto(
         ExpenseType type,
         String title,
         ExpenseStatus status,
-        LocalDateTime createdAt
-) {}
+        LocalDateTime createdAt,
+        Long version
+) {
+    // ไม่มี version (คำขอสร้างใหม่ / โค้ดเดิม)
+    public ExpenseDto(Long id, Long groupId, Long payerUserId, BigDecimal amount, ExpenseType type,
+                      String title, ExpenseStatus status, LocalDateTime createdAt) {
+        this(id, groupId, payerUserId, amount, type, title, status, createdAt, null);
+    }
+
+    public static ExpenseDto fromEntity(Expense e) {
+        return new ExpenseDto(
+                e.getId(),
+                e.getGroup().getId(),
+                e.getPayer().getId(),
+                e.getAmount(),
+                e.getType(),
+                e.getTitle(),
+                e.getStatus(),
+                e.getCreatedAt(),
+                e.getVersion()
+        );
+    }
+}
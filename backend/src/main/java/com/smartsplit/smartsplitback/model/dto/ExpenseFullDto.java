@@ -0,0 +1,9 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import java.util.List;
+
+public record ExpenseFullDto(
+        ExpenseDto expense,
+        List<ExpenseItemDto> items,
+        List<ExpenseItemShareDto> shares
+) {}
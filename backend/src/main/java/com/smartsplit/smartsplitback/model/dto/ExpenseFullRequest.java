@@ -0,0 +1,38 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * payload สำหรับสร้าง expense ทั้งก้อน (expense + items + shares) ในคำขอเดียว
+ * - rates: อัตราแลกเปลี่ยนที่ผู้ใช้กำหนดเอง (ccy -> THB) ถ้าไม่ส่งจะใช้ live rate
+ * - amount: ถ้าไม่ส่งจะใช้ผลรวมของ items (แปลงเป็น THB แล้ว)
+ */
+public record ExpenseFullRequest(
+        Long groupId,
+        Long payerUserId,
+        ExpenseType type,
+        String title,
+        ExpenseStatus status,
+        String currency,
+        BigDecimal amount,
+        Map<String, BigDecimal> rates,
+        List<Item> items
+) {
+    public record Item(
+            String name,
+            BigDecimal amount,
+            String currency,
+            List<Share> shares
+    ) {}
+
+    public record Share(
+            Long participantUserId,
+            BigDecimal shareValue,
+            BigDecimal sharePercent
+    ) {}
+}
@@ -10,7 +10,8 @@ public record ExpenseItemDto(
         String name,
         BigDecimal amount,
         String currency,
-        BigDecimal amountThb
+        BigDecimal amountThb,
+        Long version
 ) {
     public static ExpenseItemDto fromEntity(ExpenseItem it, BigDecimal amountThb) {
         return new ExpenseItemDto(
@@ -19,7 +20,8 @@ public record ExpenseItemDto(
                 it.getName(),
                 it.getAmount(),
                 it.getCurrency(),
-                amountThb
+                amountThb,
+                it.getVersion()
         );
     }
 
@@ -8,7 +8,8 @@ public record ExpenseItemShareDto(
         Long expenseItemId,
         Long participantUserId,
         BigDecimal shareValue,
-        BigDecimal sharePercent
+        BigDecimal sharePercent,
+        Long version
 ) {
     public static ExpenseItemShareDto fromEntity(ExpenseItemShare s) {
         return new ExpenseItemShareDto(
@@ -16,7 +17,8 @@ public record ExpenseItemShareDto(
                 (s.getExpenseItem() != null ? s.getExpenseItem().getId() : null),
                 (s.getParticipant() != null ? s.getParticipant().getId() : null),
                 s.getShareValue(),
-                s.getSharePercent()
+                s.getSharePercent(),
+                s.getVersion()
         );
     }
 }
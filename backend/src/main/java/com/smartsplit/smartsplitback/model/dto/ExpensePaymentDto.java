@@ -14,7 +14,8 @@ public record ExpensePaymentDto(
         Instant createdAt,
         Instant verifiedAt,
         Long receiptId,
-        String receiptFileUrl
+        String receiptFileUrl,
+        Long version
 ) {
     public static ExpensePaymentDto fromEntity(ExpensePayment p) {
         return new ExpensePaymentDto(
@@ -26,7 +27,8 @@ public record ExpensePaymentDto(
                 p.getCreatedAt(),
                 p.getVerifiedAt(),
                 (p.getReceipt() != null ? p.getReceipt().getId() : null),
-                (p.getReceipt() != null ? p.getReceipt().getFileUrl() : null)
+                (p.getReceipt() != null ? p.getReceipt().getFileUrl() : null),
+                p.getVersion()
         );
     }
 }
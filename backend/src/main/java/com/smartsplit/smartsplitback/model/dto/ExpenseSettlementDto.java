@@ -9,4 +9,10 @@ public record ExpenseSettlementDto(
         BigDecimal paidAmount,
         boolean settled,
         BigDecimal remaining
-) {}
+) {
+    // payer ไม่ต้องจ่ายให้ตัวเอง → แสดงเป็น settled เสมอ (ยอดอื่นคงเดิม)
+    public ExpenseSettlementDto forPayer(Long payerId) {
+        if (settled || userId == null || !userId.equals(payerId)) return this;
+        return new ExpenseSettlementDto(expenseId, userId, owedAmount, paidAmount, true, remaining);
+    }
+}
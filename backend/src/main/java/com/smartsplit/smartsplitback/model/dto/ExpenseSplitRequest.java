@@ -0,0 +1,15 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * body (ไม่บังคับ) ของ POST /api/expenses/{id}/split
+ * - participantIds: ถ้าไม่ส่ง EQUAL จะใช้สมาชิกทั้งกลุ่ม, PERCENTAGE จะใช้ key ของ percents
+ * - percents: userId -> เปอร์เซ็นต์ (ใช้กับ PERCENTAGE, รวมกันต้องได้ 100)
+ */
+public record ExpenseSplitRequest(
+        List<Long> participantIds,
+        Map<Long, BigDecimal> percents
+) {}
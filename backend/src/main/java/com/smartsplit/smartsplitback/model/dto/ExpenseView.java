@@ -0,0 +1,59 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ExpenseDto ที่ส่งให้ client (GET /api/expenses/{id}, /api/expenses/group/{groupId})
+ * field และลำดับใน JSON เหมือน ExpenseDto ต่างกันที่ status: SETTLED ที่จ่ายครบแล้วเป็น "COMPLETE" (ไม่มีใน ExpenseStatus)
+ * และ archived: true = อ่านจาก archive (GET /api/expenses/{id} แบบ read-through)
+ */
+public record ExpenseView(
+        Long id,
+        Long groupId,
+        Long payerUserId,
+        BigDecimal amount,
+        ExpenseType type,
+        String title,
+        String status,
+        LocalDateTime createdAt,
+        Long version,
+        boolean archived
+) {
+    public static final String COMPLETE = "COMPLETE";
+
+    /** fullyPaid ถูกเรียกเฉพาะ expense ที่ SETTLED (ต้อง query ยอดจ่าย) */
+    public static ExpenseView of(ExpenseDto dto, BooleanSupplier fullyPaid) {
+        return view(dto, fullyPaid, false);
+    }
+
+    /** expense ใน archive ปิดและจ่ายครบแล้วเสมอ (SETTLED → COMPLETE) */
+    public static ExpenseView archived(ExpenseDto dto) {
+        return view(dto, () -> true, true);
+    }
+
+    private static ExpenseView view(ExpenseDto dto, BooleanSupplier fullyPaid, boolean archived) {
+        return new ExpenseView(
+                dto.id(),
+                dto.groupId(),
+                dto.payerUserId(),
+                dto.amount(),
+                dto.type(),
+                dto.title(),
+                displayStatus(dto.status(), fullyPaid),
+                dto.createdAt(),
+                dto.version(),
+                archived
+        );
+    }
+
+    private static String displayStatus(ExpenseStatus status, BooleanSupplier fullyPaid) {
+        if (status == null) return null;
+        if (status == ExpenseStatus.SETTLED && fullyPaid.getAsBoolean()) return COMPLETE;
+        return status.name();
+    }
+}
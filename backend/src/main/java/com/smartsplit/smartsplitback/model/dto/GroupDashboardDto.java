@@ -0,0 +1,32 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * ข้อมูลหน้า group ทั้งหน้าในคำขอเดียว (GET /api/groups/{id}/dashboard)
+ * - expenses: ยอด items/verified (THB, 2 ตำแหน่ง) + สถานะการจ่าย + settlement ของผู้เรียก
+ * - position: ยอดสุทธิของผู้เรียกใน group นี้
+ */
+public record GroupDashboardDto(
+        GroupDto group,
+        List<UserPublicDto> members,
+        List<ExpenseLine> expenses,
+        Position position
+) {
+    public record ExpenseLine(
+            ExpenseDto expense,
+            String displayStatus,
+            BigDecimal itemsTotal,
+            BigDecimal verifiedTotal,
+            boolean fullyPaid,
+            ExpenseSettlementDto mySettlement
+    ) {}
+
+    public record Position(
+            Long userId,
+            BigDecimal youOwe,
+            BigDecimal owedToYou,
+            BigDecimal net
+    ) {}
+}
@@ -0,0 +1,13 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+
+import java.util.List;
+
+/** เปลี่ยนสถานะหลาย payment ของ expense เดียวกัน; version = ค่าที่ client เห็นล่าสุด (ต้องตรงถึงจะเปลี่ยน) */
+public record PaymentStatusBulkRequest(
+        PaymentStatus status,
+        List<Item> payments
+) {
+    public record Item(Long id, Long version) {}
+}
@@ -0,0 +1,18 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+
+import java.util.List;
+
+/**
+ * ผลของ bulk status ต่อแถว (เรียงตามคำขอ)
+ * updated = เปลี่ยนแล้ว หรือเป็นสถานะนั้นอยู่แล้ว, conflicts = version ไม่ตรง (ต้องโหลดใหม่), notFound = ไม่อยู่ใน expense นี้
+ */
+public record PaymentStatusBulkResult(
+        PaymentStatus status,
+        List<Long> updated,
+        List<Conflict> conflicts,
+        List<Long> notFound
+) {
+    public record Conflict(Long id, Long expectedVersion, Long currentVersion) {}
+}
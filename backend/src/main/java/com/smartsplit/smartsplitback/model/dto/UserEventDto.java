@@ -0,0 +1,17 @@
+package com.smartsplit.smartsplitback.model.dto;
+
+import com.smartsplit.smartsplitback.model.UserEventType;
+
+import java.time.Instant;
+
+/**
+ * ข้อมูลที่ส่งทาง SSE: บอกว่า expense ไหนเปลี่ยน + settlement ล่าสุดของผู้รับใน expense นั้น
+ * frontend อัปเดตเฉพาะแถวนั้นได้เลย ไม่ต้องดึง /api/me/balances ใหม่ทั้งก้อน
+ */
+public record UserEventDto(
+        Long id,
+        UserEventType type,
+        Long expenseId,
+        ExpenseSettlementDto settlement,
+        Instant createdAt
+) {}
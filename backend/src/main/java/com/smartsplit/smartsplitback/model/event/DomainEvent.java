@@ -0,0 +1,23 @@
+package com.smartsplit.smartsplitback.model.event;
+
+/**
+ * event ของ domain ที่บันทึกลง outbox ใน transaction เดียวกับการแก้ไข แล้ว OutboxRelay ส่งต่อให้ listener
+ * ลำดับรับประกันเฉพาะภายใน aggregate เดียวกัน (aggregateType + aggregateId)
+ * listener ต้องรับ event ซ้ำได้ (at-least-once)
+ */
+public sealed interface DomainEvent permits ExpenseChanged, PaymentStatusChanged, MembershipChanged {
+
+    String aggregateType();
+
+    Long aggregateId();
+
+    /** ชื่อที่เก็บในคอลัมน์ outbox.event_type → class สำหรับอ่าน payload กลับ */
+    static Class<? extends DomainEvent> typeOf(String name) {
+        return switch (name) {
+            case "ExpenseChanged" -> ExpenseChanged.class;
+            case "PaymentStatusChanged" -> PaymentStatusChanged.class;
+            case "MembershipChanged" -> MembershipChanged.class;
+            default -> throw new IllegalArgumentException("Unknown domain event type: " + name);
+        };
+    }
+}
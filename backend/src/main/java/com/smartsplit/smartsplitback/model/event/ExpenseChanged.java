@@ -0,0 +1,27 @@
+package com.smartsplit.smartsplitback.model.event;
+
+import java.util.Set;
+
+/**
+ * ข้อมูลของ expense (ตัวมันเองหรือ items/shares/payments) เปลี่ยน
+ * affectedUserIds = payer + participant ณ ตอนที่แก้ไข (รวมคนที่เพิ่งถูกลบออก)
+ */
+public record ExpenseChanged(Long expenseId, Change change, Set<Long> affectedUserIds) implements DomainEvent {
+
+    public enum Change {
+        CREATED,
+        DETAILS,
+        ITEMS,
+        SHARES,
+        PAYMENT_CREATED,
+        PAYMENT_DELETED,
+        DELETED
+    }
+
+    public ExpenseChanged {
+        affectedUserIds = (affectedUserIds == null) ? Set.of() : Set.copyOf(affectedUserIds);
+    }
+
+    @Override public String aggregateType() { return "EXPENSE"; }
+    @Override public Long aggregateId() { return expenseId; }
+}
@@ -0,0 +1,8 @@
+package com.smartsplit.smartsplitback.model.event;
+
+/** มีคนเข้า (member = true) หรือออก (member = false) จาก group */
+public record MembershipChanged(Long groupId, Long userId, boolean member) implements DomainEvent {
+
+    @Override public String aggregateType() { return "GROUP"; }
+    @Override public Long aggregateId() { return groupId; }
+}
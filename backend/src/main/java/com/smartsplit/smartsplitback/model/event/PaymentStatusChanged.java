@@ -0,0 +1,24 @@
+package com.smartsplit.smartsplitback.model.event;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+
+import java.util.Set;
+
+/**
+ * สถานะ payment เปลี่ยน (เช่น PENDING → VERIFIED) อยู่ใน aggregate ของ expense
+ * เพื่อให้เรียงลำดับเดียวกับ ExpenseChanged ของ expense นั้น
+ */
+public record PaymentStatusChanged(Long expenseId,
+                                   Long paymentId,
+                                   Long fromUserId,
+                                   PaymentStatus oldStatus,
+                                   PaymentStatus newStatus,
+                                   Set<Long> affectedUserIds) implements DomainEvent {
+
+    public PaymentStatusChanged {
+        affectedUserIds = (affectedUserIds == null) ? Set.of() : Set.copyOf(affectedUserIds);
+    }
+
+    @Override public String aggregateType() { return "EXPENSE"; }
+    @Override public Long aggregateId() { return expenseId; }
+}
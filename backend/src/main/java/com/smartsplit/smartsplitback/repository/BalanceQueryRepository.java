@@ -10,6 +10,8 @@ import java.util.List;
 
 public interface BalanceQueryRepository extends JpaRepository<Expense, Long> {
 
+    // ยอดที่จ่ายแล้วใช้ LATERAL ต่อ (expense, ผู้ใช้) → ใช้ idx_payments_expense_user_status
+    // แทน derived table ที่ต้องรวม expense_payments ทั้งตารางทุกครั้ง
     @Query(value = """
 
         SELECT 
@@ -29,12 +31,11 @@ public interface BalanceQueryRepository extends JpaRepository<Expense, Long> {
         JOIN `expense_item_shares` s   ON s.expense_item_id = i.expense_item_id
                                        AND s.participant_user_id = :userId
 
-        LEFT JOIN (
-           SELECT expense_id, from_user_id,
-                  SUM(CASE WHEN status = 'VERIFIED' THEN amount ELSE 0 END) AS paid
-           FROM `expense_payments`
-           GROUP BY expense_id, from_user_id
-        ) pay ON pay.expense_id = e.expense_id AND pay.from_user_id = :userId
+        LEFT JOIN LATERAL (
+           SELECT SUM(p.amount) AS paid
+           FROM `expense_payments` p
+           WHERE p.expense_id = e.expense_id AND p.from_user_id = :userId AND p.status = 'VERIFIED'
+        ) pay ON TRUE
         JOIN `users` up ON up.user_id = e.payer_user_id
         WHERE e.payer_user_id <> :userId
         GROUP BY e.group_id, g.name, e.expense_id, e.title,
@@ -64,12 +65,11 @@ public interface BalanceQueryRepository extends JpaRepository<Expense, Long> {
         JOIN `expense_items` i         ON i.expense_id = e.expense_id
         JOIN `expense_item_shares` s   ON s.expense_item_id = i.expense_item_id
                                        AND s.participant_user_id <> :userId
-        LEFT JOIN (
-           SELECT expense_id, from_user_id,
-                  SUM(CASE WHEN status = 'VERIFIED' THEN amount ELSE 0 END) AS paid
-           FROM `expense_payments`
-           GROUP BY expense_id, from_user_id
-        ) pay ON pay.expense_id = e.expense_id AND pay.from_user_id = s.participant_user_id
+        LEFT JOIN LATERAL (
+           SELECT SUM(p.amount) AS paid
+           FROM `expense_payments` p
+           WHERE p.expense_id = e.expense_id AND p.from_user_id = s.participant_user_id AND p.status = 'VERIFIED'
+        ) pay ON TRUE
         JOIN `users` um ON um.user_id = s.participant_user_id
         WHERE e.payer_user_id = :userId
         GROUP BY e.group_id, g.name, e.expense_id, e.title,
@@ -0,0 +1,33 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.CacheInvalidation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Query("select coalesce(max(c.id), 0) from CacheInvalidation c")
+    long findMaxId();
+
+    // เหมือน UserEventRepository.findPending: มองย้อนตามเวลาด้วย เพราะ AUTO_INCREMENT commit ไม่เรียงลำดับ
+    @Query("""
+           select c from CacheInvalidation c
+           where c.id > :cursor or c.createdAt > :since
+           order by c.id
+           """)
+    List<CacheInvalidation> findPending(@Param("cursor") long cursor,
+                                        @Param("since") Instant since,
+                                        Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation c where c.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
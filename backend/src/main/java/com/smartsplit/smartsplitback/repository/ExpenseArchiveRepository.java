@@ -0,0 +1,43 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.ExpenseArchive;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ExpenseArchiveRepository extends JpaRepository<ExpenseArchive, Long> {
+
+    @Query("select a.groupId from ExpenseArchive a where a.id = :expenseId")
+    Long findGroupIdById(@Param("expenseId") Long expenseId);
+
+    @Query("""
+           select case when count(a) > 0 then true else false end
+           from ExpenseArchive a join a.participantIds p
+           where a.id = :expenseId and p = :userId
+           """)
+    boolean isParticipant(@Param("expenseId") Long expenseId, @Param("userId") Long userId);
+
+    // สรุปอย่างเดียว ไม่โหลด document
+    @Query("""
+           select new com.smartsplit.smartsplitback.model.dto.ExpenseDto(
+               a.id, a.groupId, a.payerUserId, a.amount, a.type, a.title, a.status, a.createdAt)
+           from ExpenseArchive a
+           where a.id = :expenseId
+           """)
+    ExpenseDto findSummaryById(@Param("expenseId") Long expenseId);
+
+    @Query("""
+           select new com.smartsplit.smartsplitback.model.dto.ExpenseDto(
+               a.id, a.groupId, a.payerUserId, a.amount, a.type, a.title, a.status, a.createdAt)
+           from ExpenseArchive a
+           where a.groupId = :groupId
+           order by a.id desc
+           """)
+    List<ExpenseDto> findSummariesByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select a.document from ExpenseArchive a where a.id = :expenseId")
+    byte[] findDocumentById(@Param("expenseId") Long expenseId);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface ExpenseItemRepository extends JpaRepository<ExpenseItem, Long> {
@@ -19,4 +20,11 @@ public interface ExpenseItemRepository extends JpaRepository<ExpenseItem, Long>
     Long findExpenseIdByItemId(@Param("itemId") Long itemId);
     Optional<ExpenseItem> findByIdAndExpense_Id(Long itemId, Long expenseId);
     boolean existsByIdAndExpense_Id(Long itemId, Long expenseId);
+
+    @Query("select i from ExpenseItem i where i.expense.group.id = :groupId")
+    List<ExpenseItem> findByGroupId(@Param("groupId") Long groupId);
+
+    // expense มาด้วย (ใช้ rate ที่ lock ไว้แปลงเป็น THB) ไม่ต้องโหลดทีละตัว
+    @Query("select i from ExpenseItem i join fetch i.expense where i.expense.id in :expenseIds")
+    List<ExpenseItem> findWithExpenseByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
 }
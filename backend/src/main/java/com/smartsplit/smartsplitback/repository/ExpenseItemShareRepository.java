@@ -1,8 +1,10 @@
 package com.smartsplit.smartsplitback.repository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.smartsplit.smartsplitback.model.ExpenseItemShare;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -55,4 +57,38 @@ public interface ExpenseItemShareRepository extends JpaRepository<ExpenseItemSha
            """)
     List<Long> findDistinctExpenseIdsByParticipantId(@Param("uid") Long uid);
 
+    // ลบ shares ของหลาย item ด้วย statement เดียว (ใช้ตอน generate split ใหม่)
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ExpenseItemShare s where s.expenseItem.id in :itemIds")
+    int deleteByExpenseItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    // ยอด share (THB) ต่อ participant ของ expense เดียว (สถานะปัจจุบันสำหรับ journal)
+    @Query("""
+           select i.expense.id as expenseId, s.participant.id as userId, sum(s.shareValue) as amount
+           from ExpenseItemShare s
+           join s.expenseItem i
+           where i.expense.id = :expenseId
+           group by i.expense.id, s.participant.id
+           """)
+    List<ExpenseUserAmountProjection> sumShareValueByExpense(@Param("expenseId") Long expenseId);
+
+    // ยอด share (THB) ต่อ expense/participant ทั้ง group ใน query เดียว (dashboard)
+    @Query("""
+           select i.expense.id as expenseId, s.participant.id as userId, sum(s.shareValue) as amount
+           from ExpenseItemShare s
+           join s.expenseItem i
+           where i.expense.group.id = :groupId
+           group by i.expense.id, s.participant.id
+           """)
+    List<ExpenseUserAmountProjection> sumShareValueByGroup(@Param("groupId") Long groupId);
+
+    // ยอด share (THB) ต่อ expense/participant ของหลาย expense (หนึ่งหน้าของ list ตาม group)
+    @Query("""
+           select i.expense.id as expenseId, s.participant.id as userId, sum(s.shareValue) as amount
+           from ExpenseItemShare s
+           join s.expenseItem i
+           where i.expense.id in :expenseIds
+           group by i.expense.id, s.participant.id
+           """)
+    List<ExpenseUserAmountProjection> sumShareValueByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
 }
@@ -0,0 +1,32 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.ExpenseJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ExpenseJournalRepository extends JpaRepository<ExpenseJournalEntry, Long> {
+
+    @Query("select max(j.seq) from ExpenseJournalEntry j where j.expenseId = :expenseId")
+    Integer findLastSeq(@Param("expenseId") Long expenseId);
+
+    // seq สุดท้ายที่เขียนไม่เกินเวลา at (ใช้ตอน replay)
+    @Query("""
+           select max(j.seq) from ExpenseJournalEntry j
+           where j.expenseId = :expenseId and j.createdAt <= :at
+           """)
+    Integer findLastSeqAt(@Param("expenseId") Long expenseId, @Param("at") Instant at);
+
+    // ส่วนท้ายหลัง snapshot: (afterSeq, upToSeq]
+    @Query("""
+           select j from ExpenseJournalEntry j
+           where j.expenseId = :expenseId and j.seq > :afterSeq and j.seq <= :upToSeq
+           order by j.seq
+           """)
+    List<ExpenseJournalEntry> findTail(@Param("expenseId") Long expenseId,
+                                       @Param("afterSeq") int afterSeq,
+                                       @Param("upToSeq") int upToSeq);
+}
@@ -0,0 +1,12 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.ExpenseJournalSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ExpenseJournalSnapshotRepository extends JpaRepository<ExpenseJournalSnapshot, Long> {
+
+    // snapshot ล่าสุดที่ไม่เกิน seq ที่ต้องการ
+    Optional<ExpenseJournalSnapshot> findTopByExpenseIdAndSeqLessThanEqualOrderBySeqDesc(Long expenseId, int seq);
+}
@@ -7,9 +7,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
-public interface ExpensePaymentRepository extends JpaRepository<ExpensePayment, Long> {
+public interface ExpensePaymentRepository extends JpaRepository<ExpensePayment, Long>, ExpensePaymentRepositoryCustom {
 
     List<ExpensePayment> findByExpense_Id(Long expenseId);
 
@@ -40,5 +41,41 @@ public interface ExpensePaymentRepository extends JpaRepository<ExpensePayment,
     Optional<ExpensePayment> findByIdAndExpense_Id(Long paymentId, Long expenseId);
     boolean existsByIdAndExpense_Id(Long paymentId, Long expenseId);
 
+    // ยอดจ่าย VERIFIED ต่อผู้จ่ายของ expense เดียว (สถานะปัจจุบันสำหรับ journal)
+    @Query("""
+           select p.expense.id as expenseId, p.fromUser.id as userId, sum(p.amount) as amount
+           from ExpensePayment p
+           where p.expense.id = :expenseId
+             and p.status = com.smartsplit.smartsplitback.model.PaymentStatus.VERIFIED
+           group by p.expense.id, p.fromUser.id
+           """)
+    List<ExpenseUserAmountProjection> sumVerifiedByExpense(@Param("expenseId") Long expenseId);
+
+    // ยอดจ่าย VERIFIED ต่อ expense/ผู้จ่าย ทั้ง group ใน query เดียว (dashboard)
+    @Query("""
+           select p.expense.id as expenseId, p.fromUser.id as userId, sum(p.amount) as amount
+           from ExpensePayment p
+           where p.expense.group.id = :groupId
+             and p.status = com.smartsplit.smartsplitback.model.PaymentStatus.VERIFIED
+           group by p.expense.id, p.fromUser.id
+           """)
+    List<ExpenseUserAmountProjection> sumVerifiedByGroup(@Param("groupId") Long groupId);
 
+    // ยอดจ่าย VERIFIED ต่อ expense/ผู้จ่าย ของหลาย expense (หนึ่งหน้าของ list ตาม group)
+    @Query("""
+           select p.expense.id as expenseId, p.fromUser.id as userId, sum(p.amount) as amount
+           from ExpensePayment p
+           where p.expense.id in :expenseIds
+             and p.status = com.smartsplit.smartsplitback.model.PaymentStatus.VERIFIED
+           group by p.expense.id, p.fromUser.id
+           """)
+    List<ExpenseUserAmountProjection> sumVerifiedByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
+
+    @Query("""
+           select p.id as id, p.version as version, p.status as status, p.fromUser.id as fromUserId
+           from ExpensePayment p
+           where p.expense.id = :expenseId and p.id in :ids
+           """)
+    List<PaymentStateProjection> findStatesInExpense(@Param("expenseId") Long expenseId,
+                                                     @Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,15 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+
+import java.util.Map;
+
+public interface ExpensePaymentRepositoryCustom {
+
+    /**
+     * UPDATE เดียวสำหรับหลาย payment: แต่ละแถวเปลี่ยนเฉพาะเมื่อ version ยังตรงกับที่ระบุ (แล้วเพิ่ม version)
+     * @param expectedVersions paymentId → version ที่คาด
+     * @return จำนวนแถวที่เปลี่ยนจริง
+     */
+    int updateStatusIfVersion(Long expenseId, Map<Long, Long> expectedVersions, PaymentStatus status);
+}
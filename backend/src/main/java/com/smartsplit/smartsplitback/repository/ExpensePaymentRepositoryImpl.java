@@ -0,0 +1,41 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Map;
+
+class ExpensePaymentRepositoryImpl implements ExpensePaymentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int updateStatusIfVersion(Long expenseId, Map<Long, Long> expectedVersions, PaymentStatus status) {
+        if (expectedVersions.isEmpty()) return 0;
+
+        // (id = ? and version = ?) or ... → MySQL ใช้ PK lookup ทีละคู่
+        StringBuilder jpql = new StringBuilder("""
+                update ExpensePayment p
+                set p.status = :status, p.version = p.version + 1
+                where p.expense.id = :expenseId and (""");
+        for (int i = 0; i < expectedVersions.size(); i++) {
+            if (i > 0) jpql.append(" or ");
+            jpql.append("(p.id = :id").append(i).append(" and p.version = :v").append(i).append(')');
+        }
+        jpql.append(')');
+
+        Query q = em.createQuery(jpql.toString())
+                .setParameter("status", status)
+                .setParameter("expenseId", expenseId);
+        int i = 0;
+        for (Map.Entry<Long, Long> e : expectedVersions.entrySet()) {
+            q.setParameter("id" + i, e.getKey());
+            q.setParameter("v" + i, e.getValue());
+            i++;
+        }
+        return q.executeUpdate();
+    }
+}
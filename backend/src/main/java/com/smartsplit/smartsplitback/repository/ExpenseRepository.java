@@ -1,21 +1,56 @@
 package com.smartsplit.smartsplitback.repository;
 
+import com.smartsplit.smartsplitback.model.CacheRegions;
 import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
     List<Expense> findByGroup_Id(Long groupId);
     List<Expense> findByPayer_Id(Long userId);
 
+    // expense ของ group ทีละหน้าแบบ keyset (id > afterId) เป็น DTO ตรง ๆ: ไม่สร้าง entity / ไม่เข้า persistence context
+    @Query("""
+           select new com.smartsplit.smartsplitback.model.dto.ExpenseDto(
+                  e.id, e.group.id, e.payer.id, e.amount, e.type, e.title, e.status, e.createdAt, e.version)
+           from Expense e
+           where e.group.id = :groupId
+             and e.id > :afterId
+           order by e.id
+           """)
+    List<ExpenseDto> findDtoPageByGroup(@Param("groupId") Long groupId,
+                                        @Param("afterId") Long afterId,
+                                        Pageable page);
 
+
+    // query cache: Hibernate ล้างทั้ง region ทุกครั้งที่ตาราง expenses ถูกเขียนบน replica นี้ (รวม bumpRevision)
+    // ส่วน replica อื่นล้างผ่าน cache_invalidations เมื่อ expense ถูกแก้/ลบ
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.EXPENSE_GROUP_QUERY)
+    })
     @Query("select e.group.id from Expense e where e.id = :expenseId")
     Long findGroupIdByExpenseId(@Param("expenseId") Long expenseId);
 
+    // ค่าใน DB ก่อนบันทึก: ไม่ผ่าน query cache และไม่ auto-flush entity ที่แก้ค้างใน session ก่อน query
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select e.group.id from Expense e where e.id = :expenseId")
+    Long findPersistedGroupIdById(@Param("expenseId") Long expenseId);
+
 
     @Query("select e.payer.id from Expense e where e.id = :expenseId")
     Long findPayerUserIdByExpenseId(@Param("expenseId") Long expenseId);
@@ -25,4 +60,39 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
     @Query("select i.expense.group.id from ExpenseItem i where i.id = :itemId")
     Long findGroupIdByItemId(@Param("itemId") Long itemId);
+
+    @Query("select e.revision from Expense e where e.id = :expenseId")
+    Long findRevisionById(@Param("expenseId") Long expenseId);
+
+    // เรียกทุกครั้งที่ expense หรือ item/share/payment ของมันเปลี่ยน (ETag ของ GET จะเปลี่ยนตาม)
+    @Modifying
+    @Query("update Expense e set e.revision = e.revision + 1 where e.id = :expenseId")
+    int bumpRevision(@Param("expenseId") Long expenseId);
+
+    // ตัวแทนสถานะ expenses ทั้ง group (ETag ของ dashboard): จำนวน.id สูงสุด.ผลรวม revision
+    // เพิ่ม/ลบ/archive เปลี่ยนจำนวนหรือ id สูงสุด, แก้ expense หรือตารางลูกเปลี่ยนผลรวม revision
+    @Query("""
+           select concat(cast(count(e) as String), '.', cast(coalesce(max(e.id), 0) as String), '.',
+                         cast(coalesce(sum(e.revision), 0) as String))
+           from Expense e where e.group.id = :groupId
+           """)
+    String findRevisionStampByGroup(@Param("groupId") Long groupId);
+
+    // expense ที่ปิดมานานพอจะย้ายเข้า archive (ยังต้องตรวจยอดค้างอีกชั้นใน ExpenseArchiveService)
+    @Query("""
+           select e.id from Expense e
+           where e.status in (com.smartsplit.smartsplitback.model.ExpenseStatus.SETTLED,
+                              com.smartsplit.smartsplitback.model.ExpenseStatus.CANCELED)
+             and e.closedAt < :cutoff
+             and e.id > :afterId
+           order by e.id
+           """)
+    List<Long> findArchiveCandidates(@Param("cutoff") LocalDateTime cutoff,
+                                     @Param("afterId") Long afterId,
+                                     Pageable page);
+
+    // row lock ของ expense: insert payment ใหม่ต้องรอ (FK ไปแถวนี้) จนย้ายเสร็จ
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Expense e where e.id = :expenseId")
+    Optional<Expense> findByIdForUpdate(@Param("expenseId") Long expenseId);
 }
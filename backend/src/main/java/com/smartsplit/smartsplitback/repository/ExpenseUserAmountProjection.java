@@ -0,0 +1,25 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.Money;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ยอดรวมต่อ (expense, user) ใช้กับ query รวมระดับ group
+public interface ExpenseUserAmountProjection {
+    Long getExpenseId();
+    Long getUserId();
+    BigDecimal getAmount();
+
+    /** expenseId → userId → ยอด (THB) */
+    static Map<Long, Map<Long, Money>> byExpenseAndUser(List<? extends ExpenseUserAmountProjection> rows) {
+        Map<Long, Map<Long, Money>> out = new HashMap<>();
+        for (ExpenseUserAmountProjection r : rows) {
+            out.computeIfAbsent(r.getExpenseId(), k -> new HashMap<>())
+                    .merge(r.getUserId(), Money.thb(r.getAmount()), Money::plus);
+        }
+        return out;
+    }
+}
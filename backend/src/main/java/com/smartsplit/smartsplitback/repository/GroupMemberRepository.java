@@ -2,6 +2,7 @@ package com.smartsplit.smartsplitback.repository;
 
 import com.smartsplit.smartsplitback.model.GroupMember;
 import com.smartsplit.smartsplitback.model.GroupMemberId;
+import com.smartsplit.smartsplitback.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,4 +28,7 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, GroupM
     }
     @Query(value = "SELECT COUNT(*) FROM group_members WHERE group_id = :groupId", nativeQuery = true)
     long countByGroupId(@Param("groupId") Long groupId);
+
+    @Query("select u from GroupMember gm join gm.user u where gm.group.id = :groupId order by u.id")
+    List<User> findUsersByGroupId(@Param("groupId") Long groupId);
 }
@@ -1,9 +1,14 @@
 package com.smartsplit.smartsplitback.repository;
 
+import com.smartsplit.smartsplitback.model.CacheRegions;
 import com.smartsplit.smartsplitback.model.Group;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 
@@ -11,9 +16,31 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
 
     List<Group> findByOwner_Id(Long ownerUserId);
 
+    // เรียกทุกครั้งที่ตรวจสิทธิ์ → query cache (ล้างเมื่อ groups_tbl เปลี่ยน + cache_invalidations)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.GROUP_OWNER_QUERY)
+    })
     @Query("select g.owner.id from Group g where g.id = :groupId")
     Long findOwnerIdById(@Param("groupId") Long groupId);
 
+    // ค่าใน DB ก่อนบันทึก (เหมือน ExpenseRepository.findPersistedGroupIdById)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select g.owner.id from Group g where g.id = :groupId")
+    Long findPersistedOwnerIdById(@Param("groupId") Long groupId);
+
+    @Query("select g.revision from Group g where g.id = :groupId")
+    Long findRevisionById(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("update Group g set g.revision = g.revision + 1 where g.id = :groupId")
+    int bumpRevision(@Param("groupId") Long groupId);
+
+    // โปรไฟล์ของ user แสดงในรายชื่อสมาชิกของทุก group ที่อยู่
+    @Modifying
+    @Query("update Group g set g.revision = g.revision + 1 where g.id in (select gm.group.id from GroupMember gm where gm.user.id = :userId)")
+    int bumpRevisionByMember(@Param("userId") Long userId);
+
     @Query("select distinct g from GroupMember gm join gm.group g where gm.user.id = :userId")
     List<Group> findAllByMemberUserId(@Param("userId") Long userId);
 
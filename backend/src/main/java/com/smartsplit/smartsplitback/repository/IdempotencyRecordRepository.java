@@ -0,0 +1,58 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdemKey(Long userId, String idemKey);
+
+    @Transactional
+    @Modifying
+    @Query("""
+           update IdempotencyRecord r
+           set r.status = com.smartsplit.smartsplitback.model.IdempotencyRecord.Status.COMPLETED,
+               r.responseBody = :body
+           where r.id = :id
+           """)
+    int complete(@Param("id") Long id, @Param("body") String body);
+
+    // IN_PROGRESS ที่ lease หมดแล้ว (ผู้ทำตายกลางทาง ไม่ต่ออายุ) → รับช่วงต่อ; lockedUntil เดิมกันสองคนรับช่วงพร้อมกัน
+    @Transactional
+    @Modifying
+    @Query("""
+           update IdempotencyRecord r set r.lockedUntil = :until
+           where r.id = :id
+             and r.status = com.smartsplit.smartsplitback.model.IdempotencyRecord.Status.IN_PROGRESS
+             and r.lockedUntil = :seen
+           """)
+    int takeOver(@Param("id") Long id, @Param("seen") Instant seen, @Param("until") Instant until);
+
+    // heartbeat ของ key ที่ instance นี้ยังทำอยู่
+    @Transactional
+    @Modifying
+    @Query("""
+           update IdempotencyRecord r set r.lockedUntil = :until
+           where r.id in :ids
+             and r.status = com.smartsplit.smartsplitback.model.IdempotencyRecord.Status.IN_PROGRESS
+           """)
+    int renew(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id")
+    int deleteOne(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
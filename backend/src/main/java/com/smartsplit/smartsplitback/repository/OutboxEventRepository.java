@@ -0,0 +1,93 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.OutboxEvent;
+import com.smartsplit.smartsplitback.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // แถวที่ replica อื่นกำลัง claim อยู่ (ถือ row lock) ถูกข้ามทันที ไม่ต้องรอ lock
+    // ไม่หยิบ event ที่ event ก่อนหน้าของ aggregate เดียวกันยังรอ retry (backoff) หรือติด lease ของ replica อื่น:
+    // หยิบไปก็ส่งไม่ได้ ต้องคืน lease ทันที แล้วถูก claim ซ้ำวนไปจนถึงเวลา retry ของตัวหัว
+    // ต้องเรียกใน transaction แล้ว leaseTo ก่อน commit
+    @Query(value = """
+           SELECT o.event_id FROM outbox o
+           WHERE o.status = 'PENDING'
+             AND (o.next_attempt_at IS NULL OR o.next_attempt_at <= :now)
+             AND (o.locked_until IS NULL OR o.locked_until < :now)
+             AND NOT EXISTS (
+                 SELECT 1 FROM outbox p
+                 WHERE p.aggregate_type = o.aggregate_type
+                   AND p.aggregate_id = o.aggregate_id
+                   AND p.status = 'PENDING'
+                   AND p.event_id < o.event_id
+                   AND (p.next_attempt_at > :now OR p.locked_until >= :now))
+           ORDER BY o.event_id
+           LIMIT :limit
+           FOR UPDATE SKIP LOCKED
+           """, nativeQuery = true)
+    List<Long> claimable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.lockedBy = :owner, e.lockedUntil = :until where e.id in :ids")
+    int leaseTo(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("until") Instant until);
+
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // ยังมี event ก่อนหน้าของ aggregate เดียวกันค้างอยู่ → ต้องรอให้ตัวนั้นเสร็จก่อน
+    @Query("""
+           select case when count(e) > 0 then true else false end
+           from OutboxEvent e
+           where e.aggregateType = :type and e.aggregateId = :aggregateId
+             and e.status = com.smartsplit.smartsplitback.model.OutboxStatus.PENDING
+             and e.id < :eventId
+           """)
+    boolean existsEarlierPending(@Param("type") String aggregateType,
+                                 @Param("aggregateId") Long aggregateId,
+                                 @Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("""
+           update OutboxEvent e
+           set e.status = com.smartsplit.smartsplitback.model.OutboxStatus.DONE,
+               e.processedAt = :now, e.lockedBy = null, e.lockedUntil = null
+           where e.id = :id
+           """)
+    int markDone(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.lockedBy = null, e.lockedUntil = null where e.id = :id")
+    int release(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+           update OutboxEvent e
+           set e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt,
+               e.lastError = :error, e.processedAt = :processedAt, e.lockedBy = null, e.lockedUntil = null
+           where e.id = :id
+           """)
+    int markFailed(@Param("id") Long id,
+                   @Param("status") OutboxStatus status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("error") String error,
+                   @Param("processedAt") Instant processedAt);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status = com.smartsplit.smartsplitback.model.OutboxStatus.PENDING")
+    Instant findOldestPendingCreatedAt();
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = com.smartsplit.smartsplitback.model.OutboxStatus.DONE and e.processedAt < :cutoff")
+    int deleteDoneBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,11 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+
+// สถานะ + version ของ payment (ใช้ตรวจ/เปลี่ยนสถานะแบบ bulk โดยไม่โหลด entity)
+public interface PaymentStateProjection {
+    Long getId();
+    Long getVersion();
+    PaymentStatus getStatus();
+    Long getFromUserId();
+}
@@ -0,0 +1,37 @@
+package com.smartsplit.smartsplitback.repository;
+
+import com.smartsplit.smartsplitback.model.UserEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserEventRepository extends JpaRepository<UserEvent, Long> {
+
+    @Query("select coalesce(max(e.id), 0) from UserEvent e")
+    long findMaxId();
+
+    // id > cursor หรือยังใหม่กว่า since: AUTO_INCREMENT อาจ commit ไม่เรียงลำดับ
+    // จึงมองย้อนเป็นช่วงเวลาสั้น ๆ ด้วย (ฝั่งผู้เรียกกันส่งซ้ำเอง)
+    @Query("""
+           select e from UserEvent e
+           where e.userId in :userIds
+             and (e.id > :cursor or e.createdAt > :since)
+           order by e.id
+           """)
+    List<UserEvent> findPending(@Param("userIds") Collection<Long> userIds,
+                                @Param("cursor") long cursor,
+                                @Param("since") Instant since,
+                                Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserEvent e where e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
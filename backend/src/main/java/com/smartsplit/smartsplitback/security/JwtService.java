@@ -1,5 +1,6 @@
 package com.smartsplit.smartsplitback.security;
 
+import com.smartsplit.smartsplitback.model.Role;
 import com.smartsplit.smartsplitback.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -40,16 +41,8 @@ public class JwtService {
     public String generateForUser(User user, long expiresSeconds) {
         Map<String, Object> claims = new HashMap<>();
 
-        int roleCode = ROLE_USER;
-        try {
-            var role = user.getRole();
-            if (role != null) {
-                try {
-                    var m = role.getClass().getMethod("code");
-                    roleCode = (int) m.invoke(role);
-                } catch (Exception ignore) { /* keep default */ }
-            }
-        } catch (Exception ignore) { /* keep default */ }
+        Role role = user.getRole();
+        int roleCode = (role != null) ? role.code() : ROLE_USER;
 
         claims.put(CLAIM_ROLE, roleCode);
         claims.put(CLAIM_UID,  user.getId());
@@ -1,5 +1,6 @@
 package com.smartsplit.smartsplitback.security;
 
+import com.smartsplit.smartsplitback.repository.ExpenseArchiveRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
 import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
@@ -12,7 +13,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.server.ResponseStatusException;
-import java.lang.reflect.Method;
 import java.util.Objects;
 
 @Component("perm")
@@ -25,6 +25,7 @@ public class Perms {
     private final ExpenseItemShareRepository shares;
     private final ExpenseItemRepository expenseItems;
     private final ExpensePaymentRepository payments;
+    private final ExpenseArchiveRepository archives;
 
     public Perms(SecurityFacade sec,
                  GroupRepository groups,
@@ -32,7 +33,8 @@ public class Perms {
                  ExpenseRepository expenses,
                  ExpenseItemShareRepository shares,
                  ExpensePaymentRepository payments,
-                 ExpenseItemRepository expenseItems) {
+                 ExpenseItemRepository expenseItems,
+                 ExpenseArchiveRepository archives) {
 
         this.sec = sec;
         this.groups = groups;
@@ -41,6 +43,7 @@ public class Perms {
         this.shares = shares;
         this.payments = payments;
         this.expenseItems = expenseItems;
+        this.archives = archives;
     }
     public Long currentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -51,24 +54,14 @@ public class Perms {
         if (auth == null || auth.getPrincipal() == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No authentication");
         }
-        Object p = auth.getPrincipal();
-
-        for (String m : new String[]{"getId", "getUid", "getUserId"}) {
-            try {
-                Method md = p.getClass().getMethod(m);
-                Object v = md.invoke(p);
-                if (v != null) return Long.valueOf(String.valueOf(v));
-            } catch (Exception ignored) {}
-        }
-
-        try {
-            return Long.valueOf(auth.getName());
-        } catch (Exception e) {
+        Long id = UserIdPrincipal.of(auth);
+        if (id == null) {
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
-                    "Cannot resolve user id from token (principal=" + p.getClass().getSimpleName() + ")"
+                    "Cannot resolve user id from token (principal=" + auth.getPrincipal().getClass().getSimpleName() + ")"
             );
         }
+        return id;
     }
     public boolean canViewUser(Long targetUserId) {
         Long me = sec.currentUserId();
@@ -133,6 +126,13 @@ public class Perms {
 
         Long gid = expenses.findGroupIdByExpenseId(expenseId);
 
+        // ไม่อยู่ในตาราง hot → อาจย้ายเข้า archive แล้ว: สมาชิก group เดิมหรือผู้มีส่วนร่วมดูได้
+        if (gid == null) {
+            Long archivedGroupId = archives.findGroupIdById(expenseId);
+            if (archivedGroupId == null) return false;
+            return isGroupMember(archivedGroupId) || archives.isParticipant(expenseId, me);
+        }
+
         // ถ้าเป็นสมาชิกกลุ่มของ expense ดูได้
         if (gid != null && isGroupMember(gid)) {
             return true;
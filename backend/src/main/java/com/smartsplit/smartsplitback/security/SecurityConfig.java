@@ -47,7 +47,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
 
                         .dispatcherTypeMatchers(DispatcherType.ERROR, DispatcherType.FORWARD).permitAll()
+                        // async dispatch ของ SSE/streaming: ผ่านการตรวจสิทธิ์ตอน REQUEST แรกไปแล้ว
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        // metrics/prometheus: scraper ใช้ JWT ของบัญชี ADMIN; jfr: อัด/dump JFR
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**",
+                                "/actuator/jfr").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/files/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/files/**").permitAll()
                         .requestMatchers("/error", "/error/**").permitAll()
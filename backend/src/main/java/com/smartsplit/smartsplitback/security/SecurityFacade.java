@@ -26,11 +26,9 @@ public class SecurityFacade {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null) return null;
 
-        Object principal = auth.getPrincipal();
-        if (principal instanceof String s) {
-            if (s.chars().allMatch(Character::isDigit)) {
-                try { return Long.parseLong(s); } catch (NumberFormatException ignore) {}
-            }
+        if (auth.getPrincipal() instanceof String s) {
+            Long id = UserIdPrincipal.parse(s);
+            if (id != null) return id;
         }
 
         String token = resolveBearerToken();
@@ -0,0 +1,34 @@
+package com.smartsplit.smartsplitback.security;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * principal ที่รู้ user id ของตัวเอง (แทนการหา getId/getUid/getUserId ด้วย reflection)
+ * JwtAuthFilter ใช้ principal เป็น String (uid) — principal แบบอื่นที่จะเพิ่มในอนาคตให้ implement interface นี้
+ */
+public interface UserIdPrincipal {
+
+    Long userId();
+
+    /**
+     * user id จาก Authentication: UserIdPrincipal → userId(), Number → ค่านั้น, อื่น ๆ → auth.getName() ที่เป็นตัวเลขล้วน
+     * หาไม่ได้ → null (ไม่ throw)
+     */
+    static Long of(Authentication auth) {
+        if (auth == null) return null;
+        Object p = auth.getPrincipal();
+        if (p instanceof UserIdPrincipal up && up.userId() != null) return up.userId();
+        if (p instanceof Number n) return n.longValue();
+        return parse(auth.getName());
+    }
+
+    /** ตัวเลขล้วนไม่เกิน 18 หลัก (ไม่ล้น long) → ค่า, อย่างอื่น → null */
+    static Long parse(String s) {
+        if (s == null || s.isEmpty() || s.length() > 18) return null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return null;
+        }
+        return Long.parseLong(s);
+    }
+}
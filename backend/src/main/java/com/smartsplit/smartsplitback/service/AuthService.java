@@ -6,6 +6,8 @@ import com.smartsplit.smartsplitback.model.User;
 import com.smartsplit.smartsplitback.model.dto.*;
 import com.smartsplit.smartsplitback.repository.UserRepository;
 import com.smartsplit.smartsplitback.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -20,10 +22,24 @@ public class AuthService {
     private final PasswordEncoder encoder;
     private final JwtService jwt;
 
-    public AuthService(UserRepository users, PasswordEncoder encoder, JwtService jwt) {
+    // BCrypt ตั้งใจให้ช้า: ดูว่า cost ปัจจุบันกินเวลาต่อ register/login เท่าไร
+    private final Timer hashTimer;
+    private final Timer matchTimer;
+
+    public AuthService(UserRepository users, PasswordEncoder encoder, JwtService jwt, MeterRegistry meters) {
         this.users = users;
         this.encoder = encoder;
         this.jwt = jwt;
+        this.hashTimer = passwordTimer(meters, "encode");
+        this.matchTimer = passwordTimer(meters, "matches");
+    }
+
+    private static Timer passwordTimer(MeterRegistry meters, String op) {
+        return Timer.builder("auth.password.hash")
+                .description("เวลา hash/ตรวจรหัสผ่านด้วย PasswordEncoder")
+                .tag("op", op)
+                .publishPercentileHistogram()
+                .register(meters);
     }
 
     public AuthResponse register(RegisterRequest req) {
@@ -35,7 +51,7 @@ public class AuthService {
         u.setEmail(req.email());
         u.setUserName(req.userName());
         u.setPhone(req.phone());
-        u.setPasswordHash(encoder.encode(req.password()));
+        u.setPasswordHash(hashTimer.record(() -> encoder.encode(req.password())));
         u.setRole(Role.USER);
 
         if (req.firstName() != null && !req.firstName().isBlank()) {
@@ -76,7 +92,7 @@ public class AuthService {
         User u = users.findByEmail(req.email())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
 
-        if (!encoder.matches(req.password(), u.getPasswordHash())) {
+        if (!matchTimer.record(() -> encoder.matches(req.password(), u.getPasswordHash()))) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
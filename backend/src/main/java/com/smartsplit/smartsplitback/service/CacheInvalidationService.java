@@ -0,0 +1,181 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.CacheInvalidation;
+import com.smartsplit.smartsplitback.model.CacheRegions;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.GroupMember;
+import com.smartsplit.smartsplitback.model.GroupMemberId;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.CacheInvalidationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ทำให้ L2 cache ของแต่ละ replica ไม่ค้างข้อมูลเก่า
+ * - ฝั่งเขียน: service บันทึกแถวใน cache_invalidations ภายใน transaction เดียวกับการแก้ไข
+ * - ฝั่งอ่าน: ทุก replica (รวมตัวที่เขียนเอง) poll แล้ว evict หลัง commit แล้วเท่านั้น
+ *   ครอบคลุมแถวที่ DB ลบตาม ON DELETE CASCADE ซึ่ง Hibernate ไม่รู้ด้วย
+ */
+@Service
+public class CacheInvalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+    private static final int SEEN_MEMORY = 10_000;
+
+    private final CacheInvalidationRepository repo;
+    private final EntityManagerFactory emf;
+    private final int batchSize;
+    private final Duration lookback;
+    private final Duration retention;
+
+    // ใช้เฉพาะใน poll() (scheduler เรียกทีละครั้ง)
+    private long cursor = -1;
+    private Instant floor = Instant.EPOCH;
+    private final Map<Long, Boolean> seen = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > SEEN_MEMORY;
+        }
+    };
+
+    public CacheInvalidationService(CacheInvalidationRepository repo,
+                                    EntityManagerFactory emf,
+                                    @Value("${app.cache.invalidation.batch-size:1000}") int batchSize,
+                                    @Value("${app.cache.invalidation.lookback-ms:10000}") long lookbackMs,
+                                    @Value("${app.cache.invalidation.retention-minutes:30}") long retentionMinutes) {
+        this.repo = repo;
+        this.emf = emf;
+        this.batchSize = batchSize;
+        this.lookback = Duration.ofMillis(lookbackMs);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    // ---------- ฝั่งเขียน ----------
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String region, Object key) {
+        repo.save(new CacheInvalidation(region, key == null ? null : String.valueOf(key)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userChanged(Long userId) {
+        record(CacheRegions.USER, userId);
+    }
+
+    // ลบ user → DB ลบ groups ที่เป็น owner และ group_members ตาม (cascade) → ล้างทั้งหมด
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userDeleted(Long userId) {
+        record(CacheRegions.ALL, null);
+    }
+
+    // owner เปลี่ยน → query owner ของ group ต้องล้างด้วย (ทั้ง region)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void groupChanged(Long groupId, boolean ownerChanged) {
+        record(CacheRegions.GROUP, groupId);
+        if (ownerChanged) record(CacheRegions.GROUP_OWNER_QUERY, null);
+    }
+
+    // ลบ group → DB ลบ group_members / expenses ตาม
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void groupDeleted(Long groupId) {
+        record(CacheRegions.GROUP, groupId);
+        record(CacheRegions.GROUP_MEMBER, null);
+        record(CacheRegions.GROUP_OWNER_QUERY, null);
+        record(CacheRegions.EXPENSE_GROUP_QUERY, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void membershipChanged(Long groupId, Long userId) {
+        record(CacheRegions.GROUP_MEMBER, groupId + ":" + userId);
+    }
+
+    // expense ย้าย group หรือถูกลบ
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseGroupChanged() {
+        record(CacheRegions.EXPENSE_GROUP_QUERY, null);
+    }
+
+    // ---------- ฝั่งอ่าน ----------
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:1000}")
+    public void poll() {
+        Instant now = Instant.now();
+        if (cursor < 0) {
+            // cache เพิ่งเริ่ม (ว่าง) → ไม่ต้องย้อนดูของเก่า
+            cursor = repo.findMaxId();
+            floor = now;
+            return;
+        }
+
+        Instant since = now.minus(lookback);
+        if (since.isBefore(floor)) since = floor;
+
+        List<CacheInvalidation> rows = repo.findPending(cursor, since, PageRequest.of(0, batchSize));
+        if (rows.size() == batchSize) {
+            // ตามไม่ทัน → ล้างทั้งหมดแล้วเริ่มนับจากตอนนี้ (ถูกต้องเสมอ แค่ miss มากขึ้นชั่วคราว)
+            log.info("cache invalidation backlog >= {} rows, evicting all regions", batchSize);
+            cache().evictAllRegions();
+            cursor = repo.findMaxId();
+            floor = now;
+            seen.clear();
+            return;
+        }
+
+        for (CacheInvalidation row : rows) {
+            cursor = Math.max(cursor, row.getId());
+            if (seen.put(row.getId(), Boolean.TRUE) != null) continue;
+            apply(row);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        int n = repo.deleteOlderThan(Instant.now().minus(retention));
+        if (n > 0) log.debug("deleted {} old cache invalidations", n);
+    }
+
+    void apply(CacheInvalidation row) {
+        Cache cache = cache();
+        String key = row.getEntityKey();
+        switch (row.getRegion()) {
+            case CacheRegions.ALL -> cache.evictAllRegions();
+            case CacheRegions.USER -> evictEntity(cache, User.class, key == null ? null : Long.valueOf(key));
+            case CacheRegions.GROUP -> evictEntity(cache, Group.class, key == null ? null : Long.valueOf(key));
+            case CacheRegions.GROUP_MEMBER -> evictEntity(cache, GroupMember.class, key == null ? null : memberId(key));
+            case CacheRegions.GROUP_OWNER_QUERY, CacheRegions.EXPENSE_GROUP_QUERY -> cache.evictQueryRegion(row.getRegion());
+            default -> {
+                log.warn("unknown cache region in invalidation {}: {}", row.getId(), row.getRegion());
+                cache.evictAllRegions();
+            }
+        }
+    }
+
+    private static void evictEntity(Cache cache, Class<?> type, Object id) {
+        if (id == null) cache.evictEntityData(type);
+        else cache.evictEntityData(type, id);
+    }
+
+    private static GroupMemberId memberId(String key) {
+        int i = key.indexOf(':');
+        return new GroupMemberId(Long.valueOf(key.substring(0, i)), Long.valueOf(key.substring(i + 1)));
+    }
+
+    private Cache cache() {
+        return emf.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartsplit.smartsplitback.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * งานตามเวลาที่ต้องมี instance เดียวทำในแต่ละรอบ (เช่น archive) ใช้ named lock ของ MySQL (GET_LOCK)
+ * - ถือ lock บน connection เดียวตลอดงาน; งานเองเปิด transaction บน connection อื่นได้ตามปกติ
+ * - instance ตายหรือ connection หลุด → MySQL ปล่อย lock เอง ไม่ต้องมี lease ให้หมดอายุ
+ * - ไม่รอ: instance อื่นถือ lock อยู่ → ข้ามรอบนี้ (รอบถัดไปค่อยลองใหม่)
+ */
+@Component
+public class ClusterLock {
+
+    private final JdbcTemplate jdbc;
+
+    public ClusterLock(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** @return ผลของ task หรือ empty ถ้า instance อื่นถือ lock อยู่ */
+    public <T> Optional<T> runExclusive(String name, Supplier<T> task) {
+        return jdbc.execute((ConnectionCallback<Optional<T>>) con -> {
+            if (!acquire(con, name)) return Optional.empty();
+            try {
+                return Optional.ofNullable(task.get());
+            } finally {
+                release(con, name);
+            }
+        });
+    }
+
+    private static boolean acquire(Connection con, String name) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection con, String name) {
+        try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, name);
+            ps.executeQuery().close();
+        } catch (SQLException ignored) {
+            // connection เสียไปแล้ว → MySQL ปล่อย lock ตอนปิด session อยู่ดี
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.ExpensePayment;
+import com.smartsplit.smartsplitback.model.OutboxEvent;
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+import com.smartsplit.smartsplitback.model.event.DomainEvent;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.MembershipChanged;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * จุดเดียวที่ service ใช้ประกาศ domain event: เขียนแถวลง outbox ใน transaction ของผู้เรียก
+ * (MANDATORY → ถ้าไม่มี transaction จะโยน exception แทนที่จะเขียนแยกแล้ว event หลุดจากข้อมูลจริง)
+ * การส่งให้ listener ทำโดย OutboxRelay หลัง commit
+ * event ของ expense ถูกจดลง ExpenseJournalService ด้วย (เขียน journal ตอนก่อน commit)
+ */
+@Service
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outbox;
+    private final ObjectMapper objectMapper;
+    private final ExpenseRepository expenses;
+    private final ExpenseItemShareRepository shares;
+    private final ExpenseJournalService journal;
+
+    public DomainEventPublisher(OutboxEventRepository outbox,
+                                ObjectMapper objectMapper,
+                                ExpenseRepository expenses,
+                                ExpenseItemShareRepository shares,
+                                ExpenseJournalService journal) {
+        this.outbox = outbox;
+        this.objectMapper = objectMapper;
+        this.expenses = expenses;
+        this.shares = shares;
+        this.journal = journal;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+        outbox.save(new OutboxEvent(event.aggregateType(), event.aggregateId(),
+                event.getClass().getSimpleName(), payload));
+
+        if (event instanceof ExpenseChanged c) {
+            journal.record(c.expenseId(), c.change().name());
+        } else if (event instanceof PaymentStatusChanged p) {
+            journal.record(p.expenseId(), "PAYMENT_" + p.newStatus());
+        }
+    }
+
+    // กรณีลบ ให้เรียกก่อนลบจริง เพื่อให้ participant ที่กำลังจะหายไปอยู่ใน affectedUserIds ด้วย
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseChanged(Long expenseId, ExpenseChanged.Change change, Long... alsoAffected) {
+        if (expenseId == null) return;
+        publish(new ExpenseChanged(expenseId, change, affectedUsers(expenseId, alsoAffected)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentStatusChanged(ExpensePayment p, PaymentStatus oldStatus) {
+        if (p.getExpense() == null || p.getStatus() == oldStatus) return;
+        Long expenseId = p.getExpense().getId();
+        Long fromUserId = (p.getFromUser() != null) ? p.getFromUser().getId() : null;
+        publish(new PaymentStatusChanged(expenseId, p.getId(), fromUserId, oldStatus, p.getStatus(),
+                affectedUsers(expenseId, fromUserId)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void membershipChanged(Long groupId, Long userId, boolean member) {
+        publish(new MembershipChanged(groupId, userId, member));
+    }
+
+    // payer + participant ของ share + extra (ไม่ซ้ำ, ข้าม null)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Long> affectedUsers(Long expenseId, Long... extra) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Long payerId = expenses.findPayerUserIdByExpenseId(expenseId);
+        if (payerId != null) ids.add(payerId);
+        for (Long id : shares.findParticipantIdsByExpense(expenseId)) {
+            if (id != null) ids.add(id);
+        }
+        for (Long id : extra) {
+            if (id != null) ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -2,15 +2,21 @@ package com.smartsplit.smartsplitback.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.jfr.FxFetchEvent;
 import com.smartsplit.smartsplitback.model.Expense;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ExchangeRateService {
@@ -19,11 +25,38 @@ public class ExchangeRateService {
     private static final int OUT_SCALE = 6;
 
     private final ObjectMapper om = new ObjectMapper();
-    private final RestTemplate http = new RestTemplate();
+    private final RestTemplate http = new RestTemplate(timeouts());
+
+    // outcome=fallback คือ FX API ใช้ไม่ได้แล้วคืน THB อย่างเดียว (fallback rate = fallback / ทั้งหมด)
+    private final Timer fetchOk;
+    private final Timer fetchFallback;
+
+    public ExchangeRateService(MeterRegistry meters) {
+        this.fetchOk = fetchTimer(meters, "success");
+        this.fetchFallback = fetchTimer(meters, "fallback");
+    }
+
+    private static Timer fetchTimer(MeterRegistry meters, String outcome) {
+        return Timer.builder("fx.live.fetch")
+                .description("เวลาดึงอัตราแลกเปลี่ยนสดจาก FX API")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    // ไม่ให้ request ค้างรอ FX API นาน ๆ (ทั้ง platform และ virtual threads)
+    private static SimpleClientHttpRequestFactory timeouts() {
+        SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
+        f.setConnectTimeout(Duration.ofSeconds(3));
+        f.setReadTimeout(Duration.ofSeconds(5));
+        return f;
+    }
 
     public Map<String, BigDecimal> getRatesToThb(Expense expense) {
         String json = expense.getExchangeRatesJson();
         if (json != null && !json.isBlank()) {
+            FxFetchEvent event = new FxFetchEvent();
+            event.begin();
             try {
                 JsonNode node = om.readTree(json);
                 Map<String, BigDecimal> map = new HashMap<>();
@@ -34,6 +67,7 @@ public class ExchangeRateService {
                     map.put(ccy, v);
                 }
                 map.putIfAbsent("THB", BigDecimal.ONE);
+                event.commit(true, false, map.size());
                 return map;
             } catch (Exception ignore) {
                 // parse ไม่ได้  ไป live ต่อ
@@ -43,6 +77,9 @@ public class ExchangeRateService {
     }
 
     public Map<String, BigDecimal> getLiveRatesToThb() {
+        FxFetchEvent event = new FxFetchEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
             String url = "https://open.er-api.com/v6/latest/THB";
             ResponseEntity<String> res = http.getForEntity(url, String.class);
@@ -66,8 +103,12 @@ public class ExchangeRateService {
                     toThb.put(ccy, ccyToThb);
                 }
             }
+            fetchOk.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.commit(false, false, toThb.size());
             return toThb;
         } catch (Exception e) {
+            fetchFallback.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.commit(false, true, 1);
             return Map.of("THB", BigDecimal.ONE);
         }
     }
@@ -0,0 +1,277 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseArchive;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.ExpensePayment;
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+import com.smartsplit.smartsplitback.model.dto.ExpenseArchiveDocument;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseItemDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseItemShareDto;
+import com.smartsplit.smartsplitback.model.dto.ExpensePaymentDto;
+import com.smartsplit.smartsplitback.repository.ExpenseArchiveRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ย้าย expense ที่ปิดแล้วออกจากตาราง hot ไปเก็บเป็นเอกสารใน expense_archive
+ * - เงื่อนไข: SETTLED/CANCELED นานกว่า app.archive.after-days, ไม่มี payment PENDING
+ *   และทุกคน (ยกเว้น payer) จ่าย VERIFIED ครบตาม share แล้ว
+ *   → expense นี้ไม่มีแถวใน findBalancesForUser อยู่แล้ว ย้ายออกไปยอดคงเหลือจึงไม่เปลี่ยน
+ * - ย้ายทีละ expense ใน transaction ของตัวเอง (lock แถว expense, ตรวจเงื่อนไขซ้ำบน primary)
+ * - ทำทีละ instance (ClusterLock); ล้มติดกันเกิน app.archive.max-consecutive-failures → หยุดรอบนี้ (DB มีปัญหา ไม่ใช่แถวเดียว)
+ * - อ่านย้อนหลังได้ตาม id เดิม (get / document) และ list ตาม group
+ */
+@Service
+public class ExpenseArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseArchiveService.class);
+
+    private final ExpenseRepository expenses;
+    private final ExpenseArchiveRepository archives;
+    private final CacheInvalidationService cacheInvalidations;
+    private final ClusterLock clusterLock;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final Counter archivedCount;
+    private final Counter failedCount;
+    private final Duration after;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final int maxConsecutiveFailures;
+
+    public ExpenseArchiveService(ExpenseRepository expenses,
+                                 ExpenseArchiveRepository archives,
+                                 CacheInvalidationService cacheInvalidations,
+                                 ClusterLock clusterLock,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meters,
+                                 @Value("${app.archive.after-days:90}") long afterDays,
+                                 @Value("${app.archive.batch-size:100}") int batchSize,
+                                 @Value("${app.archive.max-per-run:5000}") int maxPerRun,
+                                 @Value("${app.archive.max-consecutive-failures:20}") int maxConsecutiveFailures) {
+        this.expenses = expenses;
+        this.archives = archives;
+        this.cacheInvalidations = cacheInvalidations;
+        this.clusterLock = clusterLock;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.archivedCount = Counter.builder("expense.archive.archived")
+                .description("expense ที่ย้ายเข้า archive")
+                .register(meters);
+        this.failedCount = Counter.builder("expense.archive.failed")
+                .description("expense ที่ย้ายไม่สำเร็จ (รอบหน้าลองใหม่)")
+                .register(meters);
+        this.after = Duration.ofDays(afterDays);
+        this.batchSize = batchSize;
+        this.maxPerRun = maxPerRun;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    // ---------- งานย้าย ----------
+
+    /** @return จำนวน expense ที่ย้ายได้ในรอบนี้ (instance อื่นกำลังทำอยู่ → 0) */
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public int archiveClosed() {
+        return clusterLock.runExclusive("expense-archive", this::archiveRun).orElse(0);
+    }
+
+    int archiveRun() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(after);
+        int moved = 0;
+        int failedInRow = 0;
+        long afterId = 0;
+
+        // เดินตาม id ไปเรื่อย ๆ: ตัวที่ยังมียอดค้างจะถูกข้าม ไม่บังตัวถัดไป
+        scan:
+        while (moved < maxPerRun) {
+            List<Long> ids = expenses.findArchiveCandidates(cutoff, afterId, PageRequest.of(0, batchSize));
+            for (Long id : ids) {
+                afterId = id;
+                switch (archiveOne(id, cutoff)) {
+                    case MOVED -> { moved++; failedInRow = 0; }
+                    case SKIPPED -> failedInRow = 0;
+                    case FAILED -> {
+                        if (++failedInRow >= maxConsecutiveFailures) {
+                            log.error("archive stopped after {} consecutive failures (last expense {}), moved {}",
+                                    failedInRow, id, moved);
+                            break scan;
+                        }
+                    }
+                }
+                if (moved >= maxPerRun) break;
+            }
+            if (ids.size() < batchSize) break;
+        }
+
+        if (moved > 0) log.info("archived {} closed expenses", moved);
+        return moved;
+    }
+
+    enum Outcome { MOVED, SKIPPED, FAILED }
+
+    Outcome archiveOne(Long expenseId, LocalDateTime cutoff) {
+        try {
+            return tx.execute(s -> {
+                Expense e = expenses.findByIdForUpdate(expenseId).orElse(null);
+                if (e == null || !eligible(e, cutoff)) return Outcome.SKIPPED;
+
+                archives.save(toArchive(e));
+                expenses.delete(e);
+                cacheInvalidations.expenseGroupChanged();
+                archivedCount.increment();
+                return Outcome.MOVED;
+            });
+        } catch (RuntimeException ex) {
+            // เช่น มีคนแก้ payment ระหว่างนี้ (@Version) → รอบหน้าค่อยดูใหม่
+            failedCount.increment();
+            log.warn("archive expense {} failed", expenseId, ex);
+            return Outcome.FAILED;
+        }
+    }
+
+    static boolean eligible(Expense e, LocalDateTime cutoff) {
+        return e.getStatus() != ExpenseStatus.OPEN
+                && e.getClosedAt() != null
+                && e.getClosedAt().isBefore(cutoff)
+                && settledUp(e);
+    }
+
+    /**
+     * ไม่มีใครค้างจ่าย: คิดแบบเดียวกับ BalanceQueryRepository.findBalancesForUser
+     * (share ของคนที่ไม่ใช่ payer − payment VERIFIED ของคนนั้น ต้องไม่มากกว่า 0) และไม่มี payment PENDING
+     */
+    static boolean settledUp(Expense e) {
+        Long payerId = e.getPayer().getId();
+        Map<Long, BigDecimal> owed = new HashMap<>();
+
+        for (ExpenseItem item : e.getItems()) {
+            for (ExpenseItemShare s : item.getShares()) {
+                Long uid = s.getParticipant().getId();
+                if (uid.equals(payerId)) continue;
+                owed.merge(uid, shareAmount(s, item), BigDecimal::add);
+            }
+        }
+        for (ExpensePayment p : e.getPayments()) {
+            if (p.getStatus() == PaymentStatus.PENDING) return false;
+            if (p.getStatus() == PaymentStatus.VERIFIED) {
+                owed.merge(p.getFromUser().getId(), p.getAmount().negate(), BigDecimal::add);
+            }
+        }
+        return owed.values().stream().allMatch(v -> v.signum() <= 0);
+    }
+
+    private static BigDecimal shareAmount(ExpenseItemShare s, ExpenseItem item) {
+        if (s.getShareValue() != null) return s.getShareValue();
+        if (s.getSharePercent() == null || item.getAmount() == null) return BigDecimal.ZERO;
+        return s.getSharePercent().movePointLeft(2).multiply(item.getAmount());
+    }
+
+    ExpenseArchive toArchive(Expense e) {
+        List<ExpenseItemDto> items = new ArrayList<>();
+        List<ExpenseItemShareDto> shares = new ArrayList<>();
+        List<ExpensePaymentDto> payments = new ArrayList<>();
+
+        ExpenseArchive a = new ExpenseArchive();
+        a.setId(e.getId());
+        a.setGroupId(e.getGroup().getId());
+        a.setPayerUserId(e.getPayer().getId());
+        a.setTitle(e.getTitle());
+        a.setAmount(e.getAmount());
+        a.setType(e.getType());
+        a.setStatus(e.getStatus());
+        a.setCreatedAt(e.getCreatedAt());
+        a.setClosedAt(e.getClosedAt());
+        a.getParticipantIds().add(e.getPayer().getId());
+
+        for (ExpenseItem item : e.getItems()) {
+            items.add(ExpenseItemDto.fromEntity(item));
+            for (ExpenseItemShare s : item.getShares()) {
+                shares.add(ExpenseItemShareDto.fromEntity(s));
+                a.getParticipantIds().add(s.getParticipant().getId());
+            }
+        }
+        for (ExpensePayment p : e.getPayments()) {
+            payments.add(ExpensePaymentDto.fromEntity(p));
+            a.getParticipantIds().add(p.getFromUser().getId());
+        }
+
+        ExpenseDto expense = new ExpenseDto(e.getId(), a.getGroupId(), a.getPayerUserId(), e.getAmount(),
+                e.getType(), e.getTitle(), e.getStatus(), e.getCreatedAt(), e.getVersion());
+        var doc = new ExpenseArchiveDocument(expense, e.getExchangeRatesJson(), e.getClosedAt(),
+                a.getArchivedAt(), items, shares, payments);
+        try {
+            a.setDocument(gzip(objectMapper.writeValueAsBytes(doc)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return a;
+    }
+
+    // ---------- อ่านย้อนหลัง ----------
+
+    @Transactional(readOnly = true)
+    public ExpenseDto get(Long expenseId) {
+        return archives.findSummaryById(expenseId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExpenseDto> listByGroup(Long groupId) {
+        return archives.findSummariesByGroupId(groupId);
+    }
+
+    @Transactional(readOnly = true)
+    public ExpenseArchiveDocument document(Long expenseId) {
+        byte[] body = archives.findDocumentById(expenseId);
+        if (body == null) return null;
+        try {
+            return objectMapper.readValue(gunzip(body), ExpenseArchiveDocument.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] packed) throws IOException {
+        try (GZIPInputStream gz = new GZIPInputStream(new ByteArrayInputStream(packed))) {
+            return gz.readAllBytes();
+        }
+    }
+}
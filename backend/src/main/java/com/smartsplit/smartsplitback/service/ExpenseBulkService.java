@@ -0,0 +1,264 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseFullRequest;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
+import com.smartsplit.smartsplitback.repository.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * สร้าง expense ทั้งก้อน (items + shares) ใน transaction เดียว
+ * - validate ทั้ง tree ก่อนแตะ DB
+ * - โหลด participant ทั้งหมดด้วย query เดียว
+ * - แปลงสกุลเงินด้วย rate table ชุดเดียว
+ * - save ผ่าน cascade ครั้งเดียว ให้ Hibernate รวม insert เป็น JDBC batch
+ * - ประกาศ ExpenseChanged(CREATED) ใน transaction เดียวกัน (outbox + แถวแรกของ journal)
+ */
+@Service
+public class ExpenseBulkService {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final ExpenseRepository expenses;
+    private final GroupRepository groups;
+    private final UserRepository users;
+    private final ExchangeRateService fx;
+    private final DomainEventPublisher events;
+    private final ObjectMapper objectMapper;
+
+    public ExpenseBulkService(ExpenseRepository expenses,
+                              GroupRepository groups,
+                              UserRepository users,
+                              ExchangeRateService fx,
+                              DomainEventPublisher events,
+                              ObjectMapper objectMapper) {
+        this.expenses = expenses;
+        this.groups = groups;
+        this.users = users;
+        this.fx = fx;
+        this.events = events;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public Expense createFull(ExpenseFullRequest in) {
+        validate(in);
+
+        Group g = groups.findById(in.groupId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
+        User payer = users.findById(in.payerUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payer user not found"));
+
+        Map<Long, User> participants = loadParticipants(in.items());
+        Map<String, BigDecimal> rates = resolveRates(in);
+
+        Expense e = new Expense();
+        e.setGroup(g);
+        e.setPayer(payer);
+        e.setTitle(in.title().trim());
+        if (in.type() != null) e.setType(in.type());
+        if (in.status() != null) e.setStatus(in.status());
+        try {
+            e.setExchangeRatesJson(objectMapper.writeValueAsString(rates));
+        } catch (Exception ex) {
+            e.setExchangeRatesJson("{\"THB\":1}");
+        }
+
+        BigDecimal itemsThb = BigDecimal.ZERO;
+        for (ExpenseFullRequest.Item itemReq : safe(in.items())) {
+            ExpenseItem it = new ExpenseItem();
+            it.setName(itemReq.name().trim());
+            it.setAmount(itemReq.amount().setScale(2, RoundingMode.HALF_UP));
+            it.setCurrency(normalizeCcy(itemReq.currency(), in.currency()));
+            e.addItem(it);
+
+            itemsThb = itemsThb.add(fx.toThb(it.getCurrency(), it.getAmount(), rates));
+
+            for (ExpenseFullRequest.Share shareReq : safe(itemReq.shares())) {
+                BigDecimal original = (shareReq.sharePercent() != null)
+                        ? percentToValue(it.getAmount(), shareReq.sharePercent())
+                        : shareReq.shareValue().setScale(6, RoundingMode.HALF_UP);
+
+                ExpenseItemShare s = new ExpenseItemShare();
+                s.setExpenseItem(it);
+                s.setParticipant(participants.get(shareReq.participantUserId()));
+                s.setShareOriginalValue(original);
+                s.setShareValue(fx.toThb(it.getCurrency(), original, rates));
+                s.setSharePercent(shareReq.sharePercent());
+                it.getShares().add(s);
+            }
+        }
+
+        e.setAmount(in.amount() != null
+                ? toThbAmount(in.amount(), in.currency(), rates)
+                : itemsThb.setScale(2, RoundingMode.HALF_UP));
+
+        Expense saved = expenses.save(e);
+        events.expenseChanged(saved.getId(), ExpenseChanged.Change.CREATED);
+        return saved;
+    }
+
+    // ---------- helpers ----------
+
+    private void validate(ExpenseFullRequest in) {
+        if (in == null || in.groupId() == null || in.payerUserId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupId and payerUserId are required");
+        }
+        if (in.title() == null || in.title().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "title is required");
+        }
+        if (in.amount() != null && in.amount().signum() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "amount must be >= 0");
+        }
+        int idx = 0;
+        for (ExpenseFullRequest.Item it : safe(in.items())) {
+            String where = "items[" + idx++ + "]";
+            if (it == null || it.name() == null || it.name().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, where + ".name is required");
+            }
+            if (it.amount() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, where + ".amount is required");
+            }
+            if (it.amount().signum() < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, where + ".amount must be >= 0");
+            }
+            Set<Long> seen = new HashSet<>();
+            for (ExpenseFullRequest.Share s : safe(it.shares())) {
+                if (s == null || s.participantUserId() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, where + ": participantUserId is required");
+                }
+                if (s.shareValue() == null && s.sharePercent() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            where + ": either shareValue or sharePercent is required");
+                }
+                if (s.sharePercent() != null
+                        && (s.sharePercent().signum() < 0 || s.sharePercent().compareTo(HUNDRED) > 0)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, where + ": sharePercent must be 0-100");
+                }
+                if (s.sharePercent() == null && s.shareValue().signum() < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, where + ": shareValue must be >= 0");
+                }
+                if (!seen.add(s.participantUserId())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            where + ": duplicate participant " + s.participantUserId());
+                }
+            }
+        }
+    }
+
+    private Map<Long, User> loadParticipants(List<ExpenseFullRequest.Item> items) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (ExpenseFullRequest.Item it : safe(items)) {
+            for (ExpenseFullRequest.Share s : safe(it.shares())) ids.add(s.participantUserId());
+        }
+        if (ids.isEmpty()) return Map.of();
+
+        Map<Long, User> found = users.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Participant user not found: " + id);
+            }
+        }
+        return found;
+    }
+
+    private Map<String, BigDecimal> resolveRates(ExpenseFullRequest in) {
+        Map<String, BigDecimal> custom = in.rates();
+        if (custom != null && !custom.isEmpty()) {
+            Map<String, BigDecimal> base;
+            try {
+                base = fx.getLiveRatesToThb();
+            } catch (Exception ex) {
+                base = Map.of("THB", BigDecimal.ONE);
+            }
+            Map<String, BigDecimal> merged = new HashMap<>(base);
+            for (var entry : custom.entrySet()) {
+                String ccy = entry.getKey() == null ? "" : entry.getKey().trim().toUpperCase(Locale.ROOT);
+                BigDecimal v = entry.getValue();
+                if (ccy.isEmpty() || v == null || v.signum() <= 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid rate for currency: " + entry.getKey());
+                }
+                merged.put(ccy, v);
+            }
+            merged.put("THB", BigDecimal.ONE);
+            assertRatesCover(in, merged);
+            return merged;
+        }
+
+        Map<String, BigDecimal> live;
+        try {
+            live = fx.getLiveRatesToThb();
+        } catch (Exception ex) {
+            live = Map.of("THB", BigDecimal.ONE);
+        }
+        assertRatesCoverOr503(in, live);
+        return live;
+    }
+
+    private void assertRatesCover(ExpenseFullRequest in, Map<String, BigDecimal> rates) {
+        for (String ccy : usedCurrencies(in)) {
+            if (!rates.containsKey(ccy)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing rate for currency: " + ccy);
+            }
+        }
+    }
+
+    private void assertRatesCoverOr503(ExpenseFullRequest in, Map<String, BigDecimal> rates) {
+        for (String ccy : usedCurrencies(in)) {
+            if (!rates.containsKey(ccy)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Exchange rate service unavailable; cannot convert " + ccy + " to THB right now");
+            }
+        }
+    }
+
+    private Set<String> usedCurrencies(ExpenseFullRequest in) {
+        Set<String> out = new LinkedHashSet<>();
+        out.add(normalizeCcy(in.currency(), null));
+        for (ExpenseFullRequest.Item it : safe(in.items())) out.add(normalizeCcy(it.currency(), in.currency()));
+        return out;
+    }
+
+    private BigDecimal toThbAmount(BigDecimal amount, String currency, Map<String, BigDecimal> rates) {
+        String ccy = normalizeCcy(currency, null);
+        if ("THB".equals(ccy)) return amount.setScale(2, RoundingMode.HALF_UP);
+        return amount.multiply(rates.get(ccy)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal percentToValue(BigDecimal itemAmount, BigDecimal percent) {
+        BigDecimal base = (itemAmount != null) ? itemAmount : BigDecimal.ZERO;
+        return base.multiply(percent).divide(HUNDRED, 6, RoundingMode.HALF_UP);
+    }
+
+    private static String normalizeCcy(String ccy, String fallback) {
+        String c = (ccy == null || ccy.isBlank()) ? fallback : ccy;
+        return (c == null || c.isBlank()) ? "THB" : c.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static <T> List<T> safe(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
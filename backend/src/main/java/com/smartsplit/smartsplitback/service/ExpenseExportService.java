@@ -1,5 +1,6 @@
 package com.smartsplit.smartsplitback.service;
 
+import com.smartsplit.smartsplitback.jfr.PdfRenderEvent;
 import com.smartsplit.smartsplitback.model.*;
 import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
@@ -7,8 +8,12 @@ import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
 
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.jsoup.Jsoup;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.jsoup.helper.W3CDom;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.TemplateEngine;
@@ -21,8 +26,11 @@ import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
+// ใช้น้อย: ไม่สร้างตอน startup (TemplateEngine + คลาสของ openhtmltopdf/PDFBox โหลดตอน export ครั้งแรก)
 @Service
+@Lazy
 public class ExpenseExportService {
 
     private final ExpenseRepository expenses;
@@ -32,17 +40,23 @@ public class ExpenseExportService {
     private final ExchangeRateService fx;
 
     private final TemplateEngine engine;
+    private final Timer render;
 
     public ExpenseExportService(ExpenseRepository expenses,
                                 ExpenseItemRepository itemsRepo,
                                 ExpenseItemShareRepository sharesRepo,
                                 ExpensePaymentRepository paymentsRepo,
-                                ExchangeRateService fx) {
+                                ExchangeRateService fx,
+                                MeterRegistry meters) {
         this.expenses = expenses;
         this.itemsRepo = itemsRepo;
         this.sharesRepo = sharesRepo;
         this.paymentsRepo = paymentsRepo;
         this.fx = fx;
+        this.render = Timer.builder("expense.pdf.render")
+                .description("เวลา render template + HTML เป็น PDF (ไม่รวมโหลดข้อมูลและ FX)")
+                .publishPercentileHistogram()
+                .register(meters);
 
         // Configure Thymeleaf (template from classpath:/templates/)
         ClassLoaderTemplateResolver r = new ClassLoaderTemplateResolver();
@@ -75,14 +89,14 @@ public class ExpenseExportService {
 
         // ==== Items: แสดงทั้ง original และ THB ====
         List<Map<String, Object>> itemVM = new ArrayList<>();
-        BigDecimal itemsTotalThb = BigDecimal.ZERO;
+        Money itemsTotalThb = Money.zero(Money.THB);
 
         for (ExpenseItem it : items) {
-            String ccy = safeUpper(getItemCurrency(it));
+            String ccy = safeUpper(it.currencyOrDefault());
             BigDecimal original = nvl(it.getAmount());
             BigDecimal thb = fx.toThb(ccy, original, rates);
 
-            itemsTotalThb = itemsTotalThb.add(thb);
+            itemsTotalThb = itemsTotalThb.plus(thb);
 
             itemVM.add(Map.of(
                     "name", it.getName(),
@@ -93,10 +107,10 @@ public class ExpenseExportService {
 
         // ==== Payments: ถือเป็น THB ตามโมเดลเดิม ====
         List<Map<String, Object>> payVM = new ArrayList<>();
-        BigDecimal verifiedTotal = BigDecimal.ZERO;
+        Money verifiedTotal = Money.zero(Money.THB);
         for (ExpensePayment p : payments) {
             if (p.getStatus() == PaymentStatus.VERIFIED && p.getAmount() != null) {
-                verifiedTotal = verifiedTotal.add(p.getAmount());
+                verifiedTotal = verifiedTotal.plus(p.getAmount());
             }
             payVM.add(Map.of(
                     "by", p.getFromUser().getUserName(),
@@ -110,7 +124,7 @@ public class ExpenseExportService {
         for (ExpenseItemShare s : shares) {
             String ccy = null;
             if (s.getExpenseItem() != null) {
-                ccy = safeUpper(getItemCurrency(s.getExpenseItem()));
+                ccy = safeUpper(s.getExpenseItem().currencyOrDefault());
             }
             String percentFmt = (s.getSharePercent() != null)
                     ? (s.getSharePercent().stripTrailingZeros().toPlainString() + "%")
@@ -125,7 +139,7 @@ public class ExpenseExportService {
             ));
         }
 
-        BigDecimal outstanding = itemsTotalThb.subtract(verifiedTotal);
+        Money outstanding = itemsTotalThb.minus(verifiedTotal);
 
         // Build model for template
         Context ctx = new Context(Locale.forLanguageTag("th"));
@@ -142,15 +156,18 @@ public class ExpenseExportService {
 
         // view models
         ctx.setVariable("items", itemVM);
-        ctx.setVariable("itemsTotalThbFmt", money.format(itemsTotalThb));
+        ctx.setVariable("itemsTotalThbFmt", money.format(itemsTotalThb.toBigDecimal()));
 
         ctx.setVariable("shares", shareVM);
 
         ctx.setVariable("payments", payVM);
-        ctx.setVariable("verifiedTotalFmt", money.format(verifiedTotal));
-        ctx.setVariable("outstandingFmt", money.format(outstanding));
+        ctx.setVariable("verifiedTotalFmt", money.format(verifiedTotal.toBigDecimal()));
+        ctx.setVariable("outstandingFmt", money.format(outstanding.toBigDecimal()));
 
         // Render HTML
+        long renderStart = System.nanoTime();
+        PdfRenderEvent event = new PdfRenderEvent();
+        event.begin();
         String html = engine.process("pdf/expense", ctx);
         html = html.replace("\uFEFF", "").trim();
 
@@ -179,27 +196,27 @@ public class ExpenseExportService {
             b.withW3cDocument(w3c, null);
             b.toStream(out);
             b.run();
-            return out.toByteArray();
+            byte[] pdf = out.toByteArray();
+            event.commit(expenseId, pdf, ExpenseExportService::pageCount);
+            return pdf;
         } catch (Exception ex) {
             throw new RuntimeException("Failed to render PDF", ex);
+        } finally {
+            render.record(System.nanoTime() - renderStart, TimeUnit.NANOSECONDS);
         }
     }
 
 
-    private BigDecimal nvl(BigDecimal v) {
-        return v == null ? BigDecimal.ZERO : v;
+    private static int pageCount(byte[] pdf) {
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            return doc.getNumberOfPages();
+        } catch (Exception e) {
+            return -1;
+        }
     }
 
-    private String getItemCurrency(ExpenseItem it) {
-        try {
-            var m = ExpenseItem.class.getMethod("getCurrency");
-            Object r = m.invoke(it);
-            if (r == null) return "THB";
-            String s = String.valueOf(r);
-            return s == null || s.isBlank() ? "THB" : s;
-        } catch (Exception ignore) {
-            return "THB";
-        }
+    private BigDecimal nvl(BigDecimal v) {
+        return v == null ? BigDecimal.ZERO : v;
     }
 
     private String safeUpper(String s) {
@@ -2,6 +2,7 @@ package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.Expense;
 import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
 import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
 import org.springframework.http.HttpStatus;
@@ -18,10 +19,12 @@ public class ExpenseItemService {
 
     private final ExpenseItemRepository items;
     private final ExpenseRepository expenses;
+    private final DomainEventPublisher events;
 
-    public ExpenseItemService(ExpenseItemRepository items, ExpenseRepository expenses) {
+    public ExpenseItemService(ExpenseItemRepository items, ExpenseRepository expenses, DomainEventPublisher events) {
         this.items = items;
         this.expenses = expenses;
+        this.events = events;
     }
 
     @Transactional(readOnly = true)
@@ -46,20 +49,28 @@ public class ExpenseItemService {
         item.setAmount(amount);
         item.setCurrency(normalizeCcy(currency));
 
-        return items.save(item);
+        ExpenseItem saved = items.save(item);
+        expenses.bumpRevision(expenseId);
+        events.expenseChanged(expenseId, ExpenseChanged.Change.ITEMS);
+        return saved;
     }
 
     @Transactional
-    public ExpenseItem updateInExpense(Long expenseId, Long itemId, String name, BigDecimal amount, String currency) {
+    public ExpenseItem updateInExpense(Long expenseId, Long itemId, String name, BigDecimal amount, String currency,
+                                       Long expectedVersion) {
         ExpenseItem item = items.findByIdAndExpense_Id(itemId, expenseId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Expense item not found in this expense"));
+        Versions.check(expectedVersion, item.getVersion());
 
         if (name != null)   item.setName(name);
         if (amount != null) item.setAmount(amount);
         if (currency != null && !currency.isBlank()) item.setCurrency(normalizeCcy(currency));
 
-        return items.save(item);
+        ExpenseItem saved = items.save(item);
+        expenses.bumpRevision(expenseId);
+        events.expenseChanged(expenseId, ExpenseChanged.Change.ITEMS);
+        return saved;
     }
 
     @Transactional
@@ -68,7 +79,10 @@ public class ExpenseItemService {
         if (!exists) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense item not found in this expense");
         }
+        // ก่อนลบ: share ของ item นี้จะหายไปด้วย (FK cascade) ต้องเก็บรายชื่อผู้รับไว้ก่อน
+        events.expenseChanged(expenseId, ExpenseChanged.Change.ITEMS);
         items.deleteById(itemId);
+        expenses.bumpRevision(expenseId);
     }
 
     @Transactional(readOnly = true)
@@ -88,7 +102,9 @@ public class ExpenseItemService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense item not found"));
         if (name != null)   item.setName(name);
         if (amount != null) item.setAmount(amount);
-        return items.save(item);
+        ExpenseItem saved = items.save(item);
+        if (item.getExpense() != null) expenses.bumpRevision(item.getExpense().getId());
+        return saved;
     }
 
     @Deprecated @Transactional
@@ -96,7 +112,9 @@ public class ExpenseItemService {
         if (!items.existsById(itemId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense item not found");
         }
+        Long expenseId = expenses.findExpenseIdByItemId(itemId);
         items.deleteById(itemId);
+        if (expenseId != null) expenses.bumpRevision(expenseId);
     }
 
     private String normalizeCcy(String ccy) {
@@ -3,6 +3,7 @@ package com.smartsplit.smartsplitback.service;
 import com.smartsplit.smartsplitback.model.ExpenseItem;
 import com.smartsplit.smartsplitback.model.ExpenseItemShare;
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
 import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
@@ -28,19 +29,22 @@ public class ExpenseItemShareService {
     private final GroupMemberRepository members;
     private final ExpenseRepository expenses;
     private final ExchangeRateService fx; // 🔹 เพิ่ม
+    private final DomainEventPublisher events;
 
     public ExpenseItemShareService(ExpenseItemShareRepository shares,
                                    ExpenseItemRepository items,
                                    UserRepository users,
                                    GroupMemberRepository members,
                                    ExpenseRepository expenses,
-                                   ExchangeRateService fx) { // 🔹 เพิ่ม
+                                   ExchangeRateService fx, // 🔹 เพิ่ม
+                                   DomainEventPublisher events) {
         this.shares = shares;
         this.items = items;
         this.users = users;
         this.members = members;
         this.expenses = expenses;
         this.fx = fx; // 🔹 เพิ่ม
+        this.events = events;
     }
 
     @Transactional(readOnly = true)
@@ -76,7 +80,7 @@ public class ExpenseItemShareService {
             original = scaleMoney(shareValue);
         }
 
-        String ccy = safeUpper(itemCurrency(item));
+        String ccy = safeUpper(item.currencyOrDefault());
         Map<String, BigDecimal> rates = fx.getRatesToThb(item.getExpense());
         BigDecimal thb = fx.toThb(ccy, original, rates);
 
@@ -87,7 +91,10 @@ public class ExpenseItemShareService {
         s.setShareValue(thb);
         s.setSharePercent(sharePercent);
 
-        return shares.save(s);
+        ExpenseItemShare saved = shares.save(s);
+        expenses.bumpRevision(expenseId);
+        events.expenseChanged(expenseId, ExpenseChanged.Change.SHARES);
+        return saved;
     }
 
     @Transactional
@@ -95,10 +102,12 @@ public class ExpenseItemShareService {
                                                  Long itemId,
                                                  Long shareId,
                                                  BigDecimal shareValue,
-                                                 BigDecimal sharePercent) {
+                                                 BigDecimal sharePercent,
+                                                 Long expectedVersion) {
         ExpenseItemShare s = shares
                 .findByIdAndExpenseItem_IdAndExpenseItem_Expense_Id(shareId, itemId, expenseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Share not found in this expense/item"));
+        Versions.check(expectedVersion, s.getVersion());
 
         ExpenseItem item = s.getExpenseItem();
         if (item == null) {
@@ -114,14 +123,17 @@ public class ExpenseItemShareService {
             original = scaleMoney(shareValue);
         }
 
-        String ccy = safeUpper(itemCurrency(item));
+        String ccy = safeUpper(item.currencyOrDefault());
         Map<String, BigDecimal> rates = fx.getRatesToThb(item.getExpense());
         BigDecimal thb = fx.toThb(ccy, original, rates);
 
         s.setShareOriginalValue(original);
         s.setShareValue(thb);
 
-        return shares.save(s);
+        ExpenseItemShare saved = shares.save(s);
+        expenses.bumpRevision(expenseId);
+        events.expenseChanged(expenseId, ExpenseChanged.Change.SHARES);
+        return saved;
     }
 
     @Transactional
@@ -130,7 +142,9 @@ public class ExpenseItemShareService {
         if (!ok) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Share not found in this expense/item");
         }
+        events.expenseChanged(expenseId, ExpenseChanged.Change.SHARES);
         shares.deleteById(shareId);
+        expenses.bumpRevision(expenseId);
     }
 
     private void assertItemInExpenseOr404(Long expenseId, Long itemId) {
@@ -153,17 +167,6 @@ public class ExpenseItemShareService {
     }
 
     // ---------- helpers ----------
-    /** ดึงสกุลเงินจาก item; ถ้าไม่มี ให้ THB */
-    private String itemCurrency(ExpenseItem item) {
-        try {
-            var c = (String) ExpenseItem.class.getMethod("getCurrency").invoke(item);
-            return (c == null || c.isBlank()) ? "THB" : c;
-        } catch (Exception e) {
-            // กรณีโปรเจกต์บางเวอร์ชันยังไม่มี field currency ใน ExpenseItem
-            return "THB";
-        }
-    }
-
     private String safeUpper(String s) {
         return (s == null) ? null : s.toUpperCase(Locale.ROOT);
     }
@@ -189,7 +192,7 @@ public class ExpenseItemShareService {
                 ? percentToValue(item.getAmount(), sharePercent)
                 : scaleMoney(shareValue);
 
-        String ccy = safeUpper(itemCurrency(item));
+        String ccy = safeUpper(item.currencyOrDefault());
         Map<String, BigDecimal> rates = fx.getRatesToThb(item.getExpense());
         BigDecimal thb = fx.toThb(ccy, original, rates);
 
@@ -199,7 +202,9 @@ public class ExpenseItemShareService {
         s.setShareOriginalValue(original);
         s.setShareValue(thb);
         s.setSharePercent(sharePercent);
-        return shares.save(s);
+        ExpenseItemShare saved = shares.save(s);
+        if (item.getExpense() != null) expenses.bumpRevision(item.getExpense().getId());
+        return saved;
     }
 
     @Deprecated
@@ -221,13 +226,15 @@ public class ExpenseItemShareService {
             original = scaleMoney(shareValue);
         }
 
-        String ccy = safeUpper(itemCurrency(item));
+        String ccy = safeUpper(item.currencyOrDefault());
         Map<String, BigDecimal> rates = fx.getRatesToThb(item.getExpense());
         BigDecimal thb = fx.toThb(ccy, original, rates);
 
         s.setShareOriginalValue(original);
         s.setShareValue(thb);
-        return shares.save(s);
+        ExpenseItemShare saved = shares.save(s);
+        if (item.getExpense() != null) expenses.bumpRevision(item.getExpense().getId());
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,239 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.ExpenseJournalEntry;
+import com.smartsplit.smartsplitback.model.ExpenseJournalSnapshot;
+import com.smartsplit.smartsplitback.model.Money;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseJournalRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseJournalSnapshotRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseUserAmountProjection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * journal แบบ append-only ของ expense เขียนคู่กับตารางปัจจุบันใน transaction เดียวกัน
+ * - DomainEventPublisher / ExpenseService แจ้งว่า expense ไหนเปลี่ยน (record) ระหว่าง transaction
+ * - ก่อน commit เขียน 1 แถวต่อ expense = ส่วนต่าง owed/paid ต่อ user เทียบกับสถานะที่ journal รู้ล่าสุด
+ *   (หลายแถวใน transaction เดียวไปเป็น JDBC batch) และ snapshot ทุก ๆ app.journal.snapshot-every แถว
+ * - settlementsAt = replay จาก snapshot ล่าสุด + ส่วนท้าย ได้ผลแบบเดียวกับ ExpenseSettlementService.allSettlements ณ เวลานั้น
+ */
+@Service
+public class ExpenseJournalService {
+
+    /** ยอดต่อ user (THB หน่วย micro): owed = รวม share_value, paid = รวม payment VERIFIED */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record State(Map<Long, Long> owed, Map<Long, Long> paid) {
+        static final State EMPTY = new State(Map.of(), Map.of());
+
+        public State {
+            owed = (owed == null) ? Map.of() : owed;
+            paid = (paid == null) ? Map.of() : paid;
+        }
+    }
+
+    /** ส่วนต่างจากแถวก่อนหน้า: owed/paid = ค่าที่บวกเพิ่ม (มี key = user อยู่ในรายการแม้ยอด 0), *Removed = user ที่หลุดออก */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public record Delta(Map<Long, Long> owed, Map<Long, Long> paid, Set<Long> owedRemoved, Set<Long> paidRemoved) {
+        public Delta {
+            owed = (owed == null) ? Map.of() : owed;
+            paid = (paid == null) ? Map.of() : paid;
+            owedRemoved = (owedRemoved == null) ? Set.of() : owedRemoved;
+            paidRemoved = (paidRemoved == null) ? Set.of() : paidRemoved;
+        }
+    }
+
+    private final ExpenseJournalRepository journal;
+    private final ExpenseJournalSnapshotRepository snapshots;
+    private final ExpenseRepository expenses;
+    private final ExpenseItemShareRepository shares;
+    private final ExpensePaymentRepository payments;
+    private final ObjectMapper objectMapper;
+    private final Counter appended;
+    private final int snapshotEvery;
+
+    public ExpenseJournalService(ExpenseJournalRepository journal,
+                                 ExpenseJournalSnapshotRepository snapshots,
+                                 ExpenseRepository expenses,
+                                 ExpenseItemShareRepository shares,
+                                 ExpensePaymentRepository payments,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meters,
+                                 @Value("${app.journal.snapshot-every:50}") int snapshotEvery) {
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.expenses = expenses;
+        this.shares = shares;
+        this.payments = payments;
+        this.objectMapper = objectMapper;
+        this.appended = Counter.builder("expense.journal.appended")
+                .description("แถวที่เขียนลง expense_journal")
+                .register(meters);
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+    }
+
+    // ---------- เขียน ----------
+
+    /** จดว่า expense เปลี่ยนใน transaction นี้ (เรียกซ้ำได้, รวมเป็นแถวเดียวตอน commit) */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long expenseId, String change) {
+        if (expenseId == null) return;
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.computeIfAbsent(expenseId, k -> new LinkedHashSet<>()).add(change);
+    }
+
+    private final class Pending implements TransactionSynchronization {
+        // เรียงตาม expense id → ล็อกแถว expense ตามลำดับเดียวกันทุก transaction
+        final Map<Long, Set<String>> changes = new TreeMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            append(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ExpenseJournalService.this);
+        }
+    }
+
+    void append(Map<Long, Set<String>> changes) {
+        // ให้ query ด้านล่างเห็นการแก้ไขของ transaction นี้ครบ (รวม delete)
+        journal.flush();
+
+        List<ExpenseJournalEntry> rows = new ArrayList<>(changes.size());
+        List<ExpenseJournalSnapshot> snaps = new ArrayList<>();
+        for (var e : changes.entrySet()) {
+            Long expenseId = e.getKey();
+            // seq ต่อ expense ต้องไม่ชนกับ transaction อื่น (expense ที่เพิ่งถูกลบไม่มีแถวให้ล็อก ก็ไม่มีใครเขียนต่อแล้ว)
+            expenses.findByIdForUpdate(expenseId);
+
+            Integer last = journal.findLastSeq(expenseId);
+            State before = (last == null) ? State.EMPTY : stateAt(expenseId, last);
+            State now = current(expenseId);
+            int seq = (last == null ? 0 : last) + 1;
+
+            rows.add(new ExpenseJournalEntry(expenseId, seq, String.join(",", e.getValue()), write(diff(before, now))));
+            if (seq % snapshotEvery == 0) {
+                snaps.add(new ExpenseJournalSnapshot(expenseId, seq, write(now)));
+            }
+        }
+        journal.saveAll(rows);
+        if (!snaps.isEmpty()) snapshots.saveAll(snaps);
+        appended.increment(rows.size());
+    }
+
+    State current(Long expenseId) {
+        return new State(micros(shares.sumShareValueByExpense(expenseId)),
+                micros(payments.sumVerifiedByExpense(expenseId)));
+    }
+
+    private static Map<Long, Long> micros(List<ExpenseUserAmountProjection> rows) {
+        Map<Long, Long> out = new TreeMap<>();
+        for (var r : rows) {
+            out.put(r.getUserId(), Money.thb(r.getAmount()).micros());
+        }
+        return out;
+    }
+
+    // ---------- replay ----------
+
+    /** settlement ของทุกคนใน expense ณ เวลา at (ยังไม่มี journal ถึงเวลานั้น → list ว่าง) */
+    @Transactional(readOnly = true)
+    public List<ExpenseSettlementDto> settlementsAt(Long expenseId, Instant at) {
+        Integer seq = journal.findLastSeqAt(expenseId, at);
+        if (seq == null) return List.of();
+
+        State s = stateAt(expenseId, seq);
+        Set<Long> users = new TreeSet<>(s.owed().keySet());
+        users.addAll(s.paid().keySet());
+        return users.stream()
+                .map(uid -> ExpenseSettlementService.settlement(expenseId, uid,
+                        Money.ofMicros(s.owed().getOrDefault(uid, 0L), Money.THB),
+                        Money.ofMicros(s.paid().getOrDefault(uid, 0L), Money.THB)))
+                .toList();
+    }
+
+    /** สถานะหลังแถว upToSeq: snapshot ล่าสุดที่ไม่เกิน upToSeq แล้ว fold ส่วนท้าย */
+    State stateAt(Long expenseId, int upToSeq) {
+        var snap = snapshots.findTopByExpenseIdAndSeqLessThanEqualOrderBySeqDesc(expenseId, upToSeq).orElse(null);
+        State s = (snap == null) ? State.EMPTY : read(snap.getState(), State.class);
+        int from = (snap == null) ? 0 : snap.getSeq();
+        for (ExpenseJournalEntry row : journal.findTail(expenseId, from, upToSeq)) {
+            s = apply(s, read(row.getDelta(), Delta.class));
+        }
+        return s;
+    }
+
+    static Delta diff(State from, State to) {
+        Map<Long, Long> owed = new TreeMap<>();
+        Map<Long, Long> paid = new TreeMap<>();
+        Set<Long> owedRemoved = new TreeSet<>();
+        Set<Long> paidRemoved = new TreeSet<>();
+        diff(from.owed(), to.owed(), owed, owedRemoved);
+        diff(from.paid(), to.paid(), paid, paidRemoved);
+        return new Delta(owed, paid, owedRemoved, paidRemoved);
+    }
+
+    private static void diff(Map<Long, Long> from, Map<Long, Long> to, Map<Long, Long> changed, Set<Long> removed) {
+        to.forEach((uid, v) -> {
+            Long old = from.get(uid);
+            if (old == null || old.longValue() != v) changed.put(uid, Math.subtractExact(v, old == null ? 0L : old));
+        });
+        for (Long uid : from.keySet()) {
+            if (!to.containsKey(uid)) removed.add(uid);
+        }
+    }
+
+    static State apply(State s, Delta d) {
+        return new State(apply(s.owed(), d.owed(), d.owedRemoved()), apply(s.paid(), d.paid(), d.paidRemoved()));
+    }
+
+    private static Map<Long, Long> apply(Map<Long, Long> base, Map<Long, Long> changed, Set<Long> removed) {
+        Map<Long, Long> out = new TreeMap<>(base);
+        changed.forEach((uid, v) -> out.merge(uid, v, Math::addExact));
+        removed.forEach(out::remove);
+        return out;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -5,9 +5,14 @@ import com.smartsplit.smartsplitback.model.ExpensePayment;
 import com.smartsplit.smartsplitback.model.PaymentReceipt;
 import com.smartsplit.smartsplitback.model.PaymentStatus;
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkRequest;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkResult;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
 import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
 import com.smartsplit.smartsplitback.repository.PaymentReceiptRepository;
+import com.smartsplit.smartsplitback.repository.PaymentStateProjection;
 import com.smartsplit.smartsplitback.repository.UserRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -16,27 +21,45 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ExpensePaymentService {
 
+    private static final int MAX_BULK_STATUS = 200;
+
     private final ExpensePaymentRepository payments;
     private final ExpenseRepository expenses;
     private final UserRepository users;
     private final PaymentReceiptRepository receipts;
     private final FileStorageService storage;
+    private final DomainEventPublisher events;
 
     public ExpensePaymentService(ExpensePaymentRepository payments,
                                  ExpenseRepository expenses,
                                  UserRepository users,
                                  PaymentReceiptRepository receipts,
-                                 FileStorageService storage) {
+                                 FileStorageService storage,
+                                 DomainEventPublisher events) {
         this.payments = payments;
         this.expenses = expenses;
         this.users = users;
         this.receipts = receipts;
         this.storage = storage;
+        this.events = events;
+    }
+
+    private static Map<Long, PaymentStateProjection> byId(List<PaymentStateProjection> rows) {
+        Map<Long, PaymentStateProjection> m = new HashMap<>();
+        for (PaymentStateProjection r : rows) m.put(r.getId(), r);
+        return m;
     }
 
     @Transactional(readOnly = true)
@@ -72,23 +95,123 @@ public class ExpensePaymentService {
         p.setFromUser(fromUser);
         p.setAmount(scaleMoney(amount));
         p.setStatus(PaymentStatus.PENDING);
-        return payments.save(p);
+        ExpensePayment saved = payments.save(p);
+        expenses.bumpRevision(expenseId);
+        events.expenseChanged(expenseId, ExpenseChanged.Change.PAYMENT_CREATED, fromUserId);
+        return saved;
     }
 
     @Transactional
     public ExpensePayment setStatus(Long paymentId, PaymentStatus status) {
         ExpensePayment p = payments.findById(paymentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found"));
+        PaymentStatus old = p.getStatus();
         p.setStatus(status);
-        return payments.save(p);
+        ExpensePayment saved = payments.save(p);
+        if (p.getExpense() != null) {
+            expenses.bumpRevision(p.getExpense().getId());
+            events.paymentStatusChanged(p, old);
+        }
+        return saved;
     }
 
     @Transactional
-    public ExpensePayment setStatusInExpense(Long expenseId, Long paymentId, PaymentStatus status) {
+    public ExpensePayment setStatusInExpense(Long expenseId, Long paymentId, PaymentStatus status, Long expectedVersion) {
         ExpensePayment p = payments.findByIdAndExpense_Id(paymentId, expenseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found in this expense"));
+        Versions.check(expectedVersion, p.getVersion());
+        PaymentStatus old = p.getStatus();
         p.setStatus(status);
-        return payments.save(p);
+        ExpensePayment saved = payments.save(p);
+        expenses.bumpRevision(expenseId);
+        events.paymentStatusChanged(p, old);
+        return saved;
+    }
+
+    /**
+     * เปลี่ยนสถานะหลาย payment ของ expense เดียวใน UPDATE เดียว โดยตรวจ version ทีละแถว
+     * แถวที่ version ไม่ตรงไม่ถูกแตะ (รายงานเป็น conflict) ส่วนแถวอื่นเปลี่ยนได้ตามปกติ
+     */
+    @Transactional
+    public PaymentStatusBulkResult setStatusesInExpense(Long expenseId, PaymentStatus status,
+                                                        List<PaymentStatusBulkRequest.Item> requested) {
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status is required");
+        }
+        if (requested == null || requested.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "payments must not be empty");
+        }
+        if (requested.size() > MAX_BULK_STATUS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BULK_STATUS + " payments per request");
+        }
+
+        Map<Long, Long> expected = new LinkedHashMap<>();
+        for (PaymentStatusBulkRequest.Item it : requested) {
+            if (it == null || it.id() == null || it.version() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each payment needs id and version");
+            }
+            if (expected.put(it.id(), it.version()) != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duplicate payment id: " + it.id());
+            }
+        }
+
+        Map<Long, PaymentStateProjection> before = byId(payments.findStatesInExpense(expenseId, expected.keySet()));
+        Map<Long, Long> toUpdate = new LinkedHashMap<>();
+        Set<Long> done = new HashSet<>();
+        Map<Long, PaymentStatusBulkResult.Conflict> conflicts = new HashMap<>();
+        for (var e : expected.entrySet()) {
+            PaymentStateProjection cur = before.get(e.getKey());
+            if (cur == null) continue;
+            if (!e.getValue().equals(cur.getVersion())) {
+                conflicts.put(e.getKey(), new PaymentStatusBulkResult.Conflict(e.getKey(), e.getValue(), cur.getVersion()));
+            } else if (cur.getStatus() == status) {
+                done.add(e.getKey());
+            } else {
+                toUpdate.put(e.getKey(), e.getValue());
+            }
+        }
+
+        List<Long> applied = new ArrayList<>(toUpdate.keySet());
+        if (!toUpdate.isEmpty()) {
+            int n = payments.updateStatusIfVersion(expenseId, toUpdate, status);
+            if (n != toUpdate.size()) {
+                // มีคนแก้บางแถวระหว่างอ่านกับ update → แถวของเราคือแถวที่ version ขยับไป +1 ด้วยสถานะนี้
+                Map<Long, PaymentStateProjection> after = byId(payments.findStatesInExpense(expenseId, toUpdate.keySet()));
+                applied.clear();
+                for (var e : toUpdate.entrySet()) {
+                    PaymentStateProjection a = after.get(e.getKey());
+                    if (a != null && a.getStatus() == status && a.getVersion() == e.getValue() + 1) {
+                        applied.add(e.getKey());
+                    } else {
+                        conflicts.put(e.getKey(), new PaymentStatusBulkResult.Conflict(
+                                e.getKey(), e.getValue(), a != null ? a.getVersion() : null));
+                    }
+                }
+            }
+        }
+
+        if (!applied.isEmpty()) {
+            expenses.bumpRevision(expenseId);
+            Set<Long> audience = events.affectedUsers(expenseId);
+            for (Long id : applied) {
+                PaymentStateProjection old = before.get(id);
+                Set<Long> affected = new LinkedHashSet<>(audience);
+                if (old.getFromUserId() != null) affected.add(old.getFromUserId());
+                events.publish(new PaymentStatusChanged(expenseId, id, old.getFromUserId(),
+                        old.getStatus(), status, affected));
+            }
+            done.addAll(applied);
+        }
+
+        List<Long> updated = new ArrayList<>();
+        List<PaymentStatusBulkResult.Conflict> conflictList = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : expected.keySet()) {
+            if (done.contains(id)) updated.add(id);
+            else if (conflicts.containsKey(id)) conflictList.add(conflicts.get(id));
+            else notFound.add(id);
+        }
+        return new PaymentStatusBulkResult(status, updated, conflictList, notFound);
     }
 
     @Transactional
@@ -102,7 +225,11 @@ public class ExpensePaymentService {
         if (!payments.existsById(paymentId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment not found");
         }
+        ExpensePayment p = payments.findById(paymentId).orElse(null);
+        Long expenseId = (p != null && p.getExpense() != null) ? p.getExpense().getId() : null;
+        if (expenseId != null) events.expenseChanged(expenseId, ExpenseChanged.Change.PAYMENT_DELETED, fromUserIdOf(p));
         payments.deleteById(paymentId);
+        if (expenseId != null) expenses.bumpRevision(expenseId);
     }
 
     @Transactional
@@ -116,7 +243,9 @@ public class ExpensePaymentService {
             receipts.delete(r);
         });
 
+        events.expenseChanged(expenseId, ExpenseChanged.Change.PAYMENT_DELETED, fromUserIdOf(p));
         payments.deleteById(p.getId());
+        expenses.bumpRevision(expenseId);
     }
 
 
@@ -136,7 +265,9 @@ public class ExpensePaymentService {
         PaymentReceipt r = new PaymentReceipt();
         r.setExpensePayment(p);
         r.setFileUrl(fileUrl.trim());
-        return receipts.save(r);
+        PaymentReceipt saved = receipts.save(r);
+        if (p.getExpense() != null) expenses.bumpRevision(p.getExpense().getId());
+        return saved;
     }
 
     @Transactional
@@ -158,6 +289,10 @@ public class ExpensePaymentService {
     }
 
 
+    private static Long fromUserIdOf(ExpensePayment p) {
+        return p.getFromUser() != null ? p.getFromUser().getId() : null;
+    }
+
     private BigDecimal scaleMoney(BigDecimal v) {
         return v.setScale(2, RoundingMode.HALF_UP);
     }
@@ -1,20 +1,51 @@
 package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.Money;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseView;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseUserAmountProjection;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ExpenseService {
+    static final int GROUP_PAGE_SIZE = 500;
+
     private final ExpenseRepository repo;
     private final ExpenseItemShareRepository shareRepo;
-    public ExpenseService(ExpenseRepository repo,ExpenseItemShareRepository shareRepo){
+    private final ExpenseItemRepository itemRepo;
+    private final ExpensePaymentRepository paymentRepo;
+    private final ExchangeRateService fx;
+    private final DomainEventPublisher events;
+    private final CacheInvalidationService cacheInvalidations;
+    public ExpenseService(ExpenseRepository repo,ExpenseItemShareRepository shareRepo,ExpenseItemRepository itemRepo,
+                          ExpensePaymentRepository paymentRepo,ExchangeRateService fx,DomainEventPublisher events,
+                          CacheInvalidationService cacheInvalidations){
         this.repo = repo;
         this.shareRepo = shareRepo;
+        this.itemRepo = itemRepo;
+        this.paymentRepo = paymentRepo;
+        this.fx = fx;
+        this.events = events;
+        this.cacheInvalidations = cacheInvalidations;
     }
 
     @Transactional(readOnly = true)
@@ -26,8 +57,103 @@ public class ExpenseService {
 
     public List<Expense> list(){ return repo.findAll(); }
     public List<Expense> listByGroup(Long groupId){ return repo.findByGroup_Id(groupId); }
+
+    /**
+     * expense ของ group พร้อมสถานะที่แสดง (ExpenseView) แบบ lazy: query หน้าถัดไป (keyset ตาม id) ตอนที่ stream ใช้หน้าเดิมหมดแล้ว
+     * ผู้เรียกเขียนออกทีละตัว → memory ไม่โตตามจำนวน expense ของ group
+     * ไม่มี transaction ครอบ stream: แต่ละหน้า (และยอดของหน้านั้น) อ่านใน read-only transaction ของ repository แยกกัน
+     * ไม่ใช่ snapshot เดียวของทั้ง group — แลกกับการไม่ค้าง transaction/connection ระหว่างเขียน response
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Stream<ExpenseView> streamByGroup(Long groupId) {
+        return Stream.iterate(
+                        groupPage(groupId, 0L),
+                        page -> !page.isEmpty(),
+                        page -> page.size() < GROUP_PAGE_SIZE
+                                ? List.<ExpenseDto>of()
+                                : groupPage(groupId, page.get(page.size() - 1).id()))
+                .flatMap(page -> views(page).stream());
+    }
+
+    private List<ExpenseDto> groupPage(Long groupId, Long afterId) {
+        return repo.findDtoPageByGroup(groupId, afterId, PageRequest.of(0, GROUP_PAGE_SIZE));
+    }
+
+    /**
+     * SETTLED ที่จ่ายครบ → COMPLETE คิดแบบเดียวกับ ExpenseController.isExpenseFullyPaid
+     * แต่โหลดยอดของทั้งหน้าทีเดียว (share, payment VERIFIED และ items ของตัวที่ต้อง fallback) ไม่ query ต่อแถว
+     */
+    private List<ExpenseView> views(List<ExpenseDto> page) {
+        List<Long> settled = page.stream()
+                .filter(d -> d.status() == ExpenseStatus.SETTLED)
+                .map(ExpenseDto::id)
+                .toList();
+        if (settled.isEmpty()) return page.stream().map(d -> ExpenseView.of(d, () -> false)).toList();
+
+        Map<Long, Map<Long, Money>> owed = ExpenseUserAmountProjection.byExpenseAndUser(shareRepo.sumShareValueByExpenseIds(settled));
+        Map<Long, Map<Long, Money>> paid = ExpenseUserAmountProjection.byExpenseAndUser(paymentRepo.sumVerifiedByExpenseIds(settled));
+
+        // ไม่มี share และไม่มี payment VERIFIED (ไม่มี settlement) → เทียบกับยอด items ที่แปลงเป็น THB ด้วย rate ของ expense
+        List<Long> noSettlement = settled.stream()
+                .filter(id -> !owed.containsKey(id) && !paid.containsKey(id))
+                .toList();
+        Map<Long, BigDecimal> itemsTotal = new HashMap<>();
+        if (!noSettlement.isEmpty()) {
+            Map<Long, Map<String, BigDecimal>> rates = new HashMap<>();
+            for (ExpenseItem it : itemRepo.findWithExpenseByExpenseIds(noSettlement)) {
+                Expense e = it.getExpense();
+                var r = rates.computeIfAbsent(e.getId(), k -> fx.getRatesToThb(e));
+                itemsTotal.merge(e.getId(), fx.toThb(it.getCurrency(), it.getAmount(), r), BigDecimal::add);
+            }
+        }
+
+        return page.stream()
+                .map(d -> ExpenseView.of(d, () -> fullyPaid(d.payerUserId(),
+                        owed.getOrDefault(d.id(), Map.of()),
+                        paid.getOrDefault(d.id(), Map.of()),
+                        itemsTotal.getOrDefault(d.id(), BigDecimal.ZERO))))
+                .toList();
+    }
+
+    // verified ทั้งหมด ≥ owedAmount (ปัด 2 ตำแหน่ง) ของทุกคนที่ไม่ใช่ payer; ไม่มี settlement → ≥ ยอด items
+    private static boolean fullyPaid(Long payerId, Map<Long, Money> owed, Map<Long, Money> paid, BigDecimal itemsTotal) {
+        Money verifiedTotal = Money.zero(Money.THB);
+        for (Money m : paid.values()) verifiedTotal = verifiedTotal.plus(m);
+        if (owed.isEmpty() && paid.isEmpty()) return verifiedTotal.toBigDecimal().compareTo(itemsTotal) >= 0;
+
+        Money expectedFromOthers = Money.zero(Money.THB);
+        for (var o : owed.entrySet()) {
+            if (!o.getKey().equals(payerId)) expectedFromOthers = expectedFromOthers.plus(o.getValue().roundToCents());
+        }
+        return verifiedTotal.compareTo(expectedFromOthers) >= 0;
+    }
     public List<Expense> listByPayer(Long userId){ return repo.findByPayer_Id(userId); }
     public Expense get(Long id){ return repo.findById(id).orElse(null); }
-    public Expense save(Expense e){ return repo.save(e); }
-    public void delete(Long id){ repo.deleteById(id); }
+    @Transactional(readOnly = true)
+    public Long revision(Long id){ return repo.findRevisionById(id); }
+
+    public Expense save(Expense e){
+        boolean existing = e.getId() != null;
+        // อ่านก่อน save: หลัง save entity ที่ส่งมาคือค่าใหม่แล้ว
+        Long groupBefore = existing ? repo.findPersistedGroupIdById(e.getId()) : null;
+        Expense saved = repo.save(e);
+        if (existing) {
+            repo.bumpRevision(saved.getId());
+            events.expenseChanged(saved.getId(), ExpenseChanged.Change.DETAILS);
+            // ย้าย group เท่านั้นที่ทำให้ query cache ของ Perms บน replica อื่นผิด (แก้ชื่อ/ยอดไม่ต้องล้าง)
+            Long groupAfter = saved.getGroup() == null ? null : saved.getGroup().getId();
+            if (!Objects.equals(groupBefore, groupAfter)) cacheInvalidations.expenseGroupChanged();
+        } else {
+            // แถวแรกของ journal อยู่ใน transaction เดียวกับการสร้าง (settlementsAt ได้ยอดตั้งแต่ตอนสร้าง)
+            events.expenseChanged(saved.getId(), ExpenseChanged.Change.CREATED);
+        }
+        return saved;
+    }
+    public void delete(Long id){
+        // ประกาศก่อนลบ: affectedUserIds ยังเห็น payer/participant
+        // journal ได้แถวสุดท้าย = ทุกยอดหายไป (replay หลังเวลานี้ได้ list ว่าง)
+        events.expenseChanged(id, ExpenseChanged.Change.DELETED);
+        repo.deleteById(id);
+        cacheInvalidations.expenseGroupChanged();
+    }
 }
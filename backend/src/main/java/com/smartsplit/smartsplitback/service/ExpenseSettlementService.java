@@ -1,14 +1,17 @@
 package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.Money;
+import com.smartsplit.smartsplitback.jfr.SettlementEvent;
 import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
 import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,26 +23,30 @@ public class ExpenseSettlementService {
     private final ExpenseItemShareRepository shares;
     private final ExpensePaymentRepository payments;
 
+    // scope=user หนึ่งคน, scope=all ทุก participant ของ expense (รวม query ต่อคน)
+    private final Timer userTimer;
+    private final Timer allTimer;
+
     public ExpenseSettlementService(ExpenseItemShareRepository shares,
-                                    ExpensePaymentRepository payments) {
+                                    ExpensePaymentRepository payments,
+                                    MeterRegistry meters) {
         this.shares = shares;
         this.payments = payments;
+        this.userTimer = timer(meters, "user");
+        this.allTimer = timer(meters, "all");
     }
 
-    private static BigDecimal r2(BigDecimal x) {
-        return x == null ? BigDecimal.ZERO : x.setScale(DISPLAY_SCALE, RoundingMode.HALF_UP);
+    private static Timer timer(MeterRegistry meters, String scope) {
+        return Timer.builder("expense.settlement.compute")
+                .description("เวลาคำนวณ settlement (owed/paid) ของ expense")
+                .tag("scope", scope)
+                .publishPercentileHistogram()
+                .register(meters);
     }
 
     @Transactional(readOnly = true)
     public BigDecimal owedForUser(Long expenseId, Long userId) {
-        var list = shares.fetchForExpenseAndUser(expenseId, userId);
-        BigDecimal sum = BigDecimal.ZERO;
-        for (ExpenseItemShare s : list) {
-            BigDecimal v = s.getShareValue();
-            if (v != null) sum = sum.add(v);
-        }
-
-        return sum;
+        return owed(expenseId, userId).toBigDecimal();
     }
 
     @Transactional(readOnly = true)
@@ -50,31 +57,55 @@ public class ExpenseSettlementService {
 
     @Transactional(readOnly = true)
     public ExpenseSettlementDto userSettlement(Long expenseId, Long userId) {
-        BigDecimal owed = owedForUser(expenseId, userId);
-        BigDecimal paid = paidForUser(expenseId, userId);
+        SettlementEvent event = new SettlementEvent();
+        event.begin();
+        ExpenseSettlementDto dto = userTimer.record(() -> computeUser(expenseId, userId));
+        event.commit(expenseId, 1);
+        return dto;
+    }
 
+    private ExpenseSettlementDto computeUser(Long expenseId, Long userId) {
+        return settlement(expenseId, userId, owed(expenseId, userId), Money.thb(paidForUser(expenseId, userId)));
+    }
 
-        BigDecimal remaining = owed.subtract(paid);
-        if (remaining.signum() < 0) remaining = BigDecimal.ZERO;
+    // ใช้ร่วมกับ ExpenseJournalService (replay) ให้ปัดเศษแบบเดียวกันทุกทาง
+    static ExpenseSettlementDto settlement(Long expenseId, Long userId, Money owed, Money paid) {
+        Money remaining = owed.minus(paid).clampAtZero();
 
         // ปัดเป็น 2 ตำแหน่งตอน "ส่งออก"
-        BigDecimal owedOut = r2(owed);
-        BigDecimal paidOut = r2(paid);
-        BigDecimal remOut  = r2(remaining);
+        Money owedOut = owed.roundToCents();
+        Money paidOut = paid.roundToCents();
         boolean settled = paidOut.compareTo(owedOut) >= 0;
 
-        return new ExpenseSettlementDto(expenseId, userId, owedOut, paidOut, settled, remOut);
+        return new ExpenseSettlementDto(expenseId, userId,
+                owedOut.toBigDecimal(DISPLAY_SCALE),
+                paidOut.toBigDecimal(DISPLAY_SCALE),
+                settled,
+                remaining.toBigDecimal(DISPLAY_SCALE));
+    }
+
+    // รวม share_value (THB, scale 6) เป็น long micro ไม่สร้าง BigDecimal ระหว่างทาง
+    private Money owed(Long expenseId, Long userId) {
+        return Money.sum(Money.THB, shares.fetchForExpenseAndUser(expenseId, userId), ExpenseItemShare::getShareValue);
     }
 
     @Transactional(readOnly = true)
     public List<ExpenseSettlementDto> allSettlements(Long expenseId) {
+        SettlementEvent event = new SettlementEvent();
+        event.begin();
+        List<ExpenseSettlementDto> all = allTimer.record(() -> computeAll(expenseId));
+        event.commit(expenseId, all.size());
+        return all;
+    }
+
+    private List<ExpenseSettlementDto> computeAll(Long expenseId) {
         // รวมรายชื่อ: คนที่มี share + คนที่มี payment VERIFIED
         Set<Long> participants = new HashSet<>(shares.findParticipantIdsByExpense(expenseId));
         participants.addAll(payments.findVerifiedPayerIdsByExpense(expenseId));
 
         return participants.stream()
                 .sorted()
-                .map(uid -> userSettlement(expenseId, uid)) // ได้ค่าออกมาเป็น 2 ตำแหน่งแล้ว
+                .map(uid -> computeUser(expenseId, uid)) // ได้ค่าออกมาเป็น 2 ตำแหน่งแล้ว
                 .collect(Collectors.toList());
     }
 }
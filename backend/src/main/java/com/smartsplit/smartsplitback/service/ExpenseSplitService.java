@@ -0,0 +1,191 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+import com.smartsplit.smartsplitback.model.GroupMember;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.GroupMemberRepository;
+import com.smartsplit.smartsplitback.repository.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * generate shares ให้ item (หรือทุก item ใน expense) ตาม ExpenseType
+ * - EQUAL: แบ่งเท่ากัน
+ * - PERCENTAGE: แบ่งตามเปอร์เซ็นต์ที่ส่งมา (รวม = 100)
+ * ยอดเดิมแบ่งระดับสตางค์, ยอด THB แบ่งระดับ 6 ตำแหน่ง ด้วย largest remainder
+ * ผลรวมของ shares จึงเท่ากับยอด item พอดีทั้งสองสกุล
+ */
+@Service
+public class ExpenseSplitService {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final int ORIGINAL_SCALE = 2;
+    private static final int THB_SCALE = 6;
+
+    private final ExpenseRepository expenses;
+    private final ExpenseItemRepository items;
+    private final ExpenseItemShareRepository shares;
+    private final GroupMemberRepository members;
+    private final UserRepository users;
+    private final ExchangeRateService fx;
+    private final DomainEventPublisher events;
+
+    public ExpenseSplitService(ExpenseRepository expenses,
+                               ExpenseItemRepository items,
+                               ExpenseItemShareRepository shares,
+                               GroupMemberRepository members,
+                               UserRepository users,
+                               ExchangeRateService fx,
+                               DomainEventPublisher events) {
+        this.expenses = expenses;
+        this.items = items;
+        this.shares = shares;
+        this.members = members;
+        this.users = users;
+        this.fx = fx;
+        this.events = events;
+    }
+
+    @Transactional
+    public List<ExpenseItemShare> split(Long expenseId,
+                                        ExpenseType mode,
+                                        Long itemId,
+                                        List<Long> participantIds,
+                                        Map<Long, BigDecimal> percents) {
+        if (mode == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mode is required");
+        }
+        if (mode == ExpenseType.CUSTOM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CUSTOM split must be entered per share");
+        }
+
+        Expense expense = expenses.findById(expenseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense not found"));
+
+        List<ExpenseItem> targets;
+        if (itemId != null) {
+            targets = List.of(items.findByIdAndExpense_Id(itemId, expenseId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found in this expense")));
+        } else {
+            targets = items.findByExpense_Id(expenseId);
+            if (targets.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expense has no items to split");
+            }
+        }
+
+        Long groupId = expense.getGroup().getId();
+        Set<Long> memberIds = members.findByGroup_Id(groupId).stream()
+                .map(GroupMember::getUser)
+                .map(User::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        List<Long> ids = resolveParticipants(mode, participantIds, percents, memberIds);
+        List<BigDecimal> weights = resolveWeights(mode, ids, percents);
+
+        Map<Long, User> userById = users.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, BigDecimal> rates = fx.getRatesToThb(expense);
+
+        // แจ้งก่อนลบ share เดิม → คนที่ถูกตัดออกจาก split ได้รับ event ด้วย
+        events.expenseChanged(expenseId, ExpenseChanged.Change.SHARES, ids.toArray(Long[]::new));
+        shares.deleteByExpenseItemIds(targets.stream().map(ExpenseItem::getId).toList());
+
+        List<ExpenseItemShare> out = new ArrayList<>(targets.size() * ids.size());
+        for (ExpenseItem it : targets) {
+            BigDecimal amount = it.getAmount() != null ? it.getAmount() : BigDecimal.ZERO;
+            String ccy = it.getCurrency() == null ? "THB" : it.getCurrency().toUpperCase(Locale.ROOT);
+
+            BigDecimal[] original = SplitAllocator.allocate(amount, ORIGINAL_SCALE, weights);
+            BigDecimal[] thb = SplitAllocator.allocate(fx.toThb(ccy, amount, rates), THB_SCALE, weights);
+
+            for (int i = 0; i < ids.size(); i++) {
+                ExpenseItemShare s = new ExpenseItemShare();
+                s.setExpenseItem(it);
+                s.setParticipant(userById.get(ids.get(i)));
+                s.setShareOriginalValue(original[i]);
+                s.setShareValue(thb[i]);
+                s.setSharePercent(mode == ExpenseType.PERCENTAGE ? weights.get(i) : null);
+                out.add(s);
+            }
+        }
+
+        if (itemId == null) expense.setType(mode);
+
+        List<ExpenseItemShare> saved = shares.saveAll(out);
+        expenses.bumpRevision(expenseId);
+        return saved;
+    }
+
+    private List<Long> resolveParticipants(ExpenseType mode,
+                                           List<Long> participantIds,
+                                           Map<Long, BigDecimal> percents,
+                                           Set<Long> memberIds) {
+        Set<Long> ids;
+        if (participantIds != null && !participantIds.isEmpty()) {
+            ids = new LinkedHashSet<>(participantIds);
+        } else if (mode == ExpenseType.PERCENTAGE && percents != null && !percents.isEmpty()) {
+            ids = new LinkedHashSet<>(percents.keySet().stream().sorted().toList());
+        } else {
+            ids = memberIds;
+        }
+        if (ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No participants to split between");
+        }
+        for (Long id : ids) {
+            if (id == null || !memberIds.contains(id)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User " + id + " is not a member of this group");
+            }
+        }
+        return List.copyOf(ids);
+    }
+
+    private List<BigDecimal> resolveWeights(ExpenseType mode, List<Long> ids, Map<Long, BigDecimal> percents) {
+        if (mode == ExpenseType.EQUAL) {
+            return ids.stream().map(id -> BigDecimal.ONE).toList();
+        }
+
+        if (percents == null || percents.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percents are required for PERCENTAGE split");
+        }
+        if (!ids.containsAll(percents.keySet())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percents contain users outside participantIds");
+        }
+
+        List<BigDecimal> weights = new ArrayList<>(ids.size());
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Long id : ids) {
+            BigDecimal p = percents.get(id);
+            if (p == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing percent for user " + id);
+            }
+            if (p.signum() < 0 || p.compareTo(HUNDRED) > 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percent must be 0-100");
+            }
+            weights.add(p);
+            sum = sum.add(p);
+        }
+        if (sum.compareTo(HUNDRED) != 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percents must sum to 100 (got " + sum.toPlainString() + ")");
+        }
+        return weights;
+    }
+}
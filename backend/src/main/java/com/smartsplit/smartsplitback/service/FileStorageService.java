@@ -1,27 +1,46 @@
 package com.smartsplit.smartsplitback.service;
 
+import com.smartsplit.smartsplitback.jfr.FileStoreEvent;
 import com.smartsplit.smartsplitback.model.StoredFile;
 import com.smartsplit.smartsplitback.repository.StoredFileRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Base64;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class FileStorageService {
 
     private final StoredFileRepository repo;
+    private final DistributionSummary uploadSize;
+    private final Timer encodeTimer;
 
-    public FileStorageService(StoredFileRepository repo) {
+    public FileStorageService(StoredFileRepository repo, MeterRegistry meters) {
         this.repo = repo;
+        this.uploadSize = DistributionSummary.builder("file.upload.size")
+                .description("ขนาดไฟล์ที่อัปโหลด (ก่อน base64)")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meters);
+        this.encodeTimer = Timer.builder("file.upload.encode")
+                .description("เวลาแปลงไฟล์เป็น data URL base64")
+                .publishPercentileHistogram()
+                .register(meters);
     }
 
     public String save(MultipartFile file, String folder, String preferredFileName, HttpServletRequest req) {
         if (file == null || file.isEmpty()) return null;
+        FileStoreEvent event = new FileStoreEvent();
+        event.begin();
         try {
             byte[] bytes = file.getBytes();
+            uploadSize.record(bytes.length);
 
             String orig = file.getOriginalFilename();
             String ext  = getExtension(orig);
@@ -40,8 +59,10 @@ public class FileStorageService {
                 };
             }
 
+            long encodeStart = System.nanoTime();
             String base64 = Base64.getEncoder().encodeToString(bytes);
             String dataUrl = "data:" + contentType + ";base64," + base64;
+            encodeTimer.record(System.nanoTime() - encodeStart, TimeUnit.NANOSECONDS);
 
             StoredFile sf = new StoredFile();
             sf.setFolder((folder == null || folder.isBlank()) ? "misc" : folder);
@@ -52,6 +73,7 @@ public class FileStorageService {
             sf.setDataUrl(dataUrl);
 
             repo.save(sf);
+            event.commit(bytes.length, contentType, sf.getFolder());
             return buildPublicUrl(sf.getId());
         } catch (Exception e) {
             throw new RuntimeException("Cannot store file as base64: " + e.getMessage(), e);
@@ -0,0 +1,221 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.Money;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.model.dto.GroupDashboardDto;
+import com.smartsplit.smartsplitback.model.dto.GroupDto;
+import com.smartsplit.smartsplitback.model.dto.UserPublicDto;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseUserAmountProjection;
+import com.smartsplit.smartsplitback.repository.GroupMemberRepository;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * รวมข้อมูลหน้า group: group, สมาชิก, expenses พร้อมยอด/สถานะ และยอดสุทธิของผู้เรียก
+ * query ที่ไม่ขึ้นต่อกันยิงพร้อมกันบน executor ขนาดจำกัด (แต่ละ query ใช้ read-only tx ของ repository เอง)
+ * ผลลัพธ์คำนวณแบบเดียวกับ ExpenseSettlementService / ExpenseController.isExpenseFullyPaid
+ */
+@Service
+public class GroupDashboardService {
+
+    private static final int DISPLAY_SCALE = 2;
+
+    private final GroupRepository groups;
+    private final GroupMemberRepository members;
+    private final ExpenseRepository expenses;
+    private final ExpenseItemRepository items;
+    private final ExpenseItemShareRepository shares;
+    private final ExpensePaymentRepository payments;
+    private final ExchangeRateService fx;
+    private final ThreadPoolTaskExecutor executor;
+
+    public GroupDashboardService(GroupRepository groups,
+                                 GroupMemberRepository members,
+                                 ExpenseRepository expenses,
+                                 ExpenseItemRepository items,
+                                 ExpenseItemShareRepository shares,
+                                 ExpensePaymentRepository payments,
+                                 ExchangeRateService fx,
+                                 @Value("${app.dashboard.parallelism:4}") int parallelism) {
+        this.groups = groups;
+        this.members = members;
+        this.expenses = expenses;
+        this.items = items;
+        this.shares = shares;
+        this.payments = payments;
+        this.fx = fx;
+
+        // ไม่ประกาศเป็น bean เพื่อไม่ให้ applicationTaskExecutor ของ Boot ถอยออก
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setThreadNamePrefix("dashboard-");
+        ex.setCorePoolSize(parallelism);
+        ex.setMaxPoolSize(parallelism);
+        ex.setQueueCapacity(parallelism * 25);
+        // คิวเต็ม → ให้ request thread ทำเอง (ช้าลงแต่ไม่ล้น pool DB)
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ex.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        ex.initialize();
+        this.executor = ex;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * validator ของ dashboard จาก 2 query แถวเดียว (ไม่ต้องคำนวณทั้งชุดเพื่อตอบ 304)
+     * group.revision (group, สมาชิก, โปรไฟล์สมาชิก) + สถานะ expenses ของ group (จำนวน, id สูงสุด, ผลรวม revision)
+     * ไม่รวม live FX ของ expense ที่ไม่ได้ lock rate ไว้ (expense ใหม่ lock ตอนสร้างทุกตัว)
+     * @return null ถ้าไม่พบ group
+     */
+    public String revision(Long groupId) {
+        Long group = groups.findRevisionById(groupId);
+        if (group == null) return null;
+        return group + "-" + expenses.findRevisionStampByGroup(groupId);
+    }
+
+    public GroupDashboardDto dashboard(Long groupId, Long me) {
+        var groupF    = async(() -> groups.findById(groupId));
+        var membersF  = async(() -> members.findUsersByGroupId(groupId));
+        var expensesF = async(() -> expenses.findByGroup_Id(groupId));
+        var itemsF    = async(() -> items.findByGroupId(groupId));
+        var sharesF   = async(() -> shares.sumShareValueByGroup(groupId));
+        var paysF     = async(() -> payments.sumVerifiedByGroup(groupId));
+
+        Group g = join(groupF).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
+        List<User> memberList = join(membersF);
+        List<Expense> expenseList = join(expensesF);
+        List<ExpenseItem> itemList = join(itemsF);
+        Map<Long, Map<Long, Money>> owedByExpense = ExpenseUserAmountProjection.byExpenseAndUser(join(sharesF));
+        Map<Long, Map<Long, Money>> paidByExpense = ExpenseUserAmountProjection.byExpenseAndUser(join(paysF));
+
+        Map<Long, List<ExpenseItem>> itemsByExpense = new HashMap<>();
+        for (ExpenseItem it : itemList) {
+            itemsByExpense.computeIfAbsent(it.getExpense().getId(), k -> new ArrayList<>()).add(it);
+        }
+
+        Money youOwe = Money.zero(Money.THB);
+        Money owedToYou = Money.zero(Money.THB);
+        List<GroupDashboardDto.ExpenseLine> lines = new ArrayList<>(expenseList.size());
+
+        for (Expense e : expenseList) {
+            Long expenseId = e.getId();
+            Long payerId = e.getPayer().getId();
+            Map<Long, Money> owed = owedByExpense.getOrDefault(expenseId, Map.of());
+            Map<Long, Money> paid = paidByExpense.getOrDefault(expenseId, Map.of());
+
+            Map<String, BigDecimal> rates = null;
+            Money itemsTotal = Money.zero(Money.THB);
+            for (ExpenseItem it : itemsByExpense.getOrDefault(expenseId, List.of())) {
+                if (rates == null) rates = fx.getRatesToThb(e);
+                itemsTotal = itemsTotal.plus(fx.toThb(it.getCurrency(), it.getAmount(), rates));
+            }
+            Money verifiedTotal = Money.zero(Money.THB);
+            for (Money m : paid.values()) verifiedTotal = verifiedTotal.plus(m);
+
+            // participants = คนที่มี share + คนที่มี payment VERIFIED (เหมือน allSettlements)
+            TreeSet<Long> participants = new TreeSet<>(owed.keySet());
+            participants.addAll(paid.keySet());
+
+            Money expectedFromOthers = Money.zero(Money.THB);
+            for (Long uid : participants) {
+                Money o = owed.getOrDefault(uid, Money.zero(Money.THB));
+                Money rem = o.minus(paid.getOrDefault(uid, Money.zero(Money.THB))).clampAtZero();
+                if (!uid.equals(payerId)) {
+                    expectedFromOthers = expectedFromOthers.plus(o.roundToCents());
+                    if (payerId.equals(me)) owedToYou = owedToYou.plus(rem.roundToCents());
+                    if (uid.equals(me)) youOwe = youOwe.plus(rem.roundToCents());
+                }
+            }
+
+            boolean fullyPaid = participants.isEmpty()
+                    ? verifiedTotal.compareTo(itemsTotal) >= 0
+                    : verifiedTotal.compareTo(expectedFromOthers) >= 0;
+
+            String displayStatus = (e.getStatus() == ExpenseStatus.SETTLED && fullyPaid)
+                    ? "COMPLETE"
+                    : (e.getStatus() != null ? e.getStatus().name() : null);
+
+            lines.add(new GroupDashboardDto.ExpenseLine(
+                    ExpenseDto.fromEntity(e),
+                    displayStatus,
+                    itemsTotal.toBigDecimal(DISPLAY_SCALE),
+                    verifiedTotal.toBigDecimal(DISPLAY_SCALE),
+                    fullyPaid,
+                    settlementFor(expenseId, me, payerId, owed, paid)
+            ));
+        }
+
+        List<UserPublicDto> memberDtos = memberList.stream().map(GroupDashboardService::toPublicDto).toList();
+        GroupDto groupDto = new GroupDto(g.getId(), g.getOwner().getId(), g.getName(), g.getCoverImageUrl(),
+                (long) memberDtos.size());
+
+        var position = new GroupDashboardDto.Position(me,
+                youOwe.toBigDecimal(DISPLAY_SCALE),
+                owedToYou.toBigDecimal(DISPLAY_SCALE),
+                owedToYou.minus(youOwe).toBigDecimal(DISPLAY_SCALE));
+
+        return new GroupDashboardDto(groupDto, memberDtos, lines, position);
+    }
+
+    // เหมือน ExpenseSettlementService.userSettlement + payer ถือว่า settled (เหมือน settlementAll)
+    private static ExpenseSettlementDto settlementFor(Long expenseId, Long me, Long payerId,
+                                                      Map<Long, Money> owed, Map<Long, Money> paid) {
+        Money o = owed.getOrDefault(me, Money.zero(Money.THB));
+        Money p = paid.getOrDefault(me, Money.zero(Money.THB));
+        Money rem = o.minus(p).clampAtZero();
+        Money owedOut = o.roundToCents();
+        Money paidOut = p.roundToCents();
+        boolean settled = me.equals(payerId) || paidOut.compareTo(owedOut) >= 0;
+        return new ExpenseSettlementDto(expenseId, me,
+                owedOut.toBigDecimal(DISPLAY_SCALE),
+                paidOut.toBigDecimal(DISPLAY_SCALE),
+                settled,
+                rem.toBigDecimal(DISPLAY_SCALE));
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    private static <T> T join(CompletableFuture<T> f) {
+        try {
+            return f.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    private static UserPublicDto toPublicDto(User u) {
+        return new UserPublicDto(u.getId(), u.getEmail(), u.getUserName(), u.getPhone(), u.getAvatarUrl());
+    }
+}
@@ -18,17 +18,31 @@ public class GroupMemberService {
 
     private final GroupMemberRepository repo;
     private final GroupRepository groupRepo;
+    private final DomainEventPublisher events;
+    private final CacheInvalidationService cacheInvalidations;
 
-    public GroupMemberService(GroupMemberRepository repo, GroupRepository groupRepo) {
+    public GroupMemberService(GroupMemberRepository repo, GroupRepository groupRepo, DomainEventPublisher events,
+                              CacheInvalidationService cacheInvalidations) {
         this.repo = repo;
         this.groupRepo = groupRepo;
+        this.events = events;
+        this.cacheInvalidations = cacheInvalidations;
     }
 
     public List<GroupMember> listByGroup(Long groupId){ return repo.findByGroup_Id(groupId); }
 
     public boolean exists(Long groupId, Long userId){ return repo.existsByGroup_IdAndUser_Id(groupId, userId); }
 
-    public GroupMember save(GroupMember m){ return repo.save(m); }
+    public GroupMember save(GroupMember m){
+        GroupMember saved = repo.save(m);
+        GroupMemberId id = saved.getId();
+        if (id != null) {
+            groupRepo.bumpRevision(id.getGroupId());
+            events.membershipChanged(id.getGroupId(), id.getUserId(), true);
+            cacheInvalidations.membershipChanged(id.getGroupId(), id.getUserId());
+        }
+        return saved;
+    }
 
     public void delete(Long groupId, Long userId){
         var g = groupRepo.findById(groupId)
@@ -40,6 +54,9 @@ public class GroupMemberService {
                     "Owner cannot remove themselves from the group");
         }
         repo.deleteById(new GroupMemberId(groupId, userId));
+        groupRepo.bumpRevision(groupId);
+        events.membershipChanged(groupId, userId, false);
+        cacheInvalidations.membershipChanged(groupId, userId);
     }
 
     public long countMembers(Long groupId) {
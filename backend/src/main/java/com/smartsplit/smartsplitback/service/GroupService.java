@@ -12,16 +12,19 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Transactional
 public class GroupService {
 
     private final GroupRepository repo;
+    private final CacheInvalidationService cacheInvalidations;
     private final LevenshteinDistance distance = new LevenshteinDistance();
 
-    public GroupService(GroupRepository repo) {
+    public GroupService(GroupRepository repo, CacheInvalidationService cacheInvalidations) {
         this.repo = repo;
+        this.cacheInvalidations = cacheInvalidations;
     }
 
     public List<Group> list() { return repo.findAll(); }
@@ -35,8 +38,22 @@ public class GroupService {
     }
 
     public Group get(Long id) { return repo.findById(id).orElse(null); }
-    public Group save(Group g) { return repo.save(g); }
-    public void delete(Long id) { repo.deleteById(id); }
+    public Group save(Group g) {
+        if (g.getId() == null) {
+            // group ใหม่: ยังไม่มีใครมี cache ของมัน
+            return repo.save(g);
+        }
+        Long ownerBefore = repo.findPersistedOwnerIdById(g.getId());
+        Group saved = repo.save(g);
+        repo.bumpRevision(saved.getId());
+        Long ownerAfter = saved.getOwner() == null ? null : saved.getOwner().getId();
+        cacheInvalidations.groupChanged(saved.getId(), !Objects.equals(ownerBefore, ownerAfter));
+        return saved;
+    }
+    public void delete(Long id) {
+        repo.deleteById(id);
+        cacheInvalidations.groupDeleted(id);
+    }
 
     public List<Group> searchMyGroups(Long me, String q) {
         String query = q == null ? "" : q.trim();
@@ -0,0 +1,220 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.IdempotencyRecord;
+import com.smartsplit.smartsplitback.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key สำหรับ POST ที่ client มือถือชอบส่งซ้ำ
+ * - key แรก: จองแถว IN_PROGRESS (unique user_id + key) แล้วทำงานจริง สำเร็จ → เก็บ response เป็น JSON
+ * - key ซ้ำ + request เดิม: COMPLETED → ตอบ response เดิมโดยไม่ทำงานซ้ำ, IN_PROGRESS → รอคนแรกจนเสร็จ
+ * - key ซ้ำ + request ต่าง: 422
+ * - คนแรกล้มเหลว → ลบแถวทิ้ง ให้ส่งใหม่ด้วย key เดิมได้
+ * - คนแรกถือ lease (locked_until) และต่ออายุทุก heartbeat-ms ตราบที่ยังทำอยู่ คำขอซ้ำระหว่างนั้นได้ 409 หลังรอครบ wait-ms
+ *   รับช่วงได้เฉพาะเมื่อ lease หมด (instance ของคนแรกตาย/หยุดต่ออายุ) → งานไม่ถูกทำซ้ำขณะคนแรกยังทำอยู่
+ * การจอง/เก็บผลแต่ละขั้น commit ทันที (ไม่อยู่ใน transaction ของงานจริง) เพื่อให้ replica อื่นเห็น
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository records;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+    private final Duration lease;
+
+    // key ที่ instance นี้กำลังทำ (heartbeat ต่อ lease ให้)
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(IdempotencyRecordRepository records,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.wait-ms:10000}") long waitMs,
+                              @Value("${app.idempotency.poll-ms:100}") long pollMs,
+                              @Value("${app.idempotency.lease-ms:60000}") long leaseMs) {
+        this.records = records;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeout = Duration.ofMillis(waitMs);
+        this.pollInterval = Duration.ofMillis(pollMs);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    public record Outcome<T>(T body, boolean replayed) {}
+
+    /**
+     * key ว่าง → ทำงานตามปกติ
+     * @param endpoint ชื่อ endpoint (กัน key เดียวกันถูกใช้ข้าม endpoint)
+     * @param requestHash จาก {@link #fingerprint(Object...)} ของพารามิเตอร์ทั้งหมด
+     */
+    public <T> Outcome<T> execute(String key, Long userId, String endpoint, String requestHash,
+                                  Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+
+        Instant deadline = Instant.now().plus(waitTimeout);
+        IdempotencyRecord mine = tryClaim(userId, key, endpoint, requestHash);
+        while (mine == null) {
+            IdempotencyRecord existing = records.findByUserIdAndIdemKey(userId, key).orElse(null);
+            if (existing == null) {
+                // คนแรกล้มเหลวแล้วลบแถวทิ้ง → ลองจองใหม่
+                mine = tryClaim(userId, key, endpoint, requestHash);
+                continue;
+            }
+            if (!existing.getEndpoint().equals(endpoint) || !existing.getRequestHash().equals(requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+            }
+
+            Instant now = Instant.now();
+            if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                if (existing.getExpiresAt().isBefore(now)) {
+                    records.deleteOne(existing.getId());
+                    mine = tryClaim(userId, key, endpoint, requestHash);
+                    continue;
+                }
+                return new Outcome<>(read(existing.getResponseBody(), responseType), true);
+            }
+
+            Instant leasedUntil = existing.getLockedUntil();
+            if (leasedUntil != null && leasedUntil.isBefore(now)
+                    && records.takeOver(existing.getId(), leasedUntil, now.plus(lease)) == 1) {
+                log.warn("taking over idempotency key {} of user {} (owner lease expired at {})", key, userId, leasedUntil);
+                mine = existing;
+                break;
+            }
+            if (now.isAfter(deadline)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " is still being processed");
+            }
+            sleep();
+        }
+
+        T result;
+        inFlight.add(mine.getId());
+        try {
+            result = action.get();
+        } catch (RuntimeException ex) {
+            records.deleteOne(mine.getId());
+            throw ex;
+        } finally {
+            inFlight.remove(mine.getId());
+        }
+        records.complete(mine.getId(), write(result));
+        return new Outcome<>(result, false);
+    }
+
+    // ต้องถี่กว่า lease-ms หลายเท่า (ค่าเริ่มต้น 10s เทียบ lease 60s) ไม่อย่างนั้นงานที่ยังทำอยู่จะถูกรับช่วง
+    @Scheduled(fixedDelayString = "${app.idempotency.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (inFlight.isEmpty()) return;
+        records.renew(List.copyOf(inFlight), Instant.now().plus(lease));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        int n = records.deleteExpired(Instant.now());
+        if (n > 0) log.debug("deleted {} expired idempotency keys", n);
+    }
+
+    /** SHA-256 ของพารามิเตอร์ตามลำดับ; MultipartFile ใช้เนื้อไฟล์ (ไม่ใช่แค่ชื่อ) */
+    public static String fingerprint(Object... parts) {
+        MessageDigest md = sha256();
+        for (Object part : parts) {
+            if (part instanceof MultipartFile file) {
+                md.update(String.valueOf(file.getOriginalFilename()).getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = file.getInputStream()) {
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+                } catch (IOException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read uploaded file");
+                }
+            } else {
+                md.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            }
+            md.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private IdempotencyRecord tryClaim(Long userId, String key, String endpoint, String requestHash) {
+        try {
+            IdempotencyRecord r = new IdempotencyRecord(userId, key, endpoint, requestHash, Instant.now().plus(ttl));
+            r.setLockedUntil(Instant.now().plus(lease));
+            return records.saveAndFlush(r);
+        } catch (DataIntegrityViolationException dup) {
+            return null;
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize idempotent response", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored idempotent response", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
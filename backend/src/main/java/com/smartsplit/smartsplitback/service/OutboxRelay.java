@@ -0,0 +1,235 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.OutboxEvent;
+import com.smartsplit.smartsplitback.model.OutboxStatus;
+import com.smartsplit.smartsplitback.model.event.DomainEvent;
+import com.smartsplit.smartsplitback.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ส่ง event จาก outbox ให้ listener (@EventListener ของ DomainEvent แต่ละชนิด)
+ * 1) claim: SELECT ... FOR UPDATE SKIP LOCKED แล้วตั้ง lease (locked_by/locked_until) → commit
+ *    หลาย replica ทำพร้อมกันได้โดยไม่หยิบแถวซ้ำ, replica ตายกลางทาง lease หมดแล้วคนอื่นหยิบต่อ
+ * 2) dispatch: ทีละ event ใน transaction ของตัวเอง (งาน DB ของ listener + markDone commit พร้อมกัน)
+ *    listener โยน exception → rollback, นับ attempts แล้ว retry แบบ backoff (at-least-once)
+ * 3) ลำดับภายใน aggregate: ถ้ายังมี event ก่อนหน้าของ aggregate เดียวกันค้าง จะปล่อย lease แล้วรอรอบหน้า
+ *    event ที่ตัวหัวของ aggregate ยังรอ retry ไม่ถูก claim เลย (ดู OutboxEventRepository.claimable)
+ *
+ * listener ถูกเรียกแบบ synchronous ใน thread ของ relay และอยู่ใน transaction ของ dispatch โดยตั้งใจ
+ * (ไม่ใช้ @Async): แถว user_events ที่ listener เขียนจะ commit พร้อม markDone ในครั้งเดียว
+ * ถ้าแยกไป thread อื่น markDone จะ commit ก่อนที่ listener เสร็จ, listener ล้มแล้ว event หายโดยไม่ retry
+ * และลำดับภายใน aggregate ก็ไม่รับประกัน — การ "ไม่บล็อก request" ได้มาจาก outbox อยู่แล้ว
+ * (ต้นทางแค่เขียนแถว outbox, relay ทำงานใน scheduler thread แยก)
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outbox;
+    private final ApplicationEventPublisher listeners;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meters;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final String owner;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+    private final Map<String, Timer> dispatchLag = new ConcurrentHashMap<>();
+
+    public OutboxRelay(OutboxEventRepository outbox,
+                       ApplicationEventPublisher listeners,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meters,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.lease-ms:30000}") long leaseMs,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retention-hours:24}") long retentionHours) {
+        this.outbox = outbox;
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.meters = meters;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofHours(retentionHours);
+        this.owner = ownerId();
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("event ใน outbox ที่ยังไม่ได้ส่ง")
+                .register(meters);
+        Gauge.builder("outbox.lag", oldestPendingAgeMs, v -> v.get() / 1000.0)
+                .description("อายุของ event ที่ค้างนานที่สุด")
+                .baseUnit("seconds")
+                .register(meters);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void poll() {
+        Round round;
+        do {
+            round = relayBatch();
+        } while (round.hasMore(batchSize));
+        refreshBacklog();
+    }
+
+    /** ผลของการ claim + ส่ง 1 รอบ */
+    record Round(int claimed, int dispatched) {
+        static final Round EMPTY = new Round(0, 0);
+
+        // วนต่อเมื่อ claim ได้เต็ม batch (น่าจะยังค้าง) และรอบนี้ส่งได้จริง — ไม่อย่างนั้นรอ poll ถัดไป
+        boolean hasMore(int batchSize) {
+            return claimed == batchSize && dispatched > 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        int n = outbox.deleteDoneBefore(Instant.now().minus(retention));
+        if (n > 0) log.debug("deleted {} relayed outbox events", n);
+    }
+
+    Round relayBatch() {
+        // อ่านแถวใน transaction เดียวกับ claim: read-only transaction แยกจะไป replica ซึ่งอาจยังไม่เห็น lease ที่เพิ่งตั้ง
+        List<OutboxEvent> events = tx.execute(s -> {
+            Instant now = Instant.now();
+            List<Long> claimable = outbox.claimable(now, batchSize);
+            if (claimable.isEmpty()) return List.of();
+            outbox.leaseTo(claimable, owner, now.plus(lease));
+            return outbox.findByIdInOrderByIdAsc(claimable);
+        });
+        if (events == null || events.isEmpty()) return Round.EMPTY;
+
+        int dispatched = 0;
+        Set<String> blocked = new HashSet<>();
+        for (OutboxEvent e : events) {
+            String aggregate = e.getAggregateType() + ":" + e.getAggregateId();
+            // event ก่อนหน้าของ aggregate นี้ยังไม่ผ่าน → ห้ามส่งตัวถัดไปข้ามหน้า, คืน lease ให้หยิบใหม่รอบหน้า
+            if (blocked.contains(aggregate)) {
+                tx.executeWithoutResult(s -> outbox.release(e.getId()));
+            } else if (dispatch(e)) {
+                dispatched++;
+            } else {
+                blocked.add(aggregate);
+            }
+        }
+        return new Round(events.size(), dispatched);
+    }
+
+    private boolean dispatch(OutboxEvent e) {
+        Boolean done;
+        try {
+            done = tx.execute(s -> {
+                if (outbox.existsEarlierPending(e.getAggregateType(), e.getAggregateId(), e.getId())) {
+                    return false;
+                }
+                listeners.publishEvent(decode(e));
+                outbox.markDone(e.getId(), Instant.now());
+                return true;
+            });
+        } catch (RuntimeException ex) {
+            fail(e, ex);
+            return false;
+        }
+
+        if (!Boolean.TRUE.equals(done)) {
+            tx.executeWithoutResult(s -> outbox.release(e.getId()));
+            return false;
+        }
+        dispatchLag.computeIfAbsent(e.getEventType(), this::dispatchLagTimer)
+                .record(Duration.between(e.getCreatedAt(), Instant.now()));
+        return true;
+    }
+
+    private Timer dispatchLagTimer(String eventType) {
+        return Timer.builder("outbox.dispatch.lag")
+                .description("เวลาตั้งแต่เขียน outbox จนส่งให้ listener สำเร็จ")
+                .tag("type", eventType)
+                .register(meters);
+    }
+
+    private void fail(OutboxEvent e, RuntimeException ex) {
+        int attempts = e.getAttempts() + 1;
+        String error = truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        Instant now = Instant.now();
+
+        if (attempts >= maxAttempts) {
+            log.error("outbox event {} ({}) dead after {} attempts", e.getId(), e.getEventType(), attempts, ex);
+            tx.executeWithoutResult(s ->
+                    outbox.markFailed(e.getId(), OutboxStatus.DEAD, attempts, null, error, now));
+            counter("outbox.dead", e).increment();
+        } else {
+            log.warn("outbox event {} ({}) failed, attempt {}: {}", e.getId(), e.getEventType(), attempts, error);
+            tx.executeWithoutResult(s ->
+                    outbox.markFailed(e.getId(), OutboxStatus.PENDING, attempts, now.plus(backoff(attempts)), error, null));
+            counter("outbox.failed", e).increment();
+        }
+    }
+
+    DomainEvent decode(OutboxEvent e) {
+        try {
+            return objectMapper.readValue(e.getPayload(), DomainEvent.typeOf(e.getEventType()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read outbox payload " + e.getId(), ex);
+        }
+    }
+
+    // 1s, 2s, 4s, ... สูงสุด 5 นาที
+    static Duration backoff(int attempts) {
+        long seconds = 1L << Math.min(attempts - 1, 30);
+        Duration d = Duration.ofSeconds(seconds);
+        return d.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : d;
+    }
+
+    private void refreshBacklog() {
+        pending.set(outbox.countByStatus(OutboxStatus.PENDING));
+        Instant oldest = outbox.findOldestPendingCreatedAt();
+        oldestPendingAgeMs.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis()));
+    }
+
+    private Counter counter(String name, OutboxEvent e) {
+        return Counter.builder(name).tag("type", e.getEventType()).register(meters);
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LENGTH ? s : s.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String ownerId() {
+        String host = System.getenv("HOSTNAME");
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String id = (host == null || host.isBlank()) ? suffix : host + "-" + suffix;
+        return id.length() <= 64 ? id : id.substring(id.length() - 64);
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartsplit.smartsplitback.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * แบ่งยอดเงินเป็นหน่วยย่อย (minor units) ตามน้ำหนัก ด้วยวิธี largest remainder
+ * - ผลรวมของทุกส่วน = total เสมอ (ไม่มีเศษหาย)
+ * - เศษที่เหลือแจกให้ส่วนที่มีเศษทศนิยมมากที่สุดก่อน ถ้าเท่ากันให้ลำดับแรกก่อน
+ * - คำนวณด้วย BigInteger ทั้งหมด ไม่มี floating error
+ */
+public final class SplitAllocator {
+
+    private SplitAllocator() {}
+
+    public static long[] allocate(long total, List<BigDecimal> weights) {
+        int n = weights.size();
+        if (n == 0) throw new IllegalArgumentException("weights must not be empty");
+
+        int scale = 0;
+        for (BigDecimal w : weights) {
+            if (w == null || w.signum() < 0) throw new IllegalArgumentException("weights must be >= 0");
+            scale = Math.max(scale, w.scale());
+        }
+        BigInteger[] w = new BigInteger[n];
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; i < n; i++) {
+            w[i] = weights.get(i).setScale(scale).unscaledValue();
+            sum = sum.add(w[i]);
+        }
+        if (sum.signum() == 0) throw new IllegalArgumentException("weights must not all be zero");
+
+        BigInteger abs = BigInteger.valueOf(total).abs();
+        long[] out = new long[n];
+        BigInteger[] rem = new BigInteger[n];
+        long allocated = 0;
+        for (int i = 0; i < n; i++) {
+            BigInteger[] qr = abs.multiply(w[i]).divideAndRemainder(sum);
+            out[i] = qr[0].longValueExact();
+            rem[i] = qr[1];
+            allocated += out[i];
+        }
+
+        long left = abs.longValueExact() - allocated;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.<Integer, BigInteger>comparing(i -> rem[i]).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        for (int k = 0; k < left; k++) out[order[k]]++;
+
+        if (total < 0) {
+            for (int i = 0; i < n; i++) out[i] = -out[i];
+        }
+        return out;
+    }
+
+    /** แบ่ง amount ที่ scale กำหนด (เช่น 2 = สตางค์, 6 = micro) แล้วคืนเป็น BigDecimal ที่ scale เดิม */
+    public static BigDecimal[] allocate(BigDecimal amount, int scale, List<BigDecimal> weights) {
+        long units = amount.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        long[] parts = allocate(units, weights);
+        BigDecimal[] out = new BigDecimal[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = BigDecimal.valueOf(parts[i], scale);
+        return out;
+    }
+}
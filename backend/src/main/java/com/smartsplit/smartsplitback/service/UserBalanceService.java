@@ -1,36 +1,51 @@
 package com.smartsplit.smartsplitback.service;
 
+import com.smartsplit.smartsplitback.model.Money;
 import com.smartsplit.smartsplitback.model.dto.BalanceLineDto;
 import com.smartsplit.smartsplitback.model.dto.BalanceSummaryDto;
 import com.smartsplit.smartsplitback.repository.BalanceQueryRepository;
 import com.smartsplit.smartsplitback.repository.BalanceRowProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Service
 public class UserBalanceService {
 
+    private static final int SUMMARY_SCALE = 2;
+
     private final BalanceQueryRepository repo;
+    private final Timer query;
 
-    public UserBalanceService(BalanceQueryRepository repo) {
+    public UserBalanceService(BalanceQueryRepository repo, MeterRegistry meters) {
         this.repo = repo;
+        this.query = Timer.builder("balance.query")
+                .description("เวลา query ยอดค้างจ่าย/ค้างรับของผู้ใช้ (findBalancesForUser)")
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    private List<BalanceRowProjection> rows(Long userId) {
+        return query.record(() -> repo.findBalancesForUser(userId));
     }
 
     public List<BalanceLineDto> listBalances(Long userId) {
-        return repo.findBalancesForUser(userId).stream()
+        return rows(userId).stream()
                 .map(UserBalanceService::toDto)
                 .toList();
     }
 
     public BalanceSummaryDto summary(Long userId) {
-        var rows = repo.findBalancesForUser(userId);
-        var youOwe = rows.stream().filter(r -> "YOU_OWE".equals(r.getDirection()))
-                .map(BalanceRowProjection::getRemaining).reduce(BigDecimal.ZERO, BigDecimal::add);
-        var youAreOwed = rows.stream().filter(r -> "OWES_YOU".equals(r.getDirection()))
-                .map(BalanceRowProjection::getRemaining).reduce(BigDecimal.ZERO, BigDecimal::add);
-        return new BalanceSummaryDto(youOwe, youAreOwed);
+        // remaining ถูก ROUND(..., 2) มาจาก SQL แล้ว รวมเป็น long micro แล้วแปลงกลับ scale 2 ที่ขอบ DTO
+        Money youOwe = Money.zero(Money.THB);
+        Money youAreOwed = Money.zero(Money.THB);
+        for (BalanceRowProjection r : rows(userId)) {
+            if ("YOU_OWE".equals(r.getDirection())) youOwe = youOwe.plus(r.getRemaining());
+            else if ("OWES_YOU".equals(r.getDirection())) youAreOwed = youAreOwed.plus(r.getRemaining());
+        }
+        return new BalanceSummaryDto(youOwe.toBigDecimal(SUMMARY_SCALE), youAreOwed.toBigDecimal(SUMMARY_SCALE));
     }
 
     private static BalanceLineDto toDto(BalanceRowProjection p) {
@@ -0,0 +1,61 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.UserEvent;
+import com.smartsplit.smartsplitback.model.UserEventType;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
+import com.smartsplit.smartsplitback.repository.UserEventRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * listener ของ domain event: เขียน user_events ให้ผู้ที่เกี่ยวข้อง (affectedUserIds ที่ publisher คำนวณไว้)
+ * ทำงานใน transaction ของ OutboxRelay → แถว user_events commit พร้อมกับการ mark event ว่าส่งแล้ว
+ * การส่งจริงทำโดย UserEventStream ที่ poll ตาราง user_events (ทุก replica)
+ */
+@Service
+public class UserEventService {
+
+    private final UserEventRepository events;
+
+    public UserEventService(UserEventRepository events) {
+        this.events = events;
+    }
+
+    @EventListener
+    @Transactional
+    public void on(ExpenseChanged e) {
+        write(e.expenseId(), typeOf(e.change()), e.affectedUserIds());
+    }
+
+    @EventListener
+    @Transactional
+    public void on(PaymentStatusChanged e) {
+        write(e.expenseId(), UserEventType.PAYMENT_STATUS_CHANGED, e.affectedUserIds());
+    }
+
+    private void write(Long expenseId, UserEventType type, Collection<Long> recipients) {
+        if (expenseId == null || recipients.isEmpty()) return;
+        List<UserEvent> rows = recipients.stream()
+                .sorted()
+                .map(uid -> new UserEvent(uid, type, expenseId))
+                .toList();
+        events.saveAll(rows);
+    }
+
+    private static UserEventType typeOf(ExpenseChanged.Change change) {
+        return switch (change) {
+            case CREATED -> UserEventType.EXPENSE_CREATED;
+            case DETAILS -> UserEventType.EXPENSE_UPDATED;
+            case ITEMS -> UserEventType.ITEMS_CHANGED;
+            case SHARES -> UserEventType.SHARES_CHANGED;
+            case PAYMENT_CREATED -> UserEventType.PAYMENT_CREATED;
+            case PAYMENT_DELETED -> UserEventType.PAYMENT_DELETED;
+            case DELETED -> UserEventType.EXPENSE_DELETED;
+        };
+    }
+}
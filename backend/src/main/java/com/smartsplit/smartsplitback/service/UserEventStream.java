@@ -0,0 +1,193 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.UserEvent;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.model.dto.UserEventDto;
+import com.smartsplit.smartsplitback.repository.UserEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * กระจาย user_events ไปยัง SSE connection ที่เปิดอยู่บน replica นี้
+ * - ทุก replica poll ตารางเอง (ไม่ต้องมี broker) เฉพาะ user ที่มี connection อยู่
+ * - SseEmitter เป็น async request ไม่ถือ thread ระหว่างรอ
+ * - กันส่งซ้ำด้วย id ที่ส่งไปแล้ว (lookback ทำให้แถวเดิมอาจถูกอ่านซ้ำ)
+ */
+@Service
+public class UserEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventStream.class);
+    private static final int DELIVERED_MEMORY = 10_000;
+
+    private final UserEventRepository events;
+    private final ExpenseSettlementService settlements;
+    private final long timeoutMs;
+    private final int maxPerUser;
+    private final int batchSize;
+    private final Duration lookback;
+    private final Duration retention;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    // ใช้เฉพาะใน poll() (scheduler เรียกทีละครั้ง)
+    private long cursor = -1;
+    private Instant floor = Instant.EPOCH;
+    private final Map<Long, Boolean> delivered = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > DELIVERED_MEMORY;
+        }
+    };
+
+    public UserEventStream(UserEventRepository events,
+                           ExpenseSettlementService settlements,
+                           @Value("${app.events.sse-timeout-ms:1800000}") long timeoutMs,
+                           @Value("${app.events.max-connections-per-user:5}") int maxPerUser,
+                           @Value("${app.events.batch-size:500}") int batchSize,
+                           @Value("${app.events.lookback-ms:10000}") long lookbackMs,
+                           @Value("${app.events.retention-minutes:60}") long retentionMinutes) {
+        this.events = events;
+        this.settlements = settlements;
+        this.timeoutMs = timeoutMs;
+        this.maxPerUser = maxPerUser;
+        this.batchSize = batchSize;
+        this.lookback = Duration.ofMillis(lookbackMs);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        List<SseEmitter> list = emitters.compute(userId, (k, cur) -> {
+            List<SseEmitter> l = (cur != null) ? cur : new CopyOnWriteArrayList<>();
+            l.add(emitter);
+            return l;
+        });
+        // เกินจำนวนต่อ user → ปิดอันเก่าสุด (แท็บที่ถูกทิ้งไว้)
+        while (list.size() > maxPerUser) {
+            SseEmitter oldest = list.remove(0);
+            oldest.complete();
+        }
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(ex -> remove(userId, emitter));
+
+        // ส่งอะไรสักอย่างทันทีให้ proxy flush header
+        try {
+            emitter.send(SseEmitter.event().name("ready").data("ok"));
+        } catch (IOException ex) {
+            remove(userId, emitter);
+        }
+        return emitter;
+    }
+
+    public int connectionCount() {
+        return emitters.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-interval-ms:1000}")
+    public void poll() {
+        if (emitters.isEmpty()) {
+            // ไม่มีใครฟัง → ไม่ต้อง query; เริ่มนับใหม่ตอนมี connection
+            cursor = -1;
+            return;
+        }
+
+        long top = events.findMaxId();
+        Instant now = Instant.now();
+        if (cursor < 0) {
+            cursor = top;
+            floor = now;
+            return;
+        }
+
+        Instant since = now.minus(lookback);
+        if (since.isBefore(floor)) since = floor;
+
+        List<UserEvent> rows = events.findPending(emitters.keySet(), cursor, since, PageRequest.of(0, batchSize));
+        // batch เต็ม → ยังมีค้าง ขยับแค่ถึงแถวสุดท้ายที่อ่าน
+        cursor = rows.size() == batchSize ? rows.get(rows.size() - 1).getId() : Math.max(cursor, top);
+
+        for (UserEvent e : rows) {
+            if (delivered.put(e.getId(), Boolean.TRUE) != null) continue;
+            dispatch(e);
+        }
+    }
+
+    // comment line กัน proxy/load balancer ตัด connection ที่เงียบ และเก็บ connection ที่ตายแล้ว
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, list) -> {
+            for (SseEmitter emitter : list) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException ex) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        int n = events.deleteOlderThan(Instant.now().minus(retention));
+        if (n > 0) log.debug("deleted {} expired user events", n);
+    }
+
+    @PreDestroy
+    void closeAll() {
+        emitters.values().forEach(list -> list.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+
+    private void dispatch(UserEvent e) {
+        List<SseEmitter> list = emitters.get(e.getUserId());
+        if (list == null || list.isEmpty()) return;
+
+        UserEventDto dto = new UserEventDto(e.getId(), e.getType(), e.getExpenseId(),
+                settlementOf(e), e.getCreatedAt());
+        for (SseEmitter emitter : list) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(e.getId()))
+                        .name("expense")
+                        .data(dto, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                remove(e.getUserId(), emitter);
+            }
+        }
+    }
+
+    private ExpenseSettlementDto settlementOf(UserEvent e) {
+        if (e.getExpenseId() == null) return null;
+        try {
+            return settlements.userSettlement(e.getExpenseId(), e.getUserId());
+        } catch (RuntimeException ex) {
+            log.debug("settlement lookup failed for event {}: {}", e.getId(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
 import com.smartsplit.smartsplitback.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,18 +20,34 @@ import java.util.Map;
 public class UserService {
     private final UserRepository repo;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationService cacheInvalidations;
+    private final GroupRepository groups;
     private final LevenshteinDistance distance = new LevenshteinDistance();
 
-    public UserService(UserRepository repo, PasswordEncoder passwordEncoder) { 
+    public UserService(UserRepository repo, PasswordEncoder passwordEncoder,
+                       CacheInvalidationService cacheInvalidations, GroupRepository groups) {
         this.repo = repo;
         this.passwordEncoder = passwordEncoder;
+        this.cacheInvalidations = cacheInvalidations;
+        this.groups = groups;
     }
 
     public List<User> list(){ return repo.findAll(); }
     public User get(Long id){ return repo.findById(id).orElse(null); }
     public User create(User u){ return repo.save(u); }
-    public User update(User u){ return repo.save(u); }
-    public void delete(Long id){ repo.deleteById(id); }
+    public User update(User u){
+        User saved = repo.save(u);
+        // โปรไฟล์อยู่ในรายชื่อสมาชิกของ dashboard ทุก group ที่อยู่
+        groups.bumpRevisionByMember(saved.getId());
+        cacheInvalidations.userChanged(saved.getId());
+        return saved;
+    }
+    public void delete(Long id){
+        // ก่อนลบ: membership ยังอยู่ (ลบตามด้วย FK cascade)
+        groups.bumpRevisionByMember(id);
+        repo.deleteById(id);
+        cacheInvalidations.userDeleted(id);
+    }
 
     public List<User> searchByName(String q) {
         String query = q == null ? "" : q.trim();
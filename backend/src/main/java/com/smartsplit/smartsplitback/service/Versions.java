@@ -0,0 +1,21 @@
+package com.smartsplit.smartsplitback.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ตรวจ version ที่ client คาดไว้ (จาก If-Match) กับ @Version ของ entity ที่โหลดมา
+ * ไม่ตรง → 412; ส่วนการแก้ไขชนกันระหว่างโหลดกับ flush จะถูก Hibernate จับเอง (→ 409)
+ */
+public final class Versions {
+
+    private Versions() {}
+
+    /** expected == null → ไม่มีเงื่อนไข */
+    public static void check(Long expected, Long actual) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Version mismatch: expected " + expected + " but was " + actual);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- V10__expense_composite_indexes.sql
+
+-- findBalancesForUser (OWES_YOU): expense ที่ผู้ใช้จ่ายในแต่ละ group
+ALTER TABLE `expenses`
+    ADD KEY `idx_expenses_payer_group` (`payer_user_id`, `group_id`),
+    DROP KEY `idx_expenses_payer`;
+
+-- sumAmountByExpenseId: รวม amount จาก index ไม่ต้องอ่านแถว
+ALTER TABLE `expense_items`
+    ADD KEY `idx_expense_items_expense_amount` (`expense_id`, `amount`),
+    DROP KEY `idx_expense_items_expense`;
@@ -0,0 +1,9 @@
+-- V11__item_share_composite_indexes.sql
+
+ALTER TABLE `expense_item_shares`
+    -- findBalancesForUser (YOU_OWE) / findDistinctExpenseIdsByParticipantId: share ของผู้ใช้คนเดียว (covering)
+    ADD KEY `idx_item_shares_participant_item` (`participant_user_id`, `expense_item_id`, `share_value`, `share_percent`),
+    DROP KEY `idx_item_shares_participant`,
+    -- fetchForExpenseAndUser: share ของผู้ใช้ใน item ของ expense
+    ADD KEY `idx_item_shares_item_participant` (`expense_item_id`, `participant_user_id`),
+    DROP KEY `idx_item_shares_item`;
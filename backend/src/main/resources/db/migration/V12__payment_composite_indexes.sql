@@ -0,0 +1,6 @@
+-- V12__payment_composite_indexes.sql
+
+-- sumVerifiedAmountByExpenseIdAndUser: ยอด VERIFIED ต่อ (expense, ผู้จ่าย) จาก index อย่างเดียว
+ALTER TABLE `expense_payments`
+    ADD KEY `idx_payments_expense_user_status` (`expense_id`, `from_user_id`, `status`, `amount`),
+    DROP KEY `idx_payments_expense`;
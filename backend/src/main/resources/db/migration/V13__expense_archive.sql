@@ -0,0 +1,38 @@
+-- V13__expense_archive.sql
+-- expense ที่ปิดแล้ว (SETTLED / CANCELED) และไม่มียอดค้างนานเกิน N วัน ถูกย้ายออกจากตาราง hot
+-- เก็บเป็นเอกสาร JSON (gzip) หนึ่งแถวต่อ expense พร้อมคอลัมน์สรุปสำหรับ list/สิทธิ์
+-- closed_at: เวลาที่ status เปลี่ยนเป็น SETTLED/CANCELED
+--   แถวที่ปิดอยู่แล้วไม่รู้เวลาปิดจริง → นับจากตอน migrate (created_at อาจเก่ากว่าตอนปิดมาก ทำให้ย้ายเร็วเกินไป)
+
+ALTER TABLE `expenses`
+    ADD COLUMN `closed_at` datetime(6) DEFAULT NULL,
+    ADD KEY `idx_expenses_status_closed` (`status`, `closed_at`);
+
+UPDATE `expenses` SET `closed_at` = NOW(6) WHERE `status` IN ('SETTLED', 'CANCELED');
+
+-- ไม่ผูก FK กับ groups_tbl/users: ลบ group/user แล้ว archive ยังอยู่ (ข้อมูลย้อนหลัง)
+CREATE TABLE `expense_archive` (
+                                   `expense_id` bigint NOT NULL,
+                                   `group_id` bigint NOT NULL,
+                                   `payer_user_id` bigint NOT NULL,
+                                   `title` varchar(200) NOT NULL,
+                                   `amount` decimal(18,2) NOT NULL,
+                                   `type` varchar(20) NOT NULL,
+                                   `status` varchar(20) NOT NULL,
+                                   `created_at` datetime(6) NOT NULL,
+                                   `closed_at` datetime(6) DEFAULT NULL,
+                                   `archived_at` datetime(6) NOT NULL,
+                                   `document` mediumblob NOT NULL,
+                                   PRIMARY KEY (`expense_id`),
+                                   KEY `idx_expense_archive_group` (`group_id`, `expense_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- payer + ผู้มี share/payment ใน expense (ใช้ตรวจสิทธิ์ดูโดยไม่ต้องแตกเอกสาร)
+CREATE TABLE `expense_archive_participants` (
+                                                `expense_id` bigint NOT NULL,
+                                                `user_id` bigint NOT NULL,
+                                                PRIMARY KEY (`expense_id`, `user_id`),
+                                                KEY `idx_expense_archive_participants_user` (`user_id`),
+                                                CONSTRAINT `fk_expense_archive_participants_expense`
+                                                    FOREIGN KEY (`expense_id`) REFERENCES `expense_archive` (`expense_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
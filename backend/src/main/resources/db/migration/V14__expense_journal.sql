@@ -0,0 +1,32 @@
+-- V14__expense_journal.sql
+-- journal แบบ append-only ของ expense: ทุก transaction ที่ประกาศ ExpenseChanged / PaymentStatusChanged
+-- (หรือลบ expense) เขียน 1 แถวต่อ expense = ส่วนต่างของยอด owed (share_value) / paid (VERIFIED) ต่อ user
+-- เทียบกับแถวก่อนหน้า (THB หน่วย micro) → ย้อนดู settlement ณ เวลาใดก็ได้ด้วยการ fold delta ตาม seq
+-- snapshot ทุก ๆ N แถว (app.journal.snapshot-every) เพื่อให้ fold แค่ snapshot ล่าสุด + ส่วนท้าย
+-- ไม่มี FK ไป expenses: journal ต้องอยู่ต่อหลัง expense ถูกลบหรือย้ายเข้า archive
+-- expense ที่มีอยู่ก่อน migration นี้จะเริ่มมี journal ตอนแก้ไขครั้งแรก (แถวแรก = ยอดทั้งหมด ณ ตอนนั้น)
+
+CREATE TABLE `expense_journal` (
+                                   `journal_id` bigint NOT NULL,
+                                   `expense_id` bigint NOT NULL,
+                                   `seq` int NOT NULL,
+                                   `changes` varchar(200) NOT NULL,
+                                   `delta` json NOT NULL,
+                                   `created_at` datetime(6) NOT NULL,
+                                   PRIMARY KEY (`journal_id`),
+                                   UNIQUE KEY `uk_expense_journal_seq` (`expense_id`, `seq`),
+                                   KEY `idx_expense_journal_created` (`expense_id`, `created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- pooled generator เหมือน V3 เพื่อให้ insert หลาย expense ใน transaction เดียวเป็น JDBC batch
+INSERT INTO `id_generators` (`gen_name`, `next_val`) VALUES ('expense_journal', 51);
+
+CREATE TABLE `expense_journal_snapshots` (
+                                             `snapshot_id` bigint NOT NULL AUTO_INCREMENT,
+                                             `expense_id` bigint NOT NULL,
+                                             `seq` int NOT NULL,
+                                             `state` json NOT NULL,
+                                             `created_at` datetime(6) NOT NULL,
+                                             PRIMARY KEY (`snapshot_id`),
+                                             UNIQUE KEY `uk_expense_journal_snapshots_seq` (`expense_id`, `seq`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
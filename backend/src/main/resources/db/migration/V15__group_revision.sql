@@ -0,0 +1,6 @@
+-- V15__group_revision.sql
+-- ตัวนับการเปลี่ยนแปลงระดับ group (ชื่อ/รูป group, สมาชิกเข้าออก, โปรไฟล์ของสมาชิก)
+-- รวมกับยอด revision ของ expenses ใน group → ETag ของ dashboard ตรวจได้ก่อน query ทั้งชุด
+
+ALTER TABLE `groups_tbl`
+    ADD COLUMN `revision` bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- V3__pooled_id_generators.sql
+-- expenses / expense_items / expense_item_shares เปลี่ยนจาก IDENTITY เป็น pooled table generator
+-- (allocationSize = 50) เพื่อให้ Hibernate ทำ JDBC batch insert ได้
+-- ค่าเริ่มต้นตั้งไว้สูงกว่า MAX(id) เกินหนึ่ง allocation เพื่อไม่ให้ pooled optimizer แจก id ซ้ำกับแถวเดิม
+
+CREATE TABLE `id_generators` (
+                                 `gen_name` varchar(64) NOT NULL,
+                                 `next_val` bigint NOT NULL,
+                                 PRIMARY KEY (`gen_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`)
+SELECT 'expenses', COALESCE(MAX(`expense_id`), 0) + 51 FROM `expenses`;
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`)
+SELECT 'expense_items', COALESCE(MAX(`expense_item_id`), 0) + 51 FROM `expense_items`;
+
+INSERT INTO `id_generators` (`gen_name`, `next_val`)
+SELECT 'expense_item_shares', COALESCE(MAX(`share_id`), 0) + 51 FROM `expense_item_shares`;
@@ -0,0 +1,6 @@
+-- V4__expense_revision.sql
+-- ตัวนับการเปลี่ยนแปลงระดับ expense (รวม items / shares / payments)
+-- service เพิ่มค่าทุกครั้งที่มีการแก้ไข → GET ใช้ทำ ETag แล้วตอบ 304 ได้โดยไม่ต้องแตะตารางลูก
+
+ALTER TABLE `expenses`
+    ADD COLUMN `revision` bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- V5__user_events.sql
+-- event ต่อผู้ใช้สำหรับ SSE (/api/me/events)
+-- เขียนใน transaction เดียวกับการแก้ไข แล้วทุก replica poll ตารางนี้ไปส่งให้ connection ของตัวเอง
+-- ไม่ผูก FK กับ expenses/users เพราะ event ต้องอยู่ต่อได้แม้ expense ถูกลบ (ลบทิ้งตามอายุแทน)
+
+CREATE TABLE `user_events` (
+                               `event_id` bigint NOT NULL AUTO_INCREMENT,
+                               `user_id` bigint NOT NULL,
+                               `type` varchar(40) NOT NULL,
+                               `expense_id` bigint DEFAULT NULL,
+                               `created_at` datetime(6) NOT NULL,
+                               PRIMARY KEY (`event_id`),
+                               KEY `idx_user_events_created` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
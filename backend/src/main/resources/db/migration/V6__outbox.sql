@@ -0,0 +1,24 @@
+-- V6__outbox.sql
+-- transactional outbox ของ domain event (ExpenseChanged / PaymentStatusChanged / MembershipChanged)
+-- service เขียนแถวใน transaction เดียวกับการแก้ไข, OutboxRelay claim ด้วย FOR UPDATE SKIP LOCKED
+-- แล้วส่งให้ listener ทีละ event (at-least-once, เรียงตาม event_id ภายใน aggregate เดียวกัน)
+
+CREATE TABLE `outbox` (
+                          `event_id` bigint NOT NULL AUTO_INCREMENT,
+                          `aggregate_type` varchar(40) NOT NULL,
+                          `aggregate_id` bigint NOT NULL,
+                          `event_type` varchar(60) NOT NULL,
+                          `payload` text NOT NULL,
+                          `status` varchar(10) NOT NULL,
+                          `attempts` int NOT NULL DEFAULT 0,
+                          `next_attempt_at` datetime(6) DEFAULT NULL,
+                          `locked_by` varchar(64) DEFAULT NULL,
+                          `locked_until` datetime(6) DEFAULT NULL,
+                          `last_error` varchar(500) DEFAULT NULL,
+                          `created_at` datetime(6) NOT NULL,
+                          `processed_at` datetime(6) DEFAULT NULL,
+                          PRIMARY KEY (`event_id`),
+                          KEY `idx_outbox_status_id` (`status`, `event_id`),
+                          KEY `idx_outbox_aggregate` (`aggregate_type`, `aggregate_id`, `status`, `event_id`),
+                          KEY `idx_outbox_processed` (`processed_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
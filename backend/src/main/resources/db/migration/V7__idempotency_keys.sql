@@ -0,0 +1,20 @@
+-- V7__idempotency_keys.sql
+-- ผลของ POST ที่ส่ง Idempotency-Key มา (POST /api/expenses, POST /api/expenses/{id}/payments)
+-- คำขอซ้ำด้วย key เดิมได้ response เดิมโดยไม่ทำงานซ้ำ (ไม่สร้าง payment/อัปโหลดสลิปซ้ำ)
+-- locked_until: lease ของคนที่กำลังทำ (IN_PROGRESS) ต่ออายุเป็นระยะระหว่างที่ยังทำอยู่; หมดอายุ = ผู้ทำตายแล้ว
+
+CREATE TABLE `idempotency_keys` (
+                                    `idempotency_id` bigint NOT NULL AUTO_INCREMENT,
+                                    `user_id` bigint NOT NULL,
+                                    `idem_key` varchar(100) NOT NULL,
+                                    `endpoint` varchar(100) NOT NULL,
+                                    `request_hash` varchar(64) NOT NULL,
+                                    `status` varchar(12) NOT NULL,
+                                    `response_body` text,
+                                    `created_at` datetime(6) NOT NULL,
+                                    `locked_until` datetime(6) DEFAULT NULL,
+                                    `expires_at` datetime(6) NOT NULL,
+                                    PRIMARY KEY (`idempotency_id`),
+                                    UNIQUE KEY `uk_idempotency_user_key` (`user_id`, `idem_key`),
+                                    KEY `idx_idempotency_expires` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
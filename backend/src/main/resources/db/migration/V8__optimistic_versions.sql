@@ -0,0 +1,8 @@
+-- V8__optimistic_versions.sql
+-- คอลัมน์ @Version สำหรับ optimistic locking (UPDATE ... WHERE version = ? แล้วเพิ่มค่า)
+-- แถวเดิมเริ่มที่ 0; client ส่ง If-Match: "<version>" เพื่อแก้ไขแบบมีเงื่อนไข
+
+ALTER TABLE `expenses`            ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+ALTER TABLE `expense_items`       ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+ALTER TABLE `expense_item_shares` ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
+ALTER TABLE `expense_payments`    ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- V9__cache_invalidations.sql
+-- log การแก้ไข users / groups_tbl / group_members ที่อยู่ใน Hibernate L2 cache
+-- service เขียนแถวใน transaction เดียวกับการแก้ไข, ทุก replica poll แล้ว evict จาก cache ของตัวเอง
+-- entity_key NULL = ทั้ง region, region '*' = ทุก region
+
+CREATE TABLE `cache_invalidations` (
+                                       `invalidation_id` bigint NOT NULL AUTO_INCREMENT,
+                                       `region` varchar(64) NOT NULL,
+                                       `entity_key` varchar(64) DEFAULT NULL,
+                                       `created_at` datetime(6) NOT NULL,
+                                       PRIMARY KEY (`invalidation_id`),
+                                       KEY `idx_cache_invalidations_created` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
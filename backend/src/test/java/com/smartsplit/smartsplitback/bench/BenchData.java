@@ -0,0 +1,134 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * ชุดข้อมูลสังเคราะห์สำหรับ JMH: seed คงที่ → ทุกรอบ/ทุกเครื่องได้ข้อมูลชุดเดียวกัน เทียบผลข้ามรอบได้
+ * repository ใช้ stub จาก java.lang.reflect.Proxy (ไม่ใช้ Mockito เพราะ overhead ต่อการเรียกสูงกว่าโค้ดที่วัด)
+ */
+final class BenchData {
+
+    static final long SEED = 42L;
+    static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private static final String[] CURRENCIES = {"THB", "USD", "EUR", "JPY", "SGD"};
+    private static final String[] SYLLABLES = {"ka", "ri", "to", "na", "mi", "so", "ra", "po", "ly", "den"};
+
+    private BenchData() {}
+
+    static Random random() {
+        return new Random(SEED);
+    }
+
+    /** ชื่อสุ่มแบบอ่านออกเสียงได้ (ใช้กับ fuzzy search) */
+    static String name(Random rnd, int syllables) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < syllables; i++) sb.append(SYLLABLES[rnd.nextInt(SYLLABLES.length)]);
+        return sb.toString();
+    }
+
+    static User user(long id, String userName) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail("user" + id + "@bench.local");
+        u.setUserName(userName);
+        return u;
+    }
+
+    static List<User> users(Random rnd, int count) {
+        List<User> out = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) out.add(user(id, name(rnd, 2 + rnd.nextInt(3))));
+        return out;
+    }
+
+    static Group group(long id, String name, User owner) {
+        Group g = new Group();
+        g.setId(id);
+        g.setName(name);
+        g.setOwner(owner);
+        return g;
+    }
+
+    /**
+     * expense ที่มี items หลายสกุลเงิน, แต่ละ item แบ่ง share ให้ participants ทุกคน
+     * และ payment (VERIFIED เกือบทั้งหมด) จากทุกคนยกเว้น payer
+     */
+    static Expense expense(Random rnd, long id, Group group, List<User> participants, int itemCount) {
+        Expense e = new Expense();
+        e.setId(id);
+        e.setGroup(group);
+        e.setPayer(participants.get(0));
+        e.setTitle("Expense " + id);
+        e.setType(ExpenseType.CUSTOM);
+        e.setStatus(ExpenseStatus.OPEN);
+        e.setCreatedAt(CREATED_AT.plusMinutes(id));
+        e.setExchangeRatesJson("{\"USD\":35.123456,\"EUR\":38.654321,\"JPY\":0.234567,\"SGD\":26.5}");
+
+        BigDecimal total = BigDecimal.ZERO;
+        long shareId = id * 100_000;
+        for (int i = 0; i < itemCount; i++) {
+            ExpenseItem item = new ExpenseItem();
+            item.setId(id * 1_000 + i);
+            item.setName("Item " + i);
+            item.setCurrency(CURRENCIES[rnd.nextInt(CURRENCIES.length)]);
+            BigDecimal amount = BigDecimal.valueOf(100 + rnd.nextInt(500_000), 2);
+            item.setAmount(amount);
+            e.addItem(item);
+            total = total.add(amount);
+
+            BigDecimal each = BigDecimal.valueOf(amount.movePointRight(6).longValue() / participants.size(), 6);
+            for (User u : participants) {
+                ExpenseItemShare s = new ExpenseItemShare();
+                s.setId(shareId++);
+                s.setExpenseItem(item);
+                s.setParticipant(u);
+                s.setShareValue(each);
+                s.setShareOriginalValue(each);
+                item.getShares().add(s);
+            }
+        }
+        e.setAmount(total);
+
+        for (int i = 1; i < participants.size(); i++) {
+            ExpensePayment p = new ExpensePayment();
+            p.setId(id * 1_000 + i);
+            p.setFromUser(participants.get(i));
+            p.setAmount(BigDecimal.valueOf(100 + rnd.nextInt(100_000), 2));
+            p.setStatus(rnd.nextInt(10) == 0 ? PaymentStatus.PENDING : PaymentStatus.VERIFIED);
+            e.addPayment(p);
+        }
+        return e;
+    }
+
+    static List<ExpenseItemShare> shares(Expense e) {
+        List<ExpenseItemShare> out = new ArrayList<>();
+        for (ExpenseItem item : e.getItems()) out.addAll(item.getShares());
+        return out;
+    }
+
+    /** stub ของ interface: method ที่ไม่ได้กำหนดใน answers จะโยน UnsupportedOperationException */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) return answer.apply(args);
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
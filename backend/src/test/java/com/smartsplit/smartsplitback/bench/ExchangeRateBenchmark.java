@@ -0,0 +1,54 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.service.ExchangeRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExchangeRateService: parse exchangeRatesJson ของ expense (ไม่ยิง FX API) และแปลงยอด item เป็น THB
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=ExchangeRateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateBenchmark {
+
+    private final ExchangeRateService fx = new ExchangeRateService(new SimpleMeterRegistry());
+
+    private Expense expense;
+    private Map<String, BigDecimal> rates;
+
+    @Setup
+    public void setup() {
+        Random rnd = BenchData.random();
+        List<User> users = BenchData.users(rnd, 4);
+        expense = BenchData.expense(rnd, 1L, BenchData.group(1L, "Trip", users.get(0)), users, 50);
+        rates = fx.getRatesToThb(expense);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> getRatesToThb() {
+        return fx.getRatesToThb(expense);
+    }
+
+    /** แปลง 50 items (หลายสกุลเงิน) ต่อรอบ */
+    @Benchmark
+    public void toThb(Blackhole bh) {
+        for (ExpenseItem it : expense.getItems()) {
+            bh.consume(fx.toThb(it.getCurrency(), it.getAmount(), rates));
+        }
+    }
+}
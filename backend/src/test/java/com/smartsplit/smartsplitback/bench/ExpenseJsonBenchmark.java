@@ -0,0 +1,116 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseItemDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * map entity → DTO และ serialize list ใหญ่ด้วย ObjectMapper ที่ตั้งค่าแบบเดียวกับ Spring Boot
+ * (เช่น GET /api/expenses?groupId=..., GET /api/expenses/{id}/items)
+ * groupList*: GET /api/expenses/group/{id} แบบเดิม (ObjectNode ต่อ expense แล้วแก้ status ใน tree)
+ * เทียบกับเขียนผ่าน JsonGenerator ทีละ ExpenseView (JsonArrayWriter) ดู gc.alloc.rate.norm
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=ExpenseJsonBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseJsonBenchmark {
+
+    @Param({"100", "5000"})
+    public int expenses;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectWriter viewWriter = objectMapper.writerFor(ExpenseView.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private List<Expense> entities;
+    private List<ExpenseDto> dtos;
+
+    @Setup
+    public void setup() {
+        Random rnd = BenchData.random();
+        List<User> users = BenchData.users(rnd, 4);
+        Group group = BenchData.group(1L, "Trip", users.get(0));
+        entities = new ArrayList<>(expenses);
+        for (long id = 1; id <= expenses; id++) {
+            entities.add(BenchData.expense(rnd, id, group, users, 3));
+        }
+        dtos = toDtos();
+    }
+
+    @Benchmark
+    public List<ExpenseDto> toDtos() {
+        return entities.stream().map(ExpenseDto::fromEntity).toList();
+    }
+
+    @Benchmark
+    public List<ExpenseItemDto> toItemDtos() {
+        List<ExpenseItemDto> out = new ArrayList<>(entities.size() * 3);
+        for (Expense e : entities) {
+            for (ExpenseItem it : e.getItems()) out.add(ExpenseItemDto.fromEntity(it));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDtos());
+    }
+
+    @Benchmark
+    public void groupListTree() throws IOException {
+        List<ObjectNode> nodes = dtos.stream()
+                .map(dto -> {
+                    ObjectNode json = objectMapper.valueToTree(dto);
+                    var statusNode = json.get("status");
+                    if (statusNode != null && "SETTLED".equalsIgnoreCase(statusNode.asText())) {
+                        json.put("status", "COMPLETE");
+                    }
+                    return json;
+                })
+                .toList();
+        objectMapper.writeValue(OutputStream.nullOutputStream(), nodes);
+    }
+
+    @Benchmark
+    public void groupListStreamed() throws IOException {
+        try (JsonGenerator gen = viewWriter.createGenerator(OutputStream.nullOutputStream(), JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            for (ExpenseDto dto : dtos) {
+                viewWriter.writeValue(gen, ExpenseView.of(dto, () -> true));
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
+import com.smartsplit.smartsplitback.repository.UserRepository;
+import com.smartsplit.smartsplitback.service.GroupService;
+import com.smartsplit.smartsplitback.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * fuzzy search ด้วย Levenshtein (UserService.searchByName → distanceToName, GroupService.searchMyGroups)
+ * query = ชื่อที่มีอยู่จริงแต่พิมพ์ผิด 1 ตัว → ต้องเดินครบทุก window ของทุก candidate
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=FuzzySearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzySearchBenchmark {
+
+    private UserService users;
+    private String userQuery;
+
+    /** ชุด group แยก state เพื่อให้ @Param groups คูณเฉพาะ searchMyGroups */
+    @State(Scope.Benchmark)
+    public static class Groups {
+
+        @Param({"20", "200"})
+        public int groups;
+
+        GroupService service;
+        String query;
+
+        @Setup
+        public void setup() {
+            Random rnd = BenchData.random();
+            User me = BenchData.user(1L, "me");
+            List<Group> owned = new ArrayList<>();
+            List<Group> member = new ArrayList<>();
+            for (long id = 1; id <= groups; id++) {
+                Group g = BenchData.group(id, BenchData.name(rnd, 3) + " " + BenchData.name(rnd, 2), me);
+                (id % 2 == 0 ? owned : member).add(g);
+            }
+            var repo = BenchData.stub(GroupRepository.class, Map.of(
+                    "findByOwner_Id", a -> owned,
+                    "findAllByMemberUserId", a -> member));
+            service = new GroupService(repo, null);
+            query = typo(member.get(member.size() / 2).getName().split(" ")[0]);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        // repository คืนได้สูงสุด 100 คน (findTop100ByUserNameContainingIgnoreCase)
+        List<User> candidates = BenchData.users(BenchData.random(), 100);
+        var repo = BenchData.stub(UserRepository.class, Map.of(
+                "findTop100ByUserNameContainingIgnoreCase", a -> candidates));
+        users = new UserService(repo, null, null, null);
+        userQuery = typo(candidates.get(candidates.size() / 2).getUserName());
+    }
+
+    // เปลี่ยนตัวอักษรกลางคำ 1 ตัว
+    static String typo(String s) {
+        int i = s.length() / 2;
+        char c = s.charAt(i) == 'x' ? 'y' : 'x';
+        return s.substring(0, i) + c + s.substring(i + 1);
+    }
+
+    @Benchmark
+    public List<User> searchUsers() {
+        return users.searchByName(userQuery);
+    }
+
+    @Benchmark
+    public List<Group> searchMyGroups(Groups g) {
+        return g.service.searchMyGroups(1L, g.query);
+    }
+}
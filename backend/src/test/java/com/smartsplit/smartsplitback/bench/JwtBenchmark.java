@@ -0,0 +1,45 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.Role;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.security.JwtKeyProvider;
+import com.smartsplit.smartsplitback.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService.getAllClaims: ทุก request ที่มี Bearer token ผ่านจุดนี้ (รวม decode secret + ตรวจลายเซ็น HS256)
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=JwtBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "dGhpc2lzYXZlcnlsb25nc2VjcmV0a2V5Zm9yYmVuY2htYXJrc29ubHkxMjM0NTY3ODkw";
+
+    private JwtService jwt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyProvider keys = new JwtKeyProvider();
+        ReflectionTestUtils.setField(keys, "configuredSecret", SECRET);
+        jwt = new JwtService(keys);
+
+        User u = BenchData.user(7L, "bench");
+        u.setRole(Role.USER);
+        token = jwt.generateForUser(u, 3600);
+    }
+
+    @Benchmark
+    public Claims getAllClaims() {
+        return jwt.getAllClaims(token);
+    }
+}
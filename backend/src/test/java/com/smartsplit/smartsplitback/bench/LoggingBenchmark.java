@@ -0,0 +1,147 @@
+package com.smartsplit.smartsplitback.bench;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.smartsplit.smartsplitback.config.JsonLineEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.spi.MDCAdapter;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ต้นทุน log ต่อ request: MDC (traceId/spanId) + INFO 2 บรรทัด + SQL 6 statement ที่ logger org.hibernate.SQL
+ * ตั้ง appender แบบเดียวกับ logback-spring.xml แต่เขียนทิ้ง (null stream) จะได้วัดเฉพาะฝั่ง logging
+ *   pipeline: sync = encode + เขียนบน request thread (แบบเดิม), async = CONSOLE_ASYNC (request thread แค่เข้าคิว)
+ *   format:   text = pattern เดิม, json = JsonLineEncoder (ที่ใช้ใน prod), boot-json = StructuredLogEncoder (logstash) ของ Boot ไว้เทียบ
+ *   sqlLevel: INFO = prod (SQL ปิด), DEBUG = dev/test (org.hibernate.SQL=DEBUG)
+ * allocation ต่อ request ดูที่ gc.alloc.rate.norm (B/op) จาก -prof gc ของ profile benchmarks
+ *
+ * async ตอนวัด throughput เต็มที่: คิวเต็มเร็ว → INFO/DEBUG บางส่วนถูกทิ้งตามนโยบาย
+ * เวลาของ async จึงเป็นเวลาที่ request thread เสีย ไม่ใช่ต้นทุนรวมของการเขียน log ทุกบรรทัด
+ *
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=LoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level [%X{traceId:-}- %X{spanId:-}] %logger{36} - %msg%n";
+    private static final String SQL =
+            "select e1_0.id,e1_0.amount,e1_0.created_at,e1_0.group_id,e1_0.payer_user_id,e1_0.status,e1_0.title "
+                    + "from expenses e1_0 where e1_0.group_id=? order by e1_0.created_at desc";
+
+    @Param({"sync", "async"})
+    public String pipeline;
+
+    @Param({"text", "json", "boot-json"})
+    public String format;
+
+    @Param({"INFO", "DEBUG"})
+    public String sqlLevel;
+
+    private LoggerContext ctx;
+    private MDCAdapter mdc;
+    private Logger app;
+    private Logger sql;
+    private long requestId;
+
+    @Setup
+    public void setup() {
+        ctx = new LoggerContext();
+        // context ที่สร้างเองไม่ได้ผ่าน LogbackServiceProvider: ต้องใส่ MDC adapter เอง
+        mdc = new LogbackMDCAdapter();
+        ctx.setMDCAdapter((LogbackMDCAdapter) mdc);
+        // StructuredLogEncoder อ่าน Environment จาก context (LogbackLoggingSystem ใส่ไว้ให้ตอนรันจริง)
+        ctx.putObject(Environment.class.getName(), new StandardEnvironment());
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(ctx);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder());
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        Appender<ILoggingEvent> root = console;
+        if ("async".equals(pipeline)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(ctx);
+            async.setName("CONSOLE_ASYNC");
+            async.setQueueSize(8192);
+            async.setIncludeCallerData(false);
+            async.setNeverBlock(false);
+            async.addAppender(console);
+            async.start();
+            root = async;
+        }
+
+        Logger rootLogger = ctx.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+        ctx.getLogger("org.hibernate.SQL").setLevel(Level.toLevel(sqlLevel));
+
+        app = ctx.getLogger("com.smartsplit.smartsplitback.controller.ExpenseController");
+        sql = ctx.getLogger("org.hibernate.SQL");
+    }
+
+    private Encoder<ILoggingEvent> encoder() {
+        if ("json".equals(format)) {
+            JsonLineEncoder json = new JsonLineEncoder();
+            json.setContext(ctx);
+            json.start();
+            return json;
+        }
+        if ("boot-json".equals(format)) {
+            StructuredLogEncoder json = new StructuredLogEncoder();
+            json.setContext(ctx);
+            json.setFormat("logstash");
+            json.setCharset(StandardCharsets.UTF_8);
+            json.start();
+            return json;
+        }
+        PatternLayoutEncoder text = new PatternLayoutEncoder();
+        text.setContext(ctx);
+        text.setPattern(PATTERN);
+        text.start();
+        return text;
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.stop();
+    }
+
+    @Benchmark
+    public void request() {
+        long id = ++requestId;
+        mdc.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        mdc.put("spanId", "00f067aa0ba902b7");
+        try {
+            app.info("GET /api/expenses/group/{} user={}", id & 1023, 7L);
+            for (int i = 0; i < 6; i++) {
+                sql.debug(SQL);
+            }
+            app.info("GET /api/expenses/group/{} -> 200 in {} ms", id & 1023, 12);
+        } finally {
+            mdc.remove("traceId");
+            mdc.remove("spanId");
+        }
+    }
+}
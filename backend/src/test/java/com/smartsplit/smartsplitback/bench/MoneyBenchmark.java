@@ -0,0 +1,65 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * เปรียบเทียบการรวมยอด settlement แบบเดิม (BigDecimal) กับ Money (long micro)
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=MoneyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"8", "200"})
+    public int shareCount;
+
+    private BigDecimal[] shareValues;
+    private BigDecimal paid;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        shareValues = new BigDecimal[shareCount];
+        for (int i = 0; i < shareCount; i++) {
+            // share_value ใน DB เป็น scale 6
+            shareValues[i] = BigDecimal.valueOf(rnd.nextInt(500_000_000), 6);
+        }
+        paid = BigDecimal.valueOf(rnd.nextInt(50_000_00), 2);
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole bh) {
+        BigDecimal owed = BigDecimal.ZERO;
+        for (BigDecimal v : shareValues) owed = owed.add(v);
+        BigDecimal remaining = owed.subtract(paid);
+        if (remaining.signum() < 0) remaining = BigDecimal.ZERO;
+        BigDecimal owedOut = owed.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal paidOut = paid.setScale(2, RoundingMode.HALF_UP);
+        bh.consume(owedOut);
+        bh.consume(remaining.setScale(2, RoundingMode.HALF_UP));
+        bh.consume(paidOut.compareTo(owedOut) >= 0);
+    }
+
+    @Benchmark
+    public void money(Blackhole bh) {
+        Money owed = Money.sum(Money.THB, Arrays.asList(shareValues), v -> v);
+        Money paidM = Money.thb(paid);
+        Money remaining = owed.minus(paidM).clampAtZero();
+        Money owedOut = owed.roundToCents();
+        bh.consume(owedOut.toBigDecimal(2));
+        bh.consume(remaining.toBigDecimal(2));
+        bh.consume(paidM.roundToCents().compareTo(owedOut) >= 0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.service.ExchangeRateService;
+import com.smartsplit.smartsplitback.service.ExpenseExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseExportService.renderExpensePdf: Thymeleaf + openhtmltopdf (CPU หนัก, ทำบน request thread)
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=PdfExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExportBenchmark {
+
+    @Param({"10", "100"})
+    public int items;
+
+    private ExpenseExportService export;
+
+    @Setup
+    public void setup() {
+        Random rnd = BenchData.random();
+        List<User> users = BenchData.users(rnd, 6);
+        Expense e = BenchData.expense(rnd, 1L, BenchData.group(1L, "ทริปเชียงใหม่", users.get(0)), users, items);
+
+        var expenses = BenchData.stub(ExpenseRepository.class, Map.of("findById", a -> Optional.of(e)));
+        var itemsRepo = BenchData.stub(ExpenseItemRepository.class, Map.of("findByExpense_Id", a -> e.getItems()));
+        var sharesRepo = BenchData.stub(ExpenseItemShareRepository.class, Map.of("findByExpenseId", a -> BenchData.shares(e)));
+        var paymentsRepo = BenchData.stub(ExpensePaymentRepository.class, Map.of("findByExpense_Id", a -> e.getPayments()));
+        var meters = new SimpleMeterRegistry();
+        export = new ExpenseExportService(expenses, itemsRepo, sharesRepo, paymentsRepo,
+                new ExchangeRateService(meters), meters);
+    }
+
+    @Benchmark
+    public byte[] renderExpensePdf() {
+        return export.renderExpensePdf(1L);
+    }
+}
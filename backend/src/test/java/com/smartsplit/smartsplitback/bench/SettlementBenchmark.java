@@ -0,0 +1,75 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.ExpensePayment;
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.service.ExpenseSettlementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * ExpenseSettlementService.allSettlements: รวม share/payment ต่อ participant (repository เป็น stub ในหน่วยความจำ)
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=SettlementBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementBenchmark {
+
+    @Param({"4", "50"})
+    public int participants;
+
+    @Param({"5", "50"})
+    public int items;
+
+    private ExpenseSettlementService service;
+    private Long expenseId;
+
+    @Setup
+    public void setup() {
+        Random rnd = BenchData.random();
+        List<User> users = BenchData.users(rnd, participants);
+        Expense e = BenchData.expense(rnd, 1L, BenchData.group(1L, "Trip", users.get(0)), users, items);
+        expenseId = e.getId();
+
+        Map<Long, List<ExpenseItemShare>> sharesByUser = BenchData.shares(e).stream()
+                .collect(Collectors.groupingBy(s -> s.getParticipant().getId()));
+        List<Long> participantIds = List.copyOf(sharesByUser.keySet());
+        Map<Long, BigDecimal> verifiedByUser = new HashMap<>();
+        for (ExpensePayment p : e.getPayments()) {
+            if (p.getStatus() == PaymentStatus.VERIFIED) {
+                verifiedByUser.merge(p.getFromUser().getId(), p.getAmount(), BigDecimal::add);
+            }
+        }
+        List<Long> verifiedPayers = List.copyOf(verifiedByUser.keySet());
+
+        var shares = BenchData.stub(ExpenseItemShareRepository.class, Map.of(
+                "findParticipantIdsByExpense", a -> participantIds,
+                "fetchForExpenseAndUser", a -> sharesByUser.getOrDefault((Long) a[1], List.of())));
+        var payments = BenchData.stub(ExpensePaymentRepository.class, Map.of(
+                "findVerifiedPayerIdsByExpense", a -> verifiedPayers,
+                "sumVerifiedAmountByExpenseIdAndUser", a -> verifiedByUser.getOrDefault((Long) a[1], BigDecimal.ZERO)));
+        service = new ExpenseSettlementService(shares, payments, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<ExpenseSettlementDto> allSettlements() {
+        return service.allSettlements(expenseId);
+    }
+}
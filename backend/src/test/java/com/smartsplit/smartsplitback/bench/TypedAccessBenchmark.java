@@ -0,0 +1,95 @@
+package com.smartsplit.smartsplitback.bench;
+
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.Role;
+import com.smartsplit.smartsplitback.security.UserIdPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ต่อครั้งที่เรียก: reflection แบบเดิม (legacy*) เทียบกับ accessor ที่เรียกตรง
+ * - currency ของ item (ExpenseItemShareService / ExpenseExportService เรียกทุก share / ทุกแถว)
+ * - user id จาก principal (Perms.currentUserId ทุก @PreAuthorize): principal เป็น String จาก JwtAuthFilter
+ *   ทางเดิมจึงโยน NoSuchMethodException 3 ครั้งก่อนถึง auth.getName()
+ * - role code ตอนออก token (JwtService.generateForUser)
+ * รัน: mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=TypedAccessBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedAccessBenchmark {
+
+    private ExpenseItem item;
+    private Authentication auth;
+    private Role role;
+
+    @Setup
+    public void setup() {
+        item = new ExpenseItem();
+        item.setCurrency("USD");
+        auth = new UsernamePasswordAuthenticationToken("12345", null, null);
+        role = Role.ADMIN;
+    }
+
+    // ===== currency =====
+    @Benchmark
+    public String currencyLegacy() {
+        try {
+            var c = (String) ExpenseItem.class.getMethod("getCurrency").invoke(item);
+            return (c == null || c.isBlank()) ? "THB" : c;
+        } catch (Exception e) {
+            return "THB";
+        }
+    }
+
+    @Benchmark
+    public String currencyTyped() {
+        return item.currencyOrDefault();
+    }
+
+    // ===== user id =====
+    @Benchmark
+    public Long userIdLegacy() {
+        Object p = auth.getPrincipal();
+        for (String m : new String[]{"getId", "getUid", "getUserId"}) {
+            try {
+                Method md = p.getClass().getMethod(m);
+                Object v = md.invoke(p);
+                if (v != null) return Long.valueOf(String.valueOf(v));
+            } catch (Exception ignored) {}
+        }
+        try {
+            return Long.valueOf(auth.getName());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Long userIdTyped() {
+        return UserIdPrincipal.of(auth);
+    }
+
+    // ===== role code =====
+    @Benchmark
+    public int roleCodeLegacy() {
+        try {
+            var m = role.getClass().getMethod("code");
+            return (int) m.invoke(role);
+        } catch (Exception ignore) {
+            return 1;
+        }
+    }
+
+    @Benchmark
+    public int roleCodeTyped() {
+        return role.code();
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.junit.jupiter.api.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdGeneratorSeederTest {
+
+    private JdbcTemplate jdbc;
+    private IdGeneratorSeeder seeder;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:idgen;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE id_generators (gen_name VARCHAR(64) PRIMARY KEY, next_val BIGINT NOT NULL)");
+        for (var t : IdGeneratorSeeder.TARGETS) {
+            jdbc.execute("CREATE TABLE " + t.table() + " (" + t.idColumn() + " BIGINT PRIMARY KEY)");
+        }
+        seeder = new IdGeneratorSeeder(jdbc);
+    }
+
+    private long nextVal(String gen) {
+        return jdbc.queryForObject("SELECT next_val FROM id_generators WHERE gen_name = ?", Long.class, gen);
+    }
+
+    @Test
+    @DisplayName("DB dev เดิม (ยังไม่มีแถวใน id_generators) → เริ่มเกิน MAX(id) หนึ่ง allocation")
+    void seedsFromMaxId() {
+        jdbc.update("INSERT INTO expenses VALUES (1), (120)");
+
+        seeder.seed();
+
+        assertThat(nextVal("expenses")).isEqualTo(120 + IdGeneratorSeeder.ALLOCATION + 1);
+        assertThat(nextVal("expense_items")).isEqualTo(IdGeneratorSeeder.ALLOCATION + 1);
+    }
+
+    @Test
+    @DisplayName("Hibernate ใส่ค่าเริ่มต้นต่ำไว้แล้ว → ดันขึ้น; ค่าที่สูงกว่าอยู่แล้ว → ไม่ลด")
+    void raisesButNeverLowers() {
+        jdbc.update("INSERT INTO expenses VALUES (500)");
+        jdbc.update("INSERT INTO id_generators VALUES ('expenses', 1), ('expense_items', 9000)");
+
+        seeder.seed();
+        seeder.seed();
+
+        assertThat(nextVal("expenses")).isEqualTo(500 + IdGeneratorSeeder.ALLOCATION + 1);
+        assertThat(nextVal("expense_items")).isEqualTo(9000);
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartsplit.smartsplitback.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JsonLineEncoderTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final LoggerContext ctx = new LoggerContext();
+    private final JsonLineEncoder encoder = new JsonLineEncoder();
+
+    @BeforeEach
+    void setUp() {
+        ctx.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    private LoggingEvent event(Level level, String msg, Throwable t, Object... args) {
+        return new LoggingEvent("test", ctx.getLogger("com.smartsplit.Test"), level, msg, t, args);
+    }
+
+    private String line(LoggingEvent e) {
+        return new String(encoder.encode(e), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("1 event = JSON 1 บรรทัด, field แบบ logstash + MDC (traceId/spanId)")
+    void logstashFieldsWithMdc() throws Exception {
+        LoggingEvent e = event(Level.INFO, "expense {} created", null, 42);
+        e.setMDCPropertyMap(Map.of("traceId", "4bf92f3577b34da6", "spanId", "00f067aa0ba902b7"));
+
+        String line = line(e);
+        assertThat(line).endsWith("}\n").doesNotContain("\n{");
+
+        JsonNode n = json.readTree(line);
+        assertThat(n.get("@timestamp").asText()).isEqualTo(e.getInstant().toString());
+        assertThat(n.get("level").asText()).isEqualTo("INFO");
+        assertThat(n.get("logger_name").asText()).isEqualTo("com.smartsplit.Test");
+        assertThat(n.get("thread_name").asText()).isEqualTo(e.getThreadName());
+        assertThat(n.get("message").asText()).isEqualTo("expense 42 created");
+        assertThat(n.get("traceId").asText()).isEqualTo("4bf92f3577b34da6");
+        assertThat(n.get("spanId").asText()).isEqualTo("00f067aa0ba902b7");
+        assertThat(n.has("stack_trace")).isFalse();
+    }
+
+    @Test
+    @DisplayName("escape อักขระพิเศษ / ภาษาไทย แล้ว parse กลับได้ตรงเดิม")
+    void escapesSpecialCharacters() throws Exception {
+        String msg = "quote \" backslash \\ tab \t newline \n cr \r bell \u0007 ข้าวมันไก่";
+        JsonNode n = json.readTree(line(event(Level.WARN, msg, null)));
+        assertThat(n.get("message").asText()).isEqualTo(msg);
+    }
+
+    @Test
+    @DisplayName("มี exception → stack_trace อยู่ใน field เดียว (บรรทัดเดียว)")
+    void stackTraceInOneField() throws Exception {
+        String line = line(event(Level.ERROR, "boom", new IllegalStateException("bad state")));
+        assertThat(line.indexOf('\n')).isEqualTo(line.length() - 1);
+
+        JsonNode n = json.readTree(line);
+        assertThat(n.get("level").asText()).isEqualTo("ERROR");
+        assertThat(n.get("stack_trace").asText())
+                .startsWith("java.lang.IllegalStateException: bad state")
+                .contains("JsonLineEncoderTest");
+    }
+}
@@ -0,0 +1,48 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.junit.jupiter.api.*;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeHintsConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("reflection: IterationStatusVar ของ Thymeleaf (${idx.index} ใน template PDF)")
+    void reflectiveLookups() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.thymeleaf.engine.IterationStatusVar"))).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("resource: font, template PDF, config ของ L2 cache และ migration ตรงกับไฟล์ที่มีจริง")
+    void resources() {
+        for (String r : new String[]{
+                "fonts/NotoSansThai-Regular.ttf", "fonts/NotoSansThai-Bold.ttf",
+                "templates/pdf/expense.html", "hibernate-cache.conf", "db/migration/V1__init_schema.sql"}) {
+            assertThat(getClass().getClassLoader().getResource(r)).as(r).isNotNull();
+            assertThat(RuntimeHintsPredicates.resource().forResource(r)).as(r).accepts(hints);
+        }
+    }
+
+    @Test
+    @DisplayName("JDK proxy ของ SqlCountingDataSource")
+    void jdbcProxies() {
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ResultSet.class)).accepts(hints);
+    }
+}
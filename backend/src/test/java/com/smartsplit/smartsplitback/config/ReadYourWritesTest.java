@@ -0,0 +1,137 @@
+package com.smartsplit.smartsplitback.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.*;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadYourWritesTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    private ReadYourWrites ryw;
+
+    @BeforeEach
+    void setUp() {
+        ryw = at(T0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // ThreadLocal ค้างได้ถ้า test ล้มกลาง request
+        ryw.afterCompletion(new MockHttpServletRequest("GET", "/api/x"), new MockHttpServletResponse(), new Object(), null);
+    }
+
+    private static ReadYourWrites at(Instant now) {
+        return new ReadYourWrites(Duration.ofSeconds(5), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static MockHttpServletRequest get(Cookie... cookies) {
+        var req = new MockHttpServletRequest("GET", "/api/expenses/1");
+        if (cookies.length > 0) req.setCookies(cookies);
+        return req;
+    }
+
+    @Test
+    @DisplayName("นอก request (scheduled job / outbox relay) → primary")
+    void backgroundThreadUsesPrimary() {
+        assertThat(ryw.replicaAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("GET ที่ไม่มี cookie → replica, จบ request → กลับเป็น primary")
+    void readRequestUsesReplica() {
+        var req = get();
+        var res = new MockHttpServletResponse();
+
+        ryw.preHandle(req, res, new Object());
+        assertThat(ryw.replicaAllowed()).isTrue();
+        assertThat(res.getHeader("Set-Cookie")).isNull();
+        ryw.afterCompletion(req, res, new Object(), null);
+
+        assertThat(ryw.replicaAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("request แบบ async (SSE) → thread เดิมคืนสู่ pool โดยไม่มีเส้นทางค้าง")
+    void asyncRequestClearsRouteOnOriginalThread() {
+        var req = new MockHttpServletRequest("GET", "/api/me/events");
+        var res = new MockHttpServletResponse();
+
+        ryw.preHandle(req, res, new Object());
+        assertThat(ryw.replicaAllowed()).isTrue();
+        ryw.afterConcurrentHandlingStarted(req, res, new Object());
+
+        assertThat(ryw.replicaAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("request ที่เขียน → primary และได้ cookie เวลาหมด window")
+    void writeRequestPinsPrimaryAndSetsCookie() {
+        var req = new MockHttpServletRequest("PUT", "/api/expenses/1");
+        var res = new MockHttpServletResponse();
+
+        ryw.preHandle(req, res, new Object());
+        assertThat(ryw.replicaAllowed()).isFalse();
+
+        Cookie c = res.getCookie(ReadYourWrites.COOKIE);
+        assertThat(c).isNotNull();
+        assertThat(c.getValue()).isEqualTo(Long.toString(T0.plusSeconds(5).toEpochMilli()));
+        assertThat(c.getMaxAge()).isEqualTo(5);
+        assertThat(c.getPath()).isEqualTo("/api");
+        assertThat(c.isHttpOnly()).isTrue();
+    }
+
+    @Test
+    @DisplayName("cookie ยังไม่หมดเวลา → primary แม้ไปตก instance อื่น, หมดแล้ว → replica")
+    void cookieCarriesWindowAcrossInstances() {
+        var cookie = new Cookie(ReadYourWrites.COOKIE, Long.toString(T0.plusSeconds(5).toEpochMilli()));
+
+        var other = at(T0.plusSeconds(2));
+        other.preHandle(get(cookie), new MockHttpServletResponse(), new Object());
+        assertThat(other.replicaAllowed()).isFalse();
+
+        var later = at(T0.plusSeconds(6));
+        later.preHandle(get(cookie), new MockHttpServletResponse(), new Object());
+        assertThat(later.replicaAllowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("cookie ที่อ่านไม่ได้ → ไม่นับ")
+    void garbageCookieIgnored() {
+        ryw.preHandle(get(new Cookie(ReadYourWrites.COOKIE, "soon")), new MockHttpServletResponse(), new Object());
+        assertThat(ryw.replicaAllowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("executor ที่ใช้ ContextPropagatingTaskDecorator ได้เส้นทางของ request ไปด้วย")
+    void routePropagatesToDecoratedExecutor() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            var decorator = new ContextPropagatingTaskDecorator();
+            ryw.preHandle(get(), new MockHttpServletResponse(), new Object());
+
+            var seen = new AtomicBoolean();
+            CompletableFuture.runAsync(decorator.decorate(() -> seen.set(ryw.replicaAllowed())), pool).get();
+            assertThat(seen).isTrue();
+
+            // หลังงานจบ thread ของ pool ต้องไม่มีค่าค้าง
+            CompletableFuture.runAsync(() -> seen.set(ryw.replicaAllowed()), pool).get();
+            assertThat(seen).isFalse();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
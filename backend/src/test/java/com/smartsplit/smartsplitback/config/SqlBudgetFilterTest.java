@@ -0,0 +1,73 @@
+package com.smartsplit.smartsplitback.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlBudgetFilterTest {
+
+    private SimpleMeterRegistry meters;
+    private SqlBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meters = new SimpleMeterRegistry();
+        filter = new SqlBudgetFilter(meters, 3, 100);
+    }
+
+    // handler จำลอง: execute statement ละ 10 แถว แล้วตั้ง pattern แบบที่ DispatcherServlet ทำ
+    private FilterChain handler(int statements) {
+        return (req, res) -> {
+            for (int i = 0; i < statements; i++) {
+                SqlStats.statement("select * from users where user_id = ?", 1_000_000);
+                for (int r = 0; r < 10; r++) SqlStats.fetch(true, 0);
+            }
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/groups/{id}");
+        };
+    }
+
+    @Test
+    @DisplayName("บันทึก statement / แถว / เวลา DB ต่อ endpoint ด้วย tag method + uri pattern")
+    void recordsPerEndpoint() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/groups/7"), new MockHttpServletResponse(), handler(2));
+
+        var statements = meters.get("http.server.requests.sql.statements")
+                .tag("method", "GET").tag("uri", "/api/groups/{id}").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(meters.get("http.server.requests.sql.rows").summary().totalAmount()).isEqualTo(20);
+        assertThat(meters.get("http.server.requests.sql.time").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(2.0);
+        assertThat(meters.find("http.server.requests.sql.over.budget").counter()).isNull();
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("เกิน budget → นับ over.budget ของ endpoint นั้น")
+    void overBudget() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/groups/7"), new MockHttpServletResponse(), handler(4));
+
+        assertThat(meters.get("http.server.requests.sql.over.budget")
+                .tag("uri", "/api/groups/{id}").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("ไม่มี handler (404) → uri=UNKNOWN และ handler ที่โยน exception ก็ยังปิด scope")
+    void unknownUriAndExceptionStillEndsScope() {
+        var req = new MockHttpServletRequest("GET", "/api/nope");
+        assertThatThrownBy(() -> filter.doFilter(req, new MockHttpServletResponse(), (rq, rs) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meters.get("http.server.requests.sql.statements").tag("uri", "UNKNOWN").summary().count())
+                .isEqualTo(1);
+        assertThat(SqlStats.current()).isNull();
+    }
+}
@@ -0,0 +1,116 @@
+package com.smartsplit.smartsplitback.config;
+
+import org.junit.jupiter.api.*;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlCountingDataSourceTest {
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        var h2 = new DriverManagerDataSource("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(new SqlCountingDataSource(h2));
+        jdbc.execute("CREATE TABLE IF NOT EXISTS t (id INT PRIMARY KEY, name VARCHAR(20))");
+        jdbc.execute("DELETE FROM t");
+        jdbc.batchUpdate("INSERT INTO t VALUES (?, ?)", List.of(
+                new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // scope ค้างบน thread ถ้า test ล้มกลางทาง
+        for (SqlStats s = SqlStats.current(); s != null; s = SqlStats.current()) s.end();
+    }
+
+    @Test
+    @DisplayName("นับ statement, แถวที่อ่าน และ SQL ที่ซ้ำ (ลักษณะ N+1)")
+    void countsStatementsRowsAndRepeats() {
+        SqlStats stats = SqlStats.begin("test");
+        jdbc.queryForList("SELECT id FROM t", Integer.class);
+        for (int id = 1; id <= 3; id++) {
+            jdbc.queryForObject("SELECT name FROM t WHERE id = ?", String.class, id);
+        }
+        stats.end();
+
+        assertThat(stats.statements()).isEqualTo(4);
+        assertThat(stats.rows()).isEqualTo(6);
+        assertThat(stats.dbTime()).isPositive();
+        assertThat(stats.repeated(5)).singleElement().satisfies(e -> {
+            assertThat(e.getKey()).isEqualTo("SELECT name FROM t WHERE id = ?");
+            assertThat(e.getValue()).isEqualTo(3);
+        });
+        assertThat(stats.describe()).contains("4 statements, 6 rows").contains("3x SELECT name FROM t WHERE id = ?");
+    }
+
+    @Test
+    @DisplayName("batch insert นับเป็น 1 statement; นอก scope ไม่นับ")
+    void batchIsOneStatementAndNoScopeIsIgnored() {
+        jdbc.queryForList("SELECT * FROM t"); // ไม่มี scope
+
+        SqlStats stats = SqlStats.begin("batch");
+        jdbc.batchUpdate("UPDATE t SET name = ? WHERE id = ?", List.of(new Object[]{"x", 1}, new Object[]{"y", 2}));
+        stats.end();
+
+        assertThat(stats.statements()).isEqualTo(1);
+        assertThat(stats.rows()).isZero();
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("scope ซ้อน: แม่ได้ยอดรวมของลูก และเห็นลูกแต่ละตัวใน completed()")
+    void nestedScopes() {
+        SqlStats outer = SqlStats.begin("test");
+        for (int i = 0; i < 2; i++) {
+            SqlStats req = SqlStats.begin("GET /x " + i);
+            jdbc.queryForList("SELECT * FROM t");
+            req.end();
+        }
+        jdbc.queryForList("SELECT * FROM t WHERE id = 1");
+        outer.end();
+
+        assertThat(outer.statements()).isEqualTo(3);
+        assertThat(outer.rows()).isEqualTo(7);
+        assertThat(outer.completed()).extracting(SqlStats::name).containsExactly("GET /x 0", "GET /x 1");
+        assertThat(outer.completed()).allSatisfy(s -> {
+            assertThat(s.statements()).isEqualTo(1);
+            assertThat(s.rows()).isEqualTo(3);
+        });
+        assertThat(SqlStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("executor ที่ใช้ ContextPropagatingTaskDecorator: query บน thread อื่นนับเข้า scope ของผู้เรียก")
+    void propagatesToDecoratedExecutor() throws Exception {
+        var ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(4);
+        ex.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        ex.initialize();
+        try {
+            SqlStats stats = SqlStats.begin("GET /dashboard");
+            List<CompletableFuture<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(CompletableFuture.runAsync(() -> jdbc.queryForList("SELECT * FROM t"), ex));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get();
+            stats.end();
+
+            assertThat(stats.statements()).isEqualTo(8);
+            assertThat(stats.rows()).isEqualTo(24);
+
+            // thread ของ pool ไม่มี scope ค้างหลังงานจบ
+            assertThat(CompletableFuture.supplyAsync(SqlStats::current, ex).get()).isNull();
+        } finally {
+            ex.shutdown();
+        }
+    }
+}
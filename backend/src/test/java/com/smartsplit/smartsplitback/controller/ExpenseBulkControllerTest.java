@@ -0,0 +1,160 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.security.JwtAuthFilter;
+import com.smartsplit.smartsplitback.security.JwtService;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.ExchangeRateService;
+import com.smartsplit.smartsplitback.service.ExpenseBulkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExpenseBulkController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({
+        ExpenseBulkControllerTest.MethodSecurityTestConfig.class,
+        ExpenseBulkControllerTest.MethodSecurityExceptionAdvice.class
+})
+class ExpenseBulkControllerTest {
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurityTestConfig {}
+
+    @RestControllerAdvice
+    static class MethodSecurityExceptionAdvice {
+        @ExceptionHandler(AuthorizationDeniedException.class)
+        @ResponseStatus(HttpStatus.FORBIDDEN)
+        void handle() {}
+    }
+
+    @Autowired MockMvc mockMvc;
+
+    @MockitoBean ExpenseBulkService bulk;
+    @MockitoBean ExchangeRateService fx;
+    @MockitoBean JwtAuthFilter jwtAuthFilter;
+    @MockitoBean JwtService jwtService;
+
+    @MockitoBean(name = "perm", answers = Answers.RETURNS_DEFAULTS)
+    Perms perm;
+
+    private static final String BODY = """
+            {"groupId":10,"payerUserId":1,"title":"Dinner","type":"CUSTOM",
+             "items":[{"name":"Pizza","amount":300,"currency":"THB",
+                       "shares":[{"participantUserId":1,"shareValue":100},
+                                 {"participantUserId":2,"sharePercent":50}]}]}
+            """;
+
+    @BeforeEach
+    void setup() {
+        when(perm.canCreateExpenseInGroup(anyLong())).thenReturn(true);
+        when(fx.getRatesToThb(any())).thenReturn(Map.of("THB", BigDecimal.ONE));
+        when(fx.toThb(anyString(), any(), anyMap())).thenAnswer(inv -> inv.getArgument(1));
+    }
+
+    private static Expense built() {
+        Group g = new Group(); g.setId(10L);
+        User payer = new User(); payer.setId(1L);
+        User u2 = new User(); u2.setId(2L);
+
+        Expense e = new Expense();
+        e.setId(500L);
+        e.setGroup(g);
+        e.setPayer(payer);
+        e.setTitle("Dinner");
+        e.setAmount(new BigDecimal("300.00"));
+
+        ExpenseItem it = new ExpenseItem();
+        it.setId(600L);
+        it.setName("Pizza");
+        it.setAmount(new BigDecimal("300.00"));
+        e.addItem(it);
+
+        ExpenseItemShare s1 = new ExpenseItemShare();
+        s1.setId(700L); s1.setExpenseItem(it); s1.setParticipant(payer); s1.setShareValue(new BigDecimal("100"));
+        ExpenseItemShare s2 = new ExpenseItemShare();
+        s2.setId(701L); s2.setExpenseItem(it); s2.setParticipant(u2);
+        s2.setShareValue(new BigDecimal("150")); s2.setSharePercent(new BigDecimal("50"));
+        it.getShares().add(s1);
+        it.getShares().add(s2);
+        return e;
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/full -> 201 พร้อม expense/items/shares")
+    void createFull_created() throws Exception {
+        when(bulk.createFull(any())).thenReturn(built());
+
+        mockMvc.perform(post("/api/expenses/full")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.expense.id").value(500))
+                .andExpect(jsonPath("$.expense.groupId").value(10))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(600))
+                .andExpect(jsonPath("$.items[0].expenseId").value(500))
+                .andExpect(jsonPath("$.items[0].amountThb").value(300.00))
+                .andExpect(jsonPath("$.shares", hasSize(2)))
+                .andExpect(jsonPath("$.shares[1].participantUserId").value(2))
+                .andExpect(jsonPath("$.shares[1].sharePercent").value(50));
+
+        verify(bulk).createFull(argThat(r -> r.groupId() == 10L && r.items().size() == 1
+                && r.items().get(0).shares().size() == 2));
+    }
+
+    @Test
+    @DisplayName("ไม่มีสิทธิ์สร้างใน group -> 403 และไม่เรียก service")
+    void createFull_forbidden() throws Exception {
+        when(perm.canCreateExpenseInGroup(10L)).thenReturn(false);
+
+        mockMvc.perform(post("/api/expenses/full")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(bulk);
+    }
+
+    @Test
+    @DisplayName("service โยน 400 -> ส่งต่อเป็น 400")
+    void createFull_badRequest() throws Exception {
+        when(bulk.createFull(any()))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "title is required"));
+
+        mockMvc.perform(post("/api/expenses/full")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isBadRequest());
+    }
+}
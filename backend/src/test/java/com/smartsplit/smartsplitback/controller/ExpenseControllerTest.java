@@ -2,7 +2,9 @@ package com.smartsplit.smartsplitback.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartsplit.smartsplitback.model.*;
+import com.smartsplit.smartsplitback.model.dto.ExpenseArchiveDocument;
 import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseView;
 import com.smartsplit.smartsplitback.model.dto.ExpenseItemDto;
 import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
@@ -38,6 +40,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
@@ -84,6 +88,8 @@ class ExpenseControllerTest {
     @MockitoBean ExpenseSettlementService settlementService;
     @MockitoBean ExpenseExportService exportService;
     @MockitoBean ExchangeRateService fx;
+    @MockitoBean IdempotencyService idempotency;
+    @MockitoBean ExpenseArchiveService archive;
     @MockitoBean ExpenseRepository expenseRepository;
 
     @MockitoBean JwtAuthFilter jwtAuthFilter;
@@ -111,6 +117,8 @@ class ExpenseControllerTest {
         when(perm.canManageExpenseItem(anyLong(), anyLong())).thenReturn(true);
         when(perm.canManageExpenseShare(anyLong(), anyLong(), anyLong())).thenReturn(true);
         when(perm.currentUserId()).thenReturn(999L);
+        when(idempotency.execute(any(), any(), any(), any(), any(), any())).thenAnswer(inv ->
+                new IdempotencyService.Outcome<>(inv.<Supplier<?>>getArgument(5).get(), false));
 
         g = new Group();
         g.setId(10L);
@@ -193,7 +201,28 @@ class ExpenseControllerTest {
         mockMvc.perform(get("/api/expenses/100"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(100))
-                .andExpect(jsonPath("$.title").value("Dinner"));
+                .andExpect(jsonPath("$.title").value("Dinner"))
+                .andExpect(jsonPath("$.archived").value(false));
+    }
+
+    @Test @DisplayName("GET /api/expenses/{id} -> ETag จาก revision")
+    void get_by_id_etag() throws Exception {
+        when(expenses.revision(100L)).thenReturn(3L);
+        when(expenses.get(100L)).thenReturn(e);
+
+        mockMvc.perform(get("/api/expenses/100"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"expense-100-r3\""));
+    }
+
+    @Test @DisplayName("GET /api/expenses/{id} -> 304 เมื่อ If-None-Match ตรง revision (ไม่โหลด expense)")
+    void get_by_id_not_modified() throws Exception {
+        when(expenses.revision(100L)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/expenses/100").header("If-None-Match", "W/\"expense-100-r3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(expenses, never()).get(anyLong());
     }
 
     @Test @DisplayName("GET /api/expenses/{id} -> 404 when not found")
@@ -204,13 +233,77 @@ class ExpenseControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test @DisplayName("GET /api/expenses/{id} -> ไม่อยู่ในตาราง hot แต่อยู่ใน archive → อ่านจาก archive")
+    void get_by_id_archived() throws Exception {
+        when(expenses.get(100L)).thenReturn(null);
+        when(archive.get(100L)).thenReturn(new ExpenseDto(100L, 10L, 20L, new BigDecimal("123.45"),
+                ExpenseType.EQUAL, "Dinner", ExpenseStatus.SETTLED, LocalDateTime.of(2024, 1, 2, 3, 4, 5)));
+
+        mockMvc.perform(get("/api/expenses/100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(100))
+                .andExpect(jsonPath("$.status").value("COMPLETE"))
+                .andExpect(jsonPath("$.title").value("Dinner"))
+                .andExpect(jsonPath("$.archived").value(true));
+    }
+
+    @Test @DisplayName("GET /api/expenses/{id}/archive -> เอกสารเต็ม / 404 เมื่อไม่ได้ archive")
+    void get_archive_document() throws Exception {
+        var dto = new ExpenseDto(100L, 10L, 20L, new BigDecimal("123.45"),
+                ExpenseType.EQUAL, "Dinner", ExpenseStatus.SETTLED, LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        when(archive.document(100L)).thenReturn(new ExpenseArchiveDocument(dto, "{\"THB\":1}", null, null,
+                List.of(new ExpenseItemDto(1001L, 100L, "Burger", new BigDecimal("10.00"), "THB", null, 0L)),
+                List.of(), List.of()));
+
+        mockMvc.perform(get("/api/expenses/100/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.expense.id").value(100))
+                .andExpect(jsonPath("$.items[0].name").value("Burger"));
+
+        mockMvc.perform(get("/api/expenses/101/archive"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test @DisplayName("GET /api/expenses/group/{groupId}/archived -> สรุป expense ที่ archive ของ group")
+    void list_archived_by_group() throws Exception {
+        when(archive.listByGroup(10L)).thenReturn(List.of(new ExpenseDto(100L, 10L, 20L, new BigDecimal("123.45"),
+                ExpenseType.EQUAL, "Dinner", ExpenseStatus.SETTLED, LocalDateTime.of(2024, 1, 2, 3, 4, 5))));
+
+        mockMvc.perform(get("/api/expenses/group/10/archived"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(100));
+    }
+
     @Test @DisplayName("GET /api/expenses/group/{groupId} -> listByGroupForMember")
     void listByGroupForMember() throws Exception {
-        when(expenses.listByGroup(10L)).thenReturn(List.of(e));
+        when(expenses.streamByGroup(10L)).thenReturn(Stream.of(ExpenseView.of(ExpenseDto.fromEntity(e), () -> false)));
 
         mockMvc.perform(get("/api/expenses/group/10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].groupId").value(10));
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].groupId").value(10))
+                .andExpect(jsonPath("$[0].title").value("Dinner"))
+                .andExpect(jsonPath("$[0].createdAt").value("2024-01-02T03:04:05"));
+    }
+
+    @Test @DisplayName("GET /api/expenses/group/{groupId} -> สถานะตามที่ service คำนวณต่อหน้า ไม่ query ยอดจ่ายต่อ expense")
+    void listByGroupForMember_status_from_service() throws Exception {
+        var paid = new ExpenseDto(100L, 10L, 20L, new BigDecimal("30.00"), ExpenseType.EQUAL, "Paid",
+                ExpenseStatus.SETTLED, LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        var open = new ExpenseDto(102L, 10L, 20L, new BigDecimal("30.00"), ExpenseType.EQUAL, "Open",
+                ExpenseStatus.OPEN, LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        when(expenses.streamByGroup(10L)).thenReturn(Stream.of(ExpenseView.of(paid, () -> true), ExpenseView.of(open, () -> false)));
+
+        mockMvc.perform(get("/api/expenses/group/10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("COMPLETE"))
+                .andExpect(jsonPath("$[1].status").value("OPEN"));
+
+        verifyNoInteractions(paymentService, settlementService);
+        verify(expenses, never()).get(anyLong());
     }
 
     @Test @DisplayName("POST /api/expenses -> create (lock FX rates)")
@@ -662,7 +755,7 @@ class ExpenseControllerTest {
         updated.setAmount(new BigDecimal("60.00"));
         updated.setCurrency("THB");
 
-        when(itemService.updateInExpense(100L, 1003L, "Water+Ice", new BigDecimal("60.00"), "THB")).thenReturn(updated);
+        when(itemService.updateInExpense(100L, 1003L, "Water+Ice", new BigDecimal("60.00"), "THB", null)).thenReturn(updated);
         Map<String, BigDecimal> rates = Map.of("THB", BigDecimal.ONE);
         when(fx.getRatesToThb(e)).thenReturn(rates);
         when(fx.toThb("THB", new BigDecimal("60.00"), rates)).thenReturn(new BigDecimal("60.00"));
@@ -140,6 +140,28 @@ class ExpenseItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/expenses/{expenseId}/items -> 304 เมื่อ revision ไม่เปลี่ยน (ไม่แตะ items)")
+    void list_items_not_modified() throws Exception {
+        when(expenses.findRevisionById(100L)).thenReturn(7L);
+
+        mockMvc.perform(get("/api/expenses/100/items").header("If-None-Match", "W/\"expense-100-r7\""))
+                .andExpect(status().isNotModified());
+        verify(items, never()).listByExpense(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses/{expenseId}/items -> revision เปลี่ยน → 200 + ETag ใหม่")
+    void list_items_modified() throws Exception {
+        when(expenses.findRevisionById(100L)).thenReturn(8L);
+        when(items.listByExpense(100L)).thenReturn(List.of(itemThb));
+
+        mockMvc.perform(get("/api/expenses/100/items").header("If-None-Match", "W/\"expense-100-r7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"expense-100-r8\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     @DisplayName("GET /api/expenses/{expenseId}/items/{itemId} -> get one with amountThb")
     void get_one() throws Exception {
@@ -242,7 +264,7 @@ class ExpenseItemControllerTest {
         updated.setCurrency("USD");
         ExpenseItem.class.getMethod("setExpense", Expense.class).invoke(updated, parent);
 
-        when(items.updateInExpense(100L, 200L, "Cola (L)", new BigDecimal("15.00"), "USD")).thenReturn(updated);
+        when(items.updateInExpense(100L, 200L, "Cola (L)", new BigDecimal("15.00"), "USD", null)).thenReturn(updated);
 
         mockMvc.perform(put("/api/expenses/100/items/200")
                         .param("name", "Cola (L)")
@@ -271,7 +293,7 @@ class ExpenseItemControllerTest {
     @Test
     @DisplayName("PUT update -> 404 when item not in expense")
     void update_item_not_found_in_expense() throws Exception {
-        when(items.updateInExpense(100L, 999L, "X", new BigDecimal("1.00"), null)).thenReturn(null);
+        when(items.updateInExpense(100L, 999L, "X", new BigDecimal("1.00"), null, null)).thenReturn(null);
 
         mockMvc.perform(put("/api/expenses/100/items/999")
                         .param("name", "X")
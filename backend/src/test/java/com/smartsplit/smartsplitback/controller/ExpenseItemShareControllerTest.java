@@ -7,6 +7,7 @@ import com.smartsplit.smartsplitback.security.JwtAuthFilter;
 import com.smartsplit.smartsplitback.security.JwtService;
 import com.smartsplit.smartsplitback.security.Perms;
 import com.smartsplit.smartsplitback.service.ExpenseItemShareService;
+import com.smartsplit.smartsplitback.service.ExpenseService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -60,6 +61,7 @@ class ExpenseItemShareControllerTest {
     @Autowired MockMvc mockMvc;
 
     @MockitoBean ExpenseItemShareService shares;
+    @MockitoBean ExpenseService expenses;
     @MockitoBean JwtAuthFilter jwtAuthFilter;
     @MockitoBean JwtService jwtService;
 
@@ -211,7 +213,7 @@ class ExpenseItemShareControllerTest {
     @Test
     @DisplayName("PUT update share (percent 12.5) -> 200 และสะท้อนค่า THB ตาม service")
     void update_percent_mid() throws Exception {
-        when(shares.updateShareInExpense(eq(100L), eq(200L), eq(300L), isNull(), any(BigDecimal.class)))
+        when(shares.updateShareInExpense(eq(100L), eq(200L), eq(300L), isNull(), any(BigDecimal.class), isNull()))
                 .thenReturn(share(300L, 200L, 5L,
                         new BigDecimal("24.50"), new BigDecimal("12.50")));
 
@@ -229,7 +231,7 @@ class ExpenseItemShareControllerTest {
     @Test
     @DisplayName("PUT update share (value 12.345 -> ปัดใน service) -> 200")
     void update_value_scale() throws Exception {
-        when(shares.updateShareInExpense(eq(100L), eq(200L), eq(300L), any(BigDecimal.class), isNull()))
+        when(shares.updateShareInExpense(eq(100L), eq(200L), eq(300L), any(BigDecimal.class), isNull(), isNull()))
                 .thenReturn(share(300L, 200L, 5L,
                         new BigDecimal("447.19"), null));
 
@@ -367,7 +369,7 @@ class ExpenseItemShareControllerTest {
     @Test
     @DisplayName("PUT update share -> 404 เมื่อ service แจ้งไม่พบ share")
     void update_not_found_from_service() throws Exception {
-        when(shares.updateShareInExpense(eq(100L), eq(200L), eq(300L), any(BigDecimal.class), isNull()))
+        when(shares.updateShareInExpense(eq(100L), eq(200L), eq(300L), any(BigDecimal.class), isNull(), isNull()))
                 .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Share not found in this expense/item"));
 
         mockMvc.perform(
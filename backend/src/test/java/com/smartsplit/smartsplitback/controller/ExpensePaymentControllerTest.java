@@ -6,11 +6,17 @@ import com.smartsplit.smartsplitback.model.ExpensePayment;
 import com.smartsplit.smartsplitback.model.PaymentReceipt;
 import com.smartsplit.smartsplitback.model.PaymentStatus;
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpensePaymentDto;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkRequest;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkResult;
 import com.smartsplit.smartsplitback.security.JwtAuthFilter;
 import com.smartsplit.smartsplitback.security.JwtService;
 import com.smartsplit.smartsplitback.security.Perms;
 import com.smartsplit.smartsplitback.service.ExpensePaymentService;
+import com.smartsplit.smartsplitback.service.ExpenseService;
 import com.smartsplit.smartsplitback.service.FileStorageService;
+import com.smartsplit.smartsplitback.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
@@ -29,14 +35,20 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -67,6 +79,8 @@ class ExpensePaymentControllerTest {
 
     @MockitoBean ExpensePaymentService payments;
     @MockitoBean FileStorageService storage;
+    @MockitoBean ExpenseService expenses;
+    @MockitoBean IdempotencyService idempotency;
 
 
     @MockitoBean JwtAuthFilter jwtAuthFilter;
@@ -76,6 +90,12 @@ class ExpensePaymentControllerTest {
     @MockitoBean(name = "perm", answers = Answers.RETURNS_DEFAULTS)
     Perms perm;
 
+    @BeforeEach
+    void passThroughIdempotency() {
+        when(idempotency.execute(any(), any(), any(), any(), any(), any())).thenAnswer(inv ->
+                new IdempotencyService.Outcome<>(inv.<Supplier<?>>getArgument(5).get(), false));
+    }
+
     private static ExpensePayment payment(Long id, long fromUserId, BigDecimal amount, PaymentStatus status) {
         var p = new ExpensePayment();
         p.setId(id);
@@ -111,6 +131,22 @@ class ExpensePaymentControllerTest {
                 .andExpect(jsonPath("$[1].status").value("VERIFIED"));
     }
 
+    @Test
+    @DisplayName("GET /api/expenses/{expenseId}/payments -> ETag จาก revision, If-None-Match ตรง → 304")
+    void list_payments_conditional() throws Exception {
+        when(perm.canViewExpense(55L)).thenReturn(true);
+        when(expenses.revision(55L)).thenReturn(4L);
+        when(payments.listByExpense(55L)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/expenses/55/payments"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"expense-55-r4\""));
+
+        mockMvc.perform(get("/api/expenses/55/payments").header("If-None-Match", "W/\"expense-55-r4\""))
+                .andExpect(status().isNotModified());
+        verify(payments, times(1)).listByExpense(55L);
+    }
+
     @Test
     @DisplayName("GET /api/expenses/{expenseId}/payments/{paymentId} -> get in expense (found, 200)")
     void get_payment_found() throws Exception {
@@ -208,7 +244,7 @@ class ExpensePaymentControllerTest {
         when(perm.canManageExpense(55L)).thenReturn(true);
 
         var updated = payment(200L, 70L, new BigDecimal("10.00"), PaymentStatus.VERIFIED);
-        when(payments.setStatusInExpense(55L, 200L, PaymentStatus.VERIFIED)).thenReturn(updated);
+        when(payments.setStatusInExpense(55L, 200L, PaymentStatus.VERIFIED, null)).thenReturn(updated);
 
         mockMvc.perform(
                         put("/api/expenses/55/payments/200/status")
@@ -219,6 +255,112 @@ class ExpensePaymentControllerTest {
                 .andExpect(jsonPath("$.status").value("VERIFIED"));
     }
 
+    @Test
+    @DisplayName("PUT .../{paymentId}/status + If-Match → ส่ง version ให้ service, version ไม่ตรง → 412")
+    void set_status_ifMatch_mismatch_412() throws Exception {
+        when(perm.canManageExpense(55L)).thenReturn(true);
+        when(payments.setStatusInExpense(55L, 200L, PaymentStatus.VERIFIED, 3L))
+                .thenThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Version mismatch: expected 3 but was 4"));
+
+        mockMvc.perform(put("/api/expenses/55/payments/200/status")
+                        .param("status", "VERIFIED")
+                        .header("If-Match", "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(payments).setStatusInExpense(55L, 200L, PaymentStatus.VERIFIED, 3L);
+    }
+
+    @Test
+    @DisplayName("ETag จาก GET ส่งกลับเป็น If-Match ของ PUT → ผ่าน; revision เปลี่ยนไปแล้ว → 412 ไม่เรียก service")
+    void set_status_ifMatch_etag_from_get() throws Exception {
+        when(perm.canViewExpense(55L)).thenReturn(true);
+        when(perm.canManageExpense(55L)).thenReturn(true);
+        when(expenses.revision(55L)).thenReturn(4L);
+        when(payments.listByExpense(55L)).thenReturn(List.of());
+        when(payments.setStatusInExpense(55L, 200L, PaymentStatus.VERIFIED, null))
+                .thenReturn(payment(200L, 77L, new BigDecimal("10.00"), PaymentStatus.VERIFIED));
+
+        String etag = mockMvc.perform(get("/api/expenses/55/payments"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/api/expenses/55/payments/200/status")
+                        .param("status", "VERIFIED")
+                        .header("If-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("VERIFIED"));
+        verify(payments).setStatusInExpense(55L, 200L, PaymentStatus.VERIFIED, null);
+
+        when(expenses.revision(55L)).thenReturn(5L);
+        mockMvc.perform(put("/api/expenses/55/payments/200/status")
+                        .param("status", "VERIFIED")
+                        .header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed());
+        verify(payments, times(1)).setStatusInExpense(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("If-Match เป็น ETag ของ expense อื่น → 412")
+    void set_status_ifMatch_etag_other_expense_412() throws Exception {
+        when(perm.canManageExpense(55L)).thenReturn(true);
+        when(expenses.revision(55L)).thenReturn(4L);
+
+        mockMvc.perform(put("/api/expenses/55/payments/200/status")
+                        .param("status", "VERIFIED")
+                        .header("If-Match", "W/\"expense-56-r4\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(payments, never()).setStatusInExpense(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT .../{paymentId}/status + If-Match ไม่ใช่ตัวเลข → 400")
+    void set_status_ifMatch_invalid_400() throws Exception {
+        when(perm.canManageExpense(55L)).thenReturn(true);
+
+        mockMvc.perform(put("/api/expenses/55/payments/200/status")
+                        .param("status", "VERIFIED")
+                        .header("If-Match", "\"abc\""))
+                .andExpect(status().isBadRequest());
+
+        verify(payments, never()).setStatusInExpense(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/expenses/{expenseId}/payments/status → bulk คืน updated/conflicts/notFound")
+    void set_status_bulk() throws Exception {
+        when(perm.canManageExpense(55L)).thenReturn(true);
+        var items = List.of(new PaymentStatusBulkRequest.Item(1L, 0L),
+                new PaymentStatusBulkRequest.Item(2L, 1L),
+                new PaymentStatusBulkRequest.Item(3L, 0L));
+        when(payments.setStatusesInExpense(55L, PaymentStatus.VERIFIED, items)).thenReturn(
+                new PaymentStatusBulkResult(PaymentStatus.VERIFIED, List.of(1L),
+                        List.of(new PaymentStatusBulkResult.Conflict(2L, 1L, 2L)), List.of(3L)));
+
+        mockMvc.perform(put("/api/expenses/55/payments/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new PaymentStatusBulkRequest(PaymentStatus.VERIFIED, items))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", hasSize(1)))
+                .andExpect(jsonPath("$.conflicts[0].id").value(2))
+                .andExpect(jsonPath("$.conflicts[0].currentVersion").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(3));
+    }
+
+    @Test
+    @DisplayName("PUT /api/expenses/{expenseId}/payments/status → 403 เมื่อไม่ใช่ผู้จัดการ expense")
+    void set_status_bulk_forbidden() throws Exception {
+        when(perm.canManageExpense(55L)).thenReturn(false);
+
+        mockMvc.perform(put("/api/expenses/55/payments/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"VERIFIED\",\"payments\":[{\"id\":1,\"version\":0}]}"))
+                .andExpect(status().isForbidden());
+
+        verify(payments, never()).setStatusesInExpense(any(), any(), any());
+    }
+
     @Test
     @DisplayName("DELETE /api/expenses/{expenseId}/payments/{paymentId} -> 204")
     void delete_payment() throws Exception {
@@ -265,6 +407,35 @@ class ExpensePaymentControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("POST /api/expenses/{expenseId}/payments ซ้ำด้วย Idempotency-Key เดิม -> ได้ผลเดิม + Idempotent-Replayed, ไม่สร้าง/อัปโหลดซ้ำ")
+    void create_payment_replayed() throws Exception {
+        when(perm.canSubmitPayment(55L, 42L)).thenReturn(true);
+        when(perm.currentUserId()).thenReturn(42L);
+        var stored = new ExpensePaymentDto(100L, 55L, 42L, new BigDecimal("88.00"), PaymentStatus.PENDING,
+                null, null, 7L, "http://files/payment-100.png", 0L);
+        doReturn(new IdempotencyService.Outcome<>(stored, true))
+                .when(idempotency).execute(eq("k-1"), eq(42L), eq("POST /api/expenses/{id}/payments"), anyString(),
+                        eq(ExpensePaymentDto.class), any());
+
+        var receipt = new MockMultipartFile("receipt", "slip.png", "image/png", new byte[]{1, 2, 3});
+        mockMvc.perform(
+                        multipart("/api/expenses/55/payments")
+                                .file(receipt)
+                                .param("fromUserId", "42")
+                                .param("amount", "88.00")
+                                .header(IdempotencyService.HEADER, "k-1")
+                                .contentType(MediaType.MULTIPART_FORM_DATA)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(100))
+                .andExpect(jsonPath("$.receiptFileUrl").value("http://files/payment-100.png"));
+
+        verify(payments, never()).create(any(), any(), any());
+        verify(storage, never()).save(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("PUT /api/expenses/{expenseId}/payments/{paymentId}/status -> 403 เมื่อไม่มีสิทธิ์ manage")
     void set_status_forbidden_whenCannotManage() throws Exception {
@@ -6,6 +6,7 @@ import com.smartsplit.smartsplitback.security.JwtAuthFilter;
 import com.smartsplit.smartsplitback.security.JwtService;
 import com.smartsplit.smartsplitback.security.Perms;
 import com.smartsplit.smartsplitback.service.ExpenseItemShareService;
+import com.smartsplit.smartsplitback.service.ExpenseService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
@@ -27,6 +28,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -61,6 +65,18 @@ class ExpenseSharesQueryControllerTest {
     Perms perm;
 
     @MockitoBean ExpenseItemShareService shares;
+    @MockitoBean ExpenseService expenses;
+
+    @Test
+    @DisplayName("GET /api/expenses/{expenseId}/shares -> 304 เมื่อ If-None-Match ตรง revision")
+    void listByExpense_notModified() throws Exception {
+        when(perm.canViewExpense(55L)).thenReturn(true);
+        when(expenses.revision(55L)).thenReturn(2L);
+
+        mockMvc.perform(get("/api/expenses/55/shares").header("If-None-Match", "W/\"expense-55-r2\""))
+                .andExpect(status().isNotModified());
+        verify(shares, never()).listByExpense(anyLong());
+    }
 
     @Test
     @DisplayName("GET /api/expenses/{expenseId}/shares -> 200 OK เมื่อมีสิทธิ์")
@@ -0,0 +1,131 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.security.JwtAuthFilter;
+import com.smartsplit.smartsplitback.security.JwtService;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.ExpenseSplitService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExpenseSplitController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({
+        ExpenseSplitControllerTest.MethodSecurityTestConfig.class,
+        ExpenseSplitControllerTest.MethodSecurityExceptionAdvice.class
+})
+class ExpenseSplitControllerTest {
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurityTestConfig {}
+
+    @RestControllerAdvice
+    static class MethodSecurityExceptionAdvice {
+        @ExceptionHandler(AuthorizationDeniedException.class)
+        @ResponseStatus(HttpStatus.FORBIDDEN)
+        void handle() {}
+    }
+
+    @Autowired MockMvc mockMvc;
+
+    @MockitoBean ExpenseSplitService splits;
+    @MockitoBean JwtAuthFilter jwtAuthFilter;
+    @MockitoBean JwtService jwtService;
+
+    @MockitoBean(name = "perm", answers = Answers.RETURNS_DEFAULTS)
+    Perms perm;
+
+    @BeforeEach
+    void setup() {
+        when(perm.canManageExpense(anyLong())).thenReturn(true);
+    }
+
+    private static ExpenseItemShare share(long id, long itemId, long userId, String thb) {
+        ExpenseItem it = new ExpenseItem();
+        it.setId(itemId);
+        User u = new User();
+        u.setId(userId);
+        ExpenseItemShare s = new ExpenseItemShare();
+        s.setId(id);
+        s.setExpenseItem(it);
+        s.setParticipant(u);
+        s.setShareValue(new BigDecimal(thb));
+        return s;
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/{id}/split?mode=EQUAL (ไม่มี body) -> 200 พร้อม shares")
+    void equal_noBody() throws Exception {
+        when(splits.split(eq(100L), eq(ExpenseType.EQUAL), isNull(), isNull(), isNull()))
+                .thenReturn(List.of(share(1L, 200L, 5L, "50"), share(2L, 200L, 6L, "50")));
+
+        mockMvc.perform(post("/api/expenses/100/split").param("mode", "EQUAL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].expenseItemId").value(200))
+                .andExpect(jsonPath("$[1].participantUserId").value(6));
+    }
+
+    @Test
+    @DisplayName("PERCENTAGE + itemId + body percents -> ส่งต่อให้ service ครบ")
+    void percentage_withBody() throws Exception {
+        when(splits.split(anyLong(), any(), any(), any(), any())).thenReturn(List.of());
+
+        mockMvc.perform(post("/api/expenses/100/split")
+                        .param("mode", "PERCENTAGE")
+                        .param("itemId", "200")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"percents\":{\"5\":70,\"6\":30}}"))
+                .andExpect(status().isOk());
+
+        verify(splits).split(eq(100L), eq(ExpenseType.PERCENTAGE), eq(200L), isNull(),
+                eq(Map.of(5L, new BigDecimal("70"), 6L, new BigDecimal("30"))));
+    }
+
+    @Test
+    @DisplayName("mode ไม่ถูกต้อง -> 400")
+    void invalidMode() throws Exception {
+        mockMvc.perform(post("/api/expenses/100/split").param("mode", "HALF"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(splits);
+    }
+
+    @Test
+    @DisplayName("ไม่มีสิทธิ์จัดการ expense -> 403")
+    void forbidden() throws Exception {
+        when(perm.canManageExpense(100L)).thenReturn(false);
+        mockMvc.perform(post("/api/expenses/100/split").param("mode", "EQUAL"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(splits);
+    }
+}
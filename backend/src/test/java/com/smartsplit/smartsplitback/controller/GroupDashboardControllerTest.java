@@ -0,0 +1,151 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.model.dto.GroupDashboardDto;
+import com.smartsplit.smartsplitback.model.dto.GroupDto;
+import com.smartsplit.smartsplitback.model.dto.UserPublicDto;
+import com.smartsplit.smartsplitback.security.JwtAuthFilter;
+import com.smartsplit.smartsplitback.security.JwtService;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.GroupDashboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(GroupDashboardController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({
+        GroupDashboardControllerTest.MethodSecurityTestConfig.class,
+        GroupDashboardControllerTest.MethodSecurityExceptionAdvice.class
+})
+class GroupDashboardControllerTest {
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurityTestConfig {}
+
+    @RestControllerAdvice
+    static class MethodSecurityExceptionAdvice {
+        @ExceptionHandler(AuthorizationDeniedException.class)
+        @ResponseStatus(HttpStatus.FORBIDDEN)
+        void handle() {}
+    }
+
+    @Autowired MockMvc mockMvc;
+
+    @MockitoBean GroupDashboardService dashboards;
+    @MockitoBean JwtAuthFilter jwtAuthFilter;
+    @MockitoBean JwtService jwtService;
+
+    @MockitoBean(name = "perm", answers = Answers.RETURNS_DEFAULTS)
+    Perms perm;
+
+    @BeforeEach
+    void setup() {
+        when(perm.isGroupMember(anyLong())).thenReturn(true);
+        when(perm.currentUserId()).thenReturn(1L);
+        when(dashboards.revision(10L)).thenReturn("3-1.100.5");
+        when(dashboards.dashboard(10L, 1L)).thenReturn(sample());
+    }
+
+    private static GroupDashboardDto sample() {
+        var expense = new ExpenseDto(100L, 10L, 2L, new BigDecimal("90.00"), ExpenseType.EQUAL,
+                "Dinner", ExpenseStatus.OPEN, null);
+        var line = new GroupDashboardDto.ExpenseLine(expense, "OPEN",
+                new BigDecimal("90.00"), new BigDecimal("0.00"), false,
+                new ExpenseSettlementDto(100L, 1L, new BigDecimal("30.00"), new BigDecimal("0.00"), false, new BigDecimal("30.00")));
+        return new GroupDashboardDto(
+                new GroupDto(10L, 2L, "Trip", null, 2L),
+                List.of(new UserPublicDto(1L, "a@x.com", "A", null, null),
+                        new UserPublicDto(2L, "b@x.com", "B", null, null)),
+                List.of(line),
+                new GroupDashboardDto.Position(1L, new BigDecimal("30.00"), new BigDecimal("0.00"), new BigDecimal("-30.00")));
+    }
+
+    @Test
+    @DisplayName("GET dashboard → 200 + ETag + body ครบ")
+    void ok() throws Exception {
+        mockMvc.perform(get("/api/groups/10/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"dashboard-10-r3-1.100.5-u1\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.group.id").value(10))
+                .andExpect(jsonPath("$.members", hasSize(2)))
+                .andExpect(jsonPath("$.expenses[0].mySettlement.remaining").value(30.00))
+                .andExpect(jsonPath("$.position.net").value(-30.00));
+    }
+
+    @Test
+    @DisplayName("If-None-Match ตรงกับ ETag เดิม → 304 ไม่มี body และไม่คำนวณ dashboard")
+    void notModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/groups/10/dashboard"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(dashboards);
+
+        mockMvc.perform(get("/api/groups/10/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(dashboards, never()).dashboard(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("revision เปลี่ยน (มีการแก้ใน group) → ETag ใหม่ ได้ 200")
+    void modifiedAfterRevisionChange() throws Exception {
+        String etag = mockMvc.perform(get("/api/groups/10/dashboard"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(dashboards.revision(10L)).thenReturn("3-1.100.6");
+
+        mockMvc.perform(get("/api/groups/10/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"dashboard-10-r3-1.100.6-u1\""));
+    }
+
+    @Test
+    @DisplayName("ผู้เรียกต่างกัน → ETag ต่างกัน (position/mySettlement ต่อผู้ใช้)")
+    void etagPerCaller() throws Exception {
+        when(perm.currentUserId()).thenReturn(2L);
+        when(dashboards.dashboard(10L, 2L)).thenReturn(sample());
+
+        mockMvc.perform(get("/api/groups/10/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"dashboard-10-r3-1.100.5-u2\""));
+    }
+
+    @Test
+    @DisplayName("ไม่ใช่สมาชิก group → 403 และไม่เรียก service")
+    void forbidden() throws Exception {
+        when(perm.isGroupMember(10L)).thenReturn(false);
+
+        mockMvc.perform(get("/api/groups/10/dashboard"))
+                .andExpect(status().isForbidden());
+        verify(dashboards, never()).dashboard(any(), any());
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartsplit.smartsplitback.controller;
+
+import com.smartsplit.smartsplitback.security.JwtAuthFilter;
+import com.smartsplit.smartsplitback.security.JwtService;
+import com.smartsplit.smartsplitback.security.Perms;
+import com.smartsplit.smartsplitback.service.UserEventStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserEventController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({
+        UserEventControllerTest.MethodSecurityTestConfig.class,
+        UserEventControllerTest.MethodSecurityExceptionAdvice.class
+})
+class UserEventControllerTest {
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurityTestConfig {}
+
+    @RestControllerAdvice
+    static class MethodSecurityExceptionAdvice {
+        @ExceptionHandler(AuthorizationDeniedException.class)
+        @ResponseStatus(HttpStatus.FORBIDDEN)
+        void handle() {}
+    }
+
+    @Autowired MockMvc mockMvc;
+
+    @MockitoBean UserEventStream stream;
+    @MockitoBean JwtAuthFilter jwtAuthFilter;
+    @MockitoBean JwtService jwtService;
+
+    @MockitoBean(name = "perm", answers = Answers.RETURNS_DEFAULTS)
+    Perms perm;
+
+    @Test
+    @WithMockUser
+    @DisplayName("GET /api/me/events → เปิด SSE stream ของผู้ใช้ปัจจุบัน")
+    void opensStream() throws Exception {
+        when(perm.currentUserId()).thenReturn(7L);
+        SseEmitter emitter = new SseEmitter(1_000L);
+        emitter.send(SseEmitter.event().name("ready").data("ok")); // header ถูก flush ตอนส่งครั้งแรก
+        when(stream.subscribe(7L)).thenReturn(emitter);
+
+        mockMvc.perform(get("/api/me/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Accel-Buffering", "no"))
+                .andExpect(content().string(containsString("event:ready")));
+        verify(stream).subscribe(7L);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("ไม่มี user id ใน token → 401")
+    void unauthorized() throws Exception {
+        when(perm.currentUserId()).thenReturn(null);
+
+        mockMvc.perform(get("/api/me/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isUnauthorized());
+        verify(stream, never()).subscribe(anyLong());
+    }
+}
@@ -0,0 +1,27 @@
+package com.smartsplit.smartsplitback.it;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * จำกัดจำนวน SQL ของ test (นับผ่าน SqlStats — ต้องรันกับ context จริงที่มี SqlCountingDataSource)
+ * - test ที่ยิง HTTP (MockMvc) → ทุก request ต้องไม่เกิน max statement / maxRows แถว
+ * - test ที่ไม่มี request → ยอดรวมทั้ง test method (ไม่รวม @BeforeEach)
+ *
+ * ใช้จับ N+1: ตั้ง max ตาม fixture ของ test แล้วถ้ามีใครทำ query ต่อแถวเพิ่ม build จะล้มพร้อม SQL ที่ซ้ำ
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    /** statement สูงสุดต่อ request */
+    int max();
+
+    /** แถวที่อ่านได้สูงสุดต่อ request */
+    long maxRows() default Long.MAX_VALUE;
+}
@@ -0,0 +1,42 @@
+package com.smartsplit.smartsplitback.it;
+
+import com.smartsplit.smartsplitback.config.SqlStats;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** เปิด SqlStats scope รอบ test method แล้วตรวจตาม @SqlBudget (method ก่อน class) */
+class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NS = ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext ctx) {
+        ctx.getStore(NS).put("stats", SqlStats.begin(ctx.getDisplayName()));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext ctx) {
+        SqlStats stats = ctx.getStore(NS).remove("stats", SqlStats.class);
+        if (stats == null) return;
+        stats.end();
+
+        SqlBudget budget = AnnotationSupport.findAnnotation(ctx.getRequiredTestMethod(), SqlBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(ctx.getRequiredTestClass(), SqlBudget.class))
+                .orElseThrow();
+
+        List<SqlStats> measured = stats.completed().isEmpty() ? List.of(stats) : stats.completed();
+        List<SqlStats> over = measured.stream()
+                .filter(s -> s.statements() > budget.max() || s.rows() > budget.maxRows())
+                .toList();
+        if (!over.isEmpty()) {
+            throw new AssertionError("SQL budget exceeded (max " + budget.max() + " statements"
+                    + (budget.maxRows() == Long.MAX_VALUE ? "" : ", " + budget.maxRows() + " rows") + "):\n  "
+                    + over.stream().map(SqlStats::describe).collect(Collectors.joining("\n  ")));
+        }
+    }
+}
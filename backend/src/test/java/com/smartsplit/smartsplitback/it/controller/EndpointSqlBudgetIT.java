@@ -0,0 +1,98 @@
+package com.smartsplit.smartsplitback.it.controller;
+
+import com.smartsplit.smartsplitback.it.SqlBudget;
+import com.smartsplit.smartsplitback.it.load.SyntheticDataset;
+import com.smartsplit.smartsplitback.it.security.BaseIntegrationTest;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Comparator;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * จำนวน SQL ต่อ request ของ endpoint ที่อ่านบ่อย ต้องไม่โตตามจำนวนแถว (N+1)
+ * ข้อมูล: SyntheticDataset ขนาดเล็ก — user 1 อยู่หลาย group, group 1 มี expense มากสุด
+ * budget ตั้งจากจำนวน SQL ปัจจุบัน + เผื่อเล็กน้อย (seed คงที่ → ตัวเลขคงที่); ถ้ามี query ต่อแถวเพิ่มเข้ามา ตัวเลขจะกระโดดเกินทันที
+ * ลด query ของ endpoint ไหนได้แล้ว ให้ลด budget ตามด้วย
+ */
+@DisplayName("SQL budget ต่อ request ของ endpoint ที่อ่านบ่อย")
+class EndpointSqlBudgetIT extends BaseIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired JwtService jwt;
+
+    private SyntheticDataset.Dataset data;
+    private SyntheticDataset.ExpenseRef biggest;
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("DELETE FROM expense_journal");
+        data = new SyntheticDataset(jdbc).load(new SyntheticDataset.Spec(60, 12, 300, 7L));
+        biggest = data.expenses().stream()
+                .filter(e -> e.groupId() == 1)
+                .max(Comparator.comparingInt(e -> e.shares().length))
+                .orElseThrow();
+    }
+
+    private RequestPostProcessor as(long userId) {
+        User u = new User();
+        u.setId(userId);
+        u.setEmail("load" + userId + "@load.test");
+        String token = jwt.generateForUser(u, 3_600);
+        return req -> {
+            req.addHeader("Authorization", "Bearer " + token);
+            return req;
+        };
+    }
+
+    // นับสมาชิกทีละ group (COUNT ต่อ group)
+    @Test
+    @SqlBudget(max = 8)
+    @DisplayName("GET /api/groups/mine (สมาชิกหลาย group)")
+    void myGroups() throws Exception {
+        mvc.perform(get("/api/groups/mine").with(as(1L))).andExpect(status().isOk());
+    }
+
+    // หน้าละ 500 expense: DTO + ยอด share + ยอดจ่าย VERIFIED (+ items ของตัวที่ไม่มี settlement) ไม่ขึ้นกับจำนวนแถว
+    @Test
+    @SqlBudget(max = 8)
+    @DisplayName("GET /api/expenses/group/{id} (group ที่มี expense มากสุด)")
+    void expensesOfHotGroup() throws Exception {
+        mvc.perform(get("/api/expenses/group/{id}", 1L).with(as(data.members(1L)[0]))).andExpect(status().isOk());
+    }
+
+    // 6 query ขนานบน executor ของ dashboard (นับเข้า request ผ่าน SqlStats.Accessor) + ตรวจสิทธิ์ตอน cache ยังว่าง
+    @Test
+    @SqlBudget(max = 8)
+    @DisplayName("GET /api/groups/{id}/dashboard")
+    void dashboard() throws Exception {
+        mvc.perform(get("/api/groups/{id}/dashboard", 1L).with(as(data.members(1L)[0]))).andExpect(status().isOk());
+    }
+
+    // owed/paid ทีละ participant
+    @Test
+    @SqlBudget(max = 24)
+    @DisplayName("GET /api/expenses/{id}/settlement (expense ที่มี share มากสุด)")
+    void settlement() throws Exception {
+        mvc.perform(get("/api/expenses/{id}/settlement", biggest.id()).with(as(biggest.payerId())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SqlBudget(max = 3)
+    @DisplayName("GET /api/me/balances + /summary")
+    void balances() throws Exception {
+        mvc.perform(get("/api/me/balances").with(as(1L))).andExpect(status().isOk());
+        mvc.perform(get("/api/me/balances/summary").with(as(1L))).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,184 @@
+package com.smartsplit.smartsplitback.it.datasource;
+
+import com.smartsplit.smartsplitback.config.ReadYourWrites;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MySQL 2 ตัวต่อ replication แบบ GTID (primary → replica, replica เป็น super_read_only)
+ * ตรวจว่า read-only transaction ใน request ไป replica และ read-your-writes / งานเบื้องหลังไป primary
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@ActiveProfiles("test")
+@Testcontainers
+@DisplayName("Read replica routing (primary + replica MySQL)")
+class ReadReplicaRoutingIT {
+
+    private static final Network NET = Network.newNetwork();
+
+    static final MySQLContainer<?> PRIMARY = new MySQLContainer<>("mysql:8.4")
+            .withNetwork(NET)
+            .withNetworkAliases("primary")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("--server-id=1", "--log-bin=mysql-bin", "--gtid-mode=ON", "--enforce-gtid-consistency=ON");
+
+    static final MySQLContainer<?> REPLICA = new MySQLContainer<>("mysql:8.4")
+            .withNetwork(NET)
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("--server-id=2", "--log-bin=mysql-bin", "--gtid-mode=ON", "--enforce-gtid-consistency=ON");
+
+    static {
+        PRIMARY.start();
+        REPLICA.start();
+        try {
+            // ประวัติ binlog ตอน init ของ container (สร้าง db/user) มีอยู่แล้วทั้งสองฝั่ง → เริ่มนับจากศูนย์
+            root(PRIMARY, "RESET BINARY LOGS AND GTIDS");
+            root(REPLICA, """
+                    CHANGE REPLICATION SOURCE TO
+                      SOURCE_HOST = 'primary', SOURCE_PORT = 3306,
+                      SOURCE_USER = 'root', SOURCE_PASSWORD = 'test',
+                      SOURCE_AUTO_POSITION = 1, GET_SOURCE_PUBLIC_KEY = 1
+                    """);
+            root(REPLICA, "START REPLICA");
+            root(REPLICA, "SET GLOBAL super_read_only = ON");
+        } catch (SQLException e) {
+            throw new IllegalStateException("replication setup failed", e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void bindProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", PRIMARY::getJdbcUrl);
+        r.add("spring.datasource.username", PRIMARY::getUsername);
+        r.add("spring.datasource.password", PRIMARY::getPassword);
+        r.add("app.datasource.replica.url", REPLICA::getJdbcUrl);
+        r.add("app.datasource.replica.username", REPLICA::getUsername);
+        r.add("app.datasource.replica.password", REPLICA::getPassword);
+        r.add("app.datasource.read-your-writes-ms", () -> "60000");
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        r.add("spring.jpa.properties.hibernate.jdbc.time_zone", () -> "UTC");
+        r.add("app.scheduling.enabled", () -> "false");
+        r.add("app.jwt.secret", () -> "f9wvJfbA1AZQeGlc1x3B8joQcXokci8Z/k57Q4Evu7/d7pqnuKmiyjqGFO9Rkjr7vmghxbV+Ob6vR3k0f/7eU7A7uhwYW18489kmUU14OJYuIk/EJ9s8A3p5hhCUZS7BAAq/nDj2GvabgbXCP+PWmkzEZw96OnkRUwDw90dlA5Q0Pw/xjgNyhELSprXPJD6NjPu9cSSEALSFrB7lHZDQYtLcenYwo38YLNFCc8Ppp0/U9SWm513HDynszLAkg5bQD/S8KjpkNiC16wnosp15RMVFG0LlWekuo4KZYTC4CKe26b5+BWqtLYXrMqPn4y3Ln+iOKmV2Imc0M1bOfKf4iYJ3k0ubhw2ew8teJBjpHt0=");
+    }
+
+    @Autowired PlatformTransactionManager tm;
+    @Autowired EntityManager em;
+    @Autowired UserRepository users;
+    @Autowired ReadYourWrites readYourWrites;
+
+    private static void root(MySQLContainer<?> c, String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(c.getJdbcUrl(), "root", c.getPassword());
+             Statement st = con.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static long replicaCount(String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(REPLICA.getJdbcUrl(), "root", REPLICA.getPassword());
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private int serverId(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(tm);
+        tx.setReadOnly(readOnly);
+        return tx.execute(s -> ((Number) em.createNativeQuery("select @@server_id").getSingleResult()).intValue());
+    }
+
+    // รันงานเหมือนอยู่ใน request ที่ผ่าน interceptor (ส่วนที่อยู่นอกนี้คือ thread เบื้องหลัง)
+    private <T> T inRequest(MockHttpServletRequest req, MockHttpServletResponse res, Supplier<T> work) {
+        readYourWrites.preHandle(req, res, new Object());
+        try {
+            return work.get();
+        } finally {
+            readYourWrites.afterCompletion(req, res, new Object(), null);
+        }
+    }
+
+    private int serverIdInGet(Cookie... cookies) {
+        var req = new MockHttpServletRequest("GET", "/api/expenses");
+        if (cookies.length > 0) req.setCookies(cookies);
+        return inRequest(req, new MockHttpServletResponse(), () -> serverId(true));
+    }
+
+    @Test
+    @DisplayName("ใน GET: read-only transaction → replica, read-write → primary")
+    void routesByTransactionReadOnlyFlag() {
+        assertThat(serverIdInGet()).isEqualTo(2);
+        assertThat(inRequest(new MockHttpServletRequest("GET", "/api/expenses"), new MockHttpServletResponse(),
+                () -> serverId(false))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("นอก request (scheduled job / outbox relay) read-only ก็ไป primary")
+    void backgroundReadsFromPrimary() {
+        assertThat(serverId(true)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("แถวที่เขียนบน primary ถูก replicate และ repository (read-only) อ่านเจอจาก replica")
+    void writesReplicateToReplica() throws Exception {
+        User u = new User();
+        u.setEmail("replicated@example.com");
+        u.setPasswordHash("{noop}x");
+        Long id = new TransactionTemplate(tm).execute(s -> users.save(u).getId());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicaCount("select count(*) from testdb.users where user_id = " + id) == 0) {
+            assertThat(System.currentTimeMillis()).as("replication lag").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+
+        TransactionTemplate ro = new TransactionTemplate(tm);
+        ro.setReadOnly(true);
+        Optional<User> found = inRequest(new MockHttpServletRequest("GET", "/api/users/" + id),
+                new MockHttpServletResponse(), () -> ro.execute(s -> users.findById(id)));
+        assertThat(found).isPresent();
+    }
+
+    @Test
+    @DisplayName("ระหว่าง request ที่เขียน read-only ไป primary; client ที่ถือ cookie จาก request นั้นอ่าน primary ต่อ, client อื่นไป replica")
+    void writeRequestPinsPrimaryForThatClient() {
+        var res = new MockHttpServletResponse();
+        int during = inRequest(new MockHttpServletRequest("POST", "/api/expenses"), res, () -> serverId(true));
+        assertThat(during).isEqualTo(1);
+
+        var cookie = res.getCookie("rw_until");
+        assertThat(cookie).isNotNull();
+        assertThat(serverIdInGet(cookie)).isEqualTo(1);
+        assertThat(serverIdInGet()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,229 @@
+package com.smartsplit.smartsplitback.it.explain;
+
+import com.smartsplit.smartsplitback.config.SqlStats;
+import com.smartsplit.smartsplitback.repository.BalanceQueryRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.GroupMemberRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN query ที่วิ่งบ่อยบน schema จริงจาก Flyway (ไม่ใช่ ddl-auto) พร้อมข้อมูลพอให้ optimizer เลือก index
+ * ถ้าตารางไหนใน plan เป็น full scan (type = ALL หรือ index) → build ล้ม
+ *
+ * เรียก repository จริงแล้ว EXPLAIN SQL ที่ Hibernate ส่งไปพร้อมค่าที่ bind แล้ว
+ * (อ่านจาก performance_schema.events_statements_history_long — driver prepare ฝั่ง client จึงได้ SQL ที่มีค่าจริง)
+ * จำนวนต้องตรงกับ statement ที่ SqlCountingDataSource นับได้ กันกรณีจับ SQL ไม่ครบ
+ *
+ * เพิ่ม query ใหม่: ใส่การเรียก repository ใน hotQueries()
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("EXPLAIN: hot queries ต้องไม่ full scan")
+class HotQueryExplainIT {
+
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("--performance-schema-consumer-events-statements-history-long=ON",
+                    "--performance-schema-max-sql-text-length=16384");
+
+    // เริ่มก่อน Spring context (PER_CLASS สร้าง context ก่อน extension อื่นได้ทำงาน)
+    static {
+        MYSQL.start();
+    }
+
+    @DynamicPropertySource
+    static void bindProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        r.add("spring.datasource.username", MYSQL::getUsername);
+        r.add("spring.datasource.password", MYSQL::getPassword);
+        r.add("spring.flyway.locations", () -> "classpath:db/migration");
+        r.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        r.add("spring.jpa.properties.hibernate.jdbc.time_zone", () -> "UTC");
+        r.add("app.scheduling.enabled", () -> "false");
+        r.add("app.jwt.secret", () -> "f9wvJfbA1AZQeGlc1x3B8joQcXokci8Z/k57Q4Evu7/d7pqnuKmiyjqGFO9Rkjr7vmghxbV+Ob6vR3k0f/7eU7A7uhwYW18489kmUU14OJYuIk/EJ9s8A3p5hhCUZS7BAAq/nDj2GvabgbXCP+PWmkzEZw96OnkRUwDw90dlA5Q0Pw/xjgNyhELSprXPJD6NjPu9cSSEALSFrB7lHZDQYtLcenYwo38YLNFCc8Ppp0/U9SWm513HDynszLAkg5bQD/S8KjpkNiC16wnosp15RMVFG0LlWekuo4KZYTC4CKe26b5+BWqtLYXrMqPn4y3Ln+iOKmV2Imc0M1bOfKf4iYJ3k0ubhw2ew8teJBjpHt0=");
+    }
+
+    @Autowired BalanceQueryRepository balances;
+    @Autowired GroupMemberRepository members;
+    @Autowired ExpenseRepository expenses;
+    @Autowired ExpenseItemRepository items;
+    @Autowired ExpenseItemShareRepository shares;
+    @Autowired ExpensePaymentRepository payments;
+
+    record HotQuery(String name, Consumer<HotQueryExplainIT> call) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static Stream<HotQuery> hotQueries() {
+        return Stream.of(
+                new HotQuery("BalanceQueryRepository.findBalancesForUser", t -> t.balances.findBalancesForUser(7L)),
+                new HotQuery("GroupMemberRepository.existsSharedGroupInt", t -> t.members.existsSharedGroupInt(7L, 8L)),
+
+                new HotQuery("ExpensePaymentRepository.sumVerifiedAmountByExpenseIdAndUser",
+                        t -> t.payments.sumVerifiedAmountByExpenseIdAndUser(10L, 7L)),
+                new HotQuery("ExpensePaymentRepository.findVerifiedPayerIdsByExpense",
+                        t -> t.payments.findVerifiedPayerIdsByExpense(10L)),
+                new HotQuery("ExpensePaymentRepository.sumVerifiedByGroup", t -> t.payments.sumVerifiedByGroup(3L)),
+                new HotQuery("ExpensePaymentRepository.sumVerifiedByExpenseIds",
+                        t -> t.payments.sumVerifiedByExpenseIds(List.of(10L, 60L, 110L))),
+
+                new HotQuery("ExpenseItemShareRepository.fetchForExpenseAndUser",
+                        t -> t.shares.fetchForExpenseAndUser(10L, 7L)),
+                new HotQuery("ExpenseItemShareRepository.findDistinctExpenseIdsByParticipantId",
+                        t -> t.shares.findDistinctExpenseIdsByParticipantId(7L)),
+                new HotQuery("ExpenseItemShareRepository.sumShareValueByGroup", t -> t.shares.sumShareValueByGroup(3L)),
+                new HotQuery("ExpenseItemShareRepository.sumShareValueByExpenseIds",
+                        t -> t.shares.sumShareValueByExpenseIds(List.of(10L, 60L, 110L))),
+
+                new HotQuery("ExpenseItemRepository.sumAmountByExpenseId", t -> t.items.sumAmountByExpenseId(10L)),
+                new HotQuery("ExpenseItemRepository.findWithExpenseByExpenseIds",
+                        t -> t.items.findWithExpenseByExpenseIds(List.of(10L, 60L, 110L))),
+                new HotQuery("ExpenseRepository.findByPayer_Id", t -> t.expenses.findByPayer_Id(7L)),
+                new HotQuery("ExpenseRepository.findRevisionStampByGroup", t -> t.expenses.findRevisionStampByGroup(3L))
+        );
+    }
+
+    @BeforeAll
+    void seed() throws SQLException {
+        // ขนาดประมาณ group เล็ก ๆ หลายร้อยคน: ต่อ user ~10 expense ที่จ่าย, ~60 share, ~20 payment
+        try (Connection con = connect(); Statement st = con.createStatement()) {
+            st.execute("SET SESSION cte_max_recursion_depth = 100000");
+            st.execute(seq(500, """
+                    INSERT INTO users (email, password_hash, role, user_name)
+                    SELECT CONCAT('u', n, '@example.com'), 'x', 0, CONCAT('user', n) FROM seq
+                    """));
+            st.execute(seq(50, """
+                    INSERT INTO groups_tbl (name, owner_user_id)
+                    SELECT CONCAT('group ', n), n FROM seq
+                    """));
+            st.execute(seq(500, """
+                    INSERT INTO group_members (group_id, user_id)
+                    SELECT n % 50 + 1, n FROM seq
+                    UNION ALL
+                    SELECT (n + 25) % 50 + 1, n FROM seq
+                    """));
+            st.execute(seq(5000, """
+                    INSERT INTO expenses (expense_id, amount, created_at, status, title, type, group_id, payer_user_id)
+                    SELECT n, 300.00, NOW(6), 'OPEN', CONCAT('expense ', n), 'EQUAL', n % 50 + 1, n % 500 + 1 FROM seq
+                    """));
+            st.execute(seq(10000, """
+                    INSERT INTO expense_items (expense_item_id, amount, currency, name, expense_id)
+                    SELECT n, 150.00, 'THB', CONCAT('item ', n), (n + 1) DIV 2 FROM seq
+                    """));
+            st.execute(seq(30000, """
+                    INSERT INTO expense_item_shares (share_id, share_original_value, share_value, expense_item_id, participant_user_id)
+                    SELECT n, 50, 50, (n + 2) DIV 3, (n * 7) % 500 + 1 FROM seq
+                    """));
+            st.execute(seq(10000, """
+                    INSERT INTO expense_payments (amount, created_at, status, expense_id, from_user_id)
+                    SELECT 50.00, NOW(6), ELT(n % 3 + 1, 'PENDING', 'VERIFIED', 'REJECTED'), n % 5000 + 1, (n * 13) % 500 + 1 FROM seq
+                    """));
+            st.execute("ANALYZE TABLE users, groups_tbl, group_members, expenses, expense_items, expense_item_shares, expense_payments");
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void noFullScan(HotQuery q) throws SQLException {
+        List<String> executed = executedSql(q);
+
+        List<String> plan = new ArrayList<>();
+        List<String> fullScans = new ArrayList<>();
+        try (Connection con = connect(); Statement st = con.createStatement()) {
+            for (String sql : executed) {
+                try (ResultSet rs = st.executeQuery("EXPLAIN FORMAT=TRADITIONAL " + sql)) {
+                    while (rs.next()) {
+                        String table = rs.getString("table");
+                        String type = rs.getString("type");
+                        plan.add(table + " type=" + type + " key=" + rs.getString("key")
+                                + " rows=" + rs.getString("rows") + " extra=" + rs.getString("Extra"));
+                        // <derivedN> / <unionN,M> เป็นตารางชั่วคราวที่ query สร้างเอง
+                        if (table == null || table.startsWith("<")) continue;
+                        if ("ALL".equals(type) || "index".equals(type)) fullScans.add(table + " (" + type + ")");
+                    }
+                }
+            }
+        }
+
+        assertThat(fullScans)
+                .as("%s full scan:%n  %s%n  SQL: %s", q.name(), String.join("\n  ", plan), String.join("\n  SQL: ", executed))
+                .isEmpty();
+    }
+
+    // เรียก repository แล้วเก็บ SELECT ที่ connection ของแอปส่งไป MySQL ระหว่างนั้น (ตามลำดับ)
+    private List<String> executedSql(HotQuery q) throws SQLException {
+        try (Connection root = root(); Statement st = root.createStatement()) {
+            st.execute("TRUNCATE TABLE performance_schema.events_statements_history_long");
+
+            SqlStats stats = SqlStats.begin(q.name());
+            try {
+                q.call().accept(this);
+            } finally {
+                stats.end();
+            }
+
+            List<String> sql = new ArrayList<>();
+            try (ResultSet rs = st.executeQuery("""
+                    SELECT SQL_TEXT FROM performance_schema.events_statements_history_long
+                    WHERE THREAD_ID <> PS_CURRENT_THREAD_ID()
+                      AND CURRENT_SCHEMA = 'testdb'
+                      AND DIGEST_TEXT LIKE 'SELECT %FROM%'
+                    ORDER BY EVENT_ID
+                    """)) {
+                while (rs.next()) sql.add(rs.getString(1));
+            }
+
+            assertThat(sql).as("%s: SQL ใน performance_schema", q.name())
+                    .isNotEmpty()
+                    .hasSize(stats.statements());
+            return sql;
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+    }
+
+    // performance_schema อ่านได้เฉพาะ root (user test มีสิทธิ์แค่ testdb)
+    private static Connection root() throws SQLException {
+        return DriverManager.getConnection(MYSQL.getJdbcUrl(), "root", MYSQL.getPassword());
+    }
+
+    private static String seq(int count, String insert) {
+        int at = insert.indexOf("SELECT");
+        return insert.substring(0, at)
+                + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + count + ") "
+                + insert.substring(at);
+    }
+}
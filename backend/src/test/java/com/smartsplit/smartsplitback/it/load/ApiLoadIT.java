@@ -0,0 +1,171 @@
+package com.smartsplit.smartsplitback.it.load;
+
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.security.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * load test: ข้อมูลสังเคราะห์ (SyntheticDataset) บน MySQL จริง + workload ผสมผ่าน HTTP (LoadDriver)
+ * ใช้เก็บ baseline ก่อน/หลังแก้ performance — ไม่ assert latency (เครื่องต่างกันผลต่างกัน) ตรวจแค่ error rate
+ *
+ * ไม่รันตอน mvn verify ปกติ ต้องเปิดเอง:
+ *   mvn verify -Dload.enabled=true -Dit.test=ApiLoadIT
+ *   ปรับขนาด: -Dload.users=5000 -Dload.groups=800 -Dload.expenses=100000 -Dload.seed=42
+ *   ปรับ workload: -Dload.threads=32 -Dload.warmupSeconds=15 -Dload.durationSeconds=60
+ *
+ * ผล: ตารางใน log + target/load-report.json (รูปแบบ JMH)
+ *   node ../scripts/bench/jmh-compare.mjs base-load.json target/load-report.json --threshold=15
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@DisplayName("Load: mixed workload บนข้อมูลสังเคราะห์")
+class ApiLoadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiLoadIT.class);
+
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withCommand("--innodb-buffer-pool-size=512M", "--innodb-flush-log-at-trx-commit=2");
+
+    static {
+        MYSQL.start();
+    }
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        r.add("spring.datasource.username", MYSQL::getUsername);
+        r.add("spring.datasource.password", MYSQL::getPassword);
+        r.add("spring.datasource.hikari.maximum-pool-size", () -> 32);
+        // log SQL ของ test profile ทำให้ latency เพี้ยนและ log ใหญ่มาก
+        r.add("logging.level.org.hibernate.SQL", () -> "WARN");
+        r.add("app.scheduling.enabled", () -> "false");
+    }
+
+    @LocalServerPort int port;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired JwtService jwt;
+
+    private final Map<Long, String> tokens = new ConcurrentHashMap<>();
+
+    private String token(long userId) {
+        return tokens.computeIfAbsent(userId, id -> {
+            User u = new User();
+            u.setId(id);
+            u.setEmail("load" + id + "@load.test");
+            return jwt.generateForUser(u, 3_600);
+        });
+    }
+
+    private static long pick(long[] ids, Random rnd) {
+        return ids[rnd.nextInt(ids.length)];
+    }
+
+    @Test
+    @DisplayName("listing / balances / share edit / payment verify / PDF export: error rate < 1%")
+    void mixedWorkload() throws Exception {
+        long t0 = System.nanoTime();
+        var data = new SyntheticDataset(jdbc).load(SyntheticDataset.Spec.fromSystemProperties());
+        log.info("dataset: {} → {} shares, {} payments ({} ms)", data.spec(),
+                data.shareCount(), data.paymentCount(), (System.nanoTime() - t0) / 1_000_000);
+
+        String base = "http://localhost:" + port;
+        var expenses = data.expenses();
+
+        List<LoadDriver.Op> ops = List.of(
+                new LoadDriver.Op("GET /api/groups/mine", 10, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/groups/mine", token(pick(data.members(e.groupId()), rnd)));
+                }),
+                new LoadDriver.Op("GET /api/expenses/group/{id}", 15, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/expenses/group/" + e.groupId(), token(pick(data.members(e.groupId()), rnd)));
+                }),
+                new LoadDriver.Op("GET /api/groups/{id}/dashboard", 10, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/groups/" + e.groupId() + "/dashboard", token(pick(data.members(e.groupId()), rnd)));
+                }),
+                new LoadDriver.Op("GET /api/me/balances", 15, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/me/balances", token(pick(e.participants(), rnd)));
+                }),
+                new LoadDriver.Op("GET /api/me/balances/summary", 5, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/me/balances/summary", token(pick(e.participants(), rnd)));
+                }),
+                new LoadDriver.Op("GET /api/expenses/{id}/settlement", 15, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/expenses/" + e.id() + "/settlement", token(pick(e.participants(), rnd)));
+                }),
+                new LoadDriver.Op("PUT share value", 12, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    long[] s = e.shares()[rnd.nextInt(e.shares().length)];
+                    String value = String.valueOf(1 + rnd.nextInt(50_000) / 100.0);
+                    return write(base, "/api/expenses/" + e.id() + "/items/" + s[0] + "/shares/" + s[1]
+                            + "?shareValue=" + value, token(e.payerId()));
+                }),
+                new LoadDriver.Op("PUT payment VERIFIED", 12, rnd -> {
+                    // expense ที่มี PENDING กระจายไม่เท่ากัน สุ่มใหม่จนเจอ (~มากกว่าครึ่งมี)
+                    SyntheticDataset.ExpenseRef e;
+                    do e = expenses.get(rnd.nextInt(expenses.size())); while (e.pendingPayments().length == 0);
+                    return write(base, "/api/expenses/" + e.id() + "/payments/" + pick(e.pendingPayments(), rnd)
+                            + "/status?status=VERIFIED", token(e.payerId()));
+                }),
+                new LoadDriver.Op("GET /api/expenses/{id}/export.pdf", 6, rnd -> {
+                    var e = expenses.get(rnd.nextInt(expenses.size()));
+                    return read(base, "/api/expenses/" + e.id() + "/export.pdf", token(pick(e.participants(), rnd)));
+                })
+        );
+
+        var stats = new LoadDriver(ops).run(
+                Integer.getInteger("load.threads", 16),
+                Duration.ofSeconds(Integer.getInteger("load.warmupSeconds", 10)),
+                Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 60)),
+                data.spec().seed());
+
+        log.info("load report (ดู target/load-report.json):\n{}", LoadDriver.table(stats));
+        LoadDriver.writeJson(stats, Path.of("target", "load-report.json"));
+
+        assertThat(stats).allSatisfy(s -> {
+            assertThat(s.count()).as(s.name() + " count").isPositive();
+            assertThat((double) s.errors() / s.count()).as(s.name() + " error rate").isLessThan(0.01);
+        });
+    }
+
+    private static LoadDriver.Call read(String base, String path, String token) {
+        return new LoadDriver.Call(LoadDriver.request(base, path, token).GET().build(), 200);
+    }
+
+    // แก้ซ้ำแถวเดียวกันพร้อมกันได้ → 409 จาก optimistic lock ถือว่าปกติ
+    private static LoadDriver.Call write(String base, String path, String token) {
+        return new LoadDriver.Call(LoadDriver.request(base, path, token)
+                .PUT(HttpRequest.BodyPublishers.noBody()).build(), 200, 409);
+    }
+}
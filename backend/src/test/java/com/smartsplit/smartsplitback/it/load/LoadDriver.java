@@ -0,0 +1,189 @@
+package com.smartsplit.smartsplitback.it.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * ยิง workload ผสมใส่แอปที่รันอยู่ (HTTP จริง) ด้วย thread คงที่ แต่ละ thread สุ่ม op ตามน้ำหนักแล้วยิงแบบ closed-loop
+ * ช่วง warmup ไม่นับ; หลังจากนั้นเก็บ latency ทุก request แยกตาม op แล้วสรุป p50/p95/p99
+ *
+ * รายงาน JSON อยู่ในรูปแบบเดียวกับผล JMH (-rf json) → เทียบ baseline ด้วย scripts/bench/jmh-compare.mjs ได้เลย
+ */
+public final class LoadDriver {
+
+    /** คำขอหนึ่งครั้ง; expectedStatus = status ที่ถือว่าสำเร็จ (นอกนั้นนับเป็น error) */
+    public record Call(HttpRequest request, int... expectedStatus) {}
+
+    /** op ในส่วนผสม: weight สัมพัทธ์กับ op อื่น, next สร้าง request ถัดไปจาก Random ของ thread */
+    public record Op(String name, int weight, Function<Random, Call> next) {}
+
+    /** สรุปต่อ op (เวลาเป็น ms); errorsByStatus: status ที่ไม่คาดไว้ → จำนวน (-1 = IO error/timeout) */
+    public record Stats(String name, long count, long errors, double p50, double p95, double p99, double max,
+                        double throughput, Map<Integer, Long> errorsByStatus) {}
+
+    private final List<Op> ops;
+    private final int[] cumulative;
+    private final HttpClient http;
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+
+    public LoadDriver(List<Op> ops) {
+        this.ops = List.copyOf(ops);
+        this.cumulative = new int[ops.size()];
+        int sum = 0;
+        for (int i = 0; i < ops.size(); i++) {
+            sum += ops.get(i).weight();
+            cumulative[i] = sum;
+            recorders.put(ops.get(i).name(), new Recorder());
+        }
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /** รัน warmup แล้ววัดจริงเป็นเวลา duration; คืนสรุปเรียงตามลำดับ op */
+    public List<Stats> run(int threads, Duration warmup, Duration duration, long seed) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        AtomicLong seeds = new AtomicLong(seed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                Random rnd = new Random(seeds.getAndIncrement());
+                long now;
+                while ((now = System.nanoTime()) < stopAt) {
+                    Op op = pick(rnd);
+                    int error = send(op.next().apply(rnd));
+                    long end = System.nanoTime();
+                    if (now >= measureFrom) recorders.get(op.name()).record(end - now, error);
+                }
+            });
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(warmup.plus(duration).plusMinutes(2).toMillis(), TimeUnit.MILLISECONDS)) {
+            pool.shutdownNow();
+            throw new IllegalStateException("load threads did not finish in time");
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        List<Stats> out = new ArrayList<>();
+        recorders.forEach((name, r) -> out.add(r.stats(name, seconds)));
+        return out;
+    }
+
+    private Op pick(Random rnd) {
+        int x = rnd.nextInt(cumulative[cumulative.length - 1]);
+        int i = Arrays.binarySearch(cumulative, x + 1);
+        return ops.get(i >= 0 ? i : -i - 1);
+    }
+
+    /** 0 = สำเร็จ, นอกนั้นคือ status ที่ไม่คาดไว้ (-1 = ยิงไม่สำเร็จ) */
+    private int send(Call call) {
+        try {
+            int status = http.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            for (int s : call.expectedStatus()) if (s == status) return 0;
+            return status;
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    public static HttpRequest.Builder request(String baseUrl, String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    // ---------- รายงาน ----------
+
+    public static String table(List<Stats> stats) {
+        int width = Math.max(9, stats.stream().mapToInt(s -> s.name().length()).max().orElse(0));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-" + width + "s %8s %7s %9s %9s %9s %9s %8s  %s%n",
+                "endpoint", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "req/s", "error status"));
+        for (Stats s : stats) {
+            sb.append(String.format(Locale.ROOT, "%-" + width + "s %8d %7d %9.2f %9.2f %9.2f %9.2f %8.1f  %s%n",
+                    s.name(), s.count(), s.errors(), s.p50(), s.p95(), s.p99(), s.max(), s.throughput(),
+                    s.errorsByStatus().isEmpty() ? "" : s.errorsByStatus()));
+        }
+        return sb.toString();
+    }
+
+    /** เขียนแบบ JMH result: 1 แถวต่อ op ต่อ percentile (params.percentile), หน่วย ms/op */
+    public static void writeJson(List<Stats> stats, Path file) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Stats s : stats) {
+            rows.add(row(s.name(), "p50", s.p50()));
+            rows.add(row(s.name(), "p95", s.p95()));
+            rows.add(row(s.name(), "p99", s.p99()));
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), rows);
+    }
+
+    private static Map<String, Object> row(String name, String percentile, double ms) {
+        return Map.of(
+                "benchmark", "load." + name,
+                "mode", "sample",
+                "params", Map.of("percentile", percentile),
+                "primaryMetric", Map.of("score", ms, "scoreError", 0.0, "scoreUnit", "ms/op"));
+    }
+
+    /** latency ต่อ op (nanos) เก็บทุกค่าแล้ว sort ตอนสรุป — จำนวน request ต่อรอบหลักแสน ใช้หน่วยความจำไม่กี่ MB */
+    private static final class Recorder {
+        private long[] nanos = new long[1 << 12];
+        private int size;
+        private long errors;
+        private final Map<Integer, Long> errorsByStatus = new TreeMap<>();
+
+        synchronized void record(long elapsed, int error) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = elapsed;
+            if (error != 0) {
+                errors++;
+                errorsByStatus.merge(error, 1L, Long::sum);
+            }
+        }
+
+        synchronized Stats stats(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new Stats(name, size, errors,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6, size / seconds, new TreeMap<>(errorsByStatus));
+        }
+
+        // nearest-rank
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
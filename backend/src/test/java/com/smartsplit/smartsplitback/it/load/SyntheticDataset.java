@@ -0,0 +1,246 @@
+package com.smartsplit.smartsplitback.it.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * สร้างข้อมูลสังเคราะห์ขนาดใหญ่ลง MySQL ด้วย JDBC batch insert (rewriteBatchedStatements → multi-row INSERT)
+ * seed เดียวกัน → ข้อมูลชุดเดียวกันทุกครั้ง ใช้เทียบผลก่อน/หลังแก้ performance ได้
+ *
+ * การกระจายแบบเบ้ (ใกล้ของจริง):
+ * - user ที่ active เข้าหลาย group (Zipf), ขนาด group ส่วนใหญ่ 3-8 คน มีบางกลุ่มใหญ่
+ * - expense กระจุกใน group ที่ "ร้อน" (Zipf), item 1-10 ต่อ expense, ~15% เป็นสกุลเงินต่างประเทศ
+ * - payment: ~55% VERIFIED ครบ, ~20% PENDING, ~5% REJECTED, ที่เหลือยังไม่จ่าย
+ *
+ * id กำหนดเองทั้งหมด แล้วเลื่อน id_generators / AUTO_INCREMENT ให้ insert ผ่านแอปต่อได้
+ */
+public final class SyntheticDataset {
+
+    public static final String PASSWORD = "load-test-password";
+
+    /** ขนาดชุดข้อมูล */
+    public record Spec(int users, int groups, int expenses, long seed) {
+        public static Spec fromSystemProperties() {
+            return new Spec(
+                    Integer.getInteger("load.users", 2_000),
+                    Integer.getInteger("load.groups", 300),
+                    Integer.getInteger("load.expenses", 20_000),
+                    Long.getLong("load.seed", 42L));
+        }
+    }
+
+    /** สิ่งที่ workload ต้องรู้ของแต่ละ expense (ไม่ต้อง query กลับ) */
+    public record ExpenseRef(long id, long groupId, long payerId, long[] participants,
+                             long[][] shares /* {itemId, shareId} */, long[] pendingPayments) {}
+
+    /** groupMembers[g - 1] = สมาชิกของ group g (owner อยู่ตัวแรก) */
+    public record Dataset(Spec spec, long[][] groupMembers, List<ExpenseRef> expenses,
+                          long shareCount, long paymentCount) {
+        public long[] members(long groupId) { return groupMembers[(int) groupId - 1]; }
+    }
+
+    private static final int BATCH = 5_000;
+    private static final String[] FOREIGN = {"USD", "EUR", "JPY"};
+    private static final BigDecimal[] RATES = {new BigDecimal("35.5"), new BigDecimal("38.2"), new BigDecimal("0.24")};
+    private static final String RATES_JSON = "{\"USD\":35.5,\"EUR\":38.2,\"JPY\":0.24}";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final JdbcTemplate jdbc;
+
+    public SyntheticDataset(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Dataset load(Spec spec) {
+        Random rnd = new Random(spec.seed());
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        // ---------- users ----------
+        try (Batch users = new Batch("INSERT INTO users (user_id, email, user_name, first_name, last_name, password_hash, role) VALUES (?,?,?,?,?,?,?)", null)) {
+            for (long id = 1; id <= spec.users(); id++) {
+                users.add(id, "load" + id + "@load.test", "loaduser" + id, "Load", "User " + id, hash, 1);
+            }
+        }
+
+        // ---------- groups + members ----------
+        Zipf userPick = new Zipf(spec.users(), 1.0, rnd);
+        long[][] groupMembers = new long[spec.groups()][];
+        try (Batch groups = new Batch("INSERT INTO groups_tbl (group_id, name, owner_user_id) VALUES (?,?,?)", null);
+             Batch members = new Batch("INSERT INTO group_members (group_id, user_id) VALUES (?,?)", groups)) {
+            for (int g = 1; g <= spec.groups(); g++) {
+                int size = Math.min(spec.users(), 2 + (int) (-Math.log(1 - rnd.nextDouble()) * 4)); // เฉลี่ย ~6 คน
+                Set<Long> ids = new LinkedHashSet<>();
+                while (ids.size() < size) ids.add((long) userPick.next());
+                long[] arr = ids.stream().mapToLong(Long::longValue).toArray();
+                groupMembers[g - 1] = arr;
+
+                groups.add(g, "Load group " + g, arr[0]);
+                for (long uid : arr) members.add(g, uid);
+            }
+        }
+
+        // ---------- expenses / items / shares / payments ----------
+        Zipf groupPick = new Zipf(spec.groups(), 1.1, rnd);
+        List<ExpenseRef> refs = new ArrayList<>(spec.expenses());
+        long itemId = 0, shareId = 0, paymentId = 0;
+
+        try (Batch expenses = new Batch("INSERT INTO expenses (expense_id, group_id, payer_user_id, title, amount, type, status, created_at, exchange_rates_json) VALUES (?,?,?,?,?,?,?,?,?)", null);
+             Batch items = new Batch("INSERT INTO expense_items (expense_item_id, expense_id, name, amount, currency) VALUES (?,?,?,?,?)", expenses);
+             Batch shares = new Batch("INSERT INTO expense_item_shares (share_id, expense_item_id, participant_user_id, share_value, share_original_value) VALUES (?,?,?,?,?)", items);
+             Batch payments = new Batch("INSERT INTO expense_payments (payment_id, expense_id, from_user_id, amount, status, created_at, verified_at) VALUES (?,?,?,?,?,?,?)", expenses)) {
+
+            for (long e = 1; e <= spec.expenses(); e++) {
+                long groupId = groupPick.next();
+                long[] gm = groupMembers[(int) groupId - 1];
+                long payer = gm[rnd.nextInt(gm.length)];
+                long[] participants = rnd.nextDouble() < 0.6 ? gm : subset(gm, payer, rnd);
+                LocalDateTime createdAt = EPOCH.plusMinutes(e * 7);
+
+                int itemCount = Math.min(10, 1 + (int) (-Math.log(1 - rnd.nextDouble()) * 1.5));
+                BigDecimal totalThb = BigDecimal.ZERO;
+                boolean foreign = false;
+                BigDecimal[] owed = new BigDecimal[participants.length];
+                Arrays.fill(owed, BigDecimal.ZERO);
+                List<long[]> shareIds = new ArrayList<>();
+                // แถว item/share รอจน expense (ยอดรวมรู้หลังคิดครบทุก item) ถูก add ก่อน
+                List<Object[]> itemRows = new ArrayList<>(itemCount);
+                List<Object[]> shareRows = new ArrayList<>();
+
+                for (int i = 0; i < itemCount; i++) {
+                    itemId++;
+                    int fx = rnd.nextDouble() < 0.15 ? rnd.nextInt(FOREIGN.length) : -1;
+                    foreign |= fx >= 0;
+                    String ccy = fx >= 0 ? FOREIGN[fx] : "THB";
+                    BigDecimal amount = BigDecimal.valueOf(2_000 + (long) (Math.pow(rnd.nextDouble(), 3) * 500_000), 2);
+                    BigDecimal thb = fx >= 0 ? amount.multiply(RATES[fx]).setScale(2, RoundingMode.HALF_UP) : amount;
+                    totalThb = totalThb.add(thb);
+                    itemRows.add(new Object[]{itemId, e, "Item " + i, amount, ccy});
+
+                    // แบ่งเท่ากัน คนสุดท้ายรับเศษ (ผลรวม share = ยอด THB ของ item พอดี)
+                    int n = participants.length;
+                    BigDecimal eachThb = thb.divide(BigDecimal.valueOf(n), 6, RoundingMode.DOWN);
+                    BigDecimal eachOriginal = amount.divide(BigDecimal.valueOf(n), 6, RoundingMode.DOWN);
+                    for (int p = 0; p < n; p++) {
+                        shareId++;
+                        BigDecimal v = (p == n - 1) ? thb.subtract(eachThb.multiply(BigDecimal.valueOf(n - 1))) : eachThb;
+                        BigDecimal o = (p == n - 1) ? amount.subtract(eachOriginal.multiply(BigDecimal.valueOf(n - 1))) : eachOriginal;
+                        shareRows.add(new Object[]{shareId, itemId, participants[p], v, o});
+                        owed[p] = owed[p].add(v);
+                        shareIds.add(new long[]{itemId, shareId});
+                    }
+                }
+
+                String status = rnd.nextDouble() < 0.1 ? "SETTLED" : "OPEN";
+                expenses.add(e, groupId, payer, "Load expense " + e, totalThb, "EQUAL", status,
+                        Timestamp.valueOf(createdAt), foreign ? RATES_JSON : null);
+                itemRows.forEach(items::add);
+                shareRows.forEach(shares::add);
+
+                List<Long> pending = new ArrayList<>();
+                for (int p = 0; p < participants.length; p++) {
+                    if (participants[p] == payer) continue;
+                    double r = rnd.nextDouble();
+                    String ps = r < 0.55 ? "VERIFIED" : r < 0.75 ? "PENDING" : r < 0.80 ? "REJECTED" : null;
+                    if (ps == null) continue;
+                    paymentId++;
+                    Timestamp paidAt = Timestamp.valueOf(createdAt.plusHours(1 + rnd.nextInt(72)));
+                    payments.add(paymentId, e, participants[p], owed[p].setScale(2, RoundingMode.HALF_UP), ps,
+                            paidAt, "VERIFIED".equals(ps) ? paidAt : null);
+                    if ("PENDING".equals(ps)) pending.add(paymentId);
+                }
+
+                refs.add(new ExpenseRef(e, groupId, payer, participants, shareIds.toArray(long[][]::new),
+                        pending.stream().mapToLong(Long::longValue).toArray()));
+            }
+        }
+
+        // insert ผ่านแอป (pooled generator) ต่อจาก id ที่ใช้ไปแล้ว
+        bumpGenerator("expenses", "expense_id", "expenses");
+        bumpGenerator("expense_items", "expense_item_id", "expense_items");
+        bumpGenerator("expense_item_shares", "share_id", "expense_item_shares");
+        for (String t : List.of("users", "groups_tbl", "group_members", "expenses", "expense_items",
+                "expense_item_shares", "expense_payments")) {
+            jdbc.execute("ANALYZE TABLE " + t);
+        }
+        return new Dataset(spec, groupMembers, refs, shareId, paymentId);
+    }
+
+    private void bumpGenerator(String genName, String idColumn, String table) {
+        jdbc.update("UPDATE id_generators SET next_val = (SELECT COALESCE(MAX(" + idColumn + "), 0) + 51 FROM "
+                + table + ") WHERE gen_name = ?", genName);
+    }
+
+    // payer + สมาชิกสุ่มอย่างน้อย 1 คน
+    private static long[] subset(long[] members, long payer, Random rnd) {
+        Set<Long> out = new LinkedHashSet<>();
+        out.add(payer);
+        int target = 2 + rnd.nextInt(Math.max(1, members.length - 1));
+        while (out.size() < Math.min(target, members.length)) out.add(members[rnd.nextInt(members.length)]);
+        return out.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /** สุ่ม 1..n แบบ Zipf (ค่าเล็กออกบ่อย) ด้วย CDF + binary search */
+    static final class Zipf {
+        private final double[] cdf;
+        private final Random rnd;
+
+        Zipf(int n, double s, Random rnd) {
+            this.rnd = rnd;
+            this.cdf = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += 1.0 / Math.pow(k, s);
+                cdf[k - 1] = sum;
+            }
+            for (int i = 0; i < n; i++) cdf[i] /= sum;
+        }
+
+        int next() {
+            int i = Arrays.binarySearch(cdf, rnd.nextDouble());
+            return (i >= 0 ? i : -i - 1) + 1;
+        }
+    }
+
+    /**
+     * สะสมแถวแล้วส่งเป็น batch ทุก BATCH แถว (และตอน close)
+     * parent = ตารางที่ FK ชี้ไป: flush parent ก่อนเสมอ แถวลูกจึงไม่ไปถึง DB ก่อนแถวแม่
+     */
+    private final class Batch implements AutoCloseable {
+        private final String sql;
+        private final Batch parent;
+        private final List<Object[]> rows = new ArrayList<>(BATCH);
+
+        Batch(String sql, Batch parent) {
+            this.sql = sql;
+            this.parent = parent;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() >= BATCH) flush();
+        }
+
+        private void flush() {
+            if (parent != null) parent.flush();
+            if (rows.isEmpty()) return;
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.smartsplit.smartsplitback.it.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * smoke test ของ native executable (mvn -Pnative) กับ MySQL จริง: Flyway migrate, Hibernate, JWT, outbox (JSON)
+ * และทางที่ใช้ resource hint (font + template ของ PDF) ดู config/NativeHintsConfig
+ *
+ * ต้องมี binary ก่อน: mvn -Pnative verify (build ที่ package แล้ว failsafe รันต่อ) — ไม่มี → ข้าม
+ *   binary อื่น: -Dnative.binary=/path/to/smartsplit-back
+ * log ของ process อยู่ที่ target/native-smoke-it.log
+ */
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Native image: smoke test ของ binary กับ MySQL")
+class NativeImageSmokeIT {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeImageSmokeIT.class);
+
+    private static final Duration GIVE_UP = Duration.ofMinutes(2);
+    private static final Path LOG = Path.of("target", "native-smoke-it.log");
+
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private static final ObjectMapper json = new ObjectMapper();
+
+    private static Process app;
+    private static String base;
+
+    // สร้างตามลำดับ test
+    private static String token;
+    private static long userId;
+    private static long expenseId;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        Path binary = Path.of(System.getProperty("native.binary", "target/smartsplit-back"));
+        Assumptions.assumeTrue(Files.isExecutable(binary), "no native executable at " + binary + " (run mvn -Pnative verify)");
+        MYSQL.start();
+
+        int port = freePort();
+        base = "http://localhost:" + port;
+        ProcessBuilder pb = new ProcessBuilder(binary.toString(),
+                "--server.port=" + port,
+                "--management.tracing.enabled=false")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(LOG.toFile()));
+        var env = pb.environment();
+        env.put("SPRING_PROFILES_ACTIVE", "prod");
+        env.put("LOGGING_CONFIG", "classpath:logback-native.xml");
+        env.put("SPRING_DATASOURCE_URL", MYSQL.getJdbcUrl());
+        env.put("SPRING_DATASOURCE_USERNAME", MYSQL.getUsername());
+        env.put("SPRING_DATASOURCE_PASSWORD", MYSQL.getPassword());
+        env.put("APP_JWT_SECRET", "f9wvJfbA1AZQeGlc1x3B8joQcXokci8Z/k57Q4Evu7/d7pqnuKmiyjqGFO9Rkjr7vmghxbV+Ob6vR3k0f/7eU7A7uhwYW18489kmUU14OJYuIk/EJ9s8A3p5hhCUZS7BAAq/nDj2GvabgbXCP+PWmkzEZw96OnkRUwDw90dlA5Q0Pw/xjgNyhELSprXPJD6NjPu9cSSEALSFrB7lHZDQYtLcenYwo38YLNFCc8Ppp0/U9SWm513HDynszLAkg5bQD/S8KjpkNiC16wnosp15RMVFG0LlWekuo4KZYTC4CKe26b5+BWqtLYXrMqPn4y3Ln+iOKmV2Imc0M1bOfKf4iYJ3k0ubhw2ew8teJBjpHt0=");
+
+        Files.createDirectories(LOG.getParent());
+        long start = System.nanoTime();
+        app = pb.start();
+        waitUntilReady();
+        long readyMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("native: ready in {} ms (รวม Flyway migrate)", readyMs);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (app != null) {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) app.destroyForcibly();
+        }
+        MYSQL.stop();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("register → ได้ JWT")
+    void register() throws Exception {
+        JsonNode res = send("POST", "/api/auth/register", """
+                {"email":"native@smoke.test","userName":"native","phone":"0800000000","password":"secret123",
+                 "firstName":"Native","lastName":"Smoke"}""", 201);
+        token = res.get("accessToken").asText();
+        userId = res.get("userId").asLong();
+        assertThat(token).isNotBlank();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("สร้าง group + expense + item + share (outbox JSON, currency ของ item)")
+    void createExpense() throws Exception {
+        long groupId = send("POST", "/api/groups",
+                "{\"name\":\"native smoke\",\"ownerUserId\":" + userId + "}", 201).get("id").asLong();
+        expenseId = send("POST", "/api/expenses",
+                "{\"groupId\":" + groupId + ",\"payerUserId\":" + userId
+                        + ",\"amount\":120.00,\"type\":\"EQUAL\",\"title\":\"ข้าวมันไก่\"}", 201).get("id").asLong();
+        long itemId = send("POST", "/api/expenses/" + expenseId + "/items?name=rice&amount=120.00", null, 201)
+                .get("id").asLong();
+        send("POST", "/api/expenses/" + expenseId + "/items/" + itemId + "/shares?participantUserId=" + userId
+                + "&sharePercent=100", null, 200);
+
+        JsonNode settlement = send("GET", "/api/expenses/" + expenseId + "/settlement", null, 200);
+        assertThat(settlement.isArray()).isTrue();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("export PDF (font + template + PDFBox)")
+    void exportPdf() throws Exception {
+        HttpResponse<byte[]> res = http.send(request("GET", "/api/expenses/" + expenseId + "/export.pdf", null),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(res.statusCode()).as("see " + LOG).isEqualTo(200);
+        assertThat(new String(res.body(), 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("actuator: readiness ตอบ, prometheus ต้อง login")
+    void actuator() throws Exception {
+        assertThat(http.send(request("GET", "/actuator/health/readiness", null), HttpResponse.BodyHandlers.discarding())
+                .statusCode()).isEqualTo(200);
+        HttpRequest anonymous = HttpRequest.newBuilder(URI.create(base + "/actuator/prometheus")).GET().build();
+        assertThat(http.send(anonymous, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(401);
+    }
+
+    private static JsonNode send(String method, String path, String body, int expectedStatus) throws Exception {
+        HttpResponse<String> res = http.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+        assertThat(res.statusCode()).as(method + " " + path + " → " + res.body() + " (see " + LOG + ")")
+                .isEqualTo(expectedStatus);
+        return json.readTree(res.body());
+    }
+
+    private static HttpRequest request(String method, String path, String body) {
+        var b = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        if (body != null) b.header("Content-Type", "application/json");
+        return b.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static void waitUntilReady() throws Exception {
+        HttpRequest ready = HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(1)).build();
+        long deadline = System.nanoTime() + GIVE_UP.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertThat(app.isAlive()).as("native app exited during startup, see " + LOG).isTrue();
+            try {
+                if (http.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException notListeningYet) {
+                // ยังไม่เปิด port
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("not ready after " + GIVE_UP + ", see " + LOG);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartsplit.smartsplitback.it.startup;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * เวลาตั้งแต่สั่ง java -jar จน /actuator/health/readiness ตอบ 200 (แบบเดียวกับ readinessProbe ใน k8s/backend)
+ * รัน jar จริงใน process ใหม่ (class loading, CDS, AOT มีผลครบ) กับ MySQL ที่ migrate แล้ว:
+ * รอบแรก migrate schema (ไม่จับเวลา) แล้วจับเวลารอบที่สอง
+ *
+ * เวลาขึ้นกับเครื่องมาก จึงไม่รันตอน mvn verify ปกติ ต้องเปิดเอง:
+ *   mvn verify -Dstartup.enabled=true -Dit.test=StartupTimeIT
+ * ต้องมี jar ใน target/ (failsafe รันหลัง package อยู่แล้ว); ไม่มี → ข้าม
+ *   budget: -Dstartup.budget-ms=45000 (ค่าเริ่มต้น: jar ธรรมดาไม่มี CDS ขึ้นจน refresh ~40 s บนเครื่อง build)
+ *   วัด image แบบ startup (mvn -Pstartup): -Dstartup.jvm-args="-Dspring.aot.enabled=true -XX:SharedArchiveFile=..."
+ * log ของ process อยู่ที่ target/startup-it.log
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "startup.enabled", matches = "true")
+@DisplayName("Startup: time-to-ready ของ jar ที่ build แล้ว")
+class StartupTimeIT {
+
+    private static final long BUDGET_MS = Long.getLong("startup.budget-ms", 45_000);
+    private static final Duration GIVE_UP = Duration.ofMinutes(3);
+    private static final Path LOG = Path.of("target", "startup-it.log");
+
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private static Path jar;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        jar = findJar();
+        Assumptions.assumeTrue(jar != null, "no packaged jar in target/ (run mvn verify)");
+        MYSQL.start();
+        // รอบแรก: Flyway migrate + warm page cache ของ jar
+        timeToReady();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        MYSQL.stop();
+    }
+
+    @Test
+    @DisplayName("พร้อมรับ traffic ภายใน budget")
+    void readyWithinBudget() throws Exception {
+        long ms = timeToReady();
+        assertThat(ms)
+                .as("time-to-ready (ms) ของ %s ดู %s", jar.getFileName(), LOG)
+                .isLessThanOrEqualTo(BUDGET_MS);
+    }
+
+    private static long timeToReady() throws Exception {
+        int port = freePort();
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String extra = System.getProperty("startup.jvm-args", "").trim();
+        if (!extra.isEmpty()) cmd.addAll(Arrays.asList(extra.split("\\s+")));
+        cmd.addAll(List.of("-jar", jar.toString(),
+                "--server.port=" + port,
+                "--management.tracing.enabled=false"));
+
+        ProcessBuilder pb = new ProcessBuilder(cmd)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(LOG.toFile()));
+        var env = pb.environment();
+        env.put("SPRING_PROFILES_ACTIVE", "prod");
+        env.put("SPRING_DATASOURCE_URL", MYSQL.getJdbcUrl());
+        env.put("SPRING_DATASOURCE_USERNAME", MYSQL.getUsername());
+        env.put("SPRING_DATASOURCE_PASSWORD", MYSQL.getPassword());
+        env.put("APP_JWT_SECRET", "f9wvJfbA1AZQeGlc1x3B8joQcXokci8Z/k57Q4Evu7/d7pqnuKmiyjqGFO9Rkjr7vmghxbV+Ob6vR3k0f/7eU7A7uhwYW18489kmUU14OJYuIk/EJ9s8A3p5hhCUZS7BAAq/nDj2GvabgbXCP+PWmkzEZw96OnkRUwDw90dlA5Q0Pw/xjgNyhELSprXPJD6NjPu9cSSEALSFrB7lHZDQYtLcenYwo38YLNFCc8Ppp0/U9SWm513HDynszLAkg5bQD/S8KjpkNiC16wnosp15RMVFG0LlWekuo4KZYTC4CKe26b5+BWqtLYXrMqPn4y3Ln+iOKmV2Imc0M1bOfKf4iYJ3k0ubhw2ew8teJBjpHt0=");
+        env.put("LOGGING_LOKI_ENABLED", "false");
+
+        Files.createDirectories(LOG.getParent());
+        long start = System.nanoTime();
+        Process app = pb.start();
+        try {
+            HttpRequest ready = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness"))
+                    .timeout(Duration.ofSeconds(1)).build();
+            long deadline = start + GIVE_UP.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(app.isAlive()).as("app exited during startup, see " + LOG).isTrue();
+                try {
+                    if (http.send(ready, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // ยังไม่เปิด port
+                }
+                Thread.sleep(50);
+            }
+            throw new AssertionError("not ready after " + GIVE_UP + ", see " + LOG);
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) app.destroyForcibly();
+        }
+    }
+
+    private static Path findJar() throws IOException {
+        Path target = Path.of("target");
+        if (!Files.isDirectory(target)) return null;
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".jar"))
+                    .filter(p -> !p.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+}
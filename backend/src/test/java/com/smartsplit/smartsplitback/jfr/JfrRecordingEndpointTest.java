@@ -0,0 +1,101 @@
+package com.smartsplit.smartsplitback.jfr;
+
+import com.smartsplit.smartsplitback.model.StoredFile;
+import com.smartsplit.smartsplitback.repository.StoredFileRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JfrRecordingEndpointTest {
+
+    StoredFileRepository repo;
+    JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(StoredFileRepository.class);
+        when(repo.save(any())).thenAnswer(inv -> {
+            StoredFile f = inv.getArgument(0);
+            f.setId(7L);
+            return f;
+        });
+        endpoint = new JfrRecordingEndpoint(repo, 300, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.shutdown();
+    }
+
+    @Test
+    @DisplayName("start → event ธุรกิจ → stop: เก็บ .jfr ลง stored_files folder jfr และมี event อยู่ในไฟล์")
+    void recordsBusinessEventsIntoFileStore() throws Exception {
+        assertThat(endpoint.start(60, "default").getStatus()).isEqualTo(200);
+        assertThat(endpoint.status()).containsEntry("recording", true);
+
+        SettlementEvent event = new SettlementEvent();
+        event.begin();
+        event.commit(42L, 3);
+
+        var stopped = endpoint.stop();
+        assertThat(stopped.getStatus()).isEqualTo(200);
+        assertThat(stopped.getBody()).containsEntry("file", "/api/files/7");
+        assertThat(endpoint.status()).containsEntry("recording", false).containsEntry("lastFile", "/api/files/7");
+
+        ArgumentCaptor<StoredFile> cap = ArgumentCaptor.forClass(StoredFile.class);
+        verify(repo).save(cap.capture());
+        StoredFile sf = cap.getValue();
+        assertThat(sf.getFolder()).isEqualTo("jfr");
+        assertThat(sf.getExt()).isEqualTo("jfr");
+
+        byte[] jfr = Base64.getDecoder().decode(sf.getDataUrl().substring(sf.getDataUrl().indexOf(',') + 1));
+        assertThat((long) jfr.length).isEqualTo(sf.getSizeBytes());
+        Path tmp = Files.createTempFile("test", ".jfr");
+        try {
+            Files.write(tmp, jfr);
+            List<RecordedEvent> settlements = RecordingFile.readAllEvents(tmp).stream()
+                    .filter(e -> e.getEventType().getName().equals("smartsplit.Settlement"))
+                    .toList();
+            assertThat(settlements).hasSize(1);
+            assertThat(settlements.get(0).getLong("expenseId")).isEqualTo(42L);
+            assertThat(settlements.get(0).getInt("participants")).isEqualTo(3);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Test
+    @DisplayName("อัดได้ครั้งละ 1 recording: start ซ้ำ → 409")
+    void secondStartConflicts() {
+        assertThat(endpoint.start(60, null).getStatus()).isEqualTo(200);
+        assertThat(endpoint.start(60, null).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    @DisplayName("settings ไม่รู้จัก หรือ seconds เกิน max → 400")
+    void rejectsUnboundedOrUnknownRequests() {
+        assertThat(endpoint.start(60, "custom").getStatus()).isEqualTo(400);
+        assertThat(endpoint.start(301, "profile").getStatus()).isEqualTo(400);
+        assertThat(endpoint.start(0, "profile").getStatus()).isEqualTo(400);
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    @DisplayName("stop ตอนไม่มี recording → 404")
+    void stopWithoutRecording() {
+        assertThat(endpoint.stop().getStatus()).isEqualTo(404);
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartsplit.smartsplitback.model;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExpenseItemTest {
+
+    @Test
+    @DisplayName("item ใหม่ → currency = THB")
+    void newItem_defaults_thb() {
+        ExpenseItem it = new ExpenseItem();
+        assertThat(it.getCurrency()).isEqualTo(Money.THB);
+        assertThat(it.currencyOrDefault()).isEqualTo(Money.THB);
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "   ", "\t"})
+    @DisplayName("currency เป็น null / ว่าง (ข้อมูลเก่า) → currencyOrDefault = THB")
+    void missingCurrency_fallsBack_thb(String currency) {
+        ExpenseItem it = new ExpenseItem();
+        it.setCurrency(currency);
+        assertThat(it.currencyOrDefault()).isEqualTo(Money.THB);
+    }
+
+    @Test
+    @DisplayName("มี currency → คืนค่าเดิม ไม่แปลงตัวพิมพ์ (ผู้เรียก upper เอง)")
+    void presentCurrency_returnedAsIs() {
+        ExpenseItem it = new ExpenseItem();
+        it.setCurrency("usd");
+        assertThat(it.currencyOrDefault()).isEqualTo("usd");
+    }
+}
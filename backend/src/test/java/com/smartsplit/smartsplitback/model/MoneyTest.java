@@ -0,0 +1,131 @@
+package com.smartsplit.smartsplitback.model;
+
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MoneyTest {
+
+    private static final long SEED = 20240917L;
+    private static final int ROUNDS = 2_000;
+
+    // ค่าสุ่ม scale 0..6 ช่วง ±10 ล้าน (ครอบคลุม share_value/payment amount จริง)
+    private static BigDecimal randomAmount(Random rnd, boolean allowNegative) {
+        long unscaled = (long) (rnd.nextDouble() * 10_000_000_000_000L);
+        if (allowNegative && rnd.nextBoolean()) unscaled = -unscaled;
+        return BigDecimal.valueOf(unscaled, 6).setScale(rnd.nextInt(7), RoundingMode.DOWN);
+    }
+
+    // ================= construction / conversion =================
+    @Nested
+    @DisplayName("of / toBigDecimal")
+    class Conversion {
+
+        @Test
+        @DisplayName("null → 0, สกุลว่าง → THB, ตัวพิมพ์เล็ก → ใหญ่")
+        void defaults() {
+            assertThat(Money.of(null, null)).isEqualTo(Money.zero("THB"));
+            assertThat(Money.of(new BigDecimal("1.5"), "usd").currency()).isEqualTo("USD");
+        }
+
+        @Test
+        @DisplayName("ค่าละเอียดกว่า 6 ตำแหน่ง → ArithmeticException (ไม่ปัดเงียบ)")
+        void tooPrecise() {
+            assertThatThrownBy(() -> Money.thb(new BigDecimal("0.0000001")))
+                    .isInstanceOf(ArithmeticException.class);
+        }
+
+        @Test
+        @DisplayName("สกุลต่างกัน → IllegalArgumentException")
+        void currencyMismatch() {
+            assertThatThrownBy(() -> Money.thb(BigDecimal.ONE).plus(Money.of(BigDecimal.ONE, "USD")))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("overflow → ArithmeticException")
+        void overflow() {
+            Money big = Money.ofMicros(Long.MAX_VALUE, "THB");
+            assertThatThrownBy(() -> big.plus(Money.ofMicros(1, "THB")))
+                    .isInstanceOf(ArithmeticException.class);
+        }
+
+        @Test
+        @DisplayName("roundToCents: HALF_UP ห่างจากศูนย์ทั้งบวกและลบ")
+        void roundingEdges() {
+            assertThat(Money.thb(new BigDecimal("0.005")).toBigDecimal(2)).isEqualTo(new BigDecimal("0.01"));
+            assertThat(Money.thb(new BigDecimal("0.004999")).toBigDecimal(2)).isEqualTo(new BigDecimal("0.00"));
+            assertThat(Money.thb(new BigDecimal("-0.005")).toBigDecimal(2)).isEqualTo(new BigDecimal("-0.01"));
+            assertThat(Money.thb(new BigDecimal("-0.004999")).toBigDecimal(2)).isEqualTo(new BigDecimal("0.00"));
+        }
+    }
+
+    // ================= property-based: เทียบกับ BigDecimal เดิม =================
+    @Nested
+    @DisplayName("property: ผลลัพธ์ตรงกับ BigDecimal ทุกบิต (ค่า + scale)")
+    class Properties {
+
+        @Test
+        @DisplayName("round-trip: of(x).toBigDecimal() == x.setScale(6)")
+        void roundTrip() {
+            Random rnd = new Random(SEED);
+            for (int i = 0; i < ROUNDS; i++) {
+                BigDecimal x = randomAmount(rnd, true);
+                assertThat(Money.thb(x).toBigDecimal()).isEqualTo(x.setScale(6));
+            }
+        }
+
+        @Test
+        @DisplayName("toBigDecimal(2) == setScale(2, HALF_UP)")
+        void r2Equivalent() {
+            Random rnd = new Random(SEED + 1);
+            for (int i = 0; i < ROUNDS; i++) {
+                BigDecimal x = randomAmount(rnd, true);
+                assertThat(Money.thb(x).toBigDecimal(2))
+                        .as("x=%s", x)
+                        .isEqualTo(x.setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+
+        @Test
+        @DisplayName("ผลรวม/ผลต่าง/clamp/compare ตรงกับ BigDecimal ทุกรอบ")
+        void aggregationEquivalent() {
+            Random rnd = new Random(SEED + 2);
+            for (int round = 0; round < ROUNDS; round++) {
+                int n = rnd.nextInt(40);
+                List<BigDecimal> shares = new ArrayList<>();
+                for (int i = 0; i < n; i++) shares.add(rnd.nextInt(10) == 0 ? null : randomAmount(rnd, false));
+                BigDecimal paidBd = randomAmount(rnd, false).setScale(2, RoundingMode.DOWN);
+
+                // เส้นทางเดิม (BigDecimal)
+                BigDecimal owedBd = BigDecimal.ZERO;
+                for (BigDecimal v : shares) if (v != null) owedBd = owedBd.add(v);
+                BigDecimal remBd = owedBd.subtract(paidBd);
+                if (remBd.signum() < 0) remBd = BigDecimal.ZERO;
+                BigDecimal owedOutBd = owedBd.setScale(2, RoundingMode.HALF_UP);
+                BigDecimal paidOutBd = paidBd.setScale(2, RoundingMode.HALF_UP);
+                BigDecimal remOutBd = remBd.setScale(2, RoundingMode.HALF_UP);
+                boolean settledBd = paidOutBd.compareTo(owedOutBd) >= 0;
+
+                // เส้นทางใหม่ (Money)
+                Money owed = Money.zero("THB");
+                for (BigDecimal v : shares) owed = owed.plus(v);
+                Money paid = Money.thb(paidBd);
+                Money rem = owed.minus(paid).clampAtZero();
+                boolean settled = paid.roundToCents().compareTo(owed.roundToCents()) >= 0;
+
+                assertThat(owed.toBigDecimal(2)).isEqualTo(owedOutBd);
+                assertThat(paid.toBigDecimal(2)).isEqualTo(paidOutBd);
+                assertThat(rem.toBigDecimal(2)).isEqualTo(remOutBd);
+                assertThat(settled).isEqualTo(settledBd);
+                assertThat(owed.toBigDecimal()).isEqualByComparingTo(owedBd);
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.smartsplit.smartsplitback.security;
 
 import com.smartsplit.smartsplitback.repository.*;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
@@ -23,6 +25,7 @@ class PermsTest {
     @Mock ExpenseItemShareRepository shares;
     @Mock ExpensePaymentRepository payments;
     @Mock ExpenseItemRepository expenseItems;
+    @Mock ExpenseArchiveRepository archives;
 
     private Perms perms;
     private AutoCloseable mocks;
@@ -30,7 +33,7 @@ class PermsTest {
     @BeforeEach
     void setUp() {
         mocks = MockitoAnnotations.openMocks(this);
-        perms = new Perms(sec, groups, members, expenses, shares, payments, expenseItems);
+        perms = new Perms(sec, groups, members, expenses, shares, payments, expenseItems, archives);
         SecurityContextHolder.clearContext();
     }
 
@@ -41,16 +44,8 @@ class PermsTest {
     }
 
     // --------- helpers for currentUserId() ----------
-    static class PrincipalWith {
-        Long id; Long uid; Long userId; String name;
-        Object build() {
-            return new Object() {
-                public Long getId(){ return id; }
-                public Long getUid(){ return uid; }
-                public Long getUserId(){ return userId; }
-                @Override public String toString(){ return "P"; }
-            };
-        }
+    record TypedPrincipal(Long userId) implements UserIdPrincipal {
+        @Override public String toString(){ return "P"; }
     }
     private void setAuth(Object principal, String name) {
         var auth = new UsernamePasswordAuthenticationToken(principal, null, null);
@@ -76,41 +71,42 @@ class PermsTest {
         }
 
         @Test
-        @DisplayName("principal มียูนิตเมธอด getId() → คืนค่าตามนั้น")
-        void via_getId() {
-            var p = new PrincipalWith(); p.id = 123L;
-            setAuth(p.build(), null);
+        @DisplayName("principal เป็น UserIdPrincipal → คืน userId()")
+        void via_userIdPrincipal() {
+            setAuth(new TypedPrincipal(123L), null);
             assertThat(perms.currentUserId()).isEqualTo(123L);
         }
 
         @Test
-        @DisplayName("principal มียูนิตเมธอด getUid() → คืนค่าตามนั้น")
-        void via_getUid() {
-            var p = new PrincipalWith(); p.uid = 44L;
-            setAuth(p.build(), null);
+        @DisplayName("principal เป็น Number → คืนค่านั้น")
+        void via_numberPrincipal() {
+            setAuth(44L, null);
             assertThat(perms.currentUserId()).isEqualTo(44L);
         }
 
         @Test
-        @DisplayName("principal มียูนิตเมธอด getUserId() → คืนค่าตามนั้น")
-        void via_getUserId() {
-            var p = new PrincipalWith(); p.userId = 777L;
-            setAuth(p.build(), null);
-            assertThat(perms.currentUserId()).isEqualTo(777L);
+        @DisplayName("UserIdPrincipal ที่ userId() เป็น null → 401 UNAUTHORIZED (toString ไม่ใช่เลข)")
+        void userIdPrincipal_null_401() {
+            setAuth(new TypedPrincipal(null), null);
+            assertThatThrownBy(() -> perms.currentUserId())
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode().value())
+                            .isEqualTo(HttpStatus.UNAUTHORIZED.value()));
         }
 
         @Test
-        @DisplayName("ไม่มีเมธอดยอดฮิต → fallback ใช้ auth.getName() เป็นตัวเลข")
+        @DisplayName("principal เป็น String (แบบ JwtAuthFilter) → ใช้ auth.getName() ที่เป็นตัวเลข")
         void fallback_authName_numeric() {
             // ใช้ principal เป็นสตริงตัวเลข เพื่อให้ getName() เป็น "999"
             setAuth("999", null);
             assertThat(perms.currentUserId()).isEqualTo(999L);
         }
 
-        @Test
-        @DisplayName("fallback ล้มเหลว (name ไม่ใช่เลข) → 401 UNAUTHORIZED")
-        void fallback_nonNumeric_401() {
-            setAuth("abc", null);
+        @ParameterizedTest
+        @ValueSource(strings = {"abc", "", "12a", "-5", "1234567890123456789"})
+        @DisplayName("fallback ล้มเหลว (name ไม่ใช่เลขล้วน / ยาวเกิน long) → 401 UNAUTHORIZED")
+        void fallback_nonNumeric_401(String name) {
+            setAuth(name, null);
             assertThatThrownBy(() -> perms.currentUserId())
                     .isInstanceOf(ResponseStatusException.class)
                     .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode().value())
@@ -275,13 +271,35 @@ class PermsTest {
         }
 
         @Test
-        @DisplayName("canViewExpense: groupId null → false")
+        @DisplayName("canViewExpense: groupId null (ไม่มีทั้งในตาราง hot และ archive) → false")
         void view_noGroup_false() {
             when(sec.isAdmin()).thenReturn(false);
             when(expenses.findGroupIdByExpenseId(100L)).thenReturn(null);
+            when(archives.findGroupIdById(100L)).thenReturn(null);
             assertThat(perms.canViewExpense(100L)).isFalse();
         }
 
+        @Test
+        @DisplayName("canViewExpense: archive แล้ว → สมาชิก group เดิมหรือผู้มีส่วนร่วมดูได้")
+        void view_archived() {
+            when(sec.isAdmin()).thenReturn(false);
+            when(sec.currentUserId()).thenReturn(5L);
+            when(expenses.findGroupIdByExpenseId(100L)).thenReturn(null);
+            when(archives.findGroupIdById(100L)).thenReturn(10L);
+            when(groups.findOwnerIdById(10L)).thenReturn(99L);
+            when(members.existsByGroup_IdAndUser_Id(10L, 5L)).thenReturn(false);
+
+            when(archives.isParticipant(100L, 5L)).thenReturn(false);
+            assertThat(perms.canViewExpense(100L)).isFalse();
+
+            when(archives.isParticipant(100L, 5L)).thenReturn(true);
+            assertThat(perms.canViewExpense(100L)).isTrue();
+
+            when(members.existsByGroup_IdAndUser_Id(10L, 5L)).thenReturn(true);
+            when(archives.isParticipant(100L, 5L)).thenReturn(false);
+            assertThat(perms.canViewExpense(100L)).isTrue();
+        }
+
         @Test
         @DisplayName("canViewExpense: เป็นสมาชิกของ group → true")
         void view_member_true() {
@@ -7,6 +7,8 @@ import com.smartsplit.smartsplitback.model.dto.LoginRequest;
 import com.smartsplit.smartsplitback.model.dto.RegisterRequest;
 import com.smartsplit.smartsplitback.repository.UserRepository;
 import com.smartsplit.smartsplitback.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -29,6 +31,8 @@ class AuthServiceTest {
     @Mock private PasswordEncoder encoder;
     @Mock private JwtService jwt;
 
+    @Spy private MeterRegistry meters = new SimpleMeterRegistry();
+
     @InjectMocks private AuthService authService;
 
     @BeforeEach
@@ -0,0 +1,125 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.CacheInvalidation;
+import com.smartsplit.smartsplitback.model.CacheRegions;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.GroupMember;
+import com.smartsplit.smartsplitback.model.GroupMemberId;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.CacheInvalidationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationServiceTest {
+
+    @Mock private CacheInvalidationRepository repo;
+    @Mock private EntityManagerFactory emf;
+    @Mock private SessionFactory sessionFactory;
+    @Mock private Cache cache;
+
+    private CacheInvalidationService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(emf.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        service = new CacheInvalidationService(repo, emf, 3, 10_000L, 30L);
+    }
+
+    private static CacheInvalidation row(long id, String region, String key) {
+        CacheInvalidation c = new CacheInvalidation(region, key);
+        c.setId(id);
+        return c;
+    }
+
+    @Test
+    @DisplayName("record: เก็บ key เป็น string, null = ทั้ง region")
+    void recordStoresKey() {
+        service.membershipChanged(5L, 9L);
+        service.expenseGroupChanged();
+
+        ArgumentCaptor<CacheInvalidation> cap = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(repo, times(2)).save(cap.capture());
+        assertThat(cap.getAllValues()).extracting(CacheInvalidation::getRegion, CacheInvalidation::getEntityKey)
+                .containsExactly(tuple(CacheRegions.GROUP_MEMBER, "5:9"), tuple(CacheRegions.EXPENSE_GROUP_QUERY, null));
+    }
+
+    @Test
+    @DisplayName("groupChanged: ล้าง query owner เฉพาะเมื่อ owner เปลี่ยน")
+    void groupChangedOwnerQueryOnlyWhenOwnerChanged() {
+        service.groupChanged(5L, false);
+        service.groupChanged(6L, true);
+
+        ArgumentCaptor<CacheInvalidation> cap = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(repo, times(3)).save(cap.capture());
+        assertThat(cap.getAllValues()).extracting(CacheInvalidation::getRegion, CacheInvalidation::getEntityKey)
+                .containsExactly(tuple(CacheRegions.GROUP, "5"), tuple(CacheRegions.GROUP, "6"),
+                        tuple(CacheRegions.GROUP_OWNER_QUERY, null));
+    }
+
+    @Test
+    @DisplayName("poll แรกแค่จำตำแหน่ง, poll ถัดไป evict ตาม region และไม่ evict ซ้ำแถวเดิม")
+    void pollEvictsOnce() {
+        when(repo.findMaxId()).thenReturn(100L);
+        when(repo.findPending(anyLong(), any(), any(Pageable.class))).thenReturn(List.of(
+                row(101L, CacheRegions.USER, "7"),
+                row(102L, CacheRegions.GROUP_MEMBER, "5:9")));
+
+        service.poll(); // init cursor
+        verify(repo, never()).findPending(anyLong(), any(), any(Pageable.class));
+
+        service.poll();
+        service.poll(); // แถวเดิมโผล่ซ้ำจาก lookback → ไม่ evict อีก
+
+        verify(repo).findPending(eq(100L), any(), any(Pageable.class));
+        verify(repo).findPending(eq(102L), any(), any(Pageable.class));
+        verify(cache, times(1)).evictEntityData(User.class, 7L);
+        verify(cache, times(1)).evictEntityData(GroupMember.class, new GroupMemberId(5L, 9L));
+    }
+
+    @Test
+    @DisplayName("ไม่มี key → evict ทั้ง region, query region → evictQueryRegion, '*' → ทุก region")
+    void applyWholeRegions() {
+        service.apply(row(1L, CacheRegions.GROUP, null));
+        service.apply(row(2L, CacheRegions.GROUP_OWNER_QUERY, null));
+        service.apply(row(3L, CacheRegions.ALL, null));
+
+        verify(cache).evictEntityData(Group.class);
+        verify(cache).evictQueryRegion(CacheRegions.GROUP_OWNER_QUERY);
+        verify(cache).evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("batch เต็ม (ตามไม่ทัน) → ล้างทุก region แล้วเริ่มนับใหม่จาก max id")
+    void backlogEvictsAll() {
+        when(repo.findMaxId()).thenReturn(10L, 500L);
+        when(repo.findPending(anyLong(), any(), any(Pageable.class)))
+                .thenReturn(Collections.nCopies(3, row(11L, CacheRegions.USER, "1")));
+
+        service.poll();
+        service.poll();
+
+        verify(cache).evictAllRegions();
+        verify(cache, never()).evictEntityData(any(Class.class), any());
+        verify(repo, times(2)).findMaxId();
+    }
+
+    @Test
+    @DisplayName("cleanup ลบแถวที่เก่ากว่า retention")
+    void cleanup() {
+        service.cleanup();
+        verify(repo).deleteOlderThan(any());
+    }
+}
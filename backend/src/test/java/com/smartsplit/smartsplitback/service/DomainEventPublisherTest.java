@@ -0,0 +1,120 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpensePayment;
+import com.smartsplit.smartsplitback.model.OutboxEvent;
+import com.smartsplit.smartsplitback.model.OutboxStatus;
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.event.DomainEvent;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.MembershipChanged;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.OutboxEventRepository;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DomainEventPublisherTest {
+
+    @Mock private OutboxEventRepository outbox;
+    @Mock private ExpenseRepository expenses;
+    @Mock private ExpenseItemShareRepository shares;
+    @Mock private ExpenseJournalService journal;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private DomainEventPublisher publisher;
+
+    @Captor private ArgumentCaptor<OutboxEvent> row;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        publisher = new DomainEventPublisher(outbox, objectMapper, expenses, shares, journal);
+    }
+
+    private DomainEvent readBack(OutboxEvent e) throws Exception {
+        return objectMapper.readValue(e.getPayload(), DomainEvent.typeOf(e.getEventType()));
+    }
+
+    @Test
+    @DisplayName("expenseChanged: affected = payer + participant + extra (ไม่ซ้ำ, ข้าม null) และ aggregate = EXPENSE")
+    void expenseChanged() throws Exception {
+        when(expenses.findPayerUserIdByExpenseId(10L)).thenReturn(1L);
+        when(shares.findParticipantIdsByExpense(10L)).thenReturn(Arrays.asList(1L, 2L, null, 3L));
+
+        publisher.expenseChanged(10L, ExpenseChanged.Change.SHARES, 3L, 4L, null);
+
+        verify(outbox).save(row.capture());
+        OutboxEvent e = row.getValue();
+        assertThat(e.getAggregateType()).isEqualTo("EXPENSE");
+        assertThat(e.getAggregateId()).isEqualTo(10L);
+        assertThat(e.getEventType()).isEqualTo("ExpenseChanged");
+        assertThat(e.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(e.getCreatedAt()).isNotNull();
+
+        assertThat(readBack(e)).isEqualTo(
+                new ExpenseChanged(10L, ExpenseChanged.Change.SHARES, Set.of(1L, 2L, 3L, 4L)));
+        verify(journal).record(10L, "SHARES");
+    }
+
+    @Test
+    @DisplayName("paymentStatusChanged: สถานะไม่เปลี่ยน → ไม่เขียน outbox")
+    void paymentStatusUnchanged() {
+        ExpensePayment p = payment(PaymentStatus.PENDING);
+
+        publisher.paymentStatusChanged(p, PaymentStatus.PENDING);
+
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    @DisplayName("paymentStatusChanged: เก็บสถานะเก่า/ใหม่ และผู้จ่ายอยู่ใน affected")
+    void paymentStatusChanged() throws Exception {
+        when(expenses.findPayerUserIdByExpenseId(10L)).thenReturn(1L);
+        when(shares.findParticipantIdsByExpense(10L)).thenReturn(List.of());
+        ExpensePayment p = payment(PaymentStatus.VERIFIED);
+
+        publisher.paymentStatusChanged(p, PaymentStatus.PENDING);
+
+        verify(outbox).save(row.capture());
+        assertThat(readBack(row.getValue())).isEqualTo(new PaymentStatusChanged(
+                10L, 100L, 2L, PaymentStatus.PENDING, PaymentStatus.VERIFIED, Set.of(1L, 2L)));
+        verify(journal).record(10L, "PAYMENT_VERIFIED");
+    }
+
+    @Test
+    @DisplayName("membershipChanged: aggregate = GROUP")
+    void membershipChanged() throws Exception {
+        publisher.membershipChanged(5L, 9L, false);
+
+        verify(outbox).save(row.capture());
+        assertThat(row.getValue().getAggregateType()).isEqualTo("GROUP");
+        assertThat(row.getValue().getAggregateId()).isEqualTo(5L);
+        assertThat(readBack(row.getValue())).isEqualTo(new MembershipChanged(5L, 9L, false));
+        verifyNoInteractions(journal);
+    }
+
+    private static ExpensePayment payment(PaymentStatus status) {
+        Expense e = new Expense();
+        e.setId(10L);
+        User u = new User();
+        u.setId(2L);
+        ExpensePayment p = new ExpensePayment();
+        p.setId(100L);
+        p.setExpense(e);
+        p.setFromUser(u);
+        p.setStatus(status);
+        return p;
+    }
+}
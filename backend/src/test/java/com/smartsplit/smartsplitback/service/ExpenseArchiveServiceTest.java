@@ -0,0 +1,222 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.*;
+import com.smartsplit.smartsplitback.repository.ExpenseArchiveRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpenseArchiveServiceTest {
+
+    @Mock private ExpenseRepository expenses;
+    @Mock private ExpenseArchiveRepository archives;
+    @Mock private CacheInvalidationService cacheInvalidations;
+    @Mock private PlatformTransactionManager tm;
+    @Mock private ClusterLock clusterLock;
+
+    private ExpenseArchiveService service;
+
+    private static final LocalDateTime LONG_AGO = LocalDateTime.now().minusDays(200);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new ExpenseArchiveService(expenses, archives, cacheInvalidations, clusterLock,
+                new ObjectMapper().findAndRegisterModules(), tm, new SimpleMeterRegistry(), 90, 2, 100, 3);
+        // ได้ lock เสมอ (instance เดียว)
+        when(clusterLock.runExclusive(anyString(), any()))
+                .thenAnswer(inv -> Optional.ofNullable(inv.<Supplier<?>>getArgument(1).get()));
+    }
+
+    private static User user(long id) {
+        User u = new User();
+        u.setId(id);
+        return u;
+    }
+
+    // payer 1, item 300 แบ่ง share ให้ 1/2/3 คนละ 100
+    private static Expense expense(long id, ExpenseStatus status, LocalDateTime closedAt) {
+        Group g = new Group();
+        g.setId(10L);
+
+        Expense e = new Expense();
+        e.setId(id);
+        e.setGroup(g);
+        e.setPayer(user(1));
+        e.setTitle("Dinner");
+        e.setAmount(new BigDecimal("300.00"));
+        e.setType(ExpenseType.EQUAL);
+        e.setStatus(status);
+        e.setCreatedAt(LONG_AGO.minusDays(1));
+        e.setClosedAt(closedAt);
+
+        ExpenseItem item = new ExpenseItem();
+        item.setId(id * 10);
+        item.setName("Food");
+        item.setAmount(new BigDecimal("300.00"));
+        item.setCurrency("THB");
+        e.addItem(item);
+        for (long uid = 1; uid <= 3; uid++) {
+            ExpenseItemShare s = new ExpenseItemShare();
+            s.setId(id * 100 + uid);
+            s.setExpenseItem(item);
+            s.setParticipant(user(uid));
+            s.setShareValue(new BigDecimal("100"));
+            s.setShareOriginalValue(new BigDecimal("100"));
+            item.getShares().add(s);
+        }
+        return e;
+    }
+
+    private static void pay(Expense e, long userId, String amount, PaymentStatus status) {
+        ExpensePayment p = new ExpensePayment();
+        p.setId(e.getId() * 1000 + e.getPayments().size());
+        p.setFromUser(user(userId));
+        p.setAmount(new BigDecimal(amount));
+        p.setStatus(status);
+        e.addPayment(p);
+    }
+
+    @Test
+    @DisplayName("settledUp: ทุกคนยกเว้น payer จ่าย VERIFIED ครบ → true, ค้าง/PENDING → false")
+    void settledUp() {
+        Expense e = expense(1L, ExpenseStatus.SETTLED, LONG_AGO);
+        pay(e, 2, "100.00", PaymentStatus.VERIFIED);
+        assertThat(ExpenseArchiveService.settledUp(e)).isFalse(); // คน 3 ยังค้าง
+
+        pay(e, 3, "60.00", PaymentStatus.VERIFIED);
+        pay(e, 3, "40.00", PaymentStatus.REJECTED);
+        assertThat(ExpenseArchiveService.settledUp(e)).isFalse();
+
+        pay(e, 3, "40.00", PaymentStatus.VERIFIED);
+        assertThat(ExpenseArchiveService.settledUp(e)).isTrue(); // share ของ payer เองไม่นับ
+
+        pay(e, 2, "10.00", PaymentStatus.PENDING);
+        assertThat(ExpenseArchiveService.settledUp(e)).isFalse();
+    }
+
+    @Test
+    @DisplayName("eligible: ต้องปิดแล้วและปิดก่อน cutoff")
+    void eligible() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        Expense open = expense(1L, ExpenseStatus.OPEN, null);
+        Expense recent = expense(2L, ExpenseStatus.CANCELED, LocalDateTime.now().minusDays(1));
+        Expense old = expense(3L, ExpenseStatus.CANCELED, LONG_AGO);
+        for (Expense e : List.of(open, recent, old)) {
+            pay(e, 2, "100", PaymentStatus.VERIFIED);
+            pay(e, 3, "100", PaymentStatus.VERIFIED);
+        }
+
+        assertThat(ExpenseArchiveService.eligible(open, cutoff)).isFalse();
+        assertThat(ExpenseArchiveService.eligible(recent, cutoff)).isFalse();
+        assertThat(ExpenseArchiveService.eligible(old, cutoff)).isTrue();
+    }
+
+    @Test
+    @DisplayName("archiveClosed: ย้ายเฉพาะตัวที่จ่ายครบ, ตัวที่ค้างไม่บังหน้าถัดไป")
+    void archiveClosedSkipsOutstanding() {
+        Expense owing = expense(1L, ExpenseStatus.SETTLED, LONG_AGO);
+        Expense done = expense(2L, ExpenseStatus.SETTLED, LONG_AGO);
+        pay(done, 2, "100", PaymentStatus.VERIFIED);
+        pay(done, 3, "100", PaymentStatus.VERIFIED);
+        Expense alsoDone = expense(3L, ExpenseStatus.CANCELED, LONG_AGO);
+        pay(alsoDone, 2, "100", PaymentStatus.VERIFIED);
+        pay(alsoDone, 3, "100", PaymentStatus.VERIFIED);
+
+        when(expenses.findArchiveCandidates(any(), eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(expenses.findArchiveCandidates(any(), eq(2L), any(Pageable.class))).thenReturn(List.of(3L));
+        when(expenses.findByIdForUpdate(1L)).thenReturn(Optional.of(owing));
+        when(expenses.findByIdForUpdate(2L)).thenReturn(Optional.of(done));
+        when(expenses.findByIdForUpdate(3L)).thenReturn(Optional.of(alsoDone));
+
+        assertThat(service.archiveClosed()).isEqualTo(2);
+
+        ArgumentCaptor<ExpenseArchive> cap = ArgumentCaptor.forClass(ExpenseArchive.class);
+        verify(archives, times(2)).save(cap.capture());
+        assertThat(cap.getAllValues()).extracting(ExpenseArchive::getId).containsExactly(2L, 3L);
+        verify(expenses).delete(done);
+        verify(expenses).delete(alsoDone);
+        verify(expenses, never()).delete(owing);
+        verify(cacheInvalidations, times(2)).expenseGroupChanged();
+    }
+
+    @Test
+    @DisplayName("archive แล้วอ่านเอกสารกลับได้ครบ (items / shares / payments) และเก็บผู้มีส่วนร่วม")
+    void documentRoundTrip() {
+        Expense e = expense(7L, ExpenseStatus.SETTLED, LONG_AGO);
+        pay(e, 2, "100", PaymentStatus.VERIFIED);
+        pay(e, 3, "100", PaymentStatus.VERIFIED);
+
+        ExpenseArchive a = service.toArchive(e);
+        assertThat(a.getGroupId()).isEqualTo(10L);
+        assertThat(a.getParticipantIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+
+        when(archives.findDocumentById(7L)).thenReturn(a.getDocument());
+        var doc = service.document(7L);
+
+        assertThat(doc.expense().id()).isEqualTo(7L);
+        assertThat(doc.expense().status()).isEqualTo(ExpenseStatus.SETTLED);
+        assertThat(doc.closedAt()).isEqualTo(LONG_AGO);
+        assertThat(doc.items()).extracting(i -> i.name()).containsExactly("Food");
+        assertThat(doc.shares()).hasSize(3);
+        assertThat(doc.payments()).extracting(p -> p.fromUserId()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("ย้ายไม่สำเร็จ (เช่น instance อื่นย้ายไปแล้ว) → ข้าม ไม่โยนต่อ")
+    void archiveOneFailureIsSkipped() {
+        Expense e = expense(1L, ExpenseStatus.SETTLED, LONG_AGO);
+        pay(e, 2, "100", PaymentStatus.VERIFIED);
+        pay(e, 3, "100", PaymentStatus.VERIFIED);
+        when(expenses.findByIdForUpdate(1L)).thenReturn(Optional.of(e));
+        when(archives.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThat(service.archiveOne(1L, LocalDateTime.now())).isEqualTo(ExpenseArchiveService.Outcome.FAILED);
+        verify(expenses, never()).delete(any(Expense.class));
+    }
+
+    @Test
+    @DisplayName("ล้มติดกันครบ max-consecutive-failures → หยุดรอบนี้ ไม่ไล่ต่อทั้งตาราง")
+    void archiveClosedStopsOnConsecutiveFailures() {
+        when(expenses.findArchiveCandidates(any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    long after = inv.getArgument(1);
+                    return List.of(after + 1, after + 2);
+                });
+        when(expenses.findByIdForUpdate(anyLong())).thenThrow(new DataIntegrityViolationException("db down"));
+
+        assertThat(service.archiveClosed()).isZero();
+        verify(expenses, times(3)).findByIdForUpdate(anyLong());
+    }
+
+    @Test
+    @DisplayName("instance อื่นถือ lock อยู่ → ข้ามรอบนี้ ไม่แตะ DB")
+    void archiveClosedSkipsWhenLockHeldElsewhere() {
+        doReturn(Optional.empty()).when(clusterLock).runExclusive(anyString(), any());
+
+        assertThat(service.archiveClosed()).isZero();
+        verifyNoInteractions(expenses, archives);
+    }
+
+    @Test
+    @DisplayName("document: ไม่พบใน archive → null")
+    void documentMissing() {
+        when(archives.findDocumentById(9L)).thenReturn(null);
+        assertThat(service.document(9L)).isNull();
+    }
+}
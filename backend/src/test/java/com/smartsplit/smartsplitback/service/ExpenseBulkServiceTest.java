@@ -0,0 +1,247 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseFullRequest;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
+import com.smartsplit.smartsplitback.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.math.RoundingMode.HALF_UP;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpenseBulkServiceTest {
+
+    @Mock private ExpenseRepository expenses;
+    @Mock private GroupRepository groups;
+    @Mock private UserRepository users;
+    @Mock private DomainEventPublisher events;
+
+    private ExchangeRateService fx;
+    private ExpenseBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // ใช้ toThb ตัวจริง แต่ stub live rate ไม่ให้ยิง network
+        fx = spy(new ExchangeRateService(new SimpleMeterRegistry()));
+        doReturn(Map.of("THB", BigDecimal.ONE, "USD", new BigDecimal("35")))
+                .when(fx).getLiveRatesToThb();
+        service = new ExpenseBulkService(expenses, groups, users, fx, events, new ObjectMapper());
+
+        when(groups.findById(10L)).thenReturn(Optional.of(group(10L)));
+        when(users.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(users.findAllById(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            var out = new java.util.ArrayList<User>();
+            ids.forEach(id -> { if (id < 100) out.add(user(id)); });
+            return out;
+        });
+        when(expenses.save(any(Expense.class))).thenAnswer(inv -> {
+            Expense e = inv.getArgument(0);
+            e.setId(900L);
+            return e;
+        });
+    }
+
+    private static BigDecimal bd6(String s) {
+        return new BigDecimal(s).setScale(6, HALF_UP);
+    }
+
+    private static Group group(Long id) {
+        Group g = new Group();
+        g.setId(id);
+        return g;
+    }
+
+    private static User user(Long id) {
+        User u = new User();
+        u.setId(id);
+        return u;
+    }
+
+    private static ExpenseFullRequest req(Map<String, BigDecimal> rates, ExpenseFullRequest.Item... items) {
+        return new ExpenseFullRequest(10L, 1L, ExpenseType.CUSTOM, "Dinner", ExpenseStatus.OPEN,
+                "THB", null, rates, List.of(items));
+    }
+
+    private static ExpenseFullRequest.Item item(String name, String amount, String ccy, ExpenseFullRequest.Share... shares) {
+        return new ExpenseFullRequest.Item(name, new BigDecimal(amount), ccy, List.of(shares));
+    }
+
+    private static ExpenseFullRequest.Share value(long uid, String v) {
+        return new ExpenseFullRequest.Share(uid, new BigDecimal(v), null);
+    }
+
+    private static ExpenseFullRequest.Share percent(long uid, String p) {
+        return new ExpenseFullRequest.Share(uid, null, new BigDecimal(p));
+    }
+
+    @Nested
+    @DisplayName("createFull: สร้างทั้ง tree")
+    class CreateFull {
+
+        @Test
+        @DisplayName("สร้าง items + shares ผูก parent ครบ และ save ครั้งเดียว")
+        void buildsTree_singleSave() {
+            Expense e = service.createFull(req(null,
+                    item("Pizza", "300", "THB", value(1L, "100"), value(2L, "200")),
+                    item("Coke", "60", null, percent(1L, "50"), percent(3L, "50"))));
+
+            assertThat(e.getItems()).hasSize(2);
+            ExpenseItem pizza = e.getItems().get(0);
+            assertThat(pizza.getExpense()).isSameAs(e);
+            assertThat(pizza.getCurrency()).isEqualTo("THB");
+            assertThat(pizza.getShares()).extracting(ExpenseItemShare::getShareValue)
+                    .containsExactly(bd6("100"), bd6("200"));
+            assertThat(pizza.getShares()).allMatch(s -> s.getExpenseItem() == pizza);
+
+            ExpenseItem coke = e.getItems().get(1);
+            assertThat(coke.getShares()).extracting(ExpenseItemShare::getShareOriginalValue)
+                    .containsExactly(bd6("30"), bd6("30"));
+
+            assertThat(e.getAmount()).isEqualByComparingTo("360.00");
+            assertThat(e.getTitle()).isEqualTo("Dinner");
+
+            verify(expenses, times(1)).save(any(Expense.class));
+            verify(users, times(1)).findAllById(any());
+            verify(fx, times(1)).getLiveRatesToThb();
+        }
+
+        @Test
+        @DisplayName("สร้างเสร็จ → ประกาศ ExpenseChanged(CREATED) หลัง save (journal แถวแรกอยู่ใน transaction เดียวกัน)")
+        void publishesCreated() {
+            service.createFull(req(null, item("Pizza", "300", "THB", value(1L, "100"), value(2L, "200"))));
+
+            var order = inOrder(expenses, events);
+            order.verify(expenses).save(any(Expense.class));
+            order.verify(events).expenseChanged(900L, ExpenseChanged.Change.CREATED);
+        }
+
+        @Test
+        @DisplayName("item สกุลต่างประเทศ → share แปลงเป็น THB ด้วย rate ชุดเดียว")
+        void foreignCurrency_convertedWithSingleRateTable() {
+            Expense e = service.createFull(req(null,
+                    item("Hotel", "100", "usd", value(1L, "40"), percent(2L, "60"))));
+
+            ExpenseItem hotel = e.getItems().get(0);
+            assertThat(hotel.getCurrency()).isEqualTo("USD");
+            assertThat(hotel.getShares()).extracting(ExpenseItemShare::getShareValue)
+                    .containsExactly(bd6("1400"), bd6("2100"));
+            assertThat(e.getAmount()).isEqualByComparingTo("3500.00");
+            assertThat(e.getExchangeRatesJson()).contains("USD");
+        }
+
+        @Test
+        @DisplayName("ส่ง rates เอง → merge ทับ live rate และบังคับ THB=1")
+        void customRates_merged() {
+            Expense e = service.createFull(req(Map.of("usd", new BigDecimal("30"), "THB", new BigDecimal("9")),
+                    item("Hotel", "10", "USD", value(1L, "10"))));
+
+            assertThat(e.getItems().get(0).getShares().get(0).getShareValue()).isEqualByComparingTo("300");
+            assertThat(e.getExchangeRatesJson()).contains("\"THB\":1");
+        }
+
+        @Test
+        @DisplayName("ไม่มี items → สร้าง expense เปล่า amount = 0")
+        void noItems() {
+            Expense e = service.createFull(req(null));
+            assertThat(e.getItems()).isEmpty();
+            assertThat(e.getAmount()).isEqualByComparingTo("0");
+            verify(users, never()).findAllById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("createFull: validation")
+    class Validation {
+
+        private void assertStatus(ExpenseFullRequest in, HttpStatus status) {
+            assertThatThrownBy(() -> service.createFull(in))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(status);
+            verify(expenses, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("ไม่มี groupId → 400")
+        void missingGroup() {
+            assertStatus(new ExpenseFullRequest(null, 1L, null, "x", null, null, null, null, null),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("title ว่าง → 400")
+        void blankTitle() {
+            assertStatus(new ExpenseFullRequest(10L, 1L, null, " ", null, null, null, null, null),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("share ไม่มีทั้ง value และ percent → 400")
+        void shareWithoutValue() {
+            assertStatus(req(null, item("A", "10", "THB", new ExpenseFullRequest.Share(1L, null, null))),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("percent เกิน 100 → 400")
+        void percentOver100() {
+            assertStatus(req(null, item("A", "10", "THB", percent(1L, "120"))), HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("participant ซ้ำใน item เดียว → 400")
+        void duplicateParticipant() {
+            assertStatus(req(null, item("A", "10", "THB", value(1L, "5"), value(1L, "5"))), HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("participant ไม่มีในระบบ → 404")
+        void unknownParticipant() {
+            assertStatus(req(null, item("A", "10", "THB", value(999L, "5"))), HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("group ไม่พบ → 404")
+        void groupNotFound() {
+            when(groups.findById(10L)).thenReturn(Optional.empty());
+            assertStatus(req(null), HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("rates ที่ส่งมาไม่ครอบคลุมสกุลของ item → 400")
+        void customRatesMissingCurrency() {
+            doReturn(Map.of("THB", BigDecimal.ONE)).when(fx).getLiveRatesToThb();
+            assertStatus(req(Map.of("EUR", new BigDecimal("38")), item("A", "10", "USD", value(1L, "5"))),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("live rate ใช้ไม่ได้ + item ไม่ใช่ THB → 503")
+        void liveRatesUnavailable() {
+            doThrow(new RuntimeException("down")).when(fx).getLiveRatesToThb();
+            assertStatus(req(null, item("A", "10", "USD", value(1L, "5"))), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.Expense;
 import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
 import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
 import org.junit.jupiter.api.*;
@@ -21,6 +22,7 @@ class ExpenseItemServiceTest {
 
     @Mock private ExpenseItemRepository items;
     @Mock private ExpenseRepository expenses;
+    @Mock private DomainEventPublisher events;
 
     @InjectMocks private ExpenseItemService service;
 
@@ -208,17 +210,17 @@ class ExpenseItemServiceTest {
             when(items.findByIdAndExpense_Id(itemId, expenseId)).thenReturn(Optional.of(it));
             when(items.save(any(ExpenseItem.class))).thenAnswer(inv -> inv.getArgument(0));
 
-            ExpenseItem updated = service.updateInExpense(expenseId, itemId, "NewName", null, null);
+            ExpenseItem updated = service.updateInExpense(expenseId, itemId, "NewName", null, null, null);
             assertThat(updated.getName()).isEqualTo("NewName");
             assertThat(updated.getAmount()).isEqualByComparingTo("10.00");
             assertThat(updated.getCurrency()).isEqualTo("THB");
 
-            updated = service.updateInExpense(expenseId, itemId, null, new BigDecimal("12.50"), null);
+            updated = service.updateInExpense(expenseId, itemId, null, new BigDecimal("12.50"), null, null);
             assertThat(updated.getName()).isEqualTo("NewName");
             assertThat(updated.getAmount()).isEqualByComparingTo("12.50");
             assertThat(updated.getCurrency()).isEqualTo("THB");
 
-            updated = service.updateInExpense(expenseId, itemId, null, null, "USD");
+            updated = service.updateInExpense(expenseId, itemId, null, null, "USD", null);
             assertThat(updated.getCurrency()).isEqualTo("USD");
 
             verify(items, times(3)).findByIdAndExpense_Id(itemId, expenseId);
@@ -235,7 +237,7 @@ class ExpenseItemServiceTest {
             when(items.findByIdAndExpense_Id(itemId, expenseId)).thenReturn(Optional.of(it));
             when(items.save(any(ExpenseItem.class))).thenAnswer(inv -> inv.getArgument(0));
 
-            ExpenseItem updated = service.updateInExpense(expenseId, itemId, "ALL", new BigDecimal("2.22"), "EUR");
+            ExpenseItem updated = service.updateInExpense(expenseId, itemId, "ALL", new BigDecimal("2.22"), "EUR", null);
             assertThat(updated.getName()).isEqualTo("ALL");
             assertThat(updated.getAmount()).isEqualByComparingTo("2.22");
             assertThat(updated.getCurrency()).isEqualTo("EUR");
@@ -251,7 +253,7 @@ class ExpenseItemServiceTest {
             when(items.findByIdAndExpense_Id(itemId, expenseId)).thenReturn(Optional.empty());
 
             ResponseStatusException ex = catchThrowableOfType(
-                    () -> service.updateInExpense(expenseId, itemId, "N", new BigDecimal("1.0"), "THB"),
+                    () -> service.updateInExpense(expenseId, itemId, "N", new BigDecimal("1.0"), "THB", null),
                     ResponseStatusException.class
             );
             assertThat(ex.getStatusCode().value()).isEqualTo(HttpStatus.NOT_FOUND.value());
@@ -276,6 +278,8 @@ class ExpenseItemServiceTest {
 
             verify(items).existsByIdAndExpense_Id(itemId, expenseId);
             verify(items).deleteById(itemId);
+            verify(expenses).bumpRevision(expenseId);
+            verify(events).expenseChanged(expenseId, ExpenseChanged.Change.ITEMS);
         }
 
         @Test
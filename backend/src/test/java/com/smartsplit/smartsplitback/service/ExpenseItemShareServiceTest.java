@@ -32,6 +32,7 @@ class ExpenseItemShareServiceTest {
     @Mock private GroupMemberRepository members;
     @Mock private ExpenseRepository expenses;
     @Mock private ExchangeRateService fx;
+    @Mock private DomainEventPublisher events;
 
     @InjectMocks private ExpenseItemShareService service;
 
@@ -319,7 +320,7 @@ class ExpenseItemShareServiceTest {
             when(shares.save(any(ExpenseItemShare.class))).thenAnswer(inv -> inv.getArgument(0));
 
             ExpenseItemShare updated = service.updateShareInExpense(
-                    expenseId, itemId, shareId, null, new BigDecimal("33.333")
+                    expenseId, itemId, shareId, null, new BigDecimal("33.333"), null
             );
 
             assertThat(updated.getShareOriginalValue()).isEqualByComparingTo(bd6("666.660000"));
@@ -350,7 +351,7 @@ class ExpenseItemShareServiceTest {
             when(shares.save(any(ExpenseItemShare.class))).thenAnswer(inv -> inv.getArgument(0));
 
             ExpenseItemShare updated = service.updateShareInExpense(
-                    expenseId, itemId, shareId, new BigDecimal("1.999"), null
+                    expenseId, itemId, shareId, new BigDecimal("1.999"), null, null
             );
 
             assertThat(updated.getShareOriginalValue()).isEqualByComparingTo(bd6("1.999000"));
@@ -383,7 +384,7 @@ class ExpenseItemShareServiceTest {
 
             when(shares.save(any(ExpenseItemShare.class))).thenAnswer(inv -> inv.getArgument(0));
 
-            ExpenseItemShare updated = service.updateShareInExpense(expenseId, itemId, shareId, null, null);
+            ExpenseItemShare updated = service.updateShareInExpense(expenseId, itemId, shareId, null, null, null);
 
             assertThat(updated.getShareOriginalValue()).isEqualByComparingTo(bd6("3.000000"));
             assertThat(updated.getSharePercent()).isEqualByComparingTo("30");
@@ -398,7 +399,7 @@ class ExpenseItemShareServiceTest {
                     .thenReturn(Optional.empty());
 
             ResponseStatusException ex = catchThrowableOfType(
-                    () -> service.updateShareInExpense(999L, 99L, 9L, BigDecimal.ONE, null),
+                    () -> service.updateShareInExpense(999L, 99L, 9L, BigDecimal.ONE, null, null),
                     ResponseStatusException.class
             );
             assertThat(ex.getStatusCode().value()).isEqualTo(HttpStatus.NOT_FOUND.value());
@@ -0,0 +1,189 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.ExpenseJournalEntry;
+import com.smartsplit.smartsplitback.model.ExpenseJournalSnapshot;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseJournalRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseJournalSnapshotRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseUserAmountProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpenseJournalServiceTest {
+
+    @Mock private ExpenseJournalRepository journal;
+    @Mock private ExpenseJournalSnapshotRepository snapshots;
+    @Mock private ExpenseRepository expenses;
+    @Mock private ExpenseItemShareRepository shares;
+    @Mock private ExpensePaymentRepository payments;
+
+    private ExpenseJournalService service;
+
+    // journal / snapshot ในหน่วยความจำแทน DB
+    private final List<ExpenseJournalEntry> rows = new ArrayList<>();
+    private final List<ExpenseJournalSnapshot> snaps = new ArrayList<>();
+
+    private record Row(Long expenseId, Long userId, BigDecimal amount) implements ExpenseUserAmountProjection {
+        @Override public Long getExpenseId() { return expenseId; }
+        @Override public Long getUserId() { return userId; }
+        @Override public BigDecimal getAmount() { return amount; }
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new ExpenseJournalService(journal, snapshots, expenses, shares, payments,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), 2);
+
+        when(journal.saveAll(anyList())).thenAnswer(inv -> {
+            rows.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(snapshots.saveAll(anyList())).thenAnswer(inv -> {
+            snaps.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(journal.findLastSeq(anyLong())).thenAnswer(inv -> rows.stream()
+                .filter(r -> r.getExpenseId().equals(inv.getArgument(0)))
+                .map(ExpenseJournalEntry::getSeq).max(Integer::compare).orElse(null));
+        when(journal.findLastSeqAt(anyLong(), any())).thenAnswer(inv -> rows.stream()
+                .filter(r -> r.getExpenseId().equals(inv.getArgument(0)))
+                .filter(r -> !r.getCreatedAt().isAfter(inv.getArgument(1)))
+                .map(ExpenseJournalEntry::getSeq).max(Integer::compare).orElse(null));
+        when(journal.findTail(anyLong(), anyInt(), anyInt())).thenAnswer(inv -> {
+            int after = inv.getArgument(1), upTo = inv.getArgument(2);
+            return rows.stream()
+                    .filter(r -> r.getExpenseId().equals(inv.getArgument(0)))
+                    .filter(r -> r.getSeq() > after && r.getSeq() <= upTo)
+                    .sorted(Comparator.comparingInt(ExpenseJournalEntry::getSeq))
+                    .toList();
+        });
+        when(snapshots.findTopByExpenseIdAndSeqLessThanEqualOrderBySeqDesc(anyLong(), anyInt())).thenAnswer(inv -> {
+            int upTo = inv.getArgument(1);
+            return snaps.stream()
+                    .filter(s -> s.getExpenseId().equals(inv.getArgument(0)) && s.getSeq() <= upTo)
+                    .max(Comparator.comparingInt(ExpenseJournalSnapshot::getSeq));
+        });
+        when(expenses.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
+    }
+
+    private void live(List<Row> owed, List<Row> paid) {
+        when(shares.sumShareValueByExpense(10L)).thenReturn(new ArrayList<>(owed));
+        when(payments.sumVerifiedByExpense(10L)).thenReturn(new ArrayList<>(paid));
+    }
+
+    private void append(String change) {
+        service.append(Map.of(10L, Set.of(change)));
+    }
+
+    @Test
+    @DisplayName("diff/apply: ยอดเปลี่ยน, user ใหม่ยอด 0 และ user ที่หลุดออก replay กลับได้ตรง")
+    void diffApplyRoundTrip() {
+        var from = new ExpenseJournalService.State(Map.of(1L, 100L, 2L, 50L), Map.of(2L, 10L));
+        var to = new ExpenseJournalService.State(Map.of(1L, 120L, 3L, 0L), Map.of(2L, 10L));
+
+        var d = ExpenseJournalService.diff(from, to);
+        assertThat(d.owed()).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 20L, 3L, 0L));
+        assertThat(d.owedRemoved()).containsExactly(2L);
+        assertThat(d.paid()).isEmpty();
+        assertThat(d.paidRemoved()).isEmpty();
+
+        assertThat(ExpenseJournalService.apply(from, d)).isEqualTo(to);
+    }
+
+    @Test
+    @DisplayName("append: แถวแรกเป็นยอดทั้งหมด, แถวถัดไปเก็บเฉพาะส่วนต่าง, snapshot ทุก 2 แถว")
+    void appendWritesDeltasAndSnapshots() {
+        live(List.of(new Row(10L, 1L, new BigDecimal("100.000000")), new Row(10L, 2L, new BigDecimal("50.000000"))),
+                List.of());
+        append("SHARES");
+
+        live(List.of(new Row(10L, 1L, new BigDecimal("100.000000")), new Row(10L, 2L, new BigDecimal("50.000000"))),
+                List.of(new Row(10L, 2L, new BigDecimal("50.00"))));
+        append("PAYMENT_VERIFIED");
+
+        assertThat(rows).extracting(ExpenseJournalEntry::getSeq).containsExactly(1, 2);
+        assertThat(rows.get(0).getChanges()).isEqualTo("SHARES");
+        assertThat(rows.get(0).getDelta()).isEqualTo("{\"owed\":{\"1\":100000000,\"2\":50000000}}");
+        assertThat(rows.get(1).getDelta()).isEqualTo("{\"paid\":{\"2\":50000000}}");
+
+        assertThat(snaps).singleElement().satisfies(s -> assertThat(s.getSeq()).isEqualTo(2));
+        verify(journal, times(2)).flush();
+        verify(expenses, times(2)).findByIdForUpdate(10L);
+    }
+
+    @Test
+    @DisplayName("settlementsAt: replay ณ แต่ละเวลาได้ผลเหมือน ExpenseSettlementService ตอนนั้น (ผ่าน snapshot + ส่วนท้าย)")
+    void replayAtPointInTime() {
+        live(List.of(new Row(10L, 1L, new BigDecimal("100.005000")), new Row(10L, 2L, new BigDecimal("50.000000"))),
+                List.of());
+        append("SHARES");
+        live(List.of(new Row(10L, 1L, new BigDecimal("100.005000")), new Row(10L, 2L, new BigDecimal("50.000000"))),
+                List.of(new Row(10L, 2L, new BigDecimal("20.00"))));
+        append("PAYMENT_VERIFIED");
+        live(List.of(new Row(10L, 1L, new BigDecimal("100.005000"))),
+                List.of(new Row(10L, 2L, new BigDecimal("20.00"))));
+        append("SHARES");
+
+        Instant t1 = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < rows.size(); i++) rows.get(i).setCreatedAt(t1.plusSeconds(60L * i));
+
+        assertThat(service.settlementsAt(10L, t1.minusSeconds(1))).isEmpty();
+
+        assertThat(service.settlementsAt(10L, t1)).containsExactly(
+                new ExpenseSettlementDto(10L, 1L, new BigDecimal("100.01"), new BigDecimal("0.00"), false, new BigDecimal("100.01")),
+                new ExpenseSettlementDto(10L, 2L, new BigDecimal("50.00"), new BigDecimal("0.00"), false, new BigDecimal("50.00")));
+
+        // seq 3 ใช้ snapshot ของ seq 2 แล้ว fold แค่แถวเดียว; user 2 ไม่มี share แล้วแต่ยังมี payment VERIFIED
+        assertThat(service.settlementsAt(10L, t1.plusSeconds(120))).containsExactly(
+                new ExpenseSettlementDto(10L, 1L, new BigDecimal("100.01"), new BigDecimal("0.00"), false, new BigDecimal("100.01")),
+                new ExpenseSettlementDto(10L, 2L, new BigDecimal("0.00"), new BigDecimal("20.00"), true, new BigDecimal("0.00")));
+        verify(journal).findTail(10L, 2, 3);
+    }
+
+    @Test
+    @DisplayName("record: หลายครั้งใน transaction เดียว → รวมเป็นแถวเดียวต่อ expense ตอน beforeCommit")
+    void recordCoalescesPerTransaction() {
+        live(List.of(new Row(10L, 1L, new BigDecimal("10"))), List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.record(10L, "ITEMS");
+            service.record(10L, "SHARES");
+            service.record(10L, "ITEMS");
+            service.record(null, "ITEMS");
+
+            for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+                s.beforeCommit(false);
+                s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(rows).singleElement().satisfies(r -> {
+            assertThat(r.getExpenseId()).isEqualTo(10L);
+            assertThat(r.getChanges()).isEqualTo("ITEMS,SHARES");
+        });
+        assertThat(TransactionSynchronizationManager.getResource(service)).isNull();
+    }
+}
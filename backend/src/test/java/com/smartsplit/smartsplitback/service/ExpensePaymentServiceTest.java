@@ -5,9 +5,13 @@ import com.smartsplit.smartsplitback.model.ExpensePayment;
 import com.smartsplit.smartsplitback.model.PaymentReceipt;
 import com.smartsplit.smartsplitback.model.PaymentStatus;
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkRequest;
+import com.smartsplit.smartsplitback.model.dto.PaymentStatusBulkResult;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
 import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
 import com.smartsplit.smartsplitback.repository.PaymentReceiptRepository;
+import com.smartsplit.smartsplitback.repository.PaymentStateProjection;
 import com.smartsplit.smartsplitback.repository.UserRepository;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
@@ -16,7 +20,9 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,6 +35,7 @@ class ExpensePaymentServiceTest {
     @Mock private UserRepository users;
     @Mock private PaymentReceiptRepository receipts;
     @Mock private FileStorageService storage;
+    @Mock private DomainEventPublisher events;
 
     @InjectMocks private ExpensePaymentService service;
 
@@ -252,11 +259,13 @@ class ExpensePaymentServiceTest {
             when(payments.findByIdAndExpense_Id(paymentId, expenseId)).thenReturn(Optional.of(p));
             when(payments.save(any(ExpensePayment.class))).thenAnswer(inv -> inv.getArgument(0));
 
-            ExpensePayment updated = service.setStatusInExpense(expenseId, paymentId, PaymentStatus.REJECTED);
+            ExpensePayment updated = service.setStatusInExpense(expenseId, paymentId, PaymentStatus.REJECTED, null);
 
             assertThat(updated.getStatus()).isEqualTo(PaymentStatus.REJECTED);
             verify(payments).findByIdAndExpense_Id(paymentId, expenseId);
             verify(payments).save(p);
+            verify(expenses).bumpRevision(expenseId);
+            verify(events).paymentStatusChanged(p, PaymentStatus.PENDING);
         }
 
         @Test
@@ -265,7 +274,7 @@ class ExpensePaymentServiceTest {
             when(payments.findByIdAndExpense_Id(9L, 99L)).thenReturn(Optional.empty());
 
             ResponseStatusException ex = catchThrowableOfType(
-                    () -> service.setStatusInExpense(99L, 9L, PaymentStatus.REJECTED),
+                    () -> service.setStatusInExpense(99L, 9L, PaymentStatus.REJECTED, null),
                     ResponseStatusException.class
             );
             assertThat(ex.getStatusCode().value()).isEqualTo(HttpStatus.NOT_FOUND.value());
@@ -273,6 +282,117 @@ class ExpensePaymentServiceTest {
         }
     }
 
+    // ============================== optimistic version ==============================
+    @Nested
+    @DisplayName("version check / bulk status")
+    class Versioned {
+
+        private PaymentStateProjection state(Long id, long version, PaymentStatus status, Long fromUserId) {
+            PaymentStateProjection s = mock(PaymentStateProjection.class);
+            when(s.getId()).thenReturn(id);
+            when(s.getVersion()).thenReturn(version);
+            when(s.getStatus()).thenReturn(status);
+            when(s.getFromUserId()).thenReturn(fromUserId);
+            return s;
+        }
+
+        private PaymentStatusBulkRequest.Item item(Long id, Long version) {
+            return new PaymentStatusBulkRequest.Item(id, version);
+        }
+
+        @Test
+        @DisplayName("setStatusInExpense: version ไม่ตรง → 412 และไม่ save")
+        void setStatusInExpense_versionMismatch_412() {
+            ExpensePayment p = payment(100L, exp(10L), user(1L, "x@x"), new BigDecimal("1.00"), PaymentStatus.PENDING);
+            p.setVersion(4L);
+            when(payments.findByIdAndExpense_Id(100L, 10L)).thenReturn(Optional.of(p));
+
+            ResponseStatusException ex = catchThrowableOfType(
+                    () -> service.setStatusInExpense(10L, 100L, PaymentStatus.VERIFIED, 3L),
+                    ResponseStatusException.class
+            );
+            assertThat(ex.getStatusCode().value()).isEqualTo(HttpStatus.PRECONDITION_FAILED.value());
+            verify(payments, never()).save(any());
+            verifyNoInteractions(events);
+        }
+
+        @Test
+        @DisplayName("bulk: แยก updated / conflict / notFound ตามลำดับคำขอ และ UPDATE ครั้งเดียว")
+        void bulk_mixed() {
+            Long expenseId = 10L;
+            var s1 = state(1L, 0, PaymentStatus.PENDING, 21L);
+            var s2 = state(2L, 5, PaymentStatus.PENDING, 22L);
+            var s4 = state(4L, 1, PaymentStatus.VERIFIED, 24L);
+            when(payments.findStatesInExpense(eq(expenseId), anyCollection())).thenReturn(List.of(s1, s2, s4));
+            when(payments.updateStatusIfVersion(expenseId, Map.of(1L, 0L), PaymentStatus.VERIFIED)).thenReturn(1);
+            when(events.affectedUsers(expenseId)).thenReturn(Set.of(99L));
+
+            PaymentStatusBulkResult r = service.setStatusesInExpense(expenseId, PaymentStatus.VERIFIED,
+                    List.of(item(1L, 0L), item(2L, 4L), item(3L, 0L), item(4L, 1L)));
+
+            assertThat(r.updated()).containsExactly(1L, 4L);
+            assertThat(r.conflicts()).containsExactly(new PaymentStatusBulkResult.Conflict(2L, 4L, 5L));
+            assertThat(r.notFound()).containsExactly(3L);
+            verify(payments, times(1)).updateStatusIfVersion(anyLong(), anyMap(), any());
+            verify(expenses, times(1)).bumpRevision(expenseId);
+            verify(events, times(1)).publish(new PaymentStatusChanged(expenseId, 1L, 21L,
+                    PaymentStatus.PENDING, PaymentStatus.VERIFIED, Set.of(99L, 21L)));
+        }
+
+        @Test
+        @DisplayName("bulk: มีคนแก้แถวระหว่างอ่านกับ UPDATE → แถวนั้นเป็น conflict")
+        void bulk_raceDuringUpdate() {
+            Long expenseId = 10L;
+            var b1 = state(1L, 0, PaymentStatus.PENDING, 21L);
+            var b2 = state(2L, 0, PaymentStatus.PENDING, 22L);
+            var a1 = state(1L, 1, PaymentStatus.VERIFIED, 21L);
+            var a2 = state(2L, 1, PaymentStatus.REJECTED, 22L);
+            when(payments.findStatesInExpense(eq(expenseId), anyCollection()))
+                    .thenReturn(List.of(b1, b2))
+                    .thenReturn(List.of(a1, a2));
+            when(payments.updateStatusIfVersion(eq(expenseId), anyMap(), eq(PaymentStatus.VERIFIED))).thenReturn(1);
+            when(events.affectedUsers(expenseId)).thenReturn(Set.of());
+
+            PaymentStatusBulkResult r = service.setStatusesInExpense(expenseId, PaymentStatus.VERIFIED,
+                    List.of(item(1L, 0L), item(2L, 0L)));
+
+            assertThat(r.updated()).containsExactly(1L);
+            assertThat(r.conflicts()).containsExactly(new PaymentStatusBulkResult.Conflict(2L, 0L, 1L));
+            verify(events, times(1)).publish(any(PaymentStatusChanged.class));
+        }
+
+        @Test
+        @DisplayName("bulk: ไม่มีแถวไหนเปลี่ยน → ไม่ bump revision / ไม่ publish")
+        void bulk_nothingApplied() {
+            var s1 = state(1L, 2, PaymentStatus.PENDING, 21L);
+            when(payments.findStatesInExpense(eq(10L), anyCollection())).thenReturn(List.of(s1));
+
+            PaymentStatusBulkResult r = service.setStatusesInExpense(10L, PaymentStatus.VERIFIED,
+                    List.of(item(1L, 1L)));
+
+            assertThat(r.updated()).isEmpty();
+            assertThat(r.conflicts()).hasSize(1);
+            verify(payments, never()).updateStatusIfVersion(anyLong(), anyMap(), any());
+            verify(expenses, never()).bumpRevision(anyLong());
+            verifyNoInteractions(events);
+        }
+
+        @Test
+        @DisplayName("bulk: id ซ้ำ / ไม่มี version → 400")
+        void bulk_invalid_400() {
+            ResponseStatusException dup = catchThrowableOfType(
+                    () -> service.setStatusesInExpense(10L, PaymentStatus.VERIFIED, List.of(item(1L, 0L), item(1L, 0L))),
+                    ResponseStatusException.class);
+            ResponseStatusException noVersion = catchThrowableOfType(
+                    () -> service.setStatusesInExpense(10L, PaymentStatus.VERIFIED, List.of(item(1L, null))),
+                    ResponseStatusException.class);
+
+            assertThat(dup.getStatusCode().value()).isEqualTo(400);
+            assertThat(noVersion.getStatusCode().value()).isEqualTo(400);
+            verifyNoInteractions(payments);
+        }
+    }
+
     // ============================== delete ==============================
     @Nested
     @DisplayName("delete(paymentId)")
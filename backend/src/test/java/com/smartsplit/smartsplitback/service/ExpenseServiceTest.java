@@ -1,27 +1,46 @@
 package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
 import com.smartsplit.smartsplitback.model.ExpenseStatus;
 import com.smartsplit.smartsplitback.model.ExpenseType;
 import com.smartsplit.smartsplitback.model.Group;
 import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.ExpenseDto;
+import com.smartsplit.smartsplitback.model.dto.ExpenseView;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
 import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseUserAmountProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ExpenseServiceTest {
 
     @Mock private ExpenseRepository repo;
     @Mock private ExpenseItemShareRepository shareRepo;
+    @Mock private ExpenseItemRepository itemRepo;
+    @Mock private ExpensePaymentRepository paymentRepo;
+    @Spy private ExchangeRateService fx = new ExchangeRateService(new SimpleMeterRegistry());
+    @Mock private DomainEventPublisher events;
+    @Mock private CacheInvalidationService cacheInvalidations;
     @InjectMocks private ExpenseService service;
 
     @BeforeEach
@@ -115,6 +134,104 @@ class ExpenseServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("streamByGroup(groupId)")
+    class StreamByGroup {
+
+        private record Row(Long expenseId, Long userId, BigDecimal amount) implements ExpenseUserAmountProjection {
+            @Override public Long getExpenseId() { return expenseId; }
+            @Override public Long getUserId() { return userId; }
+            @Override public BigDecimal getAmount() { return amount; }
+        }
+
+        private List<ExpenseDto> page(long fromId, int size) {
+            return LongStream.range(fromId, fromId + size)
+                    .mapToObj(id -> dto(id, ExpenseStatus.OPEN))
+                    .toList();
+        }
+
+        private ExpenseDto dto(long id, ExpenseStatus status) {
+            return new ExpenseDto(id, 10L, 2L, new BigDecimal("1.00"), ExpenseType.EQUAL, "E" + id, status, null);
+        }
+
+        @Test
+        @DisplayName("หน้าเต็ม → query หน้าถัดไปต่อจาก id สุดท้าย, หน้าไม่เต็ม → หยุดโดยไม่ query เพิ่ม")
+        void keysetPages() {
+            int size = ExpenseService.GROUP_PAGE_SIZE;
+            when(repo.findDtoPageByGroup(eq(10L), eq(0L), any(Pageable.class))).thenReturn(page(1, size));
+            when(repo.findDtoPageByGroup(eq(10L), eq((long) size), any(Pageable.class))).thenReturn(page(size + 1, 3));
+
+            List<Long> ids = service.streamByGroup(10L).map(ExpenseView::id).toList();
+
+            assertThat(ids).hasSize(size + 3).startsWith(1L).endsWith((long) size + 3);
+            verify(repo, times(2)).findDtoPageByGroup(eq(10L), anyLong(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("query หน้าถัดไปเมื่อใช้หน้าเดิมหมดแล้วเท่านั้น")
+        void lazyNextPage() {
+            int size = ExpenseService.GROUP_PAGE_SIZE;
+            when(repo.findDtoPageByGroup(eq(10L), eq(0L), any(Pageable.class))).thenReturn(page(1, size));
+
+            assertThat(service.streamByGroup(10L).limit(size).count()).isEqualTo(size);
+            verify(repo, times(1)).findDtoPageByGroup(eq(10L), anyLong(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("group ไม่มี expense → stream ว่าง")
+        void empty() {
+            when(repo.findDtoPageByGroup(eq(11L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+            assertThat(service.streamByGroup(11L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("หน้าที่ไม่มี SETTLED → ไม่ query ยอดจ่ายเลย")
+        void noSettledNoSums() {
+            when(repo.findDtoPageByGroup(eq(10L), eq(0L), any(Pageable.class))).thenReturn(page(1, 3));
+
+            assertThat(service.streamByGroup(10L).map(ExpenseView::status)).containsOnly("OPEN");
+            verifyNoInteractions(shareRepo, paymentRepo, itemRepo);
+        }
+
+        @Test
+        @DisplayName("SETTLED ที่จ่ายครบ → COMPLETE: ยอดของทั้งหน้า query ครั้งเดียว ไม่ query ต่อ expense")
+        void completeStatusBatchedPerPage() {
+            when(repo.findDtoPageByGroup(eq(10L), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                    dto(1L, ExpenseStatus.SETTLED),   // 2 คนค้าง 15 + 15, จ่ายแล้ว 30 → ครบ
+                    dto(2L, ExpenseStatus.SETTLED),   // ค้าง 15, จ่ายแล้ว 5 → ยังไม่ครบ
+                    dto(3L, ExpenseStatus.OPEN),
+                    dto(4L, ExpenseStatus.SETTLED),   // ไม่มี settlement, items 0 → ครบ
+                    dto(5L, ExpenseStatus.SETTLED))); // ไม่มี settlement, items 2 USD → ยังไม่ครบ
+            when(shareRepo.sumShareValueByExpenseIds(List.of(1L, 2L, 4L, 5L))).thenReturn(List.of(
+                    new Row(1L, 2L, new BigDecimal("15.000000")),   // payer ไม่นับ
+                    new Row(1L, 7L, new BigDecimal("15.000000")),
+                    new Row(1L, 8L, new BigDecimal("14.996000")),   // ปัดเป็น 15.00 ก่อนรวม
+                    new Row(2L, 7L, new BigDecimal("15.000000"))));
+            when(paymentRepo.sumVerifiedByExpenseIds(List.of(1L, 2L, 4L, 5L))).thenReturn(List.of(
+                    new Row(1L, 7L, new BigDecimal("15.00")),
+                    new Row(1L, 8L, new BigDecimal("15.00")),
+                    new Row(2L, 7L, new BigDecimal("5.00"))));
+
+            Expense e5 = expense(5L, 10L, 2L, "E5", "1.00");
+            ExpenseItem usd = new ExpenseItem();
+            usd.setExpense(e5);
+            usd.setCurrency("USD");
+            usd.setAmount(new BigDecimal("2.00"));
+            doReturn(Map.of("THB", BigDecimal.ONE, "USD", new BigDecimal("35"))).when(fx).getRatesToThb(e5);
+            when(itemRepo.findWithExpenseByExpenseIds(List.of(4L, 5L))).thenReturn(List.of(usd));
+
+            assertThat(service.streamByGroup(10L).map(ExpenseView::status))
+                    .containsExactly("COMPLETE", "SETTLED", "OPEN", "COMPLETE", "SETTLED");
+
+            verify(shareRepo, times(1)).sumShareValueByExpenseIds(anyCollection());
+            verify(paymentRepo, times(1)).sumVerifiedByExpenseIds(anyCollection());
+            verify(itemRepo, times(1)).findWithExpenseByExpenseIds(anyCollection());
+            verify(paymentRepo, never()).sumVerifiedAmountByExpenseId(anyLong());
+            verify(repo, never()).findById(anyLong());
+        }
+    }
+
     @Nested
     @DisplayName("listByPayer(userId)")
     class ListByPayer {
@@ -230,7 +347,7 @@ class ExpenseServiceTest {
     @DisplayName("save(expense)")
     class SaveOne {
         @Test
-        @DisplayName("บันทึกสำเร็จ → คืน entity พร้อม id")
+        @DisplayName("สร้างใหม่ → คืน entity พร้อม id และประกาศ ExpenseChanged(CREATED) ไม่ bump revision")
         void save_ok() {
             Expense toSave = expense(null, 10L, 2L, "Snacks", "20.00");
 
@@ -247,6 +364,35 @@ class ExpenseServiceTest {
             assertThat(saved.getGroup()).isNotNull();
             assertThat(saved.getPayer()).isNotNull();
             verify(repo).save(toSave);
+            verify(events).expenseChanged(500L, ExpenseChanged.Change.CREATED);
+            verifyNoMoreInteractions(events);
+            verify(repo, never()).bumpRevision(anyLong());
+        }
+
+        @Test
+        @DisplayName("แก้ไข expense เดิม → bump revision และประกาศ ExpenseChanged(DETAILS), group เดิม → ไม่ล้าง query cache")
+        void save_existing_publishes() {
+            Expense existing = expense(77L, 10L, 2L, "Snacks", "20.00");
+            when(repo.findPersistedGroupIdById(77L)).thenReturn(10L);
+            when(repo.save(any(Expense.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            service.save(existing);
+
+            verify(repo).bumpRevision(77L);
+            verify(events).expenseChanged(77L, ExpenseChanged.Change.DETAILS);
+            verifyNoInteractions(cacheInvalidations);
+        }
+
+        @Test
+        @DisplayName("ย้าย expense ไป group อื่น → บันทึก invalidation ของ query cache")
+        void save_moved_group_invalidates() {
+            Expense moved = expense(77L, 11L, 2L, "Snacks", "20.00");
+            when(repo.findPersistedGroupIdById(77L)).thenReturn(10L);
+            when(repo.save(any(Expense.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            service.save(moved);
+
+            verify(cacheInvalidations).expenseGroupChanged();
         }
 
         @Test
@@ -273,10 +419,13 @@ class ExpenseServiceTest {
     @DisplayName("delete(id)")
     class DeleteOne {
         @Test
-        @DisplayName("เรียกลบตาม id ที่กำหนด")
+        @DisplayName("เรียกลบตาม id ที่กำหนด; ประกาศ ExpenseChanged(DELETED) ก่อนลบ (ยังหา participant ได้)")
         void delete_ok() {
             service.delete(777L);
-            verify(repo).deleteById(777L);
+
+            InOrder order = inOrder(events, repo);
+            order.verify(events).expenseChanged(777L, ExpenseChanged.Change.DELETED);
+            order.verify(repo).deleteById(777L);
         }
 
         @Test
@@ -4,6 +4,8 @@ import com.smartsplit.smartsplitback.model.ExpenseItem;
 import com.smartsplit.smartsplitback.model.ExpenseItemShare;
 import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
 import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
@@ -20,6 +22,8 @@ class ExpenseSettlementServiceTest {
     @Mock private ExpenseItemShareRepository shares;
     @Mock private ExpensePaymentRepository payments;
 
+    @Spy private MeterRegistry meters = new SimpleMeterRegistry();
+
     @InjectMocks private ExpenseSettlementService service;
 
     @BeforeEach
@@ -0,0 +1,239 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseItemShare;
+import com.smartsplit.smartsplitback.model.ExpenseType;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.GroupMember;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.GroupMemberRepository;
+import com.smartsplit.smartsplitback.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpenseSplitServiceTest {
+
+    @Mock private ExpenseRepository expenses;
+    @Mock private ExpenseItemRepository items;
+    @Mock private ExpenseItemShareRepository shares;
+    @Mock private GroupMemberRepository members;
+    @Mock private UserRepository users;
+    @Mock private DomainEventPublisher events;
+
+    private ExchangeRateService fx;
+    private ExpenseSplitService service;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        fx = spy(new ExchangeRateService(new SimpleMeterRegistry()));
+        doReturn(Map.of("THB", BigDecimal.ONE, "USD", new BigDecimal("35")))
+                .when(fx).getRatesToThb(any());
+        service = new ExpenseSplitService(expenses, items, shares, members, users, fx, events);
+
+        Group g = new Group();
+        g.setId(10L);
+        expense = new Expense();
+        expense.setId(100L);
+        expense.setGroup(g);
+        expense.setType(ExpenseType.CUSTOM);
+
+        when(expenses.findById(100L)).thenReturn(Optional.of(expense));
+        when(members.findByGroup_Id(10L)).thenReturn(List.of(member(g, 1L), member(g, 2L), member(g, 3L)));
+        when(users.findAllById(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            List<User> out = new ArrayList<>();
+            ids.forEach(id -> out.add(user(id)));
+            return out;
+        });
+        when(shares.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private static User user(Long id) {
+        User u = new User();
+        u.setId(id);
+        return u;
+    }
+
+    private static GroupMember member(Group g, Long userId) {
+        GroupMember gm = new GroupMember();
+        gm.setGroup(g);
+        gm.setUser(user(userId));
+        return gm;
+    }
+
+    private ExpenseItem item(Long id, String amount, String ccy) {
+        ExpenseItem it = new ExpenseItem();
+        it.setId(id);
+        it.setAmount(new BigDecimal(amount));
+        it.setCurrency(ccy);
+        it.setExpense(expense);
+        return it;
+    }
+
+    private static BigDecimal sumOriginal(List<ExpenseItemShare> list) {
+        return list.stream().map(ExpenseItemShare::getShareOriginalValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal sumThb(List<ExpenseItemShare> list) {
+        return list.stream().map(ExpenseItemShare::getShareValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Nested
+    @DisplayName("EQUAL")
+    class Equal {
+
+        @Test
+        @DisplayName("ไม่ระบุ participant → แบ่งให้สมาชิกทั้งกลุ่ม, ผลรวมเท่ากับยอด item พอดี")
+        void defaultsToGroupMembers() {
+            ExpenseItem it = item(200L, "100.00", "THB");
+            when(items.findByExpense_Id(100L)).thenReturn(List.of(it));
+
+            List<ExpenseItemShare> out = service.split(100L, ExpenseType.EQUAL, null, null, null);
+
+            assertThat(out).hasSize(3);
+            assertThat(out).extracting(s -> s.getParticipant().getId()).containsExactly(1L, 2L, 3L);
+            assertThat(out).extracting(ExpenseItemShare::getShareOriginalValue)
+                    .containsExactly(new BigDecimal("33.340000"), new BigDecimal("33.330000"), new BigDecimal("33.330000"));
+            assertThat(sumOriginal(out)).isEqualByComparingTo("100.00");
+            assertThat(sumThb(out)).isEqualByComparingTo("100");
+            assertThat(out).allMatch(s -> s.getSharePercent() == null);
+            assertThat(expense.getType()).isEqualTo(ExpenseType.EQUAL);
+
+            verify(shares).deleteByExpenseItemIds(List.of(200L));
+            verify(shares, times(1)).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("item USD → ยอด THB แบ่งระดับ 6 ตำแหน่งและรวมได้เท่ายอด THB ของ item")
+        void foreignCurrency_thbSumExact() {
+            ExpenseItem it = item(200L, "10.00", "USD");
+            when(items.findByIdAndExpense_Id(200L, 100L)).thenReturn(Optional.of(it));
+
+            List<ExpenseItemShare> out = service.split(100L, ExpenseType.EQUAL, 200L, List.of(1L, 2L, 3L), null);
+
+            assertThat(sumOriginal(out)).isEqualByComparingTo("10.00");
+            assertThat(sumThb(out)).isEqualByComparingTo("350");
+            // split รายตัว item → ไม่เปลี่ยน type ของ expense
+            assertThat(expense.getType()).isEqualTo(ExpenseType.CUSTOM);
+        }
+
+        @Test
+        @DisplayName("participant ไม่ใช่สมาชิกกลุ่ม → 400")
+        void nonMember() {
+            when(items.findByExpense_Id(100L)).thenReturn(List.of(item(200L, "10", "THB")));
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.EQUAL, null, List.of(1L, 99L), null))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+            verify(shares, never()).deleteByExpenseItemIds(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("PERCENTAGE")
+    class Percentage {
+
+        @Test
+        @DisplayName("แบ่งตาม percent ทั้ง expense, เก็บ sharePercent, เศษไปคนที่ remainder มากสุด")
+        void splitsByPercent() {
+            ExpenseItem a = item(200L, "0.99", "THB");
+            ExpenseItem b = item(201L, "250.00", "THB");
+            when(items.findByExpense_Id(100L)).thenReturn(List.of(a, b));
+
+            List<ExpenseItemShare> out = service.split(100L, ExpenseType.PERCENTAGE, null, null,
+                    Map.of(1L, new BigDecimal("50"), 2L, new BigDecimal("25"), 3L, new BigDecimal("25")));
+
+            assertThat(out).hasSize(6);
+            List<ExpenseItemShare> forA = out.subList(0, 3);
+            assertThat(forA).extracting(ExpenseItemShare::getShareOriginalValue)
+                    .containsExactly(new BigDecimal("0.490000"), new BigDecimal("0.250000"), new BigDecimal("0.250000"));
+            assertThat(sumOriginal(forA)).isEqualByComparingTo("0.99");
+            assertThat(sumOriginal(out.subList(3, 6))).isEqualByComparingTo("250.00");
+            assertThat(forA).extracting(ExpenseItemShare::getSharePercent)
+                    .containsExactly(new BigDecimal("50.000000"), new BigDecimal("25.000000"), new BigDecimal("25.000000"));
+            assertThat(expense.getType()).isEqualTo(ExpenseType.PERCENTAGE);
+        }
+
+        @Test
+        @DisplayName("percent รวมไม่เท่ากับ 100 → 400")
+        void percentsNotSumming() {
+            when(items.findByExpense_Id(100L)).thenReturn(List.of(item(200L, "10", "THB")));
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.PERCENTAGE, null, null,
+                    Map.of(1L, new BigDecimal("50"), 2L, new BigDecimal("40"))))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("sum to 100");
+        }
+
+        @Test
+        @DisplayName("ไม่ส่ง percents → 400")
+        void percentsMissing() {
+            when(items.findByExpense_Id(100L)).thenReturn(List.of(item(200L, "10", "THB")));
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.PERCENTAGE, null, null, null))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("percents are required");
+        }
+    }
+
+    @Nested
+    @DisplayName("กรณีอื่น ๆ")
+    class Misc {
+
+        @Test
+        @DisplayName("CUSTOM → 400")
+        void customRejected() {
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.CUSTOM, null, null, null))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("expense ไม่พบ → 404")
+        void expenseNotFound() {
+            when(expenses.findById(100L)).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.EQUAL, null, null, null))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("itemId ไม่อยู่ใน expense → 404")
+        void itemNotInExpense() {
+            when(items.findByIdAndExpense_Id(200L, 100L)).thenReturn(Optional.empty());
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.EQUAL, 200L, null, null))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("expense ไม่มี item → 400")
+        void noItems() {
+            when(items.findByExpense_Id(100L)).thenReturn(List.of());
+            assertThatThrownBy(() -> service.split(100L, ExpenseType.EQUAL, null, null, null))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.smartsplit.smartsplitback.service;
 
 import com.smartsplit.smartsplitback.model.StoredFile;
 import com.smartsplit.smartsplitback.repository.StoredFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
@@ -17,6 +18,7 @@ class FileStorageServiceTest {
 
     FileStorageService service;
     StoredFileRepository repo;
+    SimpleMeterRegistry meters;
 
     @BeforeEach
     void setUp() {
@@ -26,7 +28,8 @@ class FileStorageServiceTest {
             if (s.getId() == null) s.setId(123L);
             return s;
         });
-        service = new FileStorageService(repo);
+        meters = new SimpleMeterRegistry();
+        service = new FileStorageService(repo, meters);
     }
 
     private static MultipartFile mockFile(byte[] bytes, String originalFilename, String contentType, boolean empty) throws Exception {
@@ -88,6 +91,17 @@ class FileStorageServiceTest {
             assertThat(Base64.getDecoder().decode(b64)).isEqualTo(bytes);
         }
 
+        @Test
+        void save_recordsUploadSize_andEncodeTime() throws Exception {
+            MultipartFile f = mockFile(new byte[2048], "a.png", "image/png", false);
+
+            service.save(f, "img", null, req("http","localhost",80,"/upload"));
+
+            assertThat(meters.get("file.upload.size").summary().count()).isEqualTo(1);
+            assertThat(meters.get("file.upload.size").summary().totalAmount()).isEqualTo(2048.0);
+            assertThat(meters.get("file.upload.encode").timer().count()).isEqualTo(1);
+        }
+
         @Test
         void save_withoutContentType_derivesFromExtension_caseInsensitive() throws Exception {
             byte[] bytes = "x".getBytes();
@@ -0,0 +1,214 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.Expense;
+import com.smartsplit.smartsplitback.model.ExpenseItem;
+import com.smartsplit.smartsplitback.model.ExpenseStatus;
+import com.smartsplit.smartsplitback.model.Group;
+import com.smartsplit.smartsplitback.model.User;
+import com.smartsplit.smartsplitback.model.dto.GroupDashboardDto;
+import com.smartsplit.smartsplitback.repository.ExpenseItemRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseItemShareRepository;
+import com.smartsplit.smartsplitback.repository.ExpensePaymentRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseRepository;
+import com.smartsplit.smartsplitback.repository.ExpenseUserAmountProjection;
+import com.smartsplit.smartsplitback.repository.GroupMemberRepository;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GroupDashboardServiceTest {
+
+    @Mock private GroupRepository groups;
+    @Mock private GroupMemberRepository members;
+    @Mock private ExpenseRepository expenses;
+    @Mock private ExpenseItemRepository items;
+    @Mock private ExpenseItemShareRepository shares;
+    @Mock private ExpensePaymentRepository payments;
+
+    private GroupDashboardService service;
+    private Group group;
+
+    private record Row(Long expenseId, Long userId, BigDecimal amount) implements ExpenseUserAmountProjection {
+        @Override public Long getExpenseId() { return expenseId; }
+        @Override public Long getUserId() { return userId; }
+        @Override public BigDecimal getAmount() { return amount; }
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExchangeRateService fx = spy(new ExchangeRateService(new SimpleMeterRegistry()));
+        doReturn(Map.of("THB", BigDecimal.ONE, "USD", new BigDecimal("35")))
+                .when(fx).getRatesToThb(any());
+        service = new GroupDashboardService(groups, members, expenses, items, shares, payments, fx, 2);
+
+        group = new Group();
+        group.setId(10L);
+        group.setName("Trip");
+        group.setOwner(user(1L));
+
+        when(groups.findById(10L)).thenReturn(Optional.of(group));
+        when(members.findUsersByGroupId(10L)).thenReturn(List.of(user(1L), user(2L), user(3L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static User user(Long id) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail("u" + id + "@x.com");
+        return u;
+    }
+
+    private Expense expense(Long id, Long payerId, ExpenseStatus status) {
+        Expense e = new Expense();
+        e.setId(id);
+        e.setGroup(group);
+        e.setPayer(user(payerId));
+        e.setStatus(status);
+        return e;
+    }
+
+    private static ExpenseItem item(Expense e, String amount, String ccy) {
+        ExpenseItem it = new ExpenseItem();
+        it.setExpense(e);
+        it.setAmount(new BigDecimal(amount));
+        it.setCurrency(ccy);
+        return it;
+    }
+
+    @Nested
+    @DisplayName("dashboard")
+    class Dashboard {
+
+        @Test
+        @DisplayName("รวมยอด items/verified, settlement ของผู้เรียก และ position สุทธิ")
+        void aggregates() {
+            Expense dinner = expense(100L, 1L, ExpenseStatus.OPEN);   // ผู้เรียกจ่าย
+            Expense taxi = expense(101L, 2L, ExpenseStatus.SETTLED);  // คนอื่นจ่าย
+            when(expenses.findByGroup_Id(10L)).thenReturn(List.of(dinner, taxi));
+            when(items.findByGroupId(10L)).thenReturn(List.of(
+                    item(dinner, "90.00", "THB"),
+                    item(taxi, "2.00", "USD")));
+            when(shares.sumShareValueByGroup(10L)).thenReturn(List.of(
+                    new Row(100L, 1L, new BigDecimal("30.000000")),
+                    new Row(100L, 2L, new BigDecimal("30.000000")),
+                    new Row(100L, 3L, new BigDecimal("30.000000")),
+                    new Row(101L, 1L, new BigDecimal("35.000000")),
+                    new Row(101L, 2L, new BigDecimal("35.000000"))));
+            when(payments.sumVerifiedByGroup(10L)).thenReturn(List.of(
+                    new Row(100L, 2L, new BigDecimal("30.00")),
+                    new Row(101L, 1L, new BigDecimal("10.00"))));
+
+            GroupDashboardDto out = service.dashboard(10L, 1L);
+
+            assertThat(out.group().memberCount()).isEqualTo(3L);
+            assertThat(out.members()).extracting(m -> m.id()).containsExactly(1L, 2L, 3L);
+            assertThat(out.expenses()).hasSize(2);
+
+            var d = out.expenses().get(0);
+            assertThat(d.itemsTotal()).isEqualTo(new BigDecimal("90.00"));
+            assertThat(d.verifiedTotal()).isEqualTo(new BigDecimal("30.00"));
+            assertThat(d.fullyPaid()).isFalse();
+            assertThat(d.displayStatus()).isEqualTo("OPEN");
+            assertThat(d.mySettlement().settled()).isTrue(); // payer
+
+            var t = out.expenses().get(1);
+            assertThat(t.itemsTotal()).isEqualTo(new BigDecimal("70.00"));
+            assertThat(t.fullyPaid()).isFalse();
+            assertThat(t.displayStatus()).isEqualTo("SETTLED");
+            assertThat(t.mySettlement().remaining()).isEqualTo(new BigDecimal("25.00"));
+
+            assertThat(out.position().owedToYou()).isEqualTo(new BigDecimal("30.00"));
+            assertThat(out.position().youOwe()).isEqualTo(new BigDecimal("25.00"));
+            assertThat(out.position().net()).isEqualTo(new BigDecimal("5.00"));
+        }
+
+        @Test
+        @DisplayName("SETTLED และจ่ายครบ → displayStatus COMPLETE")
+        void complete() {
+            Expense e = expense(100L, 2L, ExpenseStatus.SETTLED);
+            when(expenses.findByGroup_Id(10L)).thenReturn(List.of(e));
+            when(items.findByGroupId(10L)).thenReturn(List.of(item(e, "20.00", "THB")));
+            when(shares.sumShareValueByGroup(10L)).thenReturn(List.of(
+                    new Row(100L, 1L, new BigDecimal("10.000000")),
+                    new Row(100L, 2L, new BigDecimal("10.000000"))));
+            when(payments.sumVerifiedByGroup(10L)).thenReturn(List.of(new Row(100L, 1L, new BigDecimal("10.00"))));
+
+            var line = service.dashboard(10L, 1L).expenses().get(0);
+
+            assertThat(line.fullyPaid()).isTrue();
+            assertThat(line.displayStatus()).isEqualTo("COMPLETE");
+            assertThat(line.mySettlement().settled()).isTrue();
+        }
+
+        @Test
+        @DisplayName("group ไม่พบ → 404")
+        void groupNotFound() {
+            when(groups.findById(10L)).thenReturn(Optional.empty());
+            when(expenses.findByGroup_Id(10L)).thenReturn(List.of());
+            when(items.findByGroupId(10L)).thenReturn(List.of());
+            when(shares.sumShareValueByGroup(10L)).thenReturn(List.of());
+            when(payments.sumVerifiedByGroup(10L)).thenReturn(List.of());
+
+            assertThatThrownBy(() -> service.dashboard(10L, 1L))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+                    .isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        @Test
+        @DisplayName("query ล้ม → exception เดิมถูกโยนออกมา (ไม่ห่อ CompletionException)")
+        void propagatesFailure() {
+            when(members.findUsersByGroupId(10L)).thenThrow(new IllegalStateException("db down"));
+            when(expenses.findByGroup_Id(10L)).thenReturn(List.of());
+            when(items.findByGroupId(10L)).thenReturn(List.of());
+            when(shares.sumShareValueByGroup(10L)).thenReturn(List.of());
+            when(payments.sumVerifiedByGroup(10L)).thenReturn(List.of());
+
+            assertThatThrownBy(() -> service.dashboard(10L, 1L))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("db down");
+        }
+    }
+
+    @Nested
+    @DisplayName("revision")
+    class Revision {
+
+        @Test
+        @DisplayName("revision ของ group + สถานะ expenses ของ group โดยไม่โหลดข้อมูล dashboard")
+        void combinesGroupAndExpenseStamp() {
+            when(groups.findRevisionById(10L)).thenReturn(3L);
+            when(expenses.findRevisionStampByGroup(10L)).thenReturn("2.101.7");
+
+            assertThat(service.revision(10L)).isEqualTo("3-2.101.7");
+            verify(expenses, never()).findByGroup_Id(anyLong());
+            verifyNoInteractions(items, shares, payments, members);
+        }
+
+        @Test
+        @DisplayName("group ไม่พบ → null")
+        void groupNotFound() {
+            when(groups.findRevisionById(10L)).thenReturn(null);
+
+            assertThat(service.revision(10L)).isNull();
+            verify(expenses, never()).findRevisionStampByGroup(anyLong());
+        }
+    }
+}
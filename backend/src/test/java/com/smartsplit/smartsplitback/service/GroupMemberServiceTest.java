@@ -22,6 +22,8 @@ class GroupMemberServiceTest {
 
     @Mock private GroupMemberRepository repo;
     @Mock private GroupRepository groupRepo;
+    @Mock private DomainEventPublisher events;
+    @Mock private CacheInvalidationService cacheInvalidations;
 
     @InjectMocks private GroupMemberService service;
 
@@ -126,6 +128,9 @@ class GroupMemberServiceTest {
 
             assertThat(saved).isSameAs(gm);
             verify(repo).save(gm);
+            verify(groupRepo).bumpRevision(7L);
+            verify(events).membershipChanged(7L, 3L, true);
+            verify(cacheInvalidations).membershipChanged(7L, 3L);
         }
     }
 
@@ -144,6 +149,9 @@ class GroupMemberServiceTest {
 
             verify(groupRepo).findById(gid);
             verify(repo).deleteById(new GroupMemberId(gid, uid));
+            verify(groupRepo).bumpRevision(gid);
+            verify(events).membershipChanged(gid, uid, false);
+            verify(cacheInvalidations).membershipChanged(gid, uid);
         }
 
         @Test
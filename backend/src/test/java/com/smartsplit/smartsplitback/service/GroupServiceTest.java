@@ -11,11 +11,13 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class GroupServiceTest {
 
     @Mock private GroupRepository repo;
+    @Mock private CacheInvalidationService cacheInvalidations;
     @InjectMocks private GroupService service;
 
     @BeforeEach
@@ -174,6 +176,34 @@ class GroupServiceTest {
             assertThat(saved).isSameAs(toSave);
             // ถ้ามี getId() ก็จะเป็น 777L — ไม่ assert ก็ได้เพื่อหลีกเลี่ยงผูกกับโมเดล
             verify(repo).save(toSave);
+            verify(repo, never()).bumpRevision(anyLong());
+            // group ใหม่ยังไม่มี cache ให้ล้าง
+            verifyNoInteractions(cacheInvalidations);
+        }
+
+        @Test
+        @DisplayName("แก้ group เดิม owner เดิม → เพิ่ม revision, ล้างเฉพาะ entity ของ group")
+        void update_bumpsRevision() {
+            Group existing = group(5L, user(10L, "o@x"));
+            when(repo.findPersistedOwnerIdById(5L)).thenReturn(10L);
+            when(repo.save(existing)).thenReturn(existing);
+
+            service.save(existing);
+
+            verify(repo).bumpRevision(5L);
+            verify(cacheInvalidations).groupChanged(5L, false);
+        }
+
+        @Test
+        @DisplayName("เปลี่ยน owner → ล้าง query owner ด้วย")
+        void update_ownerChanged() {
+            Group existing = group(5L, user(11L, "n@x"));
+            when(repo.findPersistedOwnerIdById(5L)).thenReturn(10L);
+            when(repo.save(existing)).thenReturn(existing);
+
+            service.save(existing);
+
+            verify(cacheInvalidations).groupChanged(5L, true);
         }
     }
 
@@ -185,6 +215,7 @@ class GroupServiceTest {
         void delete_ok() {
             service.delete(888L);
             verify(repo).deleteById(888L);
+            verify(cacheInvalidations).groupDeleted(888L);
         }
     }
 }
@@ -0,0 +1,227 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.IdempotencyRecord;
+import com.smartsplit.smartsplitback.model.dto.GroupDto;
+import com.smartsplit.smartsplitback.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private static final String EP = "POST /api/expenses";
+
+    @Mock private IdempotencyRecordRepository records;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private IdempotencyService service;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // รอสูงสุด 300ms, poll ทุก 10ms, lease 1 นาที
+        service = new IdempotencyService(records, objectMapper, 24, 300, 10, 60_000);
+    }
+
+    private GroupDto action() {
+        runs.incrementAndGet();
+        return new GroupDto(1L, 2L, "Trip", null, 3L);
+    }
+
+    private static IdempotencyRecord record(long id, String hash, IdempotencyRecord.Status status, String body) {
+        IdempotencyRecord r = new IdempotencyRecord(9L, "k", EP, hash, Instant.now().plusSeconds(3600));
+        r.setId(id);
+        r.setStatus(status);
+        r.setResponseBody(body);
+        return r;
+    }
+
+    @Test
+    @DisplayName("ไม่มี key → ทำงานตรง ๆ ไม่แตะตาราง")
+    void noKey() {
+        var out = service.execute(null, 9L, EP, "h", GroupDto.class, this::action);
+
+        assertThat(out.replayed()).isFalse();
+        assertThat(runs).hasValue(1);
+        verifyNoInteractions(records);
+    }
+
+    @Test
+    @DisplayName("key ใหม่ → จองแถว ทำงาน แล้วเก็บ response เป็น JSON")
+    void firstExecution() throws Exception {
+        when(records.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            r.setId(5L);
+            return r;
+        });
+
+        var out = service.execute("k", 9L, EP, "h", GroupDto.class, this::action);
+
+        assertThat(out.replayed()).isFalse();
+        assertThat(out.body().name()).isEqualTo("Trip");
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(records).complete(eq(5L), body.capture());
+        assertThat(objectMapper.readValue(body.getValue(), GroupDto.class)).isEqualTo(out.body());
+    }
+
+    @Test
+    @DisplayName("key ซ้ำที่เสร็จแล้ว + request เดิม → ตอบผลเดิมโดยไม่ทำงานซ้ำ")
+    void replay() throws Exception {
+        when(records.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        String stored = objectMapper.writeValueAsString(new GroupDto(1L, 2L, "Stored", null, 3L));
+        when(records.findByUserIdAndIdemKey(9L, "k"))
+                .thenReturn(Optional.of(record(5L, "h", IdempotencyRecord.Status.COMPLETED, stored)));
+
+        var out = service.execute("k", 9L, EP, "h", GroupDto.class, this::action);
+
+        assertThat(out.replayed()).isTrue();
+        assertThat(out.body().name()).isEqualTo("Stored");
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("key ซ้ำแต่ request ต่าง → 422")
+    void differentRequest() {
+        when(records.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        when(records.findByUserIdAndIdemKey(9L, "k"))
+                .thenReturn(Optional.of(record(5L, "other", IdempotencyRecord.Status.COMPLETED, "{}")));
+
+        assertThatThrownBy(() -> service.execute("k", 9L, EP, "h", GroupDto.class, this::action))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("คนแรกยังทำอยู่ → รอจนเสร็จแล้วได้ผลเดียวกัน")
+    void waitsForInFlight() throws Exception {
+        when(records.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        String stored = objectMapper.writeValueAsString(new GroupDto(1L, 2L, "Done", null, 3L));
+        when(records.findByUserIdAndIdemKey(9L, "k"))
+                .thenReturn(Optional.of(record(5L, "h", IdempotencyRecord.Status.IN_PROGRESS, null)))
+                .thenReturn(Optional.of(record(5L, "h", IdempotencyRecord.Status.IN_PROGRESS, null)))
+                .thenReturn(Optional.of(record(5L, "h", IdempotencyRecord.Status.COMPLETED, stored)));
+
+        var out = service.execute("k", 9L, EP, "h", GroupDto.class, this::action);
+
+        assertThat(out.replayed()).isTrue();
+        assertThat(out.body().name()).isEqualTo("Done");
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("คนแรกทำนานเกินเวลารอ → 409")
+    void waitTimeout() {
+        when(records.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        when(records.findByUserIdAndIdemKey(9L, "k"))
+                .thenReturn(Optional.of(record(5L, "h", IdempotencyRecord.Status.IN_PROGRESS, null)));
+
+        assertThatThrownBy(() -> service.execute("k", 9L, EP, "h", GroupDto.class, this::action))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    @DisplayName("IN_PROGRESS ที่ lease หมด (ผู้ทำหยุดต่ออายุ) → รับช่วงแล้วทำงานเอง")
+    void takeOverExpiredLease() {
+        when(records.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        IdempotencyRecord stale = record(5L, "h", IdempotencyRecord.Status.IN_PROGRESS, null);
+        stale.setCreatedAt(Instant.now().minusSeconds(120));
+        stale.setLockedUntil(Instant.now().minusSeconds(60));
+        when(records.findByUserIdAndIdemKey(9L, "k")).thenReturn(Optional.of(stale));
+        when(records.takeOver(eq(5L), eq(stale.getLockedUntil()), any())).thenReturn(1);
+
+        var out = service.execute("k", 9L, EP, "h", GroupDto.class, this::action);
+
+        assertThat(out.replayed()).isFalse();
+        assertThat(runs).hasValue(1);
+        verify(records).complete(eq(5L), anyString());
+    }
+
+    @Test
+    @DisplayName("คนแรกทำมานานแต่ lease ยังถูกต่ออายุ → ไม่รับช่วง (ไม่ทำซ้ำ), ได้ 409")
+    void longRunningOwnerKeepsKey() {
+        when(records.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("dup"));
+        IdempotencyRecord busy = record(5L, "h", IdempotencyRecord.Status.IN_PROGRESS, null);
+        busy.setCreatedAt(Instant.now().minusSeconds(600));
+        busy.setLockedUntil(Instant.now().plusSeconds(50));
+        when(records.findByUserIdAndIdemKey(9L, "k")).thenReturn(Optional.of(busy));
+
+        assertThatThrownBy(() -> service.execute("k", 9L, EP, "h", GroupDto.class, this::action))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(records, never()).takeOver(any(), any(), any());
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("heartbeat ต่อ lease ของ key ที่กำลังทำอยู่เท่านั้น; จองใหม่ได้ lease ทันที")
+    void heartbeatRenewsInFlight() {
+        when(records.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            assertThat(r.getLockedUntil()).isAfter(Instant.now().plusSeconds(30));
+            r.setId(5L);
+            return r;
+        });
+
+        service.execute("k", 9L, EP, "h", GroupDto.class, () -> {
+            service.heartbeat();
+            return action();
+        });
+        verify(records).renew(eq(List.of(5L)), any());
+
+        clearInvocations(records);
+        service.heartbeat();
+        verify(records, never()).renew(any(), any());
+    }
+
+    @Test
+    @DisplayName("งานจริงล้มเหลว → ลบแถวที่จองทิ้ง (ส่งใหม่ด้วย key เดิมได้) แล้วโยน exception เดิม")
+    void failureReleasesKey() {
+        when(records.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            r.setId(5L);
+            return r;
+        });
+        var boom = new ResponseStatusException(HttpStatus.NOT_FOUND, "Expense not found");
+
+        assertThatThrownBy(() -> service.execute("k", 9L, EP, "h", GroupDto.class, () -> { throw boom; }))
+                .isSameAs(boom);
+        verify(records).deleteOne(5L);
+        verify(records, never()).complete(any(), any());
+    }
+
+    @Test
+    @DisplayName("key ยาวเกิน 100 ตัว → 400")
+    void keyTooLong() {
+        assertThatThrownBy(() -> service.execute("x".repeat(101), 9L, EP, "h", GroupDto.class, this::action))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    @DisplayName("fingerprint: ไฟล์เนื้อหาต่างกัน → hash ต่างกัน, เหมือนกัน → hash เดียวกัน")
+    void fingerprintUsesFileContent() {
+        var a = new MockMultipartFile("receipt", "slip.png", "image/png", new byte[]{1, 2, 3});
+        var b = new MockMultipartFile("receipt", "slip.png", "image/png", new byte[]{1, 2, 4});
+        var a2 = new MockMultipartFile("receipt", "slip.png", "image/png", new byte[]{1, 2, 3});
+
+        assertThat(IdempotencyService.fingerprint(55L, a)).isEqualTo(IdempotencyService.fingerprint(55L, a2));
+        assertThat(IdempotencyService.fingerprint(55L, a)).isNotEqualTo(IdempotencyService.fingerprint(55L, b));
+        assertThat(IdempotencyService.fingerprint("ab", "c")).isNotEqualTo(IdempotencyService.fingerprint("a", "bc"));
+    }
+}
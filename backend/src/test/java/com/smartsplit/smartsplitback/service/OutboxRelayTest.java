@@ -0,0 +1,206 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartsplit.smartsplitback.model.OutboxEvent;
+import com.smartsplit.smartsplitback.model.OutboxStatus;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.MembershipChanged;
+import com.smartsplit.smartsplitback.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock private OutboxEventRepository outbox;
+    @Mock private ApplicationEventPublisher listeners;
+    @Mock private PlatformTransactionManager txm;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meters;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(txm.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meters = new SimpleMeterRegistry();
+        relay = new OutboxRelay(outbox, listeners, objectMapper, txm, meters, 10, 30_000, 3, 24);
+    }
+
+    private OutboxEvent row(long id, Object event, String type, String aggregateType, long aggregateId) throws Exception {
+        OutboxEvent e = new OutboxEvent(aggregateType, aggregateId, type, objectMapper.writeValueAsString(event));
+        e.setId(id);
+        e.setCreatedAt(Instant.now().minusMillis(50));
+        return e;
+    }
+
+    private OutboxEvent expenseRow(long id, long expenseId) throws Exception {
+        return row(id, new ExpenseChanged(expenseId, ExpenseChanged.Change.ITEMS, Set.of(1L)),
+                "ExpenseChanged", "EXPENSE", expenseId);
+    }
+
+    private void claim(OutboxEvent... rows) {
+        List<Long> ids = Arrays.stream(rows).map(OutboxEvent::getId).toList();
+        when(outbox.claimable(any(), eq(10))).thenReturn(ids);
+        when(outbox.findByIdInOrderByIdAsc(ids)).thenReturn(List.of(rows));
+    }
+
+    @Test
+    @DisplayName("claim แล้วตั้ง lease ก่อน commit จากนั้นส่งตามลำดับ id และ mark DONE")
+    void dispatchInOrder() throws Exception {
+        claim(expenseRow(1, 10), row(2, new MembershipChanged(5L, 9L, true), "MembershipChanged", "GROUP", 5));
+
+        var round = relay.relayBatch();
+
+        assertThat(round).isEqualTo(new OutboxRelay.Round(2, 2));
+        verify(outbox).leaseTo(eq(List.of(1L, 2L)), anyString(), any());
+        InOrder order = inOrder(listeners, outbox);
+        order.verify(listeners).publishEvent(new ExpenseChanged(10L, ExpenseChanged.Change.ITEMS, Set.of(1L)));
+        order.verify(outbox).markDone(eq(1L), any());
+        order.verify(listeners).publishEvent(new MembershipChanged(5L, 9L, true));
+        order.verify(outbox).markDone(eq(2L), any());
+        assertThat(meters.get("outbox.dispatch.lag").tag("type", "ExpenseChanged").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ไม่มีอะไรให้ claim → ไม่ตั้ง lease / ไม่ส่ง")
+    void nothingToClaim() {
+        when(outbox.claimable(any(), anyInt())).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isEqualTo(OutboxRelay.Round.EMPTY);
+
+        verify(outbox, never()).leaseTo(any(), any(), any());
+        verifyNoInteractions(listeners);
+    }
+
+    @Test
+    @DisplayName("listener ล้มเหลว → retry แบบ backoff และ event ถัดไปของ aggregate เดียวกันต้องรอ (aggregate อื่นไปต่อ)")
+    void failureBlocksSameAggregateOnly() throws Exception {
+        OutboxEvent first = expenseRow(1, 10);
+        OutboxEvent sameAggregate = expenseRow(2, 10);
+        OutboxEvent otherAggregate = expenseRow(3, 11);
+        claim(first, sameAggregate, otherAggregate);
+        doThrow(new IllegalStateException("boom"))
+                .when(listeners).publishEvent(new ExpenseChanged(10L, ExpenseChanged.Change.ITEMS, Set.of(1L)));
+
+        Instant before = Instant.now();
+        relay.relayBatch();
+
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        verify(outbox).markFailed(eq(1L), eq(OutboxStatus.PENDING), eq(1), next.capture(),
+                contains("boom"), isNull());
+        assertThat(next.getValue()).isAfterOrEqualTo(before.plusSeconds(1));
+        verify(outbox, never()).markDone(eq(1L), any());
+
+        verify(outbox).release(2L);
+        verify(outbox, never()).markDone(eq(2L), any());
+
+        verify(listeners).publishEvent(new ExpenseChanged(11L, ExpenseChanged.Change.ITEMS, Set.of(1L)));
+        verify(outbox).markDone(eq(3L), any());
+        assertThat(meters.get("outbox.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("มี event ก่อนหน้าของ aggregate เดียวกันค้าง (replica อื่นถือ/รอ retry) → ปล่อย lease ไม่ส่ง")
+    void earlierPendingWaits() throws Exception {
+        claim(expenseRow(5, 10));
+        when(outbox.existsEarlierPending("EXPENSE", 10L, 5L)).thenReturn(true);
+
+        relay.relayBatch();
+
+        verifyNoInteractions(listeners);
+        verify(outbox).release(5L);
+        verify(outbox, never()).markDone(any(), any());
+    }
+
+    @Test
+    @DisplayName("ล้มเหลวครบ max-attempts → DEAD")
+    void deadAfterMaxAttempts() throws Exception {
+        OutboxEvent e = expenseRow(1, 10);
+        e.setAttempts(2);
+        claim(e);
+        doThrow(new IllegalStateException("boom")).when(listeners).publishEvent(any(Object.class));
+
+        relay.relayBatch();
+
+        verify(outbox).markFailed(eq(1L), eq(OutboxStatus.DEAD), eq(3), isNull(), anyString(), notNull());
+        assertThat(meters.get("outbox.dead").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("event_type ที่ไม่รู้จัก → นับเป็นความล้มเหลว ไม่ทำให้ batch พัง")
+    void unknownTypeFails() throws Exception {
+        OutboxEvent e = row(1, new MembershipChanged(5L, 9L, true), "Nope", "GROUP", 5);
+        claim(e);
+
+        relay.relayBatch();
+
+        verify(outbox).markFailed(eq(1L), eq(OutboxStatus.PENDING), eq(1), any(), anyString(), isNull());
+        verifyNoInteractions(listeners);
+    }
+
+    @Test
+    @DisplayName("backoff: 1s, 2s, 4s ... สูงสุด 5 นาที")
+    void backoff() {
+        assertThat(OutboxRelay.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(OutboxRelay.backoff(3)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(OutboxRelay.backoff(20)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(OutboxRelay.backoff(100)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("claim ได้เต็ม batch แต่ส่งไม่ได้สักตัว (ติด event ก่อนหน้า) → poll หยุด ไม่วนรอบถัดไปทันที")
+    void pollStopsWhenNothingDispatched() throws Exception {
+        OutboxEvent[] rows = new OutboxEvent[10];
+        for (int i = 0; i < rows.length; i++) rows[i] = expenseRow(100 + i, 10);
+        claim(rows);
+        when(outbox.existsEarlierPending(eq("EXPENSE"), eq(10L), anyLong())).thenReturn(true);
+
+        relay.poll();
+
+        verify(outbox, times(1)).claimable(any(), eq(10));
+        verifyNoInteractions(listeners);
+    }
+
+    @Test
+    @DisplayName("claim ได้เต็ม batch และส่งได้ → วนรอบถัดไปทันทีจน claim ไม่เต็ม")
+    void pollLoopsWhileFullAndDispatching() throws Exception {
+        OutboxEvent[] full = new OutboxEvent[10];
+        for (int i = 0; i < full.length; i++) full[i] = expenseRow(i + 1, 20 + i);
+        List<Long> ids = Arrays.stream(full).map(OutboxEvent::getId).toList();
+        when(outbox.claimable(any(), eq(10))).thenReturn(ids, List.of());
+        when(outbox.findByIdInOrderByIdAsc(ids)).thenReturn(List.of(full));
+
+        relay.poll();
+
+        verify(outbox, times(2)).claimable(any(), eq(10));
+        verify(outbox, times(10)).markDone(any(), any());
+    }
+
+    @Test
+    @DisplayName("poll อัปเดต gauge จำนวนค้างและ lag")
+    void pollRefreshesGauges() {
+        when(outbox.claimable(any(), anyInt())).thenReturn(List.of());
+        when(outbox.countByStatus(OutboxStatus.PENDING)).thenReturn(7L);
+        when(outbox.findOldestPendingCreatedAt()).thenReturn(Instant.now().minusSeconds(30));
+
+        relay.poll();
+
+        assertThat(meters.get("outbox.pending").gauge().value()).isEqualTo(7.0);
+        assertThat(meters.get("outbox.lag").gauge().value()).isBetween(29.0, 60.0);
+    }
+}
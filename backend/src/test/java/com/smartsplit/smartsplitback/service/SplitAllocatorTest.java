@@ -0,0 +1,90 @@
+package com.smartsplit.smartsplitback.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SplitAllocatorTest {
+
+    private static List<BigDecimal> ones(int n) {
+        List<BigDecimal> w = new ArrayList<>();
+        for (int i = 0; i < n; i++) w.add(BigDecimal.ONE);
+        return w;
+    }
+
+    @Test
+    @DisplayName("100.00 แบ่ง 3 คน → 33.34 / 33.33 / 33.33 (เศษไปคนแรก)")
+    void equal_threeWays() {
+        long[] parts = SplitAllocator.allocate(10000, ones(3));
+        assertThat(parts).containsExactly(3334, 3333, 3333);
+    }
+
+    @Test
+    @DisplayName("แบ่งตามเปอร์เซ็นต์ → เศษไปส่วนที่มี remainder มากที่สุด")
+    void percentage_largestRemainder() {
+        // 1.00 ตาม 33.5/33.5/33 → 33.5/33.5/33 สตางค์ → 34/33/33 (เศษ .5 เท่ากัน ให้ลำดับแรก)
+        long[] parts = SplitAllocator.allocate(100, List.of(
+                new BigDecimal("33.5"), new BigDecimal("33.5"), new BigDecimal("33")));
+        assertThat(parts).containsExactly(34, 33, 33);
+
+        // 0.10 ตาม 10/20/70 → 1/2/7 ลงตัวพอดี
+        assertThat(SplitAllocator.allocate(10, List.of(
+                new BigDecimal("10"), new BigDecimal("20"), new BigDecimal("70"))))
+                .containsExactly(1, 2, 7);
+    }
+
+    @Test
+    @DisplayName("ยอดติดลบ → แบ่งแบบสมมาตร")
+    void negativeTotal() {
+        assertThat(SplitAllocator.allocate(-100, ones(3))).containsExactly(-34, -33, -33);
+    }
+
+    @Test
+    @DisplayName("BigDecimal overload คืนค่า scale ตามที่ขอ")
+    void bigDecimalOverload() {
+        BigDecimal[] parts = SplitAllocator.allocate(new BigDecimal("10"), 6, ones(3));
+        assertThat(parts).containsExactly(
+                new BigDecimal("3.333334"), new BigDecimal("3.333333"), new BigDecimal("3.333333"));
+    }
+
+    @Test
+    @DisplayName("น้ำหนักศูนย์ทั้งหมด/ว่าง/ติดลบ → IllegalArgumentException")
+    void invalidWeights() {
+        assertThatThrownBy(() -> SplitAllocator.allocate(100, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitAllocator.allocate(100, List.of(BigDecimal.ZERO, BigDecimal.ZERO)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitAllocator.allocate(100, List.of(BigDecimal.ONE, new BigDecimal("-1"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("สุ่มหลายรอบ: ผลรวมเท่ากับ total และแต่ละส่วนห่างจากค่าจริงไม่เกิน 1 หน่วย")
+    void randomized_sumPreserved() {
+        Random rnd = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            int n = 1 + rnd.nextInt(12);
+            long total = rnd.nextInt(1_000_000);
+            List<BigDecimal> w = new ArrayList<>();
+            for (int i = 0; i < n; i++) w.add(BigDecimal.valueOf(1 + rnd.nextInt(1000), rnd.nextInt(3)));
+
+            long[] parts = SplitAllocator.allocate(total, w);
+            assertThat(LongStream.of(parts).sum()).isEqualTo(total);
+
+            BigDecimal sumW = w.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            for (int i = 0; i < n; i++) {
+                BigDecimal exact = BigDecimal.valueOf(total).multiply(w.get(i))
+                        .divide(sumW, 10, java.math.RoundingMode.HALF_UP);
+                assertThat(exact.subtract(BigDecimal.valueOf(parts[i])).abs())
+                        .isLessThanOrEqualTo(BigDecimal.ONE);
+            }
+        }
+    }
+}
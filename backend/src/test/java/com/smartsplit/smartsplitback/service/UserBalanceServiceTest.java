@@ -4,6 +4,8 @@ import com.smartsplit.smartsplitback.model.dto.BalanceLineDto;
 import com.smartsplit.smartsplitback.model.dto.BalanceSummaryDto;
 import com.smartsplit.smartsplitback.repository.BalanceQueryRepository;
 import com.smartsplit.smartsplitback.repository.BalanceRowProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
@@ -18,6 +20,9 @@ class UserBalanceServiceTest {
     @Mock
     private BalanceQueryRepository repo;
 
+    @Spy
+    private MeterRegistry meters = new SimpleMeterRegistry();
+
     @InjectMocks
     private UserBalanceService service;
 
@@ -0,0 +1,84 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.PaymentStatus;
+import com.smartsplit.smartsplitback.model.UserEvent;
+import com.smartsplit.smartsplitback.model.UserEventType;
+import com.smartsplit.smartsplitback.model.event.ExpenseChanged;
+import com.smartsplit.smartsplitback.model.event.PaymentStatusChanged;
+import com.smartsplit.smartsplitback.repository.UserEventRepository;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserEventServiceTest {
+
+    @Mock private UserEventRepository events;
+
+    @InjectMocks private UserEventService service;
+
+    @Captor private ArgumentCaptor<List<UserEvent>> rows;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @DisplayName("ExpenseChanged → 1 แถวต่อผู้เกี่ยวข้อง ด้วย type ที่ตรงกัน")
+    void expenseChanged() {
+        service.on(new ExpenseChanged(10L, ExpenseChanged.Change.PAYMENT_CREATED, Set.of(3L, 1L, 2L)));
+
+        verify(events).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(UserEvent::getUserId).containsExactly(1L, 2L, 3L);
+        assertThat(rows.getValue()).allSatisfy(e -> {
+            assertThat(e.getExpenseId()).isEqualTo(10L);
+            assertThat(e.getType()).isEqualTo(UserEventType.PAYMENT_CREATED);
+            assertThat(e.getCreatedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    @DisplayName("DETAILS → EXPENSE_UPDATED")
+    void detailsMapsToExpenseUpdated() {
+        service.on(new ExpenseChanged(10L, ExpenseChanged.Change.DETAILS, Set.of(1L)));
+
+        verify(events).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(UserEvent::getType).containsExactly(UserEventType.EXPENSE_UPDATED);
+    }
+
+    @Test
+    @DisplayName("CREATED / DELETED → EXPENSE_CREATED / EXPENSE_DELETED")
+    void createdAndDeletedMapToExpenseEvents() {
+        service.on(new ExpenseChanged(10L, ExpenseChanged.Change.CREATED, Set.of(1L)));
+        service.on(new ExpenseChanged(10L, ExpenseChanged.Change.DELETED, Set.of(1L)));
+
+        verify(events, times(2)).saveAll(rows.capture());
+        assertThat(rows.getAllValues()).flatExtracting(r -> r.stream().map(UserEvent::getType).toList())
+                .containsExactly(UserEventType.EXPENSE_CREATED, UserEventType.EXPENSE_DELETED);
+    }
+
+    @Test
+    @DisplayName("PaymentStatusChanged → PAYMENT_STATUS_CHANGED")
+    void paymentStatusChanged() {
+        service.on(new PaymentStatusChanged(10L, 100L, 2L, PaymentStatus.PENDING, PaymentStatus.VERIFIED, Set.of(1L, 2L)));
+
+        verify(events).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(UserEvent::getUserId).containsExactly(1L, 2L);
+        assertThat(rows.getValue()).extracting(UserEvent::getType)
+                .containsOnly(UserEventType.PAYMENT_STATUS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("ไม่มีผู้เกี่ยวข้อง → ไม่เขียนอะไร")
+    void noRecipients() {
+        service.on(new ExpenseChanged(10L, ExpenseChanged.Change.SHARES, Set.of()));
+
+        verify(events, never()).saveAll(anyList());
+    }
+}
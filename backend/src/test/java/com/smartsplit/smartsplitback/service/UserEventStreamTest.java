@@ -0,0 +1,81 @@
+package com.smartsplit.smartsplitback.service;
+
+import com.smartsplit.smartsplitback.model.UserEvent;
+import com.smartsplit.smartsplitback.model.UserEventType;
+import com.smartsplit.smartsplitback.model.dto.ExpenseSettlementDto;
+import com.smartsplit.smartsplitback.repository.UserEventRepository;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserEventStreamTest {
+
+    @Mock private UserEventRepository events;
+    @Mock private ExpenseSettlementService settlements;
+
+    private UserEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        stream = new UserEventStream(events, settlements, 60_000L, 2, 500, 10_000L, 60L);
+    }
+
+    private static UserEvent event(long id, long userId, long expenseId) {
+        UserEvent e = new UserEvent(userId, UserEventType.PAYMENT_STATUS_CHANGED, expenseId);
+        e.setId(id);
+        return e;
+    }
+
+    @Test
+    @DisplayName("ไม่มี connection → ไม่ query DB เลย")
+    void idleDoesNotQuery() {
+        stream.poll();
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    @DisplayName("poll แรกหลังมี connection แค่จำตำแหน่ง, poll ถัดไปส่ง event + settlement และไม่ส่งซ้ำ")
+    void pollDispatchesOnce() {
+        stream.subscribe(7L);
+        when(events.findMaxId()).thenReturn(100L, 101L, 101L);
+        when(settlements.userSettlement(55L, 7L)).thenReturn(
+                new ExpenseSettlementDto(55L, 7L, new BigDecimal("10.00"), new BigDecimal("10.00"), true, BigDecimal.ZERO.setScale(2)));
+        when(events.findPending(anyCollection(), anyLong(), any(), any(Pageable.class)))
+                .thenReturn(List.of(event(101L, 7L, 55L)));
+
+        stream.poll(); // init cursor
+        verify(events, never()).findPending(anyCollection(), anyLong(), any(), any(Pageable.class));
+
+        stream.poll();
+        stream.poll(); // แถวเดิมโผล่ซ้ำจาก lookback → ไม่ส่งอีก
+
+        verify(events).findPending(eq(java.util.Set.of(7L)), eq(100L), any(), any(Pageable.class));
+        verify(events).findPending(eq(java.util.Set.of(7L)), eq(101L), any(), any(Pageable.class));
+        verify(settlements, times(1)).userSettlement(55L, 7L);
+    }
+
+    @Test
+    @DisplayName("เปิดเกินจำนวนต่อ user → ปิดอันเก่าสุด")
+    void capsConnectionsPerUser() {
+        stream.subscribe(7L);
+        stream.subscribe(7L);
+        stream.subscribe(7L);
+
+        assertThat(stream.connectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("cleanup ลบ event ที่เก่ากว่า retention")
+    void cleanup() {
+        stream.cleanup();
+        verify(events).deleteOlderThan(any());
+    }
+}
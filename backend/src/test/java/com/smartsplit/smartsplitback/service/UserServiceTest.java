@@ -3,6 +3,7 @@ package com.smartsplit.smartsplitback.service;
 import com.smartsplit.smartsplitback.model.Role;
 import com.smartsplit.smartsplitback.model.User;
 import com.smartsplit.smartsplitback.model.dto.UserPublicDto;
+import com.smartsplit.smartsplitback.repository.GroupRepository;
 import com.smartsplit.smartsplitback.repository.UserRepository;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
@@ -19,6 +20,8 @@ class UserServiceTest {
 
     @Mock private UserRepository repo;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private CacheInvalidationService cacheInvalidations;
+    @Mock private GroupRepository groups;
     @InjectMocks private UserService service;
 
     @BeforeEach
@@ -137,6 +140,8 @@ class UserServiceTest {
             assertThat(out).isSameAs(existing);
             assertThat(out.getRole()).isEqualTo(Role.ADMIN);
             verify(repo).save(existing);
+            verify(groups).bumpRevisionByMember(22L);
+            verify(cacheInvalidations).userChanged(22L);
             verifyNoMoreInteractions(repo);
         }
     }
@@ -146,7 +151,9 @@ class UserServiceTest {
         @Test @DisplayName("เรียก repo.deleteById ด้วย id ที่ถูกต้อง")
         void delete_ok() {
             service.delete(333L);
+            verify(groups).bumpRevisionByMember(333L);
             verify(repo).deleteById(333L);
+            verify(cacheInvalidations).userDeleted(333L);
             verifyNoMoreInteractions(repo);
         }
     }
@@ -0,0 +1,99 @@
+// เทียบผล JMH (JSON จาก -rf json) ระหว่าง baseline กับรอบปัจจุบัน แล้วแจ้ง regression ที่เกิน threshold
+//
+// สร้างผล (จาก backend/):
+//   mvn -Pbenchmarks test-compile exec:exec                           → target/jmh-result.json
+//   mvn -Pbenchmarks test-compile exec:exec -Djmh.result=/tmp/base.json -Djmh.includes=SettlementBenchmark
+//
+// รัน:
+//   node scripts/bench/jmh-compare.mjs <baseline.json> <current.json> [--threshold=10]
+//
+// - จับคู่ด้วยชื่อ benchmark + params (เช่น SettlementBenchmark.allSettlements participants=50 items=5)
+// - โหมดเวลา (avgt/sample/ss) ยิ่งน้อยยิ่งดี, thrpt ยิ่งมากยิ่งดี
+// - นับเป็น regression เมื่อแย่ลงเกิน threshold % และส่วนต่างเกิน scoreError ของสองฝั่งรวมกัน (ไม่ใช่ noise)
+// - exit code 1 ถ้ามี regression (ใช้ใน CI ได้), 2 ถ้าอ่านไฟล์ไม่ได้
+import { readFileSync } from 'node:fs';
+
+const args = process.argv.slice(2);
+const files = args.filter((a) => !a.startsWith('--'));
+const thresholdArg = args.find((a) => a.startsWith('--threshold='));
+const threshold = thresholdArg ? Number(thresholdArg.split('=')[1]) : 10;
+
+if (files.length !== 2 || Number.isNaN(threshold)) {
+  console.error('usage: node scripts/bench/jmh-compare.mjs <baseline.json> <current.json> [--threshold=10]');
+  process.exit(2);
+}
+
+function load(file) {
+  try {
+    const rows = JSON.parse(readFileSync(file, 'utf8'));
+    const byKey = new Map();
+    for (const r of rows) byKey.set(key(r), r);
+    return byKey;
+  } catch (e) {
+    console.error(`cannot read ${file}: ${e.message}`);
+    process.exit(2);
+  }
+}
+
+function key(r) {
+  const name = r.benchmark.replace(/^.*\.bench\./, '');
+  const params = Object.entries(r.params || {})
+    .map(([k, v]) => `${k}=${v}`)
+    .join(' ');
+  return params ? `${name} ${params}` : name;
+}
+
+const lowerIsBetter = (mode) => mode !== 'thrpt';
+const num = (v) => (Number.isFinite(v) ? v : 0);
+
+const baseline = load(files[0]);
+const current = load(files[1]);
+
+const rows = [];
+let regressions = 0;
+
+for (const [k, cur] of current) {
+  const base = baseline.get(k);
+  if (!base) {
+    rows.push({ k, status: 'NEW', cur });
+    continue;
+  }
+  const b = base.primaryMetric;
+  const c = cur.primaryMetric;
+  if (b.scoreUnit !== c.scoreUnit) {
+    rows.push({ k, status: 'UNIT?', base, cur });
+    continue;
+  }
+  // บวก = แย่ลง ไม่ว่าโหมดไหน
+  const worse = lowerIsBetter(cur.mode) ? c.score - b.score : b.score - c.score;
+  const pct = b.score === 0 ? 0 : (worse / b.score) * 100;
+  const noise = num(b.scoreError) + num(c.scoreError);
+
+  let status = 'ok';
+  if (pct > threshold && worse > noise) {
+    status = 'REGRESSION';
+    regressions++;
+  } else if (-pct > threshold && -worse > noise) {
+    status = 'improved';
+  }
+  rows.push({ k, status, base, cur, pct });
+}
+for (const k of baseline.keys()) {
+  if (!current.has(k)) rows.push({ k, status: 'MISSING' });
+}
+
+const fmt = (r) => (r ? `${r.primaryMetric.score.toFixed(3)} ± ${num(r.primaryMetric.scoreError).toFixed(3)} ${r.primaryMetric.scoreUnit}` : '-');
+const width = Math.max(...rows.map((r) => r.k.length), 9);
+
+console.log(`threshold: ${threshold}% (worse = slower for avgt/sample/ss, fewer ops for thrpt)\n`);
+console.log(`${'benchmark'.padEnd(width)}  ${'baseline'.padStart(28)}  ${'current'.padStart(28)}  ${'change'.padStart(8)}  status`);
+for (const r of rows.sort((a, b) => a.k.localeCompare(b.k))) {
+  const change = r.pct === undefined ? '' : `${r.pct >= 0 ? '+' : ''}${r.pct.toFixed(1)}%`;
+  console.log(`${r.k.padEnd(width)}  ${fmt(r.base).padStart(28)}  ${fmt(r.cur).padStart(28)}  ${change.padStart(8)}  ${r.status}`);
+}
+
+if (regressions > 0) {
+  console.log(`\n${regressions} regression(s) beyond ${threshold}%`);
+  process.exit(1);
+}
+console.log('\nno regressions');
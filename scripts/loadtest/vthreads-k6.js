@@ -0,0 +1,62 @@
+// k6 load test: เทียบ throughput ระหว่าง platform threads (prod) กับ virtual threads (prod,vthreads)
+//
+// รัน (ครั้งละโหมด, ที่ 2 replicas / limits 1 CPU 1Gi ตาม k8s/backend/backend-deployment.yaml):
+//   BASE_URL=http://localhost:16048 EMAIL=load@test.local PASSWORD=secret \
+//   GROUP_ID=1 EXPENSE_ID=1 k6 run --summary-export=result-<mode>.json scripts/loadtest/vthreads-k6.js
+//
+// ตัวเลขที่ใช้เทียบ: http_reqs (rate), http_req_duration p(95)/p(99), http_req_failed
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:16048';
+const GROUP_ID = __ENV.GROUP_ID || '1';
+const EXPENSE_ID = __ENV.EXPENSE_ID || '1';
+const VUS = Number(__ENV.VUS || 1000);
+// ใส่ PDF=1 เพื่อรวม export.pdf (CPU หนัก) ในชุดทดสอบ
+const WITH_PDF = __ENV.PDF === '1';
+
+export const options = {
+  scenarios: {
+    steady: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: __ENV.HOLD || '2m', target: VUS },
+        { duration: '15s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/api/auth/login`,
+    JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'login 200': (r) => r.status === 200 });
+  return { token: res.json('accessToken') };
+}
+
+export default function (data) {
+  const params = { headers: { Authorization: `Bearer ${data.token}` } };
+
+  const responses = http.batch([
+    ['GET', `${BASE_URL}/api/groups/${GROUP_ID}`, null, params],
+    ['GET', `${BASE_URL}/api/expenses/group/${GROUP_ID}`, null, params],
+    ['GET', `${BASE_URL}/api/expenses/${EXPENSE_ID}/settlement`, null, params],
+    ['GET', `${BASE_URL}/api/me/balances/summary`, null, params],
+  ]);
+  for (const r of responses) {
+    check(r, { 'status 200': (x) => x.status === 200 });
+  }
+
+  if (WITH_PDF) {
+    const pdf = http.get(`${BASE_URL}/api/expenses/${EXPENSE_ID}/export.pdf`, params);
+    check(pdf, { 'pdf 200': (x) => x.status === 200 });
+  }
+}